@@ -97,6 +97,96 @@ open class BoundingBox(val southwest: Point, val northeast: Point) {
     val north: Double
         get() = northeast.latitude
 
+    /**
+     * Whether this bounding box crosses the antimeridian. As specified by RFC 7946, such a box
+     * has a [west] value greater than its [east] value and spans from [west] to 180 and from -180
+     * to [east].
+     *
+     * @since 7.1.0
+     */
+    val crossesAntimeridian: Boolean
+        get() = west > east
+
+    /**
+     * Width of the longitude interval covered by this bounding box, in degrees.
+     */
+    private val longitudeSpan: Double
+        get() = if (crossesAntimeridian) east - west + 360 else east - west
+
+    /**
+     * Checks whether a point lies inside this bounding box or on its edges, taking into account
+     * boxes that cross the antimeridian.
+     *
+     * @param point the point to check
+     * @return true if the point is inside the bounding box
+     * @since 7.1.0
+     */
+    fun contains(point: Point): Boolean {
+        return point.latitude in south..north &&
+                longitudeOffset(west, point.longitude) <= longitudeSpan
+    }
+
+    /**
+     * Checks whether another bounding box lies entirely inside this bounding box, taking into
+     * account boxes that cross the antimeridian.
+     *
+     * @param other the bounding box to check
+     * @return true if [other] is inside this bounding box
+     * @since 7.1.0
+     */
+    fun contains(other: BoundingBox): Boolean {
+        if (other.south < south || other.north > north) {
+            return false
+        }
+        if (longitudeSpan >= 360) {
+            return true
+        }
+        return longitudeOffset(west, other.west) + other.longitudeSpan <= longitudeSpan
+    }
+
+    /**
+     * Checks whether this bounding box and another one have at least one point in common,
+     * taking into account boxes that cross the antimeridian.
+     *
+     * @param other the bounding box to check
+     * @return true if the bounding boxes intersect
+     * @since 7.1.0
+     */
+    fun intersects(other: BoundingBox): Boolean {
+        if (other.south > north || other.north < south) {
+            return false
+        }
+        return longitudeOffset(west, other.west) <= longitudeSpan ||
+                longitudeOffset(other.west, west) <= other.longitudeSpan
+    }
+
+    /**
+     * Returns the smallest bounding box that contains this bounding box and another one. The
+     * result crosses the antimeridian when that gives a narrower box.
+     *
+     * @param other the bounding box to include
+     * @return a new bounding box containing both boxes, without altitudes
+     * @since 7.1.0
+     */
+    fun union(other: BoundingBox): BoundingBox {
+        val south = minOf(south, other.south)
+        val north = maxOf(north, other.north)
+
+        // Extend eastwards from either west edge and keep the narrower of the two intervals
+        val fromThis = maxOf(longitudeSpan, longitudeOffset(west, other.west) + other.longitudeSpan)
+        val fromOther = maxOf(other.longitudeSpan, longitudeOffset(other.west, west) + longitudeSpan)
+        val west = if (fromThis <= fromOther) west else other.west
+        val span = minOf(fromThis, fromOther)
+        if (span >= 360) {
+            return BoundingBox(-180.0, south, 180.0, north)
+        }
+        var east = west + span
+        if (east > 180) {
+            east -= 360
+        }
+        return BoundingBox(west, south, east, north)
+    }
+
     override fun equals(other: Any?): Boolean {
         if (this === other) return true
         if (other == null || this::class != other::class) return false
@@ -131,5 +221,13 @@ open class BoundingBox(val southwest: Point, val northeast: Point) {
          */
         @JvmStatic
         fun fromJson(jsonString: String): BoundingBox = json.decodeFromString(jsonString)
+
+        /**
+         * Eastward distance in degrees from one longitude to another, between 0 and 360.
+         */
+        private fun longitudeOffset(from: Double, to: Double): Double {
+            val offset = (to - from) % 360
+            return if (offset < 0) offset + 360 else offset
+        }
     }
 }
@@ -0,0 +1,53 @@
+package com.trackasia.geojson.utils
+
+import com.trackasia.geojson.model.Point
+import kotlin.jvm.JvmStatic
+
+/**
+ * Helpers to convert between a [List] of [Point]s and a packed coordinate array.
+ *
+ * A packed coordinate array is a flat [DoubleArray] that stores the coordinates of a line in
+ * `[lon0, lat0, lon1, lat1, ...]` order. Batch algorithms work on this layout directly to avoid
+ * allocating a [Point] per vertex. Altitude values are not part of the packed representation.
+ *
+ * @since 7.1.0
+ */
+object PackedCoordinates {
+
+    /**
+     * Packs a list of points into a `[lon0, lat0, lon1, lat1, ...]` array.
+     *
+     * @param points list of [Point]s to pack
+     * @return a new array holding two values per point
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun pack(points: List<Point>): DoubleArray {
+        val packed = DoubleArray(points.size * 2)
+        for (i in points.indices) {
+            val point = points[i]
+            packed[i * 2] = point.longitude
+            packed[i * 2 + 1] = point.latitude
+        }
+        return packed
+    }
+
+    /**
+     * Unpacks a `[lon0, lat0, lon1, lat1, ...]` array into a list of points.
+     *
+     * @param coordinates packed coordinates, must have an even size
+     * @return a new list holding one [Point] per coordinate pair
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun unpack(coordinates: DoubleArray): List<Point> {
+        require(coordinates.size % 2 == 0) { "Packed coordinates must have an even size" }
+        val points = ArrayList<Point>(coordinates.size / 2)
+        var i = 0
+        while (i < coordinates.size) {
+            points.add(Point(coordinates[i], coordinates[i + 1]))
+            i += 2
+        }
+        return points
+    }
+}
@@ -1,6 +1,14 @@
 package com.trackasia.geojson.utils
 
+import com.trackasia.geojson.model.Feature
+import com.trackasia.geojson.model.FeatureCollection
+import com.trackasia.geojson.model.Geometry
+import com.trackasia.geojson.model.GeometryCollection
+import com.trackasia.geojson.model.LineString
+import com.trackasia.geojson.model.MultiLineString
+import com.trackasia.geojson.model.MultiPolygon
 import com.trackasia.geojson.model.Point
+import com.trackasia.geojson.model.Polygon
 import kotlin.math.pow
 import kotlin.math.roundToLong
 import kotlin.jvm.JvmOverloads
@@ -127,6 +135,7 @@ object PolylineUtils {
      * simplification
      * @return an array of simplified points
      * @see [JavaScript implementation](https://github.com/mourner/simplify-js/blob/master/simplify.js)
+     * @see SimplificationIndex to simplify the same line with many tolerances
      *
      * @since 1.2.0
      */
@@ -147,6 +156,87 @@ object PolylineUtils {
         return simplifyDouglasPeucker(radialSimplifiedPoints, sqTolerance)
     }
 
+    /**
+     * Simplifies every line and ring of a [Geometry] with [simplify]. Rings stay closed and are
+     * kept unchanged if their simplification would have less than four coordinates. Points and
+     * MultiPoints are returned as is.
+     *
+     * @param geometry       the geometry to simplify
+     * @param tolerance      affects the amount of simplification (in the same metric as the point coordinates)
+     * @param highestQuality excludes distance-based preprocessing step which leads to highest quality
+     * simplification
+     * @return the simplified geometry
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun simplify(
+        geometry: Geometry,
+        tolerance: Double = SIMPLIFY_DEFAULT_TOLERANCE,
+        highestQuality: Boolean = SIMPLIFY_DEFAULT_HIGHEST_QUALITY
+    ): Geometry {
+        return when (geometry) {
+            is LineString -> LineString(simplify(geometry.coordinates, tolerance, highestQuality), geometry.bbox)
+            is MultiLineString -> MultiLineString(
+                geometry.coordinates.map { line -> simplify(line, tolerance, highestQuality) },
+                geometry.bbox
+            )
+
+            is Polygon -> Polygon(simplifyRings(geometry.coordinates, tolerance, highestQuality), geometry.bbox)
+            is MultiPolygon -> MultiPolygon(
+                geometry.coordinates.map { rings -> simplifyRings(rings, tolerance, highestQuality) },
+                geometry.bbox
+            )
+
+            is GeometryCollection -> GeometryCollection(
+                geometry.geometries.map { child -> simplify(child, tolerance, highestQuality) },
+                geometry.bbox
+            )
+
+            else -> geometry
+        }
+    }
+
+    /**
+     * Simplifies the geometries of all features in a [FeatureCollection], see
+     * [simplify]. Features keep their order, properties, id and bounding box.
+     *
+     * @param featureCollection the features to simplify
+     * @param tolerance         affects the amount of simplification (in the same metric as the point coordinates)
+     * @param highestQuality    excludes distance-based preprocessing step which leads to highest quality
+     * simplification
+     * @return a new [FeatureCollection] with simplified geometries
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun simplify(
+        featureCollection: FeatureCollection,
+        tolerance: Double = SIMPLIFY_DEFAULT_TOLERANCE,
+        highestQuality: Boolean = SIMPLIFY_DEFAULT_HIGHEST_QUALITY
+    ): FeatureCollection {
+        return FeatureCollection(
+            featureCollection.features.map { feature -> simplify(feature, tolerance, highestQuality) },
+            featureCollection.bbox
+        )
+    }
+
+    internal fun simplify(feature: Feature, tolerance: Double, highestQuality: Boolean): Feature {
+        val geometry = feature.geometry ?: return feature
+        return feature.copy(geometry = simplify(geometry, tolerance, highestQuality))
+    }
+
+    private fun simplifyRings(
+        rings: List<List<Point>>,
+        tolerance: Double,
+        highestQuality: Boolean
+    ): List<List<Point>> {
+        return rings.map { ring ->
+            val simplified = simplify(ring, tolerance, highestQuality)
+            if (simplified.size < 4) ring else simplified
+        }
+    }
+
     /**
      * Square distance between 2 points.
      *
@@ -170,26 +260,44 @@ object PolylineUtils {
      * other two input points
      */
     private fun getSqSegDist(point: Point, p1: Point, p2: Point): Double {
-        var horizontal = p1.longitude
-        var vertical = p1.latitude
-        var diffHorizontal = p2.longitude - horizontal
-        var diffVertical = p2.latitude - vertical
+        return getSqSegDist(
+            point.longitude, point.latitude,
+            p1.longitude, p1.latitude,
+            p2.longitude, p2.latitude
+        )
+    }
+
+    /**
+     * Square distance from a point to a segment, given as plain coordinates.
+     *
+     * @param x  longitude of the point whose distance from segment needs to be determined
+     * @param y  latitude of the point whose distance from segment needs to be determined
+     * @param x1 longitude of the first point defining the segment
+     * @param y1 latitude of the first point defining the segment
+     * @param x2 longitude of the second point defining the segment
+     * @param y2 latitude of the second point defining the segment
+     * @return square of the distance between the point and the segment
+     */
+    internal fun getSqSegDist(x: Double, y: Double, x1: Double, y1: Double, x2: Double, y2: Double): Double {
+        var horizontal = x1
+        var vertical = y1
+        var diffHorizontal = x2 - horizontal
+        var diffVertical = y2 - vertical
 
         if (diffHorizontal != 0.0 || diffVertical != 0.0) {
-            val total = ((point.longitude - horizontal) * diffHorizontal + (point.latitude
-                    - vertical) * diffVertical) / (diffHorizontal * diffHorizontal + diffVertical
-                    * diffVertical)
+            val total = ((x - horizontal) * diffHorizontal + (y - vertical) * diffVertical) /
+                    (diffHorizontal * diffHorizontal + diffVertical * diffVertical)
             if (total > 1) {
-                horizontal = p2.longitude
-                vertical = p2.latitude
+                horizontal = x2
+                vertical = y2
             } else if (total > 0) {
                 horizontal += diffHorizontal * total
                 vertical += diffVertical * total
             }
         }
 
-        diffHorizontal = point.longitude - horizontal
-        diffVertical = point.latitude - vertical
+        diffHorizontal = x - horizontal
+        diffVertical = y - vertical
 
         return diffHorizontal * diffHorizontal + diffVertical * diffVertical
     }
@@ -0,0 +1,190 @@
+package com.trackasia.geojson.utils
+
+import com.trackasia.geojson.model.Point
+import kotlin.jvm.JvmStatic
+
+/**
+ * A precomputed Ramer-Douglas-Peucker importance index for a line.
+ *
+ * The simplification is run once, with a tolerance of zero, and every vertex is tagged with the
+ * square of the distance at which it would be removed. Extracting the simplified line for any
+ * tolerance is then a linear filter over [importance], without any geometry math. This is useful
+ * when the same line is simplified for many zoom levels.
+ *
+ * The importance of a vertex is capped by the importance of the vertex that split its segment, so
+ * filtering with a tolerance returns exactly the points [PolylineUtils.simplify] returns for the
+ * same tolerance with `highestQuality` set to `true`.
+ *
+ * @property coordinates packed coordinates of the line, see [PackedCoordinates]
+ * @property importance  squared removal distance per vertex, in the same metric as the
+ * coordinates; the first and last vertex are always [Double.POSITIVE_INFINITY]
+ * @since 7.1.0
+ */
+class SimplificationIndex private constructor(
+    val coordinates: DoubleArray,
+    val importance: DoubleArray,
+    private val points: List<Point>?,
+) {
+
+    /**
+     * Number of vertices in the indexed line.
+     */
+    val size: Int
+        get() = importance.size
+
+    /**
+     * Counts the vertices retained at the given tolerance.
+     *
+     * @param tolerance affects the amount of simplification (in the same metric as the point coordinates)
+     * @return number of retained vertices
+     * @since 7.1.0
+     */
+    fun count(tolerance: Double): Int {
+        val sqTolerance = tolerance * tolerance
+        var count = 0
+        for (value in importance) {
+            if (value > sqTolerance) {
+                count++
+            }
+        }
+        return count
+    }
+
+    /**
+     * Returns the simplified line for the given tolerance. When the index was built from a list
+     * of points, the original [Point] instances (including their altitude) are returned.
+     *
+     * @param tolerance affects the amount of simplification (in the same metric as the point coordinates)
+     * @return a list of simplified points
+     * @since 7.1.0
+     */
+    fun simplify(tolerance: Double): List<Point> {
+        if (size <= 2) {
+            return points ?: PackedCoordinates.unpack(coordinates)
+        }
+
+        val sqTolerance = tolerance * tolerance
+        val simplified = ArrayList<Point>()
+        for (i in importance.indices) {
+            if (importance[i] > sqTolerance) {
+                simplified.add(points?.get(i) ?: Point(coordinates[i * 2], coordinates[i * 2 + 1]))
+            }
+        }
+        return simplified
+    }
+
+    /**
+     * Returns the packed coordinates of the simplified line for the given tolerance.
+     *
+     * @param tolerance affects the amount of simplification (in the same metric as the point coordinates)
+     * @return packed coordinates of the retained vertices
+     * @since 7.1.0
+     */
+    fun simplifyPacked(tolerance: Double): DoubleArray {
+        val sqTolerance = tolerance * tolerance
+        val simplified = DoubleArray(count(tolerance) * 2)
+        var index = 0
+        for (i in importance.indices) {
+            if (importance[i] > sqTolerance) {
+                simplified[index++] = coordinates[i * 2]
+                simplified[index++] = coordinates[i * 2 + 1]
+            }
+        }
+        return simplified
+    }
+
+    companion object {
+
+        /**
+         * Builds an index for a line.
+         *
+         * @param points the points of the line
+         * @return the importance index of the line
+         * @since 7.1.0
+         */
+        @JvmStatic
+        fun fromPoints(points: List<Point>): SimplificationIndex {
+            val coordinates = PackedCoordinates.pack(points)
+            return SimplificationIndex(coordinates, computeImportance(coordinates), points)
+        }
+
+        /**
+         * Builds an index for a line given as packed coordinates.
+         *
+         * @param coordinates packed `[lon0, lat0, lon1, lat1, ...]` coordinates of the line
+         * @return the importance index of the line
+         * @since 7.1.0
+         */
+        @JvmStatic
+        fun fromPacked(coordinates: DoubleArray): SimplificationIndex {
+            require(coordinates.size % 2 == 0) { "Packed coordinates must have an even size" }
+            return SimplificationIndex(coordinates, computeImportance(coordinates), null)
+        }
+
+        /**
+         * Runs Douglas-Peucker without a tolerance, using an explicit stack instead of recursion
+         * so that very long lines can be indexed.
+         */
+        private fun computeImportance(coordinates: DoubleArray): DoubleArray {
+            val size = coordinates.size / 2
+            val importance = DoubleArray(size)
+            if (size == 0) {
+                return importance
+            }
+            importance[0] = Double.POSITIVE_INFINITY
+            importance[size - 1] = Double.POSITIVE_INFINITY
+            if (size <= 2) {
+                return importance
+            }
+
+            // Each stack entry holds the segment bounds and the importance of the vertex that
+            // created it, which caps the importance of everything inside the segment.
+            val stack = IntArray(size * 2)
+            val caps = DoubleArray(size)
+            var top = 0
+            stack[0] = 0
+            stack[1] = size - 1
+            caps[0] = Double.POSITIVE_INFINITY
+            top++
+
+            while (top > 0) {
+                top--
+                val first = stack[top * 2]
+                val last = stack[top * 2 + 1]
+                val cap = caps[top]
+
+                var maxSqDist = 0.0
+                var index = 0
+                for (i in first + 1 until last) {
+                    val sqDist = PolylineUtils.getSqSegDist(
+                        coordinates[i * 2], coordinates[i * 2 + 1],
+                        coordinates[first * 2], coordinates[first * 2 + 1],
+                        coordinates[last * 2], coordinates[last * 2 + 1]
+                    )
+                    if (sqDist > maxSqDist) {
+                        index = i
+                        maxSqDist = sqDist
+                    }
+                }
+
+                if (maxSqDist > 0.0) {
+                    val value = if (maxSqDist < cap) maxSqDist else cap
+                    importance[index] = value
+                    if (index - first > 1) {
+                        stack[top * 2] = first
+                        stack[top * 2 + 1] = index
+                        caps[top] = value
+                        top++
+                    }
+                    if (last - index > 1) {
+                        stack[top * 2] = index
+                        stack[top * 2 + 1] = last
+                        caps[top] = value
+                        top++
+                    }
+                }
+            }
+            return importance
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.trackasia.geojson.utils
+
+import com.trackasia.geojson.model.Point
+import kotlin.jvm.JvmOverloads
+
+/**
+ * Simplifies a line while its points arrive one at a time, for example a live GPS track.
+ *
+ * This is an opening window simplification: the last committed vertex is the anchor of a window
+ * that is extended with every new point. As long as all points inside the window are within the
+ * tolerance of the segment from the anchor to the newest point, nothing is committed. When a new
+ * point would move one of them further away, the previous point is committed and becomes the new
+ * anchor. Every dropped point is therefore within the tolerance of the simplified line.
+ *
+ * The window holds at most [maxWindowSize] points; when it is full the newest point is committed
+ * regardless. This bounds memory and makes the cost per point constant.
+ *
+ * ```kotlin
+ * val simplifier = StreamingSimplifier(tolerance = 0.0001)
+ * positions.forEach { position -> simplifier.add(position)?.let(track::add) }
+ * simplifier.finish()?.let(track::add)
+ * ```
+ *
+ * This class is not thread safe.
+ *
+ * @param tolerance     affects the amount of simplification (in the same metric as the point coordinates)
+ * @param maxWindowSize maximum number of points, including the anchor, held before a vertex is
+ * committed; must be at least 2
+ * @see PolylineUtils.simplify
+ * @since 7.1.0
+ */
+class StreamingSimplifier @JvmOverloads constructor(
+    val tolerance: Double,
+    val maxWindowSize: Int = DEFAULT_MAX_WINDOW_SIZE,
+) {
+
+    init {
+        require(maxWindowSize >= 2) { "maxWindowSize must be at least 2" }
+    }
+
+    private val sqTolerance = tolerance * tolerance
+    private val longitudes = DoubleArray(maxWindowSize)
+    private val latitudes = DoubleArray(maxWindowSize)
+    private val points = arrayOfNulls<Point>(maxWindowSize)
+
+    // Window size; index 0 is the anchor and index size - 1 the newest, not yet committed point
+    private var size = 0
+
+    /**
+     * Number of points which have been added but not committed yet.
+     */
+    val pendingCount: Int
+        get() = if (size == 0) 0 else size - 1
+
+    /**
+     * Adds the next point of the line.
+     *
+     * @param point the next point of the line
+     * @return the vertex committed by this point, or `null` if no vertex was committed. The first
+     * point of a line is always committed.
+     * @since 7.1.0
+     */
+    fun add(point: Point): Point? {
+        if (size == 0) {
+            append(point)
+            return point
+        }
+
+        if (size >= 2 && (size == maxWindowSize || exceedsTolerance(point))) {
+            val committed = points[size - 1]!!
+            longitudes[0] = longitudes[size - 1]
+            latitudes[0] = latitudes[size - 1]
+            points[0] = committed
+            for (i in 1 until size) {
+                points[i] = null
+            }
+            size = 1
+            append(point)
+            return committed
+        }
+
+        append(point)
+        return null
+    }
+
+    /**
+     * Ends the line. The next point added afterwards starts a new line.
+     *
+     * @return the last point of the line if it was not committed yet, otherwise `null`
+     * @since 7.1.0
+     */
+    fun finish(): Point? {
+        val last = if (size >= 2) points[size - 1] else null
+        for (i in 0 until size) {
+            points[i] = null
+        }
+        size = 0
+        return last
+    }
+
+    private fun append(point: Point) {
+        longitudes[size] = point.longitude
+        latitudes[size] = point.latitude
+        points[size] = point
+        size++
+    }
+
+    /**
+     * Whether any point between the anchor and the newest point would be further than the
+     * tolerance away from the segment between the anchor and [point].
+     */
+    private fun exceedsTolerance(point: Point): Boolean {
+        val x = point.longitude
+        val y = point.latitude
+        for (i in 1 until size) {
+            val sqDist = PolylineUtils.getSqSegDist(
+                longitudes[i], latitudes[i],
+                longitudes[0], latitudes[0],
+                x, y
+            )
+            if (sqDist > sqTolerance) {
+                return true
+            }
+        }
+        return false
+    }
+
+    companion object {
+        private const val DEFAULT_MAX_WINDOW_SIZE = 64
+    }
+}
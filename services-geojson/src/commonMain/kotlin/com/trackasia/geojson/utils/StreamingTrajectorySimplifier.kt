@@ -0,0 +1,130 @@
+package com.trackasia.geojson.utils
+
+import kotlin.jvm.JvmOverloads
+
+/**
+ * Simplifies a trajectory while its positions arrive one at a time, using the synchronized
+ * Euclidean distance (opening window time-ratio algorithm, OPW-TR).
+ *
+ * Works like [StreamingSimplifier] but measures the distance of a point to the position
+ * interpolated at the same time on the segment, see [TrajectorySimplifier]. No objects are
+ * allocated per position: [add] returns whether a vertex was committed, and the committed vertex
+ * can then be read from [committedLongitude], [committedLatitude] and [committedTime].
+ *
+ * This class is not thread safe.
+ *
+ * @param tolerance     maximum synchronized Euclidean distance of a removed point
+ * @param maxWindowSize maximum number of positions, including the anchor, held before a vertex is
+ * committed; must be at least 2
+ * @since 7.1.0
+ */
+class StreamingTrajectorySimplifier @JvmOverloads constructor(
+    val tolerance: Double,
+    val maxWindowSize: Int = DEFAULT_MAX_WINDOW_SIZE,
+) {
+
+    init {
+        require(maxWindowSize >= 2) { "maxWindowSize must be at least 2" }
+    }
+
+    private val sqTolerance = tolerance * tolerance
+    private val window = DoubleArray(maxWindowSize * 3)
+
+    // Window size; index 0 is the anchor and index size - 1 the newest, not yet committed position
+    private var size = 0
+
+    /**
+     * Longitude of the vertex committed by the last call to [add] or [finish] that returned `true`.
+     */
+    var committedLongitude: Double = Double.NaN
+        private set
+
+    /**
+     * Latitude of the vertex committed by the last call to [add] or [finish] that returned `true`.
+     */
+    var committedLatitude: Double = Double.NaN
+        private set
+
+    /**
+     * Time of the vertex committed by the last call to [add] or [finish] that returned `true`.
+     */
+    var committedTime: Double = Double.NaN
+        private set
+
+    /**
+     * Adds the next position of the trajectory.
+     *
+     * @param longitude longitude of the position
+     * @param latitude  latitude of the position
+     * @param time      time of the position, not before the previous one
+     * @return `true` if a vertex was committed. The first position of a trajectory is always
+     * committed.
+     * @since 7.1.0
+     */
+    fun add(longitude: Double, latitude: Double, time: Double): Boolean {
+        if (size == 0) {
+            append(longitude, latitude, time)
+            commit(0)
+            return true
+        }
+
+        if (size >= 2 && (size == maxWindowSize || exceedsTolerance(longitude, latitude, time))) {
+            commit(size - 1)
+            window[0] = committedLongitude
+            window[1] = committedLatitude
+            window[2] = committedTime
+            size = 1
+            append(longitude, latitude, time)
+            return true
+        }
+
+        append(longitude, latitude, time)
+        return false
+    }
+
+    /**
+     * Ends the trajectory. The next position added afterwards starts a new trajectory.
+     *
+     * @return `true` if the last position was not committed yet and has been committed now
+     * @since 7.1.0
+     */
+    fun finish(): Boolean {
+        val pending = size >= 2
+        if (pending) {
+            commit(size - 1)
+        }
+        size = 0
+        return pending
+    }
+
+    private fun append(longitude: Double, latitude: Double, time: Double) {
+        window[size * 3] = longitude
+        window[size * 3 + 1] = latitude
+        window[size * 3 + 2] = time
+        size++
+    }
+
+    private fun commit(index: Int) {
+        committedLongitude = window[index * 3]
+        committedLatitude = window[index * 3 + 1]
+        committedTime = window[index * 3 + 2]
+    }
+
+    private fun exceedsTolerance(longitude: Double, latitude: Double, time: Double): Boolean {
+        for (i in 1 until size) {
+            val sqDist = TrajectorySimplifier.getSqSyncDist(
+                window[i * 3], window[i * 3 + 1], window[i * 3 + 2],
+                window[0], window[1], window[2],
+                longitude, latitude, time
+            )
+            if (sqDist > sqTolerance) {
+                return true
+            }
+        }
+        return false
+    }
+
+    companion object {
+        private const val DEFAULT_MAX_WINDOW_SIZE = 64
+    }
+}
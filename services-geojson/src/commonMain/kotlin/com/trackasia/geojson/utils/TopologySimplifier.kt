@@ -0,0 +1,486 @@
+package com.trackasia.geojson.utils
+
+import com.trackasia.geojson.model.Feature
+import com.trackasia.geojson.model.FeatureCollection
+import com.trackasia.geojson.model.MultiPolygon
+import com.trackasia.geojson.model.Point
+import com.trackasia.geojson.model.Polygon
+import kotlin.jvm.JvmStatic
+import kotlin.math.ceil
+import kotlin.math.max
+import kotlin.math.min
+import kotlin.math.sqrt
+
+/**
+ * Simplifies a layer of [Polygon] and [MultiPolygon] features without breaking the topology
+ * between neighbouring features.
+ *
+ * The rings of all features are split into arcs at the junctions where borders between features
+ * start and end. Every arc is simplified exactly once, so a border shared by two features stays
+ * shared after simplification and no gaps or slivers are created. A simplification of an arc is
+ * only accepted if it does not make any arc intersect itself or another arc and if every ring it
+ * belongs to keeps at least four coordinates; otherwise a smaller tolerance is tried, down to the
+ * original arc.
+ *
+ * Shared borders are detected by exact coordinate equality. Features with any other geometry are
+ * returned unchanged.
+ *
+ * @since 7.1.0
+ */
+object TopologySimplifier {
+
+    private const val MIN_RING_SIZE = 4
+
+    // Number of times the tolerance is halved before falling back to the original arc
+    private const val TOLERANCE_REFINEMENTS = 3
+
+    /**
+     * Simplifies all polygons of a [FeatureCollection] with the Ramer-Douglas-Peucker algorithm
+     * while keeping shared borders shared.
+     *
+     * @param featureCollection a collection of polygon features
+     * @param tolerance         affects the amount of simplification (in the same metric as the point coordinates)
+     * @return a new [FeatureCollection] with the same features in the same order and simplified
+     * polygon geometries
+     * @see PolylineUtils.simplify
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun simplify(featureCollection: FeatureCollection, tolerance: Double): FeatureCollection {
+        val polygons = mutableListOf<List<List<Point>>>()
+        featureCollection.features.forEach { feature ->
+            forEachPolygon(feature) { polygon -> polygons.add(polygon) }
+        }
+
+        val topology = Topology(polygons)
+        topology.simplify(tolerance)
+
+        var ringIndex = 0
+        val features = featureCollection.features.map { feature ->
+            when (val geometry = feature.geometry) {
+                is Polygon -> feature.copy(
+                    geometry = Polygon(
+                        geometry.coordinates.map { topology.ring(ringIndex++) },
+                        geometry.bbox
+                    )
+                )
+
+                is MultiPolygon -> feature.copy(
+                    geometry = MultiPolygon(
+                        geometry.coordinates.map { polygon ->
+                            polygon.map { topology.ring(ringIndex++) }
+                        },
+                        geometry.bbox
+                    )
+                )
+
+                else -> feature
+            }
+        }
+
+        return FeatureCollection(features, featureCollection.bbox)
+    }
+
+    private inline fun forEachPolygon(feature: Feature, action: (List<List<Point>>) -> Unit) {
+        when (val geometry = feature.geometry) {
+            is Polygon -> action(geometry.coordinates)
+            is MultiPolygon -> geometry.coordinates.forEach(action)
+            else -> Unit
+        }
+    }
+
+    /**
+     * Coordinate key used to detect shared vertices.
+     */
+    private data class Vertex(val x: Double, val y: Double) : Comparable<Vertex> {
+
+        constructor(point: Point) : this(point.longitude, point.latitude)
+
+        override fun compareTo(other: Vertex): Int {
+            val result = x.compareTo(other.x)
+            return if (result != 0) result else y.compareTo(other.y)
+        }
+    }
+
+    private class Arc(val points: List<Point>) {
+        var current: List<Point> = points
+        val rings = mutableListOf<Int>()
+        val minX = points.minOf { point -> point.longitude }
+        val minY = points.minOf { point -> point.latitude }
+        val maxX = points.maxOf { point -> point.longitude }
+        val maxY = points.maxOf { point -> point.latitude }
+    }
+
+    private class ArcRef(val arc: Int, val reversed: Boolean)
+
+    private class Topology(polygons: List<List<List<Point>>>) {
+
+        private val rings = polygons.flatten()
+
+        // Index of the outer ring of the polygon each ring belongs to
+        private val outerRings = IntArray(rings.size)
+
+        // Number of rings of the polygon each ring belongs to
+        private val polygonSizes = IntArray(rings.size)
+
+        private val arcs = mutableListOf<Arc>()
+        private val arcLookup = HashMap<List<Vertex>, Int>()
+
+        // Null for rings which are too small to be part of the topology, they are kept as is
+        private val ringArcs: List<List<ArcRef>?>
+
+        init {
+            var ringIndex = 0
+            for (polygon in polygons) {
+                for (i in polygon.indices) {
+                    outerRings[ringIndex + i] = ringIndex
+                    polygonSizes[ringIndex + i] = polygon.size
+                }
+                ringIndex += polygon.size
+            }
+
+            val junctions = findJunctions()
+            ringArcs = rings.mapIndexed { index, ring ->
+                if (ring.size < MIN_RING_SIZE || ring.first() != ring.last()) {
+                    null
+                } else {
+                    cut(ring, junctions).map { arcPoints -> register(arcPoints, index) }
+                }
+            }
+        }
+
+        /**
+         * A vertex is a junction when it is used with different neighbours, which is where a
+         * shared border starts or ends.
+         */
+        private fun findJunctions(): Set<Vertex> {
+            val neighbours = HashMap<Vertex, Pair<Vertex, Vertex>>()
+            val junctions = HashSet<Vertex>()
+            for (ring in rings) {
+                if (ring.size < MIN_RING_SIZE) {
+                    continue
+                }
+                val size = ring.size - 1
+                for (i in 0 until size) {
+                    val vertex = Vertex(ring[i])
+                    if (vertex in junctions) {
+                        continue
+                    }
+                    val previous = Vertex(ring[(i + size - 1) % size])
+                    val next = Vertex(ring[(i + 1) % size])
+                    val existing = neighbours[vertex]
+                    if (existing == null) {
+                        neighbours[vertex] = previous to next
+                    } else if (existing != previous to next && existing != next to previous) {
+                        junctions.add(vertex)
+                    }
+                }
+            }
+            return junctions
+        }
+
+        /**
+         * Cuts a closed ring into arcs at its junctions. A ring without junctions becomes one
+         * closed arc, starting at its smallest vertex so that identical rings of different
+         * features produce identical arcs.
+         */
+        private fun cut(ring: List<Point>, junctions: Set<Vertex>): List<List<Point>> {
+            val size = ring.size - 1
+            val start = (0 until size).firstOrNull { i -> Vertex(ring[i]) in junctions }
+            if (start == null) {
+                val smallest = (0 until size).minBy { i -> Vertex(ring[i]) }
+                return listOf((0..size).map { i -> ring[(smallest + i) % size] })
+            }
+
+            val result = mutableListOf<List<Point>>()
+            var arc = mutableListOf(ring[start])
+            for (i in 1..size) {
+                val point = ring[(start + i) % size]
+                arc.add(point)
+                if (Vertex(point) in junctions) {
+                    result.add(arc)
+                    arc = mutableListOf(point)
+                }
+            }
+            return result
+        }
+
+        private fun register(points: List<Point>, ring: Int): ArcRef {
+            val forward = points.map { point -> Vertex(point) }
+            val backward = forward.asReversed()
+            val reversed = compare(backward, forward) < 0
+            val key = if (reversed) backward.toList() else forward
+
+            val index = arcLookup.getOrPut(key) {
+                arcs.add(Arc(if (reversed) points.asReversed().toList() else points))
+                arcs.size - 1
+            }
+            arcs[index].rings.add(ring)
+            return ArcRef(index, reversed)
+        }
+
+        private fun compare(first: List<Vertex>, second: List<Vertex>): Int {
+            for (i in first.indices) {
+                val result = first[i].compareTo(second[i])
+                if (result != 0) {
+                    return result
+                }
+            }
+            return 0
+        }
+
+        fun simplify(tolerance: Double) {
+            if (arcs.isEmpty()) {
+                return
+            }
+            val grid = ArcGrid(arcs)
+            for ((index, arc) in arcs.withIndex()) {
+                if (arc.points.size <= 2) {
+                    continue
+                }
+                val simplificationIndex = SimplificationIndex.fromPoints(arc.points)
+                var candidateTolerance = tolerance
+                for (attempt in 0..TOLERANCE_REFINEMENTS) {
+                    val candidate = simplificationIndex.simplify(candidateTolerance)
+                    if (candidate.size == arc.current.size) {
+                        break
+                    }
+                    if (isValid(index, candidate, grid)) {
+                        arc.current = candidate
+                        break
+                    }
+                    candidateTolerance /= 2
+                }
+            }
+        }
+
+        private fun isValid(index: Int, candidate: List<Point>, grid: ArcGrid): Boolean {
+            val arc = arcs[index]
+            val removed = arc.current.size - candidate.size
+            for (ring in arc.rings.distinct()) {
+                val uses = arc.rings.count { r -> r == ring }
+                if (ringSize(ring) - removed * uses < MIN_RING_SIZE) {
+                    return false
+                }
+            }
+
+            val candidateSegments = Segments(candidate)
+            if (candidateSegments.intersects(candidateSegments)) {
+                return false
+            }
+            val intersects = grid.query(arc).any { other ->
+                other != index && candidateSegments.intersects(Segments(arcs[other].current))
+            }
+            if (intersects) {
+                return false
+            }
+
+            // Without intersections a hole can still end up outside of its outer ring when a
+            // simplified outer ring cuts it off as a whole
+            val previous = arc.current
+            arc.current = candidate
+            val holesInside = arc.rings.distinct().all { ring -> holesInside(outerRings[ring]) }
+            arc.current = previous
+            return holesInside
+        }
+
+        private fun holesInside(outer: Int): Boolean {
+            if (polygonSizes[outer] == 1 || ringArcs[outer] == null) {
+                return true
+            }
+            val outerRing = ring(outer)
+            val outerVertices = outerRing.mapTo(HashSet()) { point -> Vertex(point) }
+            for (hole in outer + 1 until outer + polygonSizes[outer]) {
+                val probe = ring(hole).firstOrNull { point -> Vertex(point) !in outerVertices } ?: continue
+                if (!inRing(probe, outerRing)) {
+                    return false
+                }
+            }
+            return true
+        }
+
+        private fun inRing(point: Point, ring: List<Point>): Boolean {
+            var isInside = false
+            var j = ring.size - 1
+            for (i in ring.indices) {
+                val xi = ring[i].longitude
+                val yi = ring[i].latitude
+                val xj = ring[j].longitude
+                val yj = ring[j].latitude
+                if (((yi > point.latitude) != (yj > point.latitude)) &&
+                    (point.longitude < (xj - xi) * (point.latitude - yi) / (yj - yi) + xi)
+                ) {
+                    isInside = !isInside
+                }
+                j = i
+            }
+            return isInside
+        }
+
+        private fun ringSize(ring: Int): Int {
+            return ringArcs[ring]!!.sumOf { ref -> arcs[ref.arc].current.size - 1 } + 1
+        }
+
+        fun ring(index: Int): List<Point> {
+            val refs = ringArcs[index] ?: return rings[index]
+            val points = mutableListOf<Point>()
+            for (ref in refs) {
+                val arcPoints = arcs[ref.arc].current
+                val ordered = if (ref.reversed) arcPoints.asReversed() else arcPoints
+                if (points.isEmpty()) {
+                    points.addAll(ordered)
+                } else {
+                    points.addAll(ordered.subList(1, ordered.size))
+                }
+            }
+            return points
+        }
+    }
+
+    /**
+     * Uniform grid over the original arc bounding boxes. A simplified arc always lies inside the
+     * bounding box of its original, so the grid stays valid while arcs are simplified.
+     */
+    private class ArcGrid(private val arcs: List<Arc>) {
+        private val minX = arcs.minOf { arc -> arc.minX }
+        private val minY = arcs.minOf { arc -> arc.minY }
+        private val size = max(1, ceil(sqrt(arcs.size.toDouble())).toInt())
+        private val cellWidth = (arcs.maxOf { arc -> arc.maxX } - minX) / size
+        private val cellHeight = (arcs.maxOf { arc -> arc.maxY } - minY) / size
+        private val cells = Array(size * size) { mutableListOf<Int>() }
+        private val stamps = IntArray(arcs.size)
+        private var stamp = 0
+
+        init {
+            arcs.forEachIndexed { index, arc ->
+                forEachCell(arc) { cell -> cells[cell].add(index) }
+            }
+        }
+
+        fun query(arc: Arc): List<Int> {
+            stamp++
+            val result = mutableListOf<Int>()
+            forEachCell(arc) { cell ->
+                for (other in cells[cell]) {
+                    if (stamps[other] != stamp && overlaps(arc, arcs[other])) {
+                        stamps[other] = stamp
+                        result.add(other)
+                    }
+                }
+            }
+            return result
+        }
+
+        private fun overlaps(a: Arc, b: Arc): Boolean {
+            return a.minX <= b.maxX && b.minX <= a.maxX && a.minY <= b.maxY && b.minY <= a.maxY
+        }
+
+        private inline fun forEachCell(arc: Arc, action: (Int) -> Unit) {
+            val x0 = cell(arc.minX, minX, cellWidth)
+            val x1 = cell(arc.maxX, minX, cellWidth)
+            val y0 = cell(arc.minY, minY, cellHeight)
+            val y1 = cell(arc.maxY, minY, cellHeight)
+            for (y in y0..y1) {
+                for (x in x0..x1) {
+                    action(y * size + x)
+                }
+            }
+        }
+
+        private fun cell(value: Double, origin: Double, extent: Double): Int {
+            if (extent <= 0.0) {
+                return 0
+            }
+            return min(size - 1, ((value - origin) / extent).toInt())
+        }
+    }
+
+    /**
+     * Segments of a line, sorted by their minimum x to find intersections with a sweep.
+     */
+    private class Segments(points: List<Point>) {
+        private val count = points.size - 1
+        private val coordinates = PackedCoordinates.pack(points)
+        private val order: List<Int> = (0 until count).sortedBy { i -> min(x(i), x(i + 1)) }
+
+        private fun x(vertex: Int) = coordinates[vertex * 2]
+
+        private fun y(vertex: Int) = coordinates[vertex * 2 + 1]
+
+        /**
+         * Whether any segment of this line intersects any segment of the other line at a point
+         * that is not a common endpoint of both segments.
+         */
+        fun intersects(other: Segments): Boolean {
+            var start = 0
+            for (i in order) {
+                val minX = min(x(i), x(i + 1))
+                val maxX = max(x(i), x(i + 1))
+                while (start < other.count && max(other.x(other.order[start]), other.x(other.order[start] + 1)) < minX) {
+                    start++
+                }
+                for (k in start until other.count) {
+                    val j = other.order[k]
+                    if (min(other.x(j), other.x(j + 1)) > maxX) {
+                        break
+                    }
+                    if (other === this && i == j) {
+                        continue
+                    }
+                    if (segmentsIntersect(
+                            x(i), y(i), x(i + 1), y(i + 1),
+                            other.x(j), other.y(j), other.x(j + 1), other.y(j + 1)
+                        )
+                    ) {
+                        return true
+                    }
+                }
+            }
+            return false
+        }
+    }
+
+    private fun orientation(ax: Double, ay: Double, bx: Double, by: Double, cx: Double, cy: Double): Int {
+        val value = (bx - ax) * (cy - ay) - (by - ay) * (cx - ax)
+        return if (value > 0) 1 else if (value < 0) -1 else 0
+    }
+
+    private fun onSegment(ax: Double, ay: Double, bx: Double, by: Double, px: Double, py: Double): Boolean {
+        return px >= min(ax, bx) && px <= max(ax, bx) && py >= min(ay, by) && py <= max(ay, by)
+    }
+
+    private fun segmentsIntersect(
+        ax: Double, ay: Double, bx: Double, by: Double,
+        cx: Double, cy: Double, dx: Double, dy: Double
+    ): Boolean {
+        val o1 = orientation(ax, ay, bx, by, cx, cy)
+        val o2 = orientation(ax, ay, bx, by, dx, dy)
+        val o3 = orientation(cx, cy, dx, dy, ax, ay)
+        val o4 = orientation(cx, cy, dx, dy, bx, by)
+
+        if (o1 * o2 < 0 && o3 * o4 < 0) {
+            return true
+        }
+
+        if (o1 == 0 && o2 == 0) {
+            // Collinear segments intersect if they overlap by more than a single point
+            val horizontal = ax != bx
+            val a0 = if (horizontal) min(ax, bx) else min(ay, by)
+            val a1 = if (horizontal) max(ax, bx) else max(ay, by)
+            val c0 = if (horizontal) min(cx, dx) else min(cy, dy)
+            val c1 = if (horizontal) max(cx, dx) else max(cy, dy)
+            return min(a1, c1) > max(a0, c0)
+        }
+
+        // An endpoint touching the other segment is only allowed at a shared endpoint
+        val sharedEndpoint = (ax == cx && ay == cy) || (ax == dx && ay == dy) ||
+                (bx == cx && by == cy) || (bx == dx && by == dy)
+        if (sharedEndpoint) {
+            return false
+        }
+        return (o1 == 0 && onSegment(ax, ay, bx, by, cx, cy)) ||
+                (o2 == 0 && onSegment(ax, ay, bx, by, dx, dy)) ||
+                (o3 == 0 && onSegment(cx, cy, dx, dy, ax, ay)) ||
+                (o4 == 0 && onSegment(cx, cy, dx, dy, bx, by))
+    }
+}
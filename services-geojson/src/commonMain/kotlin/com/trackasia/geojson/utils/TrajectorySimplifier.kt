@@ -0,0 +1,140 @@
+package com.trackasia.geojson.utils
+
+import com.trackasia.geojson.model.Point
+import kotlin.jvm.JvmStatic
+
+/**
+ * Time-aware simplification of trajectories using the synchronized Euclidean distance (SED).
+ *
+ * Unlike [PolylineUtils.simplify], which only looks at the shape of a line, the SED of a point is
+ * its distance to the position interpolated *at the same time* on the simplified segment. A
+ * vehicle that waits at a traffic light therefore keeps the vertices that mark its stop, and
+ * speeds and arrival times can be replayed from the simplified track.
+ *
+ * Trajectories are packed as `[lon0, lat0, time0, lon1, lat1, time1, ...]` arrays, with
+ * timestamps in any unit and in non-decreasing order. The tolerance is in the same metric as the
+ * coordinates.
+ *
+ * @see StreamingTrajectorySimplifier for the streaming variant
+ * @since 7.1.0
+ */
+object TrajectorySimplifier {
+
+    /**
+     * Simplifies a trajectory with the top-down time-ratio algorithm (TD-TR), which is
+     * Ramer-Douglas-Peucker using the synchronized Euclidean distance.
+     *
+     * @param trajectory packed `[lon, lat, time, ...]` trajectory
+     * @param tolerance  maximum synchronized Euclidean distance of a removed point
+     * @return packed `[lon, lat, time, ...]` array of the retained points
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun simplify(trajectory: DoubleArray, tolerance: Double): DoubleArray {
+        val retained = retain(trajectory, tolerance)
+        val count = retained.count { keep -> keep }
+        val simplified = DoubleArray(count * 3)
+        var index = 0
+        for (i in retained.indices) {
+            if (retained[i]) {
+                simplified[index++] = trajectory[i * 3]
+                simplified[index++] = trajectory[i * 3 + 1]
+                simplified[index++] = trajectory[i * 3 + 2]
+            }
+        }
+        return simplified
+    }
+
+    /**
+     * Simplifies a trajectory given as points and matching timestamps with the top-down
+     * time-ratio algorithm (TD-TR).
+     *
+     * @param points     the positions of the trajectory
+     * @param timestamps the time of every position, in non-decreasing order
+     * @param tolerance  maximum synchronized Euclidean distance of a removed point
+     * @return the indices of the retained points, in ascending order
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun simplify(points: List<Point>, timestamps: DoubleArray, tolerance: Double): IntArray {
+        require(points.size == timestamps.size) { "Every point requires a timestamp" }
+        val trajectory = DoubleArray(points.size * 3)
+        for (i in points.indices) {
+            trajectory[i * 3] = points[i].longitude
+            trajectory[i * 3 + 1] = points[i].latitude
+            trajectory[i * 3 + 2] = timestamps[i]
+        }
+        val retained = retain(trajectory, tolerance)
+        return retained.indices.filter { i -> retained[i] }.toIntArray()
+    }
+
+    private fun retain(trajectory: DoubleArray, tolerance: Double): BooleanArray {
+        require(trajectory.size % 3 == 0) { "Packed trajectories must have a size divisible by 3" }
+        val size = trajectory.size / 3
+        val retained = BooleanArray(size)
+        if (size <= 2) {
+            retained.fill(true)
+            return retained
+        }
+        retained[0] = true
+        retained[size - 1] = true
+
+        val sqTolerance = tolerance * tolerance
+        val stack = IntArray(size * 2)
+        var top = 0
+        stack[top++] = 0
+        stack[top++] = size - 1
+
+        while (top > 0) {
+            val last = stack[--top]
+            val first = stack[--top]
+
+            var maxSqDist = sqTolerance
+            var index = -1
+            for (i in first + 1 until last) {
+                val sqDist = getSqSyncDist(trajectory, i, first, last)
+                if (sqDist > maxSqDist) {
+                    index = i
+                    maxSqDist = sqDist
+                }
+            }
+
+            if (index != -1) {
+                retained[index] = true
+                if (index - first > 1) {
+                    stack[top++] = first
+                    stack[top++] = index
+                }
+                if (last - index > 1) {
+                    stack[top++] = index
+                    stack[top++] = last
+                }
+            }
+        }
+        return retained
+    }
+
+    private fun getSqSyncDist(trajectory: DoubleArray, point: Int, first: Int, last: Int): Double {
+        return getSqSyncDist(
+            trajectory[point * 3], trajectory[point * 3 + 1], trajectory[point * 3 + 2],
+            trajectory[first * 3], trajectory[first * 3 + 1], trajectory[first * 3 + 2],
+            trajectory[last * 3], trajectory[last * 3 + 1], trajectory[last * 3 + 2]
+        )
+    }
+
+    /**
+     * Square of the synchronized Euclidean distance between a timed point and the position
+     * interpolated at the same time on the segment between two other timed points.
+     */
+    internal fun getSqSyncDist(
+        x: Double, y: Double, time: Double,
+        x1: Double, y1: Double, time1: Double,
+        x2: Double, y2: Double, time2: Double
+    ): Double {
+        val duration = time2 - time1
+        val ratio = if (duration > 0.0) (time - time1) / duration else 0.0
+        val dx = x - (x1 + (x2 - x1) * ratio)
+        val dy = y - (y1 + (y2 - y1) * ratio)
+        return dx * dx + dy * dy
+    }
+}
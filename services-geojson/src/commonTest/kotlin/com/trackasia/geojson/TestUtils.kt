@@ -1,5 +1,6 @@
 package com.trackasia.geojson
 
+import com.trackasia.geojson.model.Point
 import kotlinx.serialization.json.Json
 import kotlin.math.abs
 import kotlin.test.assertEquals
@@ -21,6 +22,17 @@ internal object TestUtils {
         return readResourceFile(filename)
     }
 
+    fun createPointListFromResourceFile(fileName: String): List<Point> {
+        val coords = loadJsonFixture(fileName).split(",".toRegex())
+        val pointList = ArrayList<Point>()
+        var idx = 0
+        while (idx <= coords.size - 2) {
+            pointList.add(Point(coords[idx].trim().toDouble(), coords[idx + 1].trim().toDouble()))
+            idx += 2
+        }
+        return pointList
+    }
+
     fun expectNearNumber(expected: Double, actual: Double, epsilon: Double) {
         assertTrue(
             abs(expected - actual) <= epsilon,
@@ -3,7 +3,9 @@ package com.trackasia.geojson.model
 import com.trackasia.geojson.TestUtils.DELTA
 import kotlin.test.Test
 import kotlin.test.assertEquals
+import kotlin.test.assertFalse
 import kotlin.test.assertNotNull
+import kotlin.test.assertTrue
 
 class BoundingBoxTest {
 
@@ -69,4 +71,73 @@ class BoundingBoxTest {
         val boundingBox = BoundingBox(southwest, northeast)
         assertEquals(4.0, boundingBox.north, DELTA)
     }
+
+    @Test
+    fun crossesAntimeridian() {
+        assertFalse(BoundingBox(170.0, -10.0, 175.0, 10.0).crossesAntimeridian)
+        assertTrue(BoundingBox(170.0, -10.0, -170.0, 10.0).crossesAntimeridian)
+    }
+
+    @Test
+    fun contains_point() {
+        val pacific = BoundingBox(170.0, -10.0, -170.0, 10.0)
+        assertTrue(pacific.contains(Point(175.0, 0.0)))
+        assertTrue(pacific.contains(Point(-175.0, 0.0)))
+        assertTrue(pacific.contains(Point(180.0, 10.0)))
+        assertTrue(pacific.contains(Point(-180.0, -10.0)))
+        assertFalse(pacific.contains(Point(0.0, 0.0)))
+        assertFalse(pacific.contains(Point(175.0, 11.0)))
+
+        val box = BoundingBox(1.0, 2.0, 3.0, 4.0)
+        assertTrue(box.contains(Point(2.0, 3.0)))
+        assertFalse(box.contains(Point(4.0, 3.0)))
+        assertTrue(BoundingBox(-180.0, -90.0, 180.0, 90.0).contains(Point(123.0, 45.0)))
+    }
+
+    @Test
+    fun contains_boundingBox() {
+        val pacific = BoundingBox(170.0, -10.0, -170.0, 10.0)
+        assertTrue(pacific.contains(BoundingBox(175.0, -5.0, -175.0, 5.0)))
+        assertTrue(pacific.contains(BoundingBox(-179.0, -5.0, -171.0, 5.0)))
+        assertFalse(pacific.contains(BoundingBox(165.0, -5.0, -175.0, 5.0)))
+        assertFalse(pacific.contains(BoundingBox(-170.0, -5.0, 170.0, 5.0)))
+        assertFalse(BoundingBox(-170.0, -10.0, 170.0, 10.0).contains(pacific))
+        assertTrue(BoundingBox(-180.0, -90.0, 180.0, 90.0).contains(pacific))
+    }
+
+    @Test
+    fun intersects() {
+        val pacific = BoundingBox(170.0, -10.0, -170.0, 10.0)
+        assertTrue(pacific.intersects(BoundingBox(-175.0, 0.0, -160.0, 20.0)))
+        assertTrue(pacific.intersects(BoundingBox(160.0, 0.0, 171.0, 20.0)))
+        assertTrue(BoundingBox(160.0, 0.0, 171.0, 20.0).intersects(pacific))
+        assertFalse(pacific.intersects(BoundingBox(-160.0, 0.0, 160.0, 20.0)))
+        assertFalse(pacific.intersects(BoundingBox(175.0, 11.0, 176.0, 20.0)))
+        assertTrue(BoundingBox(0.0, 0.0, 2.0, 2.0).intersects(BoundingBox(1.0, 1.0, 3.0, 3.0)))
+        assertFalse(BoundingBox(0.0, 0.0, 2.0, 2.0).intersects(BoundingBox(3.0, 1.0, 4.0, 3.0)))
+    }
+
+    @Test
+    fun union() {
+        assertEquals(
+            BoundingBox(170.0, -20.0, -170.0, 10.0),
+            BoundingBox(170.0, -10.0, 175.0, 10.0).union(BoundingBox(-175.0, -20.0, -170.0, 0.0))
+        )
+        assertEquals(
+            BoundingBox(-10.0, 0.0, 20.0, 5.0),
+            BoundingBox(-10.0, 0.0, 0.0, 5.0).union(BoundingBox(10.0, 1.0, 20.0, 2.0))
+        )
+        assertEquals(
+            BoundingBox(170.0, -10.0, -160.0, 10.0),
+            BoundingBox(170.0, -10.0, -170.0, 10.0).union(BoundingBox(-165.0, 0.0, -160.0, 5.0))
+        )
+        assertEquals(
+            BoundingBox(0.0, 0.0, -1.0, 10.0),
+            BoundingBox(0.0, 0.0, 179.0, 10.0).union(BoundingBox(100.0, 0.0, -1.0, 10.0))
+        )
+        assertEquals(
+            BoundingBox(-180.0, 0.0, 180.0, 10.0),
+            BoundingBox(0.0, 0.0, 180.0, 10.0).union(BoundingBox(-180.0, 0.0, 0.0, 10.0))
+        )
+    }
 }
@@ -0,0 +1,29 @@
+package com.trackasia.geojson.utils
+
+import com.trackasia.geojson.model.Point
+import kotlin.test.Test
+import kotlin.test.assertContentEquals
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+
+class PackedCoordinatesTest {
+
+    @Test
+    fun pack_interleavesLongitudeAndLatitude() {
+        val packed = PackedCoordinates.pack(listOf(Point(1.0, 2.0), Point(3.0, 4.0, 5.0)))
+        assertContentEquals(doubleArrayOf(1.0, 2.0, 3.0, 4.0), packed)
+    }
+
+    @Test
+    fun unpack_createsOnePointPerPair() {
+        val points = PackedCoordinates.unpack(doubleArrayOf(1.0, 2.0, 3.0, 4.0))
+        assertEquals(listOf(Point(1.0, 2.0), Point(3.0, 4.0)), points)
+    }
+
+    @Test
+    fun unpack_rejectsOddSize() {
+        assertFailsWith(IllegalArgumentException::class) {
+            PackedCoordinates.unpack(doubleArrayOf(1.0, 2.0, 3.0))
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.trackasia.geojson.utils
 
+import com.trackasia.geojson.model.Feature
+import com.trackasia.geojson.model.FeatureCollection
 import com.trackasia.geojson.model.LineString
+import com.trackasia.geojson.model.MultiPoint
 import com.trackasia.geojson.model.Point
+import com.trackasia.geojson.model.Polygon
+import com.trackasia.geojson.TestUtils.createPointListFromResourceFile
 import com.trackasia.geojson.TestUtils.expectNearNumber
-import com.trackasia.geojson.TestUtils.loadJsonFixture
 import kotlin.test.Test
 import kotlin.test.assertEquals
 import kotlin.test.assertNotNull
@@ -124,20 +128,37 @@ class PolylineUtilsTest {
         }
     }
 
-    private fun createPointListFromResourceFile(fileName: String): List<Point> {
-        val inputPoints = loadJsonFixture(fileName)
-        val coords = inputPoints.split(",".toRegex()).toTypedArray()
-
-        val pointList: MutableList<Point> = ArrayList()
-        var idx = 0
-        while (idx <= coords.size - 2) {
-            val xCoord = coords[idx].toDouble()
-            val yCoord = coords[idx + 1].toDouble()
-            pointList.add(Point(xCoord, yCoord))
-            idx += 2
-        }
+    @Test
+    fun simplify_geometryKeepsRingsClosed() {
+        val ring = listOf(
+            Point(0.0, 0.0),
+            Point(5.0, 0.1),
+            Point(10.0, 0.0),
+            Point(10.0, 10.0),
+            Point(0.0, 10.0),
+            Point(0.0, 0.0),
+        )
+        val triangle = listOf(Point(2.0, 2.0), Point(2.5, 2.0), Point(2.0, 2.5), Point(2.0, 2.0))
 
-        return pointList
+        val simplified = PolylineUtils.simplify(Polygon(listOf(ring, triangle)), 1.0) as Polygon
+
+        assertEquals(ring - Point(5.0, 0.1), simplified.coordinates[0])
+        assertEquals(triangle, simplified.coordinates[1], "Collapsed ring was not kept")
+    }
+
+    @Test
+    fun simplify_featureCollectionKeepsFeatures() {
+        val line = Feature(LineString(listOf(Point(0.0, 0.0), Point(5.0, 0.1), Point(10.0, 0.0))), id = "line")
+        line.addProperty("name", "line")
+        val multiPoint = Feature(MultiPoint(listOf(Point(0.0, 0.0), Point(0.0, 0.1))))
+
+        val simplified = PolylineUtils.simplify(FeatureCollection(listOf(line, multiPoint)), 1.0)
+
+        assertEquals(2, simplified.features.size)
+        assertEquals("line", simplified.features[0].id)
+        assertEquals("line", simplified.features[0].getStringProperty("name"))
+        assertEquals(2, (simplified.features[0].geometry as LineString).coordinates.size)
+        assertEquals(multiPoint, simplified.features[1])
     }
 
     companion object {
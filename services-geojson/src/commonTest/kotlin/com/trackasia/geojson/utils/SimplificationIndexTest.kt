@@ -0,0 +1,57 @@
+package com.trackasia.geojson.utils
+
+import com.trackasia.geojson.model.Point
+import com.trackasia.geojson.TestUtils.createPointListFromResourceFile
+import kotlin.test.Test
+import kotlin.test.assertContentEquals
+import kotlin.test.assertEquals
+
+class SimplificationIndexTest {
+
+    @Test
+    fun simplify_matchesPolylineUtilsForAllTolerances() {
+        val path = createPointListFromResourceFile(SIMPLIFICATION_INPUT)
+        val index = SimplificationIndex.fromPoints(path)
+
+        for (tolerance in listOf(0.0, 0.5, 1.0, 2.5, 5.0, 10.0, 25.0, 100.0)) {
+            val expected = PolylineUtils.simplify(path, tolerance, true)
+            assertEquals(expected, index.simplify(tolerance), "Wrong points for tolerance $tolerance")
+            assertEquals(expected.size, index.count(tolerance))
+        }
+    }
+
+    @Test
+    fun simplifyPacked_returnsRetainedCoordinates() {
+        val packed = doubleArrayOf(0.0, 0.0, 1.0, 0.1, 2.0, -0.1, 3.0, 5.0, 4.0, 6.0)
+        val index = SimplificationIndex.fromPacked(packed)
+
+        for (tolerance in listOf(0.05, 0.5, 1.0, 2.0)) {
+            val expected = PolylineUtils.simplify(PackedCoordinates.unpack(packed), tolerance, true)
+            assertContentEquals(PackedCoordinates.pack(expected), index.simplifyPacked(tolerance))
+        }
+        assertContentEquals(doubleArrayOf(0.0, 0.0, 4.0, 6.0), index.simplifyPacked(10.0))
+    }
+
+    @Test
+    fun importance_endpointsAreAlwaysRetained() {
+        val index = SimplificationIndex.fromPoints(
+            listOf(Point(0.0, 0.0), Point(1.0, 0.0), Point(2.0, 0.0))
+        )
+
+        assertEquals(Double.POSITIVE_INFINITY, index.importance[0])
+        assertEquals(0.0, index.importance[1])
+        assertEquals(Double.POSITIVE_INFINITY, index.importance[2])
+        assertEquals(listOf(Point(0.0, 0.0), Point(2.0, 0.0)), index.simplify(0.0))
+    }
+
+    @Test
+    fun simplify_returnsSameListWhenListSizeIsLessThanOrEqualToTwo() {
+        val path = listOf(Point(0.0, 0.0), Point(10.0, 0.0))
+        assertEquals(path, SimplificationIndex.fromPoints(path).simplify(100.0))
+        assertEquals(0, SimplificationIndex.fromPoints(emptyList()).size)
+    }
+
+    companion object {
+        private const val SIMPLIFICATION_INPUT = "simplification-input"
+    }
+}
@@ -0,0 +1,84 @@
+package com.trackasia.geojson.utils
+
+import com.trackasia.geojson.model.Point
+import com.trackasia.geojson.TestUtils.createPointListFromResourceFile
+import kotlin.math.sqrt
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertNull
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+
+class StreamingSimplifierTest {
+
+    @Test
+    fun add_keepsEveryDroppedPointWithinTolerance() {
+        val path = createPointListFromResourceFile(SIMPLIFICATION_INPUT)
+        val tolerance = 5.0
+        val simplified = simplify(StreamingSimplifier(tolerance), path)
+
+        assertSame(path.first(), simplified.first())
+        assertSame(path.last(), simplified.last())
+        assertTrue(simplified.size < path.size / 2, "Line was not simplified")
+
+        var segment = 0
+        for (point in path) {
+            if (point === simplified[segment + 1] && segment < simplified.size - 2) {
+                segment++
+                continue
+            }
+            val distance = sqrt(
+                PolylineUtils.getSqSegDist(
+                    point.longitude, point.latitude,
+                    simplified[segment].longitude, simplified[segment].latitude,
+                    simplified[segment + 1].longitude, simplified[segment + 1].latitude
+                )
+            )
+            assertTrue(distance <= tolerance, "Dropped point $point is $distance away")
+        }
+    }
+
+    @Test
+    fun add_commitsWhenWindowIsFull() {
+        val simplifier = StreamingSimplifier(100.0, 3)
+        val path = (0 until 7).map { i -> Point(i.toDouble(), 0.0) }
+
+        assertEquals(listOf(path[0], path[2], path[4], path[6]), simplify(simplifier, path))
+    }
+
+    @Test
+    fun finish_startsNewLine() {
+        val simplifier = StreamingSimplifier(1.0)
+        val first = Point(0.0, 0.0)
+        assertSame(first, simplifier.add(first))
+        assertNull(simplifier.finish())
+
+        val second = Point(5.0, 5.0)
+        assertSame(second, simplifier.add(second))
+        assertEquals(0, simplifier.pendingCount)
+        assertNull(simplifier.add(Point(6.0, 5.0)))
+        assertEquals(1, simplifier.pendingCount)
+    }
+
+    @Test
+    fun constructor_rejectsTooSmallWindow() {
+        assertFailsWith(IllegalArgumentException::class) {
+            StreamingSimplifier(1.0, 1)
+        }
+        // Rejected before the window is allocated
+        assertFailsWith(IllegalArgumentException::class) {
+            StreamingSimplifier(1.0, -1)
+        }
+    }
+
+    private fun simplify(simplifier: StreamingSimplifier, path: List<Point>): List<Point> {
+        val simplified = path.mapNotNull { point -> simplifier.add(point) }.toMutableList()
+        simplifier.finish()?.let { point -> simplified.add(point) }
+        return simplified
+    }
+
+    companion object {
+        private const val SIMPLIFICATION_INPUT = "simplification-input"
+    }
+}
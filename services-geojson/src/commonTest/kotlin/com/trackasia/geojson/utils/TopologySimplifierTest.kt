@@ -0,0 +1,132 @@
+package com.trackasia.geojson.utils
+
+import com.trackasia.geojson.model.Feature
+import com.trackasia.geojson.model.FeatureCollection
+import com.trackasia.geojson.model.LineString
+import com.trackasia.geojson.model.MultiPolygon
+import com.trackasia.geojson.model.Point
+import com.trackasia.geojson.model.Polygon
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+
+class TopologySimplifierTest {
+
+    // Wiggly border between the two features, from (10, 0) up to (10, 10)
+    private val border = listOf(
+        Point(10.0, 0.0),
+        Point(10.2, 1.0),
+        Point(9.9, 2.0),
+        Point(10.1, 3.0),
+        Point(13.0, 5.0),
+        Point(10.1, 7.0),
+        Point(9.8, 8.0),
+        Point(10.0, 10.0),
+    )
+
+    private val left = Polygon(
+        listOf(listOf(Point(0.0, 0.0)) + border + listOf(Point(0.0, 10.0), Point(0.0, 0.0)))
+    )
+
+    private val right = Polygon(
+        listOf(listOf(Point(20.0, 0.0), Point(20.0, 10.0)) + border.reversed() + listOf(Point(20.0, 0.0)))
+    )
+
+    @Test
+    fun simplify_keepsSharedBordersShared() {
+        val result = TopologySimplifier.simplify(
+            FeatureCollection(listOf(Feature(left), Feature(right))),
+            1.0
+        )
+
+        val leftRing = (result.features[0].geometry as Polygon).coordinates.first()
+        val rightRing = (result.features[1].geometry as Polygon).coordinates.first()
+
+        val leftBorder = leftRing.filter { point -> point.longitude > 5 && point.longitude < 15 }
+        val rightBorder = rightRing.filter { point -> point.longitude > 5 && point.longitude < 15 }
+
+        assertEquals(leftBorder.toSet(), rightBorder.toSet())
+        assertTrue(leftBorder.size < border.size, "Shared border was not simplified")
+        assertTrue(border.containsAll(leftBorder))
+        assertEquals(leftRing.first(), leftRing.last())
+        assertEquals(rightRing.first(), rightRing.last())
+    }
+
+    @Test
+    fun simplify_keepsFeatureOrderAndProperties() {
+        val line = Feature(LineString(border))
+        val polygon = Feature(left, id = "left")
+        polygon.addProperty("name", "left")
+
+        val result = TopologySimplifier.simplify(FeatureCollection(listOf(line, polygon)), 1.0)
+
+        assertSame(line, result.features[0])
+        assertEquals("left", result.features[1].id)
+        assertEquals("left", result.features[1].getStringProperty("name"))
+    }
+
+    @Test
+    fun simplify_rejectsSimplificationsCrossingHoles() {
+        // Simplifying the outer ring to a square would cross the hole
+        val hole = listOf(
+            Point(5.3, -0.3),
+            Point(5.7, -0.3),
+            Point(5.5, 0.2),
+            Point(5.3, -0.3),
+        )
+        val rings = simplifyBumpedSquare(hole)
+
+        assertTrue(rings[0].contains(BUMP), "Simplification crossing the hole was accepted")
+        assertEquals(hole.toSet(), rings[1].toSet())
+    }
+
+    @Test
+    fun simplify_rejectsSimplificationsCuttingOffHoles() {
+        // Simplifying the outer ring to a square would leave the hole outside of it
+        val hole = listOf(
+            Point(5.3, -0.3),
+            Point(5.7, -0.3),
+            Point(5.5, -0.1),
+            Point(5.3, -0.3),
+        )
+        val rings = simplifyBumpedSquare(hole)
+
+        assertTrue(rings[0].contains(BUMP), "Simplification cutting off the hole was accepted")
+    }
+
+    private fun simplifyBumpedSquare(hole: List<Point>): List<List<Point>> {
+        val outer = listOf(
+            Point(0.0, 0.0),
+            Point(5.0, 0.0),
+            BUMP,
+            Point(6.0, 0.0),
+            Point(10.0, 0.0),
+            Point(10.0, 10.0),
+            Point(0.0, 10.0),
+            Point(0.0, 0.0),
+        )
+        val result = TopologySimplifier.simplify(
+            FeatureCollection(Feature(MultiPolygon(listOf(listOf(outer, hole))))),
+            1.0
+        )
+        return (result.features[0].geometry as MultiPolygon).coordinates.first()
+    }
+
+    @Test
+    fun simplify_keepsRingsValid() {
+        val triangle = listOf(
+            Point(0.0, 0.0),
+            Point(1.0, 0.0),
+            Point(0.5, 0.01),
+            Point(0.0, 0.0),
+        )
+        val result = TopologySimplifier.simplify(FeatureCollection(Feature(Polygon(listOf(triangle)))), 1.0)
+
+        assertEquals(4, (result.features[0].geometry as Polygon).coordinates.first().size)
+    }
+
+    companion object {
+        private val BUMP = Point(5.5, -0.5)
+    }
+}
@@ -0,0 +1,97 @@
+package com.trackasia.geojson.utils
+
+import com.trackasia.geojson.model.Point
+import kotlin.test.Test
+import kotlin.test.assertContentEquals
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+class TrajectorySimplifierTest {
+
+    @Test
+    fun simplify_keepsDwellTime() {
+        val simplified = TrajectorySimplifier.simplify(stopAndGoTrajectory(), 0.1)
+
+        assertContentEquals(
+            doubleArrayOf(
+                0.0, 0.0, 0.0,
+                5.0, 0.0, 5.0,
+                5.0, 0.0, 15.0,
+                10.0, 0.0, 20.0,
+            ),
+            simplified
+        )
+        // A shape-only simplification drops the stop entirely
+        assertEquals(2, PolylineUtils.simplify(stopAndGoPoints(), 0.1, true).size)
+    }
+
+    @Test
+    fun simplify_returnsRetainedIndicesForPoints() {
+        val points = stopAndGoPoints()
+        val timestamps = DoubleArray(points.size) { i -> stopAndGoTrajectory()[i * 3 + 2] }
+
+        assertContentEquals(intArrayOf(0, 5, 15, 20), TrajectorySimplifier.simplify(points, timestamps, 0.1))
+    }
+
+    @Test
+    fun simplify_rejectsInvalidInput() {
+        assertFailsWith(IllegalArgumentException::class) {
+            TrajectorySimplifier.simplify(doubleArrayOf(0.0, 0.0), 1.0)
+        }
+        assertFailsWith(IllegalArgumentException::class) {
+            TrajectorySimplifier.simplify(listOf(Point(0.0, 0.0)), doubleArrayOf(), 1.0)
+        }
+    }
+
+    @Test
+    fun streaming_keepsDwellTime() {
+        val trajectory = stopAndGoTrajectory()
+        val simplifier = StreamingTrajectorySimplifier(0.1)
+        val committed = mutableListOf<Double>()
+
+        for (i in 0 until trajectory.size / 3) {
+            if (simplifier.add(trajectory[i * 3], trajectory[i * 3 + 1], trajectory[i * 3 + 2])) {
+                committed.add(simplifier.committedTime)
+            }
+        }
+        assertTrue(simplifier.finish())
+        committed.add(simplifier.committedTime)
+        assertFalse(simplifier.finish())
+
+        assertEquals(listOf(0.0, 5.0, 15.0, 20.0), committed)
+    }
+
+    @Test
+    fun streaming_rejectsTooSmallWindow() {
+        assertFailsWith(IllegalArgumentException::class) {
+            StreamingTrajectorySimplifier(0.1, 1)
+        }
+        assertFailsWith(IllegalArgumentException::class) {
+            StreamingTrajectorySimplifier(0.1, -1)
+        }
+    }
+
+    private fun stopAndGoPoints(): List<Point> {
+        val trajectory = stopAndGoTrajectory()
+        return (0 until trajectory.size / 3).map { i -> Point(trajectory[i * 3], trajectory[i * 3 + 1]) }
+    }
+
+    /**
+     * Drives from x = 0 to 5 in 5 seconds, waits 10 seconds and drives on to x = 10 in 5 seconds.
+     */
+    private fun stopAndGoTrajectory(): DoubleArray {
+        val trajectory = DoubleArray(21 * 3)
+        for (time in 0..20) {
+            val x = when {
+                time <= 5 -> time.toDouble()
+                time <= 15 -> 5.0
+                else -> time - 10.0
+            }
+            trajectory[time * 3] = x
+            trajectory[time * 3 + 2] = time.toDouble()
+        }
+        return trajectory
+    }
+}
@@ -0,0 +1,142 @@
+package com.trackasia.geojson.utils
+
+import com.trackasia.geojson.model.Feature
+import com.trackasia.geojson.model.FeatureCollection
+import com.trackasia.geojson.model.Geometry
+import com.trackasia.geojson.model.GeometryCollection
+import com.trackasia.geojson.model.LineString
+import com.trackasia.geojson.model.MultiLineString
+import com.trackasia.geojson.model.MultiPoint
+import com.trackasia.geojson.model.MultiPolygon
+import com.trackasia.geojson.model.Point
+import com.trackasia.geojson.model.Polygon
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.RecursiveAction
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Simplifies all geometries of a [FeatureCollection] in parallel on a [ForkJoinPool].
+ *
+ * Work is split by vertex count instead of feature count, so a layer with a few huge polygons and
+ * many small lines still keeps all workers busy. Every geometry is simplified with
+ * [PolylineUtils.simplify], features keep their order, properties, id and bounding box.
+ *
+ * @since 7.1.0
+ */
+object ParallelSimplifier {
+
+    // Smallest number of vertices worth a separate task
+    private const val MIN_TASK_VERTICES = 4096L
+
+    // Number of tasks per worker, more tasks balance better when geometries differ in cost
+    private const val TASKS_PER_THREAD = 8
+
+    /**
+     * Receives the progress of a bulk simplification. Called from worker threads, once per
+     * finished task.
+     *
+     * @since 7.1.0
+     */
+    fun interface ProgressListener {
+
+        /**
+         * @param simplifiedVertices number of input vertices simplified so far
+         * @param totalVertices      number of input vertices of the whole collection
+         */
+        fun onProgress(simplifiedVertices: Long, totalVertices: Long)
+    }
+
+    /**
+     * Simplifies the geometries of all features in a [FeatureCollection] in parallel.
+     *
+     * @param featureCollection the features to simplify
+     * @param tolerance         affects the amount of simplification (in the same metric as the point coordinates)
+     * @param highestQuality    excludes distance-based preprocessing step which leads to highest quality
+     * simplification
+     * @param pool              the pool running the simplification, the common pool by default
+     * @param listener          optional listener receiving the progress
+     * @return a new [FeatureCollection] with simplified geometries
+     * @see PolylineUtils.simplify
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun simplify(
+        featureCollection: FeatureCollection,
+        tolerance: Double,
+        highestQuality: Boolean = false,
+        pool: ForkJoinPool = ForkJoinPool.commonPool(),
+        listener: ProgressListener? = null,
+    ): FeatureCollection {
+        val features = featureCollection.features
+        // Prefix sums of the vertex counts, offsets[i] is the number of vertices before feature i
+        val offsets = LongArray(features.size + 1)
+        for (i in features.indices) {
+            offsets[i + 1] = offsets[i] + vertexCount(features[i].geometry)
+        }
+        val totalVertices = offsets[features.size]
+        val taskVertices = maxOf(MIN_TASK_VERTICES, totalVertices / (pool.parallelism * TASKS_PER_THREAD))
+
+        val result = arrayOfNulls<Feature>(features.size)
+        val progress = AtomicLong()
+        pool.invoke(
+            SimplifyTask(offsets, 0, features.size, taskVertices) { from, to ->
+                for (i in from until to) {
+                    result[i] = PolylineUtils.simplify(features[i], tolerance, highestQuality)
+                }
+                if (listener != null) {
+                    val vertices = offsets[to] - offsets[from]
+                    listener.onProgress(progress.addAndGet(vertices), totalVertices)
+                }
+            }
+        )
+
+        return FeatureCollection(result.requireNoNulls().asList(), featureCollection.bbox)
+    }
+
+    /**
+     * Splits a range of features in two halves of about the same vertex count until a range is
+     * small enough, then runs [work] on it.
+     */
+    private class SimplifyTask(
+        private val offsets: LongArray,
+        private val from: Int,
+        private val to: Int,
+        private val taskVertices: Long,
+        private val work: (Int, Int) -> Unit,
+    ) : RecursiveAction() {
+
+        override fun compute() {
+            if (to - from <= 1 || offsets[to] - offsets[from] <= taskVertices) {
+                work(from, to)
+                return
+            }
+
+            // Split where half of the vertices of this range are done
+            val half = (offsets[from] + offsets[to]) / 2
+            var split = offsets.binarySearch(half, from, to + 1)
+            if (split < 0) {
+                split = -split - 1
+            }
+            split = split.coerceIn(from + 1, to - 1)
+
+            invokeAll(
+                SimplifyTask(offsets, from, split, taskVertices, work),
+                SimplifyTask(offsets, split, to, taskVertices, work)
+            )
+        }
+    }
+
+    private fun vertexCount(geometry: Geometry?): Long {
+        return when (geometry) {
+            is Point -> 1L
+            is MultiPoint -> geometry.coordinates.size.toLong()
+            is LineString -> geometry.coordinates.size.toLong()
+            is MultiLineString -> geometry.coordinates.sumOf { line -> line.size.toLong() }
+            is Polygon -> geometry.coordinates.sumOf { ring -> ring.size.toLong() }
+            is MultiPolygon -> geometry.coordinates.sumOf { rings -> rings.sumOf { ring -> ring.size.toLong() } }
+            is GeometryCollection -> geometry.geometries.sumOf { child -> vertexCount(child) }
+            null -> 0L
+        }
+    }
+}
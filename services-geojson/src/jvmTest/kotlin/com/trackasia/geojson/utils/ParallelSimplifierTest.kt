@@ -0,0 +1,69 @@
+package com.trackasia.geojson.utils
+
+import com.trackasia.geojson.model.Feature
+import com.trackasia.geojson.model.FeatureCollection
+import com.trackasia.geojson.model.LineString
+import com.trackasia.geojson.model.Point
+import com.trackasia.geojson.model.Polygon
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.atomic.AtomicLong
+import kotlin.math.sin
+import kotlin.test.Test
+import kotlin.test.assertEquals
+
+class ParallelSimplifierTest {
+
+    @Test
+    fun simplify_matchesSequentialSimplification() {
+        val features = (0 until 500).map { i ->
+            val size = if (i % 50 == 0) 20_000 else 50 + i
+            val feature = if (i % 3 == 0) {
+                Feature(Polygon(listOf(ring(size, i.toDouble()))), id = "feature-$i")
+            } else {
+                Feature(LineString(line(size, i.toDouble())), id = "feature-$i")
+            }
+            feature.addProperty("index", i)
+            feature
+        }
+        val collection = FeatureCollection(features)
+        val pool = ForkJoinPool(4)
+        val progress = AtomicLong()
+        var total = 0L
+
+        val result = ParallelSimplifier.simplify(collection, 0.01, false, pool) { simplified, totalVertices ->
+            progress.accumulateAndGet(simplified, ::maxOf)
+            total = totalVertices
+        }
+        pool.shutdown()
+
+        assertEquals(PolylineUtils.simplify(collection, 0.01, false), result)
+        assertEquals(total, progress.get())
+        assertEquals(features.sumOf { feature -> vertexCount(feature) }, total)
+    }
+
+    @Test
+    fun simplify_handlesEmptyCollection() {
+        val result = ParallelSimplifier.simplify(FeatureCollection(emptyList()), 1.0)
+        assertEquals(0, result.features.size)
+    }
+
+    private fun vertexCount(feature: Feature): Long {
+        return when (val geometry = feature.geometry) {
+            is LineString -> geometry.coordinates.size.toLong()
+            is Polygon -> geometry.coordinates.sumOf { ring -> ring.size.toLong() }
+            else -> 0L
+        }
+    }
+
+    private fun line(size: Int, offset: Double): List<Point> {
+        return (0 until size).map { i -> Point(offset + i * 0.001, sin(i * 0.05) * 0.1) }
+    }
+
+    private fun ring(size: Int, offset: Double): List<Point> {
+        val points = (0 until size).map { i ->
+            val angle = 2 * Math.PI * i / size
+            Point(offset + Math.cos(angle) * (1 + 0.05 * sin(angle * 40)), Math.sin(angle))
+        }
+        return points + points.first()
+    }
+}
@@ -0,0 +1,35 @@
+package com.trackasia.geojson.turf
+
+import kotlinx.cinterop.ExperimentalForeignApi
+import platform.posix.sched_yield
+import kotlin.concurrent.AtomicInt
+
+internal actual fun newLock(): Lock = SpinLock()
+
+/**
+ * A spin lock, meant for the short critical sections of the library. Waiting threads spin a few
+ * times, then yield the processor between attempts so that a preempted holder can finish.
+ */
+private class SpinLock : Lock {
+
+    private val state = AtomicInt(0)
+
+    @OptIn(ExperimentalForeignApi::class)
+    override fun lock() {
+        var spins = 0
+        while (!state.compareAndSet(0, 1)) {
+            if (++spins >= MAX_SPINS) {
+                sched_yield()
+                spins = 0
+            }
+        }
+    }
+
+    override fun unlock() {
+        state.value = 0
+    }
+
+    private companion object {
+        private const val MAX_SPINS = 64
+    }
+}
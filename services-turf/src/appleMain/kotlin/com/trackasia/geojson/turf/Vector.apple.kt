@@ -0,0 +1,14 @@
+package com.trackasia.geojson.turf
+
+internal actual fun haversineRow(
+    from: HaversineTerms,
+    row: Int,
+    to: HaversineTerms,
+    start: Int,
+    end: Int,
+    factor: Double,
+    result: DoubleArray,
+    offset: Int
+) = from.haversineRow(row, to, start, end, factor, result, offset)
+
+internal actual fun ringCrossings(x: Double, y: Double, ring: RingEdges): Int = ring.crossings(x, y)
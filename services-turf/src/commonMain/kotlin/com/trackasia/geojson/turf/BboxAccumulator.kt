@@ -0,0 +1,204 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.Feature
+import com.trackasia.geojson.model.FeatureCollection
+import com.trackasia.geojson.model.Geometry
+import com.trackasia.geojson.model.GeometryCollection
+import com.trackasia.geojson.model.LineString
+import com.trackasia.geojson.model.MultiLineString
+import com.trackasia.geojson.model.MultiPoint
+import com.trackasia.geojson.model.MultiPolygon
+import com.trackasia.geojson.model.Point
+import com.trackasia.geojson.model.Polygon
+
+/**
+ * Grows a bounding box one coordinate at a time, walking geometries in place instead of
+ * collecting their coordinates into a list first.
+ *
+ * @param wrapAntimeridian whether to also keep every longitude, so that [toWrappedArray] can
+ * find the narrowest longitude interval, which may cross the antimeridian
+ */
+internal class BboxAccumulator(private val wrapAntimeridian: Boolean = false) {
+
+    private var longitudes = if (wrapAntimeridian) DoubleArray(64) else DoubleArray(0)
+    private var longitudeCount = 0
+
+    var west = Double.POSITIVE_INFINITY
+        private set
+    var south = Double.POSITIVE_INFINITY
+        private set
+    var east = Double.NEGATIVE_INFINITY
+        private set
+    var north = Double.NEGATIVE_INFINITY
+        private set
+
+    /**
+     * Whether no coordinate has been added yet.
+     */
+    val isEmpty: Boolean
+        get() = west > east
+
+    fun add(longitude: Double, latitude: Double) {
+        if (wrapAntimeridian) {
+            if (longitudeCount == longitudes.size) {
+                longitudes = longitudes.copyOf(longitudeCount * 2)
+            }
+            longitudes[longitudeCount++] = longitude
+        }
+        if (longitude < west) west = longitude
+        if (longitude > east) east = longitude
+        if (latitude < south) south = latitude
+        if (latitude > north) north = latitude
+    }
+
+    fun add(points: List<Point>) {
+        for (i in points.indices) {
+            val point = points[i]
+            add(point.longitude, point.latitude)
+        }
+    }
+
+    fun add(geometry: Geometry) {
+        when (geometry) {
+            is Point -> add(geometry.longitude, geometry.latitude)
+            is MultiPoint -> add(geometry.coordinates)
+            is LineString -> add(geometry.coordinates)
+            is MultiLineString -> geometry.coordinates.forEach { add(it) }
+            is Polygon -> geometry.coordinates.forEach { add(it) }
+            is MultiPolygon -> geometry.coordinates.forEach { polygon -> polygon.forEach { add(it) } }
+            is GeometryCollection -> geometry.geometries.forEach { add(it) }
+            else -> throw TurfException("Unsupported geometry type: $geometry")
+        }
+    }
+
+    fun add(features: List<Feature>, from: Int, to: Int) {
+        for (i in from until to) {
+            features[i].geometry?.let { add(it) }
+        }
+    }
+
+    /**
+     * Adds a bounding box stored as `[west, south, east, north]` at [offset] in [bbox].
+     */
+    fun add(bbox: DoubleArray, offset: Int) {
+        if (bbox[offset] < west) west = bbox[offset]
+        if (bbox[offset + 1] < south) south = bbox[offset + 1]
+        if (bbox[offset + 2] > east) east = bbox[offset + 2]
+        if (bbox[offset + 3] > north) north = bbox[offset + 3]
+    }
+
+    /**
+     * Writes the bounding box as `[west, south, east, north]` at [offset] in [result].
+     */
+    fun writeTo(result: DoubleArray, offset: Int) {
+        result[offset] = west
+        result[offset + 1] = south
+        result[offset + 2] = east
+        result[offset + 3] = north
+    }
+
+    /**
+     * Returns the bounding box as `[west, south, east, north]`.
+     *
+     * @throws NoSuchElementException if no coordinate has been added
+     */
+    fun toArray(): DoubleArray {
+        if (isEmpty) {
+            throw NoSuchElementException("Cannot calculate the bbox of a GeoJson without coordinates")
+        }
+        return doubleArrayOf(west, south, east, north)
+    }
+
+    /**
+     * Returns the bounding box with the narrowest longitude interval that contains every
+     * longitude, as `[west, south, east, north]`. The interval crosses the antimeridian when
+     * west is greater than east, as specified by RFC 7946.
+     *
+     * @throws NoSuchElementException if no coordinate has been added
+     */
+    fun toWrappedArray(): DoubleArray {
+        check(wrapAntimeridian) { "Longitudes are not tracked by this accumulator" }
+        val bbox = toArray()
+        if (east - west <= 180 && west >= -180 && east <= 180) {
+            // The gap around the antimeridian is at least half of the world, nothing is narrower
+            return bbox
+        }
+
+        val sorted = longitudes.copyOf(longitudeCount)
+        for (i in sorted.indices) {
+            sorted[i] = normalizeLongitude(sorted[i])
+        }
+        sorted.sort()
+
+        // The narrowest interval leaves out the widest gap between consecutive longitudes
+        var widestGap = sorted[0] + 360 - sorted[sorted.size - 1]
+        var gapStart = -1
+        for (i in 0 until sorted.size - 1) {
+            val gap = sorted[i + 1] - sorted[i]
+            if (gap > widestGap) {
+                widestGap = gap
+                gapStart = i
+            }
+        }
+        if (gapStart < 0) {
+            bbox[0] = sorted[0]
+            bbox[2] = sorted[sorted.size - 1]
+        } else {
+            bbox[0] = sorted[gapStart + 1]
+            bbox[2] = sorted[gapStart]
+        }
+        return bbox
+    }
+
+    companion object {
+
+        /**
+         * Number of features accumulated by each parallel task.
+         */
+        private const val BLOCK_SIZE = 4096
+
+        /**
+         * Number of features below which a collection is not split into parallel tasks.
+         */
+        private const val PARALLEL_THRESHOLD = 4 * BLOCK_SIZE
+
+        /**
+         * Accumulates the coordinates of every feature of a collection. Large collections are
+         * split into blocks that are accumulated in parallel and merged afterwards.
+         */
+        fun of(featureCollection: FeatureCollection): BboxAccumulator {
+            val features = featureCollection.features
+            val accumulator = BboxAccumulator()
+            if (features.size < PARALLEL_THRESHOLD) {
+                accumulator.add(features, 0, features.size)
+                return accumulator
+            }
+
+            val blocks = (features.size + BLOCK_SIZE - 1) / BLOCK_SIZE
+            val partial = DoubleArray(4 * blocks)
+            parallelFor(blocks, 1) { from, to ->
+                for (block in from until to) {
+                    val blockAccumulator = BboxAccumulator()
+                    val start = block * BLOCK_SIZE
+                    blockAccumulator.add(features, start, minOf(start + BLOCK_SIZE, features.size))
+                    blockAccumulator.writeTo(partial, 4 * block)
+                }
+            }
+            for (block in 0 until blocks) {
+                accumulator.add(partial, 4 * block)
+            }
+            return accumulator
+        }
+
+        /**
+         * Brings a longitude into the range -180 to 180.
+         */
+        private fun normalizeLongitude(longitude: Double): Double {
+            if (longitude >= -180 && longitude <= 180) {
+                return longitude
+            }
+            val wrapped = (longitude + 180) % 360
+            return if (wrapped < 0) wrapped + 180 else wrapped - 180
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.trackasia.geojson.turf
+
+/**
+ * Clips packed lines and rings against an axis-aligned box, following the algorithms of the
+ * mapbox/lineclip library: Cohen-Sutherland for lines and Sutherland-Hodgman for rings.
+ *
+ * Each point gets a bit code of the box sides it lies beyond, so segments entirely inside or
+ * entirely beyond one side are accepted or rejected without computing any intersection. Inputs
+ * whose points are all inside the box are returned as they are, without copying.
+ *
+ * Vertices may carry values after their coordinates, such as a simplification importance: the
+ * values of input vertices are copied to the output and those of the vertices added on the sides
+ * of the box are set to [fill].
+ *
+ * Clippers reuse an output buffer between calls and are not thread safe.
+ *
+ * @param minX   west side of the box
+ * @param minY   south side of the box
+ * @param maxX   east side of the box
+ * @param maxY   north side of the box
+ * @param stride number of values per vertex, the first two being its coordinates
+ * @param fill   value given to the extra values of the vertices added on the sides of the box
+ */
+internal class BboxClipper(
+    private val minX: Double,
+    private val minY: Double,
+    private val maxX: Double,
+    private val maxY: Double,
+    private val stride: Int = 2,
+    private val fill: Double = 0.0
+) {
+
+    private var buffer = DoubleArray(64)
+
+    private var size = 0
+
+    /**
+     * Clips the line of packed [coordinates] and returns the packed parts left inside the box.
+     */
+    fun clipLine(coordinates: DoubleArray): List<DoubleArray> {
+        requireStride(coordinates)
+        val count = coordinates.size / stride
+        if (count == 0 || isInside(coordinates)) {
+            return if (count == 0) emptyList() else listOf(coordinates)
+        }
+        val parts = ArrayList<DoubleArray>()
+        size = 0
+        var codeA = code(coordinates[0], coordinates[1])
+        for (i in 1 until count) {
+            var ax = coordinates[stride * (i - 1)]
+            var ay = coordinates[stride * (i - 1) + 1]
+            var bx = coordinates[stride * i]
+            var by = coordinates[stride * i + 1]
+            val lastCode = code(bx, by)
+            var codeB = lastCode
+            var movedA = false
+            while (true) {
+                if (codeA or codeB == 0) {
+                    // Accept the segment, or what is left of it
+                    add(ax, ay, coordinates, if (movedA) -1 else i - 1)
+                    if (codeB != lastCode) {
+                        // The segment leaves the box, the part ends here
+                        add(bx, by, coordinates, -1)
+                        if (i < count - 1) {
+                            parts.add(buffer.copyOf(size))
+                            size = 0
+                        }
+                    } else if (i == count - 1) {
+                        add(bx, by, coordinates, i)
+                    }
+                    break
+                } else if (codeA and codeB != 0) {
+                    // Both ends beyond the same side
+                    break
+                } else if (codeA != 0) {
+                    val x = intersectX(ax, ay, bx, by, codeA)
+                    ay = intersectY(ax, ay, bx, by, codeA)
+                    ax = x
+                    codeA = code(ax, ay)
+                    movedA = true
+                } else {
+                    val x = intersectX(ax, ay, bx, by, codeB)
+                    by = intersectY(ax, ay, bx, by, codeB)
+                    bx = x
+                    codeB = code(bx, by)
+                }
+            }
+            codeA = lastCode
+        }
+        if (size > 0) {
+            parts.add(buffer.copyOf(size))
+        }
+        return parts
+    }
+
+    /**
+     * Clips the ring of packed [coordinates] and returns the packed ring left inside the box,
+     * closed, or an empty array if less than a triangle is left.
+     */
+    fun clipRing(coordinates: DoubleArray): DoubleArray {
+        requireStride(coordinates)
+        if (coordinates.isEmpty() || isInside(coordinates)) {
+            return coordinates
+        }
+        var points = coordinates
+        var count = coordinates.size / stride
+        var edge = LEFT
+        while (edge <= TOP && count > 0) {
+            size = 0
+            var px = points[stride * (count - 1)]
+            var py = points[stride * (count - 1) + 1]
+            var prevInside = code(px, py) and edge == 0
+            for (i in 0 until count) {
+                val x = points[stride * i]
+                val y = points[stride * i + 1]
+                val inside = code(x, y) and edge == 0
+                if (inside != prevInside) {
+                    add(intersectX(px, py, x, y, edge), intersectY(px, py, x, y, edge), points, -1)
+                }
+                if (inside) {
+                    add(x, y, points, i)
+                }
+                px = x
+                py = y
+                prevInside = inside
+            }
+            points = buffer.copyOf(size)
+            count = size / stride
+            edge = edge shl 1
+        }
+        val last = stride * (count - 1)
+        val closed = count > 0 && points[0] == points[last] && points[1] == points[last + 1]
+        if (count > 0 && !closed) {
+            points += points.copyOf(stride)
+            count++
+        }
+        return if (count >= 4) points else DoubleArray(0)
+    }
+
+    /**
+     * Returns true if every point of [coordinates] is inside the box.
+     */
+    private fun isInside(coordinates: DoubleArray): Boolean {
+        var i = 0
+        while (i < coordinates.size) {
+            if (code(coordinates[i], coordinates[i + 1]) != 0) {
+                return false
+            }
+            i += stride
+        }
+        return true
+    }
+
+    private fun requireStride(coordinates: DoubleArray) {
+        if (stride == 2) {
+            require(coordinates.size % 2 == 0) { "Packed coordinates must have an even size" }
+        } else {
+            require(coordinates.size % stride == 0) {
+                "Packed coordinates must have $stride values per vertex"
+            }
+        }
+    }
+
+    /**
+     * Appends a vertex at `(x, y)`, with the extra values of [vertex] in [source], or [fill] if
+     * [vertex] is negative.
+     */
+    private fun add(x: Double, y: Double, source: DoubleArray, vertex: Int) {
+        if (size + stride > buffer.size) {
+            buffer = buffer.copyOf(2 * maxOf(buffer.size, stride))
+        }
+        buffer[size] = x
+        buffer[size + 1] = y
+        for (k in 2 until stride) {
+            buffer[size + k] = if (vertex < 0) fill else source[stride * vertex + k]
+        }
+        size += stride
+    }
+
+    private fun code(x: Double, y: Double): Int {
+        var code = 0
+        if (x < minX) {
+            code = LEFT
+        } else if (x > maxX) {
+            code = RIGHT
+        }
+        if (y < minY) {
+            code = code or BOTTOM
+        } else if (y > maxY) {
+            code = code or TOP
+        }
+        return code
+    }
+
+    /**
+     * Returns the longitude where the segment from `(ax, ay)` to `(bx, by)` meets the side
+     * [edge].
+     */
+    private fun intersectX(ax: Double, ay: Double, bx: Double, by: Double, edge: Int): Double {
+        return when {
+            edge and TOP != 0 -> ax + (bx - ax) * (maxY - ay) / (by - ay)
+            edge and BOTTOM != 0 -> ax + (bx - ax) * (minY - ay) / (by - ay)
+            edge and RIGHT != 0 -> maxX
+            else -> minX
+        }
+    }
+
+    /**
+     * Returns the latitude where the segment from `(ax, ay)` to `(bx, by)` meets the side [edge].
+     */
+    private fun intersectY(ax: Double, ay: Double, bx: Double, by: Double, edge: Int): Double {
+        return when {
+            edge and TOP != 0 -> maxY
+            edge and BOTTOM != 0 -> minY
+            edge and RIGHT != 0 -> ay + (by - ay) * (maxX - ax) / (bx - ax)
+            else -> ay + (by - ay) * (minX - ax) / (bx - ax)
+        }
+    }
+
+    private companion object {
+        private const val LEFT = 1
+        private const val RIGHT = 2
+        private const val BOTTOM = 4
+        private const val TOP = 8
+    }
+}
@@ -0,0 +1,347 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.Feature
+import com.trackasia.geojson.model.FeatureCollection
+import com.trackasia.geojson.model.GeoJson
+import com.trackasia.geojson.model.Geometry
+import com.trackasia.geojson.model.GeometryCollection
+import com.trackasia.geojson.model.LineString
+import com.trackasia.geojson.model.MultiLineString
+import com.trackasia.geojson.model.MultiPoint
+import com.trackasia.geojson.model.MultiPolygon
+import com.trackasia.geojson.model.Point
+import com.trackasia.geojson.model.Polygon
+import kotlin.math.abs
+
+/**
+ * Collects what [TurfMeasurement.centroid], [TurfMeasurement.centerOfMass] and
+ * [TurfMeasurement.pointOnSurface] need in a single walk over the coordinates: the sum of the
+ * vertices, the first moments of area of the polygons and the widest interior scan line segment
+ * of the polygons.
+ *
+ * Polygons are read from packed rings. Polygons of [Geometry] objects are copied into a buffer
+ * that is reused for every polygon, so that each call only allocates this accumulator.
+ *
+ * Coordinates are treated as planar, which is accurate for the extent of a typical feature.
+ *
+ * @param interior whether to search for the widest interior segment, which is only needed by
+ * [pointOnSurface]
+ */
+internal class CenterAccumulator(private val interior: Boolean = false) {
+
+    private var vertexCount = 0
+    private var sumX = 0.0
+    private var sumY = 0.0
+
+    // Moments are taken relative to the first polygon vertex, to limit the loss of precision
+    private var hasOrigin = false
+    private var originX = 0.0
+    private var originY = 0.0
+    private var doubleArea = 0.0
+    private var momentX = 0.0
+    private var momentY = 0.0
+
+    private var interiorWidth = -1.0
+    private var interiorX = 0.0
+    private var interiorY = 0.0
+    private var crossings = if (interior) DoubleArray(16) else DoubleArray(0)
+
+    private var buffer = DoubleArray(0)
+    private var ringEnds = IntArray(0)
+
+    private var targetX = 0.0
+    private var targetY = 0.0
+    private var nearestX = 0.0
+    private var nearestY = 0.0
+    private var nearestDistance = 0.0
+
+    /**
+     * Whether no vertex has been added yet.
+     */
+    val isEmpty: Boolean
+        get() = vertexCount == 0
+
+    fun addVertex(x: Double, y: Double) {
+        vertexCount++
+        sumX += x
+        sumY += y
+    }
+
+    fun add(points: List<Point>) {
+        for (i in points.indices) {
+            addVertex(points[i].longitude, points[i].latitude)
+        }
+    }
+
+    fun add(geoJson: GeoJson) {
+        when (geoJson) {
+            is Feature -> geoJson.geometry?.let { add(it) }
+            is FeatureCollection -> geoJson.features.forEach { feature -> feature.geometry?.let { add(it) } }
+            is Geometry -> add(geoJson)
+            else -> throw TurfException("Unsupported GeoJson type: $geoJson")
+        }
+    }
+
+    fun add(geometry: Geometry) {
+        when (geometry) {
+            is Point -> addVertex(geometry.longitude, geometry.latitude)
+            is MultiPoint -> add(geometry.coordinates)
+            is LineString -> add(geometry.coordinates)
+            is MultiLineString -> geometry.coordinates.forEach { add(it) }
+            is Polygon -> addPolygon(geometry.coordinates)
+            is MultiPolygon -> geometry.coordinates.forEach { addPolygon(it) }
+            is GeometryCollection -> geometry.geometries.forEach { add(it) }
+            else -> throw TurfException("Unsupported geometry type: $geometry")
+        }
+    }
+
+    private fun addPolygon(rings: List<List<Point>>) {
+        var size = 0
+        for (ring in rings) {
+            size += ring.size
+        }
+        if (buffer.size < 2 * size) {
+            buffer = DoubleArray(maxOf(2 * size, 2 * buffer.size))
+        }
+        if (ringEnds.size < rings.size) {
+            ringEnds = IntArray(maxOf(rings.size, 2 * ringEnds.size))
+        }
+        var vertex = 0
+        for ((index, ring) in rings.withIndex()) {
+            for (point in ring) {
+                buffer[2 * vertex] = point.longitude
+                buffer[2 * vertex + 1] = point.latitude
+                vertex++
+            }
+            ringEnds[index] = vertex
+        }
+        addPolygon(buffer, ringEnds, rings.size)
+    }
+
+    /**
+     * Adds a polygon stored as packed rings, the first ring being the exterior ring.
+     *
+     * @param coordinates packed `[lon0, lat0, lon1, lat1, ...]` coordinates of all rings
+     * @param ringEnds    index of the vertex following the last vertex of each ring
+     * @param ringCount   number of rings to read from [ringEnds]
+     */
+    fun addPolygon(coordinates: DoubleArray, ringEnds: IntArray, ringCount: Int) {
+        var start = 0
+        for (ring in 0 until ringCount) {
+            val end = ringEnds[ring]
+            if (end < start || end > coordinates.size / 2) {
+                throw TurfException("Ring end $end is out of order or out of bounds")
+            }
+            addRing(coordinates, start, openEnd(coordinates, start, end), ring == 0)
+            start = end
+        }
+        if (interior && ringCount > 0) {
+            addInteriorSegment(coordinates, ringEnds, ringCount)
+        }
+    }
+
+    private fun addRing(coordinates: DoubleArray, start: Int, end: Int, exterior: Boolean) {
+        for (i in start until end) {
+            addVertex(coordinates[2 * i], coordinates[2 * i + 1])
+        }
+        if (end - start < 3) {
+            return
+        }
+        if (!hasOrigin) {
+            hasOrigin = true
+            originX = coordinates[2 * start]
+            originY = coordinates[2 * start + 1]
+        }
+
+        // Shoelace formula, with the closing edge handled by starting from the last vertex
+        var area = 0.0
+        var mx = 0.0
+        var my = 0.0
+        var x1 = coordinates[2 * (end - 1)] - originX
+        var y1 = coordinates[2 * (end - 1) + 1] - originY
+        for (i in start until end) {
+            val x2 = coordinates[2 * i] - originX
+            val y2 = coordinates[2 * i + 1] - originY
+            val cross = x1 * y2 - x2 * y1
+            area += cross
+            mx += (x1 + x2) * cross
+            my += (y1 + y2) * cross
+            x1 = x2
+            y1 = y2
+        }
+
+        // Exterior rings add their area and holes subtract it, whatever their orientation
+        val sign = if ((area >= 0) == exterior) 1.0 else -1.0
+        doubleArea += sign * area
+        momentX += sign * mx
+        momentY += sign * my
+    }
+
+    /**
+     * Finds the widest segment of a horizontal line through the middle of the polygon that lies
+     * inside the polygon. The line is moved between the nearest vertices above and below the
+     * middle, so that it never passes through a vertex.
+     */
+    private fun addInteriorSegment(coordinates: DoubleArray, ringEnds: IntArray, ringCount: Int) {
+        val exteriorEnd = ringEnds[0]
+        if (exteriorEnd == 0) {
+            return
+        }
+        var minY = Double.POSITIVE_INFINITY
+        var maxY = Double.NEGATIVE_INFINITY
+        for (i in 0 until exteriorEnd) {
+            val y = coordinates[2 * i + 1]
+            if (y < minY) minY = y
+            if (y > maxY) maxY = y
+        }
+        val middle = (minY + maxY) / 2
+        var below = minY
+        var above = maxY
+        val last = ringEnds[ringCount - 1]
+        for (i in 0 until last) {
+            val y = coordinates[2 * i + 1]
+            if (y <= middle) {
+                if (y > below) below = y
+            } else if (y < above) {
+                above = y
+            }
+        }
+        val scanY = (below + above) / 2
+
+        var count = 0
+        var start = 0
+        for (ring in 0 until ringCount) {
+            val end = ringEnds[ring]
+            if (end > start) {
+                var x1 = coordinates[2 * (end - 1)]
+                var y1 = coordinates[2 * (end - 1) + 1]
+                for (i in start until end) {
+                    val x2 = coordinates[2 * i]
+                    val y2 = coordinates[2 * i + 1]
+                    if ((y1 > scanY) != (y2 > scanY)) {
+                        if (count == crossings.size) {
+                            crossings = crossings.copyOf(2 * count)
+                        }
+                        crossings[count++] = x1 + (scanY - y1) * (x2 - x1) / (y2 - y1)
+                    }
+                    x1 = x2
+                    y1 = y2
+                }
+            }
+            start = end
+        }
+
+        crossings.sort(0, count)
+        var i = 0
+        while (i + 1 < count) {
+            val width = crossings[i + 1] - crossings[i]
+            if (width > interiorWidth) {
+                interiorWidth = width
+                interiorX = (crossings[i] + crossings[i + 1]) / 2
+                interiorY = scanY
+            }
+            i += 2
+        }
+    }
+
+    /**
+     * Writes the mean of all vertices to [result].
+     */
+    fun centroid(result: DoubleArray): DoubleArray {
+        if (isEmpty) {
+            throw TurfException("Cannot calculate the center of a GeoJson without coordinates")
+        }
+        result[0] = sumX / vertexCount
+        result[1] = sumY / vertexCount
+        return result
+    }
+
+    /**
+     * Writes the area weighted center of the polygons to [result], or the [centroid] if there is
+     * no polygon with an area.
+     */
+    fun centerOfMass(result: DoubleArray): DoubleArray {
+        if (abs(doubleArea) <= 0.0) {
+            return centroid(result)
+        }
+        result[0] = originX + momentX / (3 * doubleArea)
+        result[1] = originY + momentY / (3 * doubleArea)
+        return result
+    }
+
+    /**
+     * Writes the middle of the widest interior segment found to [result], or `false` if no
+     * polygon has been added.
+     */
+    fun pointOnSurface(result: DoubleArray): Boolean {
+        if (interiorWidth < 0) {
+            return false
+        }
+        result[0] = interiorX
+        result[1] = interiorY
+        return true
+    }
+
+    /**
+     * Writes the vertex of [geoJson] closest to the [centroid] to [result], for inputs without
+     * polygons. [geoJson] must be the object that was added to this accumulator.
+     */
+    fun nearestVertex(geoJson: GeoJson, result: DoubleArray): DoubleArray {
+        centroid(result)
+        nearestX = result[0]
+        nearestY = result[1]
+        nearestDistance = Double.POSITIVE_INFINITY
+        forEachVertex(geoJson)
+        result[0] = nearestX
+        result[1] = nearestY
+        return result
+    }
+
+    private fun forEachVertex(geoJson: GeoJson) {
+        targetX = nearestX
+        targetY = nearestY
+        when (geoJson) {
+            is Feature -> geoJson.geometry?.let { visit(it) }
+            is FeatureCollection -> geoJson.features.forEach { feature -> feature.geometry?.let { visit(it) } }
+            is Geometry -> visit(geoJson)
+        }
+    }
+
+    private fun visit(geometry: Geometry) {
+        when (geometry) {
+            is Point -> visit(geometry)
+            is MultiPoint -> geometry.coordinates.forEach { visit(it) }
+            is LineString -> geometry.coordinates.forEach { visit(it) }
+            is MultiLineString -> geometry.coordinates.forEach { line -> line.forEach { visit(it) } }
+            is Polygon -> geometry.coordinates.forEach { ring -> ring.forEach { visit(it) } }
+            is MultiPolygon -> geometry.coordinates.forEach { polygon ->
+                polygon.forEach { ring -> ring.forEach { visit(it) } }
+            }
+            is GeometryCollection -> geometry.geometries.forEach { visit(it) }
+        }
+    }
+
+    private fun visit(point: Point) {
+        val dx = point.longitude - targetX
+        val dy = point.latitude - targetY
+        val distance = dx * dx + dy * dy
+        if (distance < nearestDistance) {
+            nearestDistance = distance
+            nearestX = point.longitude
+            nearestY = point.latitude
+        }
+    }
+
+    companion object {
+
+        /**
+         * Returns the end of a ring without its closing vertex, if it repeats the first one.
+         */
+        private fun openEnd(coordinates: DoubleArray, start: Int, end: Int): Int {
+            return if (end - start > 1 &&
+                coordinates[2 * (end - 1)] == coordinates[2 * start] &&
+                coordinates[2 * (end - 1) + 1] == coordinates[2 * start + 1]
+            ) end - 1 else end
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.trackasia.geojson.turf
+
+import kotlinx.serialization.json.JsonPrimitive
+import com.trackasia.geojson.model.Feature
+import com.trackasia.geojson.model.Point
+import kotlin.jvm.JvmOverloads
+import kotlin.jvm.JvmStatic
+import kotlin.math.IEEErem
+import kotlin.math.PI
+import kotlin.math.abs
+import kotlin.math.atan
+import kotlin.math.atan2
+import kotlin.math.cos
+import kotlin.math.sin
+import kotlin.math.sinh
+import kotlin.math.sqrt
+
+/**
+ * Fast approximate measurements for city-scale distances, based on the
+ * [cheap-ruler](https://github.com/mapbox/cheap-ruler) method.
+ *
+ * A ruler is created for a reference latitude and precomputes how long one degree of longitude and
+ * latitude is at that latitude on the WGS84 ellipsoid. All measurements then use flat-earth
+ * formulas with these two scale factors, which avoids the trigonometric functions of
+ * [TurfMeasurement] and is typically an order of magnitude faster.
+ *
+ * Accuracy, with the reference latitude close to the middle of the measured points:
+ *
+ *  * compared with WGS84 geodesic distances the error is below 0.001% up to 50 km and below
+ *    0.1% up to 500 km, for latitudes below 65°. The error grows with the distance from the
+ *    reference latitude, so create one ruler per area rather than one for the whole world.
+ *  * compared with [TurfMeasurement.distance] the results are 0.2% to 0.6% apart. This is not an
+ *    error of the ruler, but of the spherical earth with a radius of 6373 km used by
+ *    [TurfMeasurement].
+ *
+ * Rulers are immutable and can be shared between threads.
+ *
+ * @param latitude reference latitude in decimal degrees
+ * @param unit     one of the units found inside [TurfUnit], used for all distances passed to and
+ * returned from this ruler
+ * @since 7.1.0
+ */
+class CheapRuler @JvmOverloads constructor(
+    val latitude: Double,
+    val unit: TurfUnit = TurfUnit.DEFAULT
+) {
+
+    /**
+     * Length of one degree of longitude at the reference latitude, in [unit].
+     */
+    val kx: Double
+
+    /**
+     * Length of one degree of latitude at the reference latitude, in [unit].
+     */
+    val ky: Double
+
+    init {
+        // Convert from kilometers on the ellipsoid to the requested unit
+        val m = RAD * EQUATORIAL_RADIUS_KM * unit.factor / TurfUnit.KILOMETERS.factor
+        val cosLat = cos(latitude * RAD)
+        // Curvature formulas from https://en.wikipedia.org/wiki/Earth_radius#Meridional
+        val w2 = 1 / (1 - E2 * (1 - cosLat * cosLat))
+        val w = sqrt(w2)
+        kx = m * w * cosLat
+        ky = m * w * w2 * (1 - E2)
+    }
+
+    /**
+     * Calculates the distance between two points.
+     *
+     * @param point1 first point
+     * @param point2 second point
+     * @return distance between the two points, in [unit]
+     * @since 7.1.0
+     */
+    fun distance(point1: Point, point2: Point): Double {
+        return distance(point1.longitude, point1.latitude, point2.longitude, point2.latitude)
+    }
+
+    /**
+     * Calculates the distance between two coordinates, without allocating [Point]s.
+     *
+     * @param longitude1 longitude of the first coordinate
+     * @param latitude1  latitude of the first coordinate
+     * @param longitude2 longitude of the second coordinate
+     * @param latitude2  latitude of the second coordinate
+     * @return distance between the two coordinates, in [unit]
+     * @since 7.1.0
+     */
+    fun distance(
+        longitude1: Double,
+        latitude1: Double,
+        longitude2: Double,
+        latitude2: Double
+    ): Double {
+        val dx = wrap(longitude2 - longitude1) * kx
+        val dy = (latitude2 - latitude1) * ky
+        return sqrt(dx * dx + dy * dy)
+    }
+
+    /**
+     * Calculates the bearing from one point to another.
+     *
+     * @param point1 starting point
+     * @param point2 target point
+     * @return bearing in decimal degrees, ranging from -180 to 180
+     * @since 7.1.0
+     */
+    fun bearing(point1: Point, point2: Point): Double {
+        val dx = wrap(point2.longitude - point1.longitude) * kx
+        val dy = (point2.latitude - point1.latitude) * ky
+        return atan2(dx, dy) / RAD
+    }
+
+    /**
+     * Calculates the location of a destination point given a distance and bearing.
+     *
+     * @param point    starting point
+     * @param distance distance from the starting point, in [unit]
+     * @param bearing  ranging from -180 to 180 in decimal degrees
+     * @return destination [Point]
+     * @since 7.1.0
+     */
+    fun destination(point: Point, distance: Double, bearing: Double): Point {
+        val angle = bearing * RAD
+        return Point(
+            point.longitude + sin(angle) * distance / kx,
+            point.latitude + cos(angle) * distance / ky
+        )
+    }
+
+    /**
+     * Measures the length of a line.
+     *
+     * @param coordinates points of the line
+     * @return length of the line, in [unit]
+     * @since 7.1.0
+     */
+    fun length(coordinates: List<Point>): Double {
+        var total = 0.0
+        for (i in 0 until coordinates.size - 1) {
+            total += distance(coordinates[i], coordinates[i + 1])
+        }
+        return total
+    }
+
+    /**
+     * Calculates the area enclosed by a linear ring, regardless of its orientation.
+     *
+     * @param ring points of the ring, closed or open
+     * @return area in square [unit]
+     * @since 7.1.0
+     */
+    fun area(ring: List<Point>): Double {
+        return area(ring.size, { ring[it].longitude }, { ring[it].latitude })
+    }
+
+    /**
+     * Calculates the area enclosed by a linear ring stored as packed coordinates, regardless of
+     * its orientation.
+     *
+     * @param coordinates packed `[lon0, lat0, lon1, lat1, ...]` coordinates of the ring, closed or
+     * open
+     * @param start       index of the first vertex of the ring, inclusive
+     * @param end         index of the last vertex of the ring, exclusive
+     * @return area in square [unit]
+     * @since 7.1.0
+     */
+    @JvmOverloads
+    fun area(coordinates: DoubleArray, start: Int = 0, end: Int = coordinates.size / 2): Double {
+        return area(end - start, { coordinates[2 * (start + it)] }, { coordinates[2 * (start + it) + 1] })
+    }
+
+    private inline fun area(count: Int, longitude: (Int) -> Double, latitude: (Int) -> Double): Double {
+        if (count == 0) {
+            return 0.0
+        }
+        var sum = 0.0
+        var lon1 = longitude(count - 1)
+        var lat1 = latitude(count - 1)
+        for (j in 0 until count) {
+            val lon2 = longitude(j)
+            val lat2 = latitude(j)
+            sum += wrap(lon2 - lon1) * (lat2 + lat1)
+            lon1 = lon2
+            lat1 = lat2
+        }
+        return abs(sum) / 2 * kx * ky
+    }
+
+    /**
+     * Returns the point at a specified distance along a line.
+     *
+     * @param coordinates points of the line
+     * @param distance    distance along the line, in [unit]
+     * @return the first point if [distance] is not positive, the last point if [distance] exceeds
+     * the length of the line, otherwise the point at [distance] from the start of the line
+     * @since 7.1.0
+     */
+    fun along(coordinates: List<Point>, distance: Double): Point {
+        if (coordinates.isEmpty()) {
+            throw TurfException("Turf along requires a List of Points made up of at least 1 coordinate.")
+        }
+        if (distance <= 0) {
+            return coordinates.first()
+        }
+        var travelled = 0.0
+        for (i in 0 until coordinates.size - 1) {
+            val start = coordinates[i]
+            val end = coordinates[i + 1]
+            val segment = distance(start, end)
+            travelled += segment
+            if (travelled > distance) {
+                return interpolate(start, end, (distance - (travelled - segment)) / segment)
+            }
+        }
+        return coordinates.last()
+    }
+
+    /**
+     * Takes a [Point] and a line and calculates the closest point on the line, like
+     * [TurfMisc.nearestPointOnLine].
+     *
+     * @param point       point to snap from
+     * @param coordinates points of the line to snap to
+     * @return a [Feature] with the closest [Point] on the line, the `index` of the segment it
+     * lies on and its `dist`ance from [point], in [unit]
+     * @since 7.1.0
+     */
+    fun nearestPointOnLine(point: Point, coordinates: List<Point>): Feature {
+        if (coordinates.size < 2) {
+            throw TurfException(
+                "Turf nearestPointOnLine requires a List of Points "
+                        + "made up of at least 2 coordinates."
+            )
+        }
+
+        var minDistance = Double.POSITIVE_INFINITY
+        var minX = 0.0
+        var minY = 0.0
+        var minIndex = 0
+
+        for (i in 0 until coordinates.size - 1) {
+            var x = coordinates[i].longitude
+            var y = coordinates[i].latitude
+            var dx = wrap(coordinates[i + 1].longitude - x) * kx
+            var dy = (coordinates[i + 1].latitude - y) * ky
+            if (dx != 0.0 || dy != 0.0) {
+                // Projection of the point onto the segment, as a fraction of the segment
+                val t = (wrap(point.longitude - x) * kx * dx + (point.latitude - y) * ky * dy) /
+                        (dx * dx + dy * dy)
+                if (t > 1) {
+                    x = coordinates[i + 1].longitude
+                    y = coordinates[i + 1].latitude
+                } else if (t > 0) {
+                    x += dx / kx * t
+                    y += dy / ky * t
+                }
+            }
+            dx = wrap(point.longitude - x) * kx
+            dy = (point.latitude - y) * ky
+            val squaredDistance = dx * dx + dy * dy
+            if (squaredDistance < minDistance) {
+                minDistance = squaredDistance
+                minX = x
+                minY = y
+                minIndex = i
+            }
+        }
+
+        return Feature(
+            geometry = Point(minX, minY),
+            properties = mutableMapOf(
+                INDEX_KEY to JsonPrimitive(minIndex),
+                DISTANCE_KEY to JsonPrimitive(sqrt(minDistance)),
+            )
+        )
+    }
+
+    private fun interpolate(start: Point, end: Point, fraction: Double): Point {
+        val dx = wrap(end.longitude - start.longitude)
+        val dy = end.latitude - start.latitude
+        return Point(start.longitude + dx * fraction, start.latitude + dy * fraction)
+    }
+
+    companion object {
+
+        private const val INDEX_KEY = "index"
+        private const val DISTANCE_KEY = "dist"
+
+        private const val RAD = PI / 180
+
+        /**
+         * WGS84 equatorial radius in kilometers.
+         */
+        private const val EQUATORIAL_RADIUS_KM = 6378.137
+
+        /**
+         * WGS84 flattening.
+         */
+        private const val FLATTENING = 1 / 298.257223563
+
+        /**
+         * Square of the WGS84 eccentricity.
+         */
+        private const val E2 = FLATTENING * (2 - FLATTENING)
+
+        /**
+         * Creates a ruler for the latitude of a web mercator tile, for example to measure the
+         * features of a vector tile.
+         *
+         * @param y    tile row
+         * @param zoom tile zoom level
+         * @param unit one of the units found inside [TurfUnit]
+         * @return a ruler for the latitude of the tile center
+         * @since 7.1.0
+         */
+        @JvmStatic
+        @JvmOverloads
+        fun fromTile(y: Int, zoom: Int, unit: TurfUnit = TurfUnit.DEFAULT): CheapRuler {
+            val n = PI * (1 - 2 * (y + 0.5) / (1 shl zoom))
+            return CheapRuler(atan(sinh(n)) / RAD, unit)
+        }
+
+        private fun wrap(degrees: Double): Double = degrees.IEEErem(360.0)
+    }
+}
@@ -0,0 +1,203 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.Point
+import kotlin.jvm.JvmField
+import kotlin.jvm.JvmStatic
+import kotlin.math.abs
+
+/**
+ * The shape of the Earth used for measurements, so that each call site can pick between accuracy
+ * and speed. Pass a model to the [TurfMeasurement] overloads of `distance`, `destination`,
+ * `length`, `along` and `area`.
+ *
+ *  * [SPHERE] is the spherical Earth used by [TurfMeasurement] when no model is given.
+ *  * [WGS84] computes geodesics on the WGS84 ellipsoid with Karney's algorithm. Distances are
+ *    accurate to a few nanometers, at several times the cost of [SPHERE].
+ *  * [cheapRuler] uses flat-earth approximations for a reference latitude, see [CheapRuler].
+ *
+ * Distances on an ellipsoid are converted to a [TurfUnit] through the ratio of the unit to
+ * meters, so [TurfUnit.RADIANS] and [TurfUnit.DEGREES] keep their spherical meaning.
+ *
+ * Models are immutable, precompute their constants once and can be shared between threads.
+ *
+ * @since 7.1.0
+ */
+interface EarthModel {
+
+    /**
+     * Calculates the distance between two points.
+     *
+     * @param point1 first point
+     * @param point2 second point
+     * @param unit   one of the units found inside [TurfUnit]
+     * @return distance between the two points
+     * @since 7.1.0
+     */
+    fun distance(point1: Point, point2: Point, unit: TurfUnit): Double
+
+    /**
+     * Calculates the initial bearing from one point to another.
+     *
+     * @param point1 starting point
+     * @param point2 target point
+     * @return bearing in decimal degrees, ranging from -180 to 180
+     * @since 7.1.0
+     */
+    fun bearing(point1: Point, point2: Point): Double
+
+    /**
+     * Calculates the location of a destination point given a distance and initial bearing.
+     *
+     * @param point    starting point
+     * @param distance distance from the starting point
+     * @param bearing  ranging from -180 to 180 in decimal degrees
+     * @param unit     one of the units found inside [TurfUnit]
+     * @return destination [Point]
+     * @since 7.1.0
+     */
+    fun destination(point: Point, distance: Double, bearing: Double, unit: TurfUnit): Point
+
+    /**
+     * Calculates the area enclosed by a linear ring, regardless of its orientation.
+     *
+     * @param ring points of the ring
+     * @return area in square meters
+     * @since 7.1.0
+     */
+    fun area(ring: List<Point>): Double
+
+    /**
+     * Calculates the area enclosed by a linear ring stored as packed coordinates, regardless of
+     * its orientation. The default implementation converts the ring to a [List] of [Point]s,
+     * models override it to read the coordinates in place.
+     *
+     * @param coordinates packed `[lon0, lat0, lon1, lat1, ...]` coordinates of the ring
+     * @param start       index of the first vertex of the ring, inclusive
+     * @param end         index of the last vertex of the ring, exclusive
+     * @return area in square meters
+     * @since 7.1.0
+     */
+    fun area(coordinates: DoubleArray, start: Int, end: Int): Double {
+        return area(List(end - start) { Point(coordinates[2 * (start + it)], coordinates[2 * (start + it) + 1]) })
+    }
+
+    companion object {
+
+        /**
+         * Spherical Earth with the behavior of the [TurfMeasurement] functions that take no
+         * model: haversine distances with a radius of 6373 km and areas with a radius of
+         * 6378137 m.
+         *
+         * @since 7.1.0
+         */
+        @JvmField
+        val SPHERE: EarthModel = SphericalEarthModel
+
+        /**
+         * The WGS84 ellipsoid, as used by GPS.
+         *
+         * @since 7.1.0
+         */
+        @JvmField
+        val WGS84: EarthModel = GeodesicEarthModel(6378137.0, 1 / 298.257223563)
+
+        /**
+         * Creates a fast flat-earth model for measurements around a reference latitude. See
+         * [CheapRuler] for its accuracy.
+         *
+         * @param latitude reference latitude in decimal degrees
+         * @return a model backed by a [CheapRuler]
+         * @since 7.1.0
+         */
+        @JvmStatic
+        fun cheapRuler(latitude: Double): EarthModel = CheapRulerEarthModel(CheapRuler(latitude, TurfUnit.METERS))
+    }
+}
+
+/**
+ * Geodesics on an ellipsoid of revolution, computed with Karney's algorithm.
+ *
+ * @param equatorialRadius equatorial radius in meters
+ * @param flattening       flattening of the ellipsoid, between 0 and 0.01
+ * @throws TurfException if the ellipsoid is not supported
+ * @since 7.1.0
+ */
+class GeodesicEarthModel(
+    val equatorialRadius: Double,
+    val flattening: Double
+) : EarthModel {
+
+    private val geodesic = Geodesic(equatorialRadius, flattening)
+
+    override fun distance(point1: Point, point2: Point, unit: TurfUnit): Double {
+        val meters = geodesic.inverse(
+            point1.latitude, point1.longitude, point2.latitude, point2.longitude
+        ).s12
+        return fromMeters(meters, unit)
+    }
+
+    override fun bearing(point1: Point, point2: Point): Double {
+        return geodesic.inverse(
+            point1.latitude, point1.longitude, point2.latitude, point2.longitude
+        ).azi1
+    }
+
+    override fun destination(point: Point, distance: Double, bearing: Double, unit: TurfUnit): Point {
+        val result = geodesic.direct(point.latitude, point.longitude, bearing, toMeters(distance, unit))
+        return Point(result[1], result[0])
+    }
+
+    override fun area(ring: List<Point>): Double = abs(geodesic.ringArea(ring))
+
+    override fun area(coordinates: DoubleArray, start: Int, end: Int): Double {
+        return abs(geodesic.ringArea(coordinates, start, end))
+    }
+}
+
+private object SphericalEarthModel : EarthModel {
+
+    override fun distance(point1: Point, point2: Point, unit: TurfUnit): Double {
+        return TurfMeasurement.distance(point1, point2, unit)
+    }
+
+    override fun bearing(point1: Point, point2: Point): Double {
+        return TurfMeasurement.bearing(point1, point2)
+    }
+
+    override fun destination(point: Point, distance: Double, bearing: Double, unit: TurfUnit): Point {
+        return TurfMeasurement.destination(point, distance, bearing, unit)
+    }
+
+    override fun area(ring: List<Point>): Double = abs(TurfMeasurement.ringArea(ring))
+
+    override fun area(coordinates: DoubleArray, start: Int, end: Int): Double {
+        return abs(TurfMeasurement.ringArea(coordinates, start, end))
+    }
+}
+
+private class CheapRulerEarthModel(private val ruler: CheapRuler) : EarthModel {
+
+    override fun distance(point1: Point, point2: Point, unit: TurfUnit): Double {
+        return fromMeters(ruler.distance(point1, point2), unit)
+    }
+
+    override fun bearing(point1: Point, point2: Point): Double = ruler.bearing(point1, point2)
+
+    override fun destination(point: Point, distance: Double, bearing: Double, unit: TurfUnit): Point {
+        return ruler.destination(point, toMeters(distance, unit), bearing)
+    }
+
+    override fun area(ring: List<Point>): Double = ruler.area(ring)
+
+    override fun area(coordinates: DoubleArray, start: Int, end: Int): Double {
+        return ruler.area(coordinates, start, end)
+    }
+}
+
+private fun fromMeters(meters: Double, unit: TurfUnit): Double {
+    return if (unit.factor == TurfUnit.METERS.factor) meters else meters * unit.factor / TurfUnit.METERS.factor
+}
+
+private fun toMeters(distance: Double, unit: TurfUnit): Double {
+    return if (unit.factor == TurfUnit.METERS.factor) distance else distance * TurfUnit.METERS.factor / unit.factor
+}
@@ -0,0 +1,119 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.Feature
+import com.trackasia.geojson.model.FeatureCollection
+import com.trackasia.geojson.model.MultiPolygon
+import com.trackasia.geojson.model.Point
+import com.trackasia.geojson.model.Polygon
+
+/**
+ * Labels points with properties of the polygon that contains them, such as the zone, district or
+ * tariff area of GPS positions.
+ *
+ * The polygons are prepared and indexed once, when the tagger is created, so each point is only
+ * tested against the few polygons whose bounding box holds it. Points can be tagged one at a
+ * time or streamed through [tag] as a [Sequence], so that memory use does not grow with the
+ * number of points.
+ *
+ * When several polygons contain a point, the first one in the collection is used. Tagged points
+ * are new [Feature]s with the same geometry, id and bounding box and a copy of the original
+ * properties; input features are never modified. Features that are not [Point]s, or that lie
+ * outside every polygon, are returned unchanged.
+ *
+ * Taggers are immutable and can be shared between threads.
+ *
+ * @param polygons features to take the properties from. Features that do not have a [Polygon] or
+ * [MultiPolygon] geometry are ignored.
+ * @param fields   names of the polygon properties to copy, each mapped to the name of the point
+ * property that receives it
+ * @see TurfJoins.tag
+ * @since 7.1.0
+ */
+class FeatureTagger(polygons: FeatureCollection, fields: Map<String, String>) {
+
+    /**
+     * Creates a tagger that copies a single property.
+     *
+     * @param polygons features to take the property from
+     * @param field    name of the polygon property to copy
+     * @param outField name of the point property that receives it
+     * @since 7.1.0
+     */
+    constructor(polygons: FeatureCollection, field: String, outField: String) :
+            this(polygons, mapOf(field to outField))
+
+    private val fields = fields.toList()
+
+    private val index = PolygonIndex(
+        polygons.features.filter { feature ->
+            feature.geometry is Polygon || feature.geometry is MultiPolygon
+        }
+    )
+
+    /**
+     * Returns the first polygon feature that contains a point.
+     *
+     * @param point the point to look up
+     * @return the containing polygon feature, or null if no polygon contains the point
+     * @since 7.1.0
+     */
+    fun find(point: Point): Feature? {
+        val i = index.firstContaining(point.longitude, point.latitude)
+        return if (i < 0) null else index.features[i]
+    }
+
+    /**
+     * Tags one point feature.
+     *
+     * @param point the feature to tag
+     * @return a copy of [point] with the properties of the polygon that contains it, or [point]
+     * itself if it is not a [Point] or no polygon contains it
+     * @since 7.1.0
+     */
+    fun tag(point: Feature): Feature {
+        val geometry = point.geometry as? Point ?: return point
+        val polygon = find(geometry) ?: return point
+        val source = polygon.properties
+        val properties = point.properties?.toMutableMap() ?: mutableMapOf()
+        for ((field, outField) in fields) {
+            source?.get(field)?.let { value -> properties[outField] = value }
+        }
+        return Feature(geometry, properties, point.id, point.bbox)
+    }
+
+    /**
+     * Tags a stream of point features lazily, one feature at a time as the sequence is consumed.
+     *
+     * @param points the features to tag
+     * @return a sequence of the tagged features, in the same order
+     * @since 7.1.0
+     */
+    fun tag(points: Sequence<Feature>): Sequence<Feature> = points.map { point -> tag(point) }
+
+    /**
+     * Tags every point feature of a collection. Large collections are tagged in parallel on the
+     * JVM.
+     *
+     * @param points the features to tag
+     * @return a new collection of the tagged features, in the same order
+     * @since 7.1.0
+     */
+    fun tag(points: FeatureCollection): FeatureCollection {
+        val features = points.features
+        val tagged = arrayOfNulls<Feature>(features.size)
+        parallelFor(features.size, PARALLEL_GRAIN) { from, to ->
+            for (i in from until to) {
+                tagged[i] = tag(features[i])
+            }
+        }
+        return FeatureCollection(tagged.map { it!! }, points.bbox)
+    }
+
+    private companion object {
+
+        /**
+         * Number of points tagged by each parallel task.
+         */
+        private const val PARALLEL_GRAIN = 4096
+    }
+}
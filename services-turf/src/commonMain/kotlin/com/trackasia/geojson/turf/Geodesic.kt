@@ -0,0 +1,1104 @@
+/*
+ * Ported from the Java implementation of GeographicLib, https://geographiclib.sourceforge.io/
+ *
+ * Copyright (c) Charles Karney (2013-2022) <karney@alum.mit.edu>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.Point
+import kotlin.math.IEEErem
+import kotlin.math.PI
+import kotlin.math.abs
+import kotlin.math.atan2
+import kotlin.math.atanh
+import kotlin.math.cbrt
+import kotlin.math.cos
+import kotlin.math.floor
+import kotlin.math.hypot
+import kotlin.math.max
+import kotlin.math.min
+import kotlin.math.sin
+import kotlin.math.sqrt
+import kotlin.math.withSign
+
+/**
+ * Geodesics on an ellipsoid of revolution, following C. F. F. Karney,
+ * [Algorithms for geodesics](https://doi.org/10.1007/s00190-012-0578-z), J. Geodesy 87, 43–55
+ * (2013). This is a port of the parts of GeographicLib's `Geodesic` class needed for distances,
+ * azimuths, destinations and areas, using series expansions of order 6. GeographicLib is
+ * distributed under the MIT license, see the notice at the top of this file.
+ *
+ * The results are accurate to round-off for all pairs of points, including nearly antipodal
+ * ones. Only oblate ellipsoids with a flattening below 1/100 are supported, which covers every
+ * model of the Earth.
+ *
+ * Instances are immutable and can be shared between threads.
+ *
+ * @param a equatorial radius in meters
+ * @param f flattening
+ */
+internal class Geodesic(private val a: Double, private val f: Double) {
+
+    private val f1 = 1 - f
+    private val e2 = f * (2 - f)
+    private val ep2 = e2 / (f1 * f1)
+    private val n = f / (2 - f)
+    private val b = a * f1
+
+    /**
+     * Authalic radius squared, used for the area of polygons.
+     */
+    private val c2 = (a * a + b * b * (if (e2 == 0.0) 1.0 else atanh(sqrt(e2)) / sqrt(e2))) / 2
+
+    private val etol2 = 0.1 * TOL2 / sqrt(max(0.001, abs(f)) * min(1.0, 1 - f / 2) / 2)
+
+    private val a3x = DoubleArray(N_A3X)
+    private val c3x = DoubleArray(N_C3X)
+    private val c4x = DoubleArray(N_C4X)
+
+    /**
+     * Area of the whole ellipsoid in square meters.
+     */
+    val ellipsoidArea = 4 * PI * c2
+
+    init {
+        if (!(a > 0) || !(f >= 0 && f < 0.01)) {
+            throw TurfException("Only oblate ellipsoids with a flattening below 0.01 are supported")
+        }
+        initA3()
+        initC3()
+        initC4()
+    }
+
+    /**
+     * Result of [inverse]: distance [s12] in meters, azimuths [azi1] and [azi2] in degrees and the
+     * area [area12] in square meters between the geodesic, the equator and the meridians through
+     * both points.
+     */
+    class Inverse(val s12: Double, val azi1: Double, val azi2: Double, val area12: Double)
+
+    /**
+     * Solves the inverse geodesic problem between two points.
+     */
+    fun inverse(lat1: Double, lon1: Double, lat2: Double, lon2: Double): Inverse {
+        var latA = latFix(lat1)
+        var latB = latFix(lat2)
+        // Compute the longitude difference carefully, then make it positive
+        val diff = angDiff(lon1, lon2)
+        var lon12 = diff[0]
+        var lon12s = diff[1]
+        var lonsign = if (lon12 >= 0) 1 else -1
+        // If very close to being on the same half-meridian, then make it so
+        lon12 = lonsign * angRound(lon12)
+        lon12s = angRound((180 - lon12) - lonsign * lon12s)
+        val lam12 = lon12 * DEG
+        val slam12: Double
+        val clam12: Double
+        if (lon12 > 90) {
+            val sc = sincosd(lon12s)
+            slam12 = sc[0]
+            clam12 = -sc[1]
+        } else {
+            val sc = sincosd(lon12)
+            slam12 = sc[0]
+            clam12 = sc[1]
+        }
+
+        // If really close to the equator, treat as on equator
+        latA = angRound(latA)
+        latB = angRound(latB)
+        // Swap points so that the point with the higher absolute latitude is point 1
+        val swapp = if (abs(latA) < abs(latB)) -1 else 1
+        if (swapp < 0) {
+            lonsign *= -1
+            val t = latA
+            latA = latB
+            latB = t
+        }
+        // Make latA <= -0
+        val latsign = if (latA < 0) 1 else -1
+        latA *= latsign
+        latB *= latsign
+        // Now 0 <= lon12 <= 180, -90 <= latA <= -0 and latA <= latB <= -latA
+
+        var sc = sincosd(latA)
+        var sbet1 = f1 * sc[0]
+        var cbet1 = sc[1]
+        // Ensure cbet1 = +epsilon at the poles
+        sc = norm(sbet1, cbet1)
+        sbet1 = sc[0]
+        cbet1 = max(TINY, sc[1])
+
+        sc = sincosd(latB)
+        var sbet2 = f1 * sc[0]
+        var cbet2 = sc[1]
+        sc = norm(sbet2, cbet2)
+        sbet2 = sc[0]
+        cbet2 = max(TINY, sc[1])
+
+        // If cbet1 < -sbet1, then cbet2 - cbet1 is a sensitive measure of |bet1| - |bet2|.
+        // Otherwise sbet2 + sbet1 is.
+        if (cbet1 < -sbet1) {
+            if (cbet2 == cbet1) {
+                sbet2 = sbet1.withSign(sbet2)
+            }
+        } else if (abs(sbet2) == -sbet1) {
+            cbet2 = cbet1
+        }
+
+        val dn1 = sqrt(1 + ep2 * sbet1 * sbet1)
+        val dn2 = sqrt(1 + ep2 * sbet2 * sbet2)
+
+        var sig12 = Double.NaN
+        var calp1 = Double.NaN
+        var salp1 = Double.NaN
+        var calp2 = Double.NaN
+        var salp2 = Double.NaN
+        var s12x = Double.NaN
+        val c1a = DoubleArray(N_C1 + 1)
+        val c2a = DoubleArray(N_C2 + 1)
+        val c3a = DoubleArray(N_C3)
+
+        var meridian = latA == -90.0 || slam12 == 0.0
+        if (meridian) {
+            // Endpoints are on a single full meridian, so the geodesic might lie on a meridian
+            calp1 = clam12
+            salp1 = slam12
+            calp2 = 1.0
+            salp2 = 0.0
+            // tan(bet) = tan(sig) * cos(alp)
+            val ssig1 = sbet1
+            val csig1 = calp1 * cbet1
+            val ssig2 = sbet2
+            val csig2 = calp2 * cbet2
+            sig12 = atan2(max(0.0, csig1 * ssig2 - ssig1 * csig2), csig1 * csig2 + ssig1 * ssig2)
+            val lengths = lengths(n, sig12, ssig1, csig1, dn1, ssig2, csig2, dn2, c1a, c2a)
+            s12x = lengths[0]
+            var m12x = lengths[1]
+            // A meridional geodesic with m12 < 0 is not a shortest path
+            if (sig12 < 1 || m12x >= 0) {
+                if (sig12 < 3 * TINY || (sig12 < TOL0 && (s12x < 0 || m12x < 0))) {
+                    sig12 = 0.0
+                    m12x = 0.0
+                    s12x = 0.0
+                }
+                s12x *= b
+            } else {
+                meridian = false
+            }
+        }
+
+        // somg12 > 1 marks that it still needs to be calculated
+        var omg12 = Double.NaN
+        var somg12 = 2.0
+        var comg12 = Double.NaN
+        if (!meridian && sbet1 == 0.0 && (f <= 0 || lon12s >= f * 180)) {
+            // Geodesic runs along the equator
+            calp1 = 0.0
+            calp2 = 0.0
+            salp1 = 1.0
+            salp2 = 1.0
+            s12x = a * lam12
+            sig12 = lam12 / f1
+            omg12 = sig12
+        } else if (!meridian) {
+            val start = inverseStart(sbet1, cbet1, dn1, sbet2, cbet2, dn2, lam12, slam12, clam12)
+            sig12 = start[0]
+            salp1 = start[1]
+            calp1 = start[2]
+            salp2 = start[3]
+            calp2 = start[4]
+            val dnm = start[5]
+            if (sig12 >= 0) {
+                // Short lines
+                s12x = sig12 * b * dnm
+                omg12 = lam12 / (f1 * dnm)
+            } else {
+                // Newton's method, with a bracket to fall back to bisection
+                var lambda = DoubleArray(LAMBDA_SIZE)
+                var numit = 0
+                var salp1a = TINY
+                var calp1a = 1.0
+                var salp1b = TINY
+                var calp1b = -1.0
+                var tripn = false
+                var tripb = false
+                while (numit < MAXIT2) {
+                    lambda = lambda12(
+                        sbet1, cbet1, dn1, sbet2, cbet2, dn2, salp1, calp1, slam12, clam12,
+                        numit < MAXIT1, c1a, c2a, c3a
+                    )
+                    val v = lambda[L_LAM12]
+                    val dv = lambda[L_DLAM12]
+                    salp2 = lambda[L_SALP2]
+                    calp2 = lambda[L_CALP2]
+                    sig12 = lambda[L_SIG12]
+                    // Reversed test to allow escape with NaNs
+                    if (tripb || !(abs(v) >= (if (tripn) 8 else 1) * TOL0)) {
+                        break
+                    }
+                    // Update the bracketing values
+                    if (v > 0 && (numit > MAXIT1 || calp1 / salp1 > calp1b / salp1b)) {
+                        salp1b = salp1
+                        calp1b = calp1
+                    } else if (v < 0 && (numit > MAXIT1 || calp1 / salp1 < calp1a / salp1a)) {
+                        salp1a = salp1
+                        calp1a = calp1
+                    }
+                    numit++
+                    if (numit <= MAXIT1 && dv > 0) {
+                        val dalp1 = -v / dv
+                        val sdalp1 = sin(dalp1)
+                        val cdalp1 = cos(dalp1)
+                        val nsalp1 = salp1 * cdalp1 + calp1 * sdalp1
+                        if (nsalp1 > 0 && abs(dalp1) < PI) {
+                            calp1 = calp1 * cdalp1 - salp1 * sdalp1
+                            salp1 = nsalp1
+                            sc = norm(salp1, calp1)
+                            salp1 = sc[0]
+                            calp1 = sc[1]
+                            // In some regimes the convergence is not quadratic because the slope
+                            // tends to 0, so switch to epsilon-based convergence
+                            tripn = abs(v) <= 16 * TOL0
+                            continue
+                        }
+                    }
+                    // Either dv was not positive or the updated value was outside the legal
+                    // range, so use the midpoint of the bracket as the next estimate
+                    salp1 = (salp1a + salp1b) / 2
+                    calp1 = (calp1a + calp1b) / 2
+                    sc = norm(salp1, calp1)
+                    salp1 = sc[0]
+                    calp1 = sc[1]
+                    tripn = false
+                    tripb = abs(salp1a - salp1) + (calp1a - calp1) < TOLB ||
+                            abs(salp1 - salp1b) + (calp1 - calp1b) < TOLB
+                }
+                val lengths = lengths(
+                    lambda[L_EPS], sig12, lambda[L_SSIG1], lambda[L_CSIG1], dn1,
+                    lambda[L_SSIG2], lambda[L_CSIG2], dn2, c1a, c2a
+                )
+                s12x = lengths[0] * b
+                // omg12 = lam12 - domg12
+                val domg12 = lambda[L_DOMG12]
+                val sdomg12 = sin(domg12)
+                val cdomg12 = cos(domg12)
+                somg12 = slam12 * cdomg12 - clam12 * sdomg12
+                comg12 = clam12 * cdomg12 + slam12 * sdomg12
+            }
+        }
+
+        // From lambda12: sin(alp1) * cos(bet1) = sin(alp0)
+        val salp0 = salp1 * cbet1
+        val calp0 = hypot(calp1, salp1 * sbet1)
+        var area12: Double
+        if (calp0 != 0.0 && salp0 != 0.0) {
+            // From lambda12: tan(bet) = tan(sig) * cos(alp)
+            val sig1 = norm(sbet1, calp1 * cbet1)
+            val sig2 = norm(sbet2, calp2 * cbet2)
+            val k2 = calp0 * calp0 * ep2
+            val eps = k2 / (2 * (1 + sqrt(1 + k2)) + k2)
+            // Multiplier = a^2 * e^2 * cos(alpha0) * sin(alpha0)
+            val a4 = a * a * calp0 * salp0 * e2
+            val c4a = DoubleArray(N_C4)
+            c4f(eps, c4a)
+            val b41 = sinCosSeries(false, sig1[0], sig1[1], c4a)
+            val b42 = sinCosSeries(false, sig2[0], sig2[1], c4a)
+            area12 = a4 * (b42 - b41)
+        } else {
+            // Avoid problems with indeterminate sig1, sig2 on the equator
+            area12 = 0.0
+        }
+
+        if (!meridian && somg12 > 1) {
+            somg12 = sin(omg12)
+            comg12 = cos(omg12)
+        }
+
+        val alp12: Double
+        if (!meridian && comg12 > -0.7071 && sbet2 - sbet1 < 1.75) {
+            // Use tan(Gamma/2) = tan(omg12/2) * (tan(bet1/2) + tan(bet2/2)) /
+            // (1 + tan(bet1/2) * tan(bet2/2)) with tan(x/2) = sin(x) / (1 + cos(x))
+            val domg12 = 1 + comg12
+            val dbet1 = 1 + cbet1
+            val dbet2 = 1 + cbet2
+            alp12 = 2 * atan2(
+                somg12 * (sbet1 * dbet2 + sbet2 * dbet1),
+                domg12 * (sbet1 * sbet2 + dbet1 * dbet2)
+            )
+        } else {
+            // alp12 = alp2 - alp1, used in atan2 so no need to normalize
+            var salp12 = salp2 * calp1 - calp2 * salp1
+            var calp12 = calp2 * calp1 + salp2 * salp1
+            if (salp12 == 0.0 && calp12 < 0) {
+                salp12 = TINY * calp1
+                calp12 = -1.0
+            }
+            alp12 = atan2(salp12, calp12)
+        }
+        area12 += c2 * alp12
+        area12 *= swapp * lonsign * latsign
+        // Convert -0 to 0
+        area12 += 0.0
+
+        // Convert calp, salp to azimuths accounting for lonsign, swapp and latsign
+        if (swapp < 0) {
+            var t = salp1
+            salp1 = salp2
+            salp2 = t
+            t = calp1
+            calp1 = calp2
+            calp2 = t
+        }
+        salp1 *= swapp * lonsign
+        calp1 *= swapp * latsign
+        salp2 *= swapp * lonsign
+        calp2 *= swapp * latsign
+
+        return Inverse(0 + s12x, atan2d(salp1, calp1), atan2d(salp2, calp2), area12)
+    }
+
+    /**
+     * Solves the direct geodesic problem, returning `[lat2, lon2]` in degrees of the point
+     * [s12] meters from `(lat1, lon1)` in the direction [azi1].
+     */
+    fun direct(lat1: Double, lon1: Double, azi1: Double, s12: Double): DoubleArray {
+        var sc = sincosd(angRound(angNormalize(azi1)))
+        val salp1 = sc[0]
+        val calp1 = sc[1]
+        sc = sincosd(angRound(latFix(lat1)))
+        sc = norm(f1 * sc[0], sc[1])
+        val sbet1 = sc[0]
+        val cbet1 = max(TINY, sc[1])
+
+        // Evaluate alp0 from sin(alp1) * cos(bet1) = sin(alp0)
+        val salp0 = salp1 * cbet1
+        val calp0 = hypot(calp1, salp1 * sbet1)
+        // Evaluate sig1 with tan(bet1) = tan(sig1) * cos(alp1). sig = 0 is the nearest northward
+        // crossing of the equator
+        val somg1 = salp0 * sbet1
+        val comg1 = if (sbet1 != 0.0 || calp1 != 0.0) cbet1 * calp1 else 1.0
+        sc = norm(sbet1, comg1)
+        val ssig1 = sc[0]
+        val csig1 = sc[1]
+
+        val k2 = calp0 * calp0 * ep2
+        val eps = k2 / (2 * (1 + sqrt(1 + k2)) + k2)
+        val a1m1 = a1m1f(eps)
+        val c1a = DoubleArray(N_C1 + 1)
+        c1f(eps, c1a)
+        val b11 = sinCosSeries(true, ssig1, csig1, c1a)
+        // tau1 = sig1 + B11
+        val stau1 = ssig1 * cos(b11) + csig1 * sin(b11)
+        val ctau1 = csig1 * cos(b11) - ssig1 * sin(b11)
+        val c1pa = DoubleArray(N_C1P + 1)
+        c1pf(eps, c1pa)
+        val c3a = DoubleArray(N_C3)
+        c3f(eps, c3a)
+        val a3c = -f * salp0 * a3f(eps)
+        val b31 = sinCosSeries(true, ssig1, csig1, c3a)
+
+        // tau2 = tau1 + tau12
+        val tau12 = s12 / (b * (1 + a1m1))
+        val s = sin(tau12)
+        val c = cos(tau12)
+        val b12 = -sinCosSeries(true, stau1 * c + ctau1 * s, ctau1 * c - stau1 * s, c1pa)
+        val sig12 = tau12 - (b12 - b11)
+        val ssig12 = sin(sig12)
+        val csig12 = cos(sig12)
+
+        // sig2 = sig1 + sig12
+        val ssig2 = ssig1 * csig12 + csig1 * ssig12
+        var csig2 = csig1 * csig12 - ssig1 * ssig12
+        // sin(bet2) = cos(alp0) * sin(sig2)
+        val sbet2 = calp0 * ssig2
+        var cbet2 = hypot(salp0, calp0 * csig2)
+        if (cbet2 == 0.0) {
+            // salp0 = 0 and csig2 = 0, break the degeneracy
+            cbet2 = TINY
+            csig2 = TINY
+        }
+        // tan(omg2) = sin(alp0) * tan(sig2)
+        val somg2 = salp0 * ssig2
+        val comg2 = csig2
+        val omg12 = atan2(somg2 * comg1 - comg2 * somg1, comg2 * comg1 + somg2 * somg1)
+        val lam12 = omg12 + a3c * (sig12 + (sinCosSeries(true, ssig2, csig2, c3a) - b31))
+        val lon2 = angNormalize(angNormalize(lon1) + angNormalize(lam12 / DEG))
+        return doubleArrayOf(atan2d(sbet2, f1 * cbet2), lon2)
+    }
+
+    /**
+     * Returns the signed area of a ring in square meters, positive for counter-clockwise rings.
+     * The ring may be closed or open, and may not cover more than half of the ellipsoid.
+     */
+    fun ringArea(ring: List<Point>): Double {
+        return ringArea(ring.size, { ring[it].longitude }, { ring[it].latitude })
+    }
+
+    /**
+     * Returns the signed area of a ring stored in packed `[lon0, lat0, lon1, lat1, ...]`
+     * coordinates, from vertex [start] inclusive to vertex [end] exclusive.
+     */
+    fun ringArea(coordinates: DoubleArray, start: Int, end: Int): Double {
+        return ringArea(end - start, { coordinates[2 * (start + it)] }, { coordinates[2 * (start + it) + 1] })
+    }
+
+    private inline fun ringArea(count: Int, longitude: (Int) -> Double, latitude: (Int) -> Double): Double {
+        var area = 0.0
+        var crossings = 0
+        for (i in 0 until count) {
+            val j = if (i == count - 1) 0 else i + 1
+            val lon1 = longitude(i)
+            val lon2 = longitude(j)
+            area += inverse(latitude(i), lon1, latitude(j), lon2).area12
+            crossings += transit(lon1, lon2)
+        }
+        if (crossings and 1 != 0) {
+            // The ring encircles a pole
+            area += (if (area < 0) 1 else -1) * ellipsoidArea / 2
+        }
+        // The sum is clockwise positive
+        area = -area
+        if (area > ellipsoidArea / 2) {
+            area -= ellipsoidArea
+        } else if (area <= -ellipsoidArea / 2) {
+            area += ellipsoidArea
+        }
+        return area
+    }
+
+    /**
+     * Returns `[s12b, m12b]`, the distance and reduced length divided by b.
+     */
+    private fun lengths(
+        eps: Double,
+        sig12: Double,
+        ssig1: Double,
+        csig1: Double,
+        dn1: Double,
+        ssig2: Double,
+        csig2: Double,
+        dn2: Double,
+        c1a: DoubleArray,
+        c2a: DoubleArray
+    ): DoubleArray {
+        var a1 = a1m1f(eps)
+        c1f(eps, c1a)
+        var a2 = a2m1f(eps)
+        c2f(eps, c2a)
+        val m0x = a1 - a2
+        a2 += 1
+        a1 += 1
+        val b1 = sinCosSeries(true, ssig2, csig2, c1a) - sinCosSeries(true, ssig1, csig1, c1a)
+        val b2 = sinCosSeries(true, ssig2, csig2, c2a) - sinCosSeries(true, ssig1, csig1, c2a)
+        val j12 = m0x * sig12 + (a1 * b1 - a2 * b2)
+        // Parentheses around (csig1 * ssig2) and (ssig1 * csig2) ensure accurate cancellation for
+        // coincident points
+        val m12b = dn2 * (csig1 * ssig2) - dn1 * (ssig1 * csig2) - csig1 * csig2 * j12
+        return doubleArrayOf(a1 * (sig12 + b1), m12b)
+    }
+
+    /**
+     * Returns a starting point for Newton's method as `[sig12, salp1, calp1, salp2, calp2, dnm]`.
+     * If Newton's method is not needed, sig12 is not negative and salp2, calp2 and dnm are set.
+     */
+    private fun inverseStart(
+        sbet1: Double,
+        cbet1: Double,
+        dn1: Double,
+        sbet2: Double,
+        cbet2: Double,
+        dn2: Double,
+        lam12: Double,
+        slam12: Double,
+        clam12: Double
+    ): DoubleArray {
+        var sig12 = -1.0
+        var salp2 = Double.NaN
+        var calp2 = Double.NaN
+        var dnm = Double.NaN
+        // bet12 = bet2 - bet1 in [0, pi), bet12a = bet2 + bet1 in (-pi, 0]
+        val sbet12 = sbet2 * cbet1 - cbet2 * sbet1
+        val cbet12 = cbet2 * cbet1 + sbet2 * sbet1
+        val sbet12a = sbet2 * cbet1 + cbet2 * sbet1
+        val shortline = cbet12 >= 0 && sbet12 < 0.5 && cbet2 * lam12 < 0.5
+        var somg12: Double
+        var comg12: Double
+        if (shortline) {
+            var sbetm2 = (sbet1 + sbet2) * (sbet1 + sbet2)
+            // sin((bet1 + bet2) / 2)^2 = (sbet1 + sbet2)^2 / ((sbet1 + sbet2)^2 + (cbet1 + cbet2)^2)
+            sbetm2 /= sbetm2 + (cbet1 + cbet2) * (cbet1 + cbet2)
+            dnm = sqrt(1 + ep2 * sbetm2)
+            val omg12 = lam12 / (f1 * dnm)
+            somg12 = sin(omg12)
+            comg12 = cos(omg12)
+        } else {
+            somg12 = slam12
+            comg12 = clam12
+        }
+
+        var salp1 = cbet2 * somg12
+        var calp1 = if (comg12 >= 0) {
+            sbet12 + cbet2 * sbet1 * somg12 * somg12 / (1 + comg12)
+        } else {
+            sbet12a - cbet2 * sbet1 * somg12 * somg12 / (1 - comg12)
+        }
+
+        val ssig12 = hypot(salp1, calp1)
+        val csig12 = sbet1 * sbet2 + cbet1 * cbet2 * comg12
+
+        if (shortline && ssig12 < etol2) {
+            // Really short lines
+            salp2 = cbet1 * somg12
+            calp2 = sbet12 - cbet1 * sbet2 *
+                    (if (comg12 >= 0) somg12 * somg12 / (1 + comg12) else 1 - comg12)
+            val sc = norm(salp2, calp2)
+            salp2 = sc[0]
+            calp2 = sc[1]
+            sig12 = atan2(ssig12, csig12)
+        } else if (abs(n) > 0.1 || csig12 >= 0 || ssig12 >= 6 * abs(n) * PI * cbet1 * cbet1) {
+            // Nothing to do, the zeroth order spherical approximation is good enough
+        } else {
+            // Scale lam12 and bet2 to an x, y coordinate system where the antipodal point is at
+            // the origin and the singular point is at y = 0, x = -1
+            val lam12x = atan2(-slam12, -clam12) // lam12 - pi
+            val k2 = sbet1 * sbet1 * ep2
+            val eps = k2 / (2 * (1 + sqrt(1 + k2)) + k2)
+            val lamscale = f * cbet1 * a3f(eps) * PI
+            val betscale = lamscale * cbet1
+            val x = lam12x / lamscale
+            val y = sbet12a / betscale
+
+            if (y > -TOL1 && x > -1 - XTHRESH) {
+                // Strip near the cut
+                salp1 = min(1.0, -x)
+                calp1 = -sqrt(1 - salp1 * salp1)
+            } else {
+                // Estimate alp1 by solving the astroid problem
+                val k = astroid(x, y)
+                val omg12a = lamscale * (-x * k / (1 + k))
+                somg12 = sin(omg12a)
+                comg12 = -cos(omg12a)
+                // Update the spherical estimate of alp1 using omg12 instead of lam12
+                salp1 = cbet2 * somg12
+                calp1 = sbet12a - cbet2 * sbet1 * somg12 * somg12 / (1 - comg12)
+            }
+        }
+        // Sanity check on the starting guess. Backwards check allows NaN through.
+        if (!(salp1 <= 0)) {
+            val sc = norm(salp1, calp1)
+            salp1 = sc[0]
+            calp1 = sc[1]
+        } else {
+            salp1 = 1.0
+            calp1 = 0.0
+        }
+        return doubleArrayOf(sig12, salp1, calp1, salp2, calp2, dnm)
+    }
+
+    /**
+     * Evaluates the longitude difference for a given azimuth at point 1, see the L_ constants for
+     * the layout of the result.
+     */
+    private fun lambda12(
+        sbet1: Double,
+        cbet1: Double,
+        dn1: Double,
+        sbet2: Double,
+        cbet2: Double,
+        dn2: Double,
+        salp1: Double,
+        calp1In: Double,
+        slam120: Double,
+        clam120: Double,
+        diffp: Boolean,
+        c1a: DoubleArray,
+        c2a: DoubleArray,
+        c3a: DoubleArray
+    ): DoubleArray {
+        // Break the degeneracy of the equatorial line, which has already been handled
+        val calp1 = if (sbet1 == 0.0 && calp1In == 0.0) -TINY else calp1In
+        // sin(alp1) * cos(bet1) = sin(alp0)
+        val salp0 = salp1 * cbet1
+        val calp0 = hypot(calp1, salp1 * sbet1)
+        // tan(bet1) = tan(sig1) * cos(alp1), tan(omg1) = sin(alp0) * tan(sig1)
+        val somg1 = salp0 * sbet1
+        val comg1 = calp1 * cbet1
+        var sc = norm(sbet1, comg1)
+        val ssig1 = sc[0]
+        val csig1 = sc[1]
+
+        // Enforce symmetries in the case abs(bet2) = -bet1
+        val salp2 = if (cbet2 != cbet1) salp0 / cbet2 else salp1
+        val calp2 = if (cbet2 != cbet1 || abs(sbet2) != -sbet1) {
+            sqrt(
+                calp1 * cbet1 * calp1 * cbet1 + if (cbet1 < -sbet1) {
+                    (cbet2 - cbet1) * (cbet1 + cbet2)
+                } else {
+                    (sbet1 - sbet2) * (sbet1 + sbet2)
+                }
+            ) / cbet2
+        } else {
+            abs(calp1)
+        }
+        // tan(bet2) = tan(sig2) * cos(alp2), tan(omg2) = sin(alp0) * tan(sig2)
+        val somg2 = salp0 * sbet2
+        val comg2 = calp2 * cbet2
+        sc = norm(sbet2, comg2)
+        val ssig2 = sc[0]
+        val csig2 = sc[1]
+
+        // sig12 = sig2 - sig1, limit to [0, pi]
+        val sig12 = atan2(max(0.0, csig1 * ssig2 - ssig1 * csig2), csig1 * csig2 + ssig1 * ssig2)
+        // omg12 = omg2 - omg1, limit to [0, pi]
+        val somg12 = max(0.0, comg1 * somg2 - somg1 * comg2)
+        val comg12 = comg1 * comg2 + somg1 * somg2
+        // eta = omg12 - lam120
+        val eta = atan2(somg12 * clam120 - comg12 * slam120, comg12 * clam120 + somg12 * slam120)
+        val k2 = calp0 * calp0 * ep2
+        val eps = k2 / (2 * (1 + sqrt(1 + k2)) + k2)
+        c3f(eps, c3a)
+        val b312 = sinCosSeries(true, ssig2, csig2, c3a) - sinCosSeries(true, ssig1, csig1, c3a)
+        val domg12 = -f * a3f(eps) * salp0 * (sig12 + b312)
+
+        var dlam12 = Double.NaN
+        if (diffp) {
+            dlam12 = if (calp2 == 0.0) {
+                -2 * f1 * dn1 / sbet1
+            } else {
+                lengths(eps, sig12, ssig1, csig1, dn1, ssig2, csig2, dn2, c1a, c2a)[1] *
+                        f1 / (calp2 * cbet2)
+            }
+        }
+
+        val result = DoubleArray(LAMBDA_SIZE)
+        result[L_LAM12] = eta + domg12
+        result[L_SALP2] = salp2
+        result[L_CALP2] = calp2
+        result[L_SIG12] = sig12
+        result[L_SSIG1] = ssig1
+        result[L_CSIG1] = csig1
+        result[L_SSIG2] = ssig2
+        result[L_CSIG2] = csig2
+        result[L_EPS] = eps
+        result[L_DOMG12] = domg12
+        result[L_DLAM12] = dlam12
+        return result
+    }
+
+    private fun a3f(eps: Double): Double = polyval(N_A3 - 1, a3x, 0, eps)
+
+    private fun c3f(eps: Double, c: DoubleArray) {
+        var mult = 1.0
+        var o = 0
+        for (l in 1 until N_C3) {
+            // Order of the polynomial in eps
+            val m = N_C3 - l - 1
+            mult *= eps
+            c[l] = mult * polyval(m, c3x, o, eps)
+            o += m + 1
+        }
+    }
+
+    private fun c4f(eps: Double, c: DoubleArray) {
+        var mult = 1.0
+        var o = 0
+        for (l in 0 until N_C4) {
+            // Order of the polynomial in eps
+            val m = N_C4 - l - 1
+            c[l] = mult * polyval(m, c4x, o, eps)
+            o += m + 1
+            mult *= eps
+        }
+    }
+
+    private fun initA3() {
+        var o = 0
+        var k = 0
+        for (j in N_A3 - 1 downTo 0) {
+            val m = min(N_A3 - j - 1, j)
+            a3x[k++] = polyval(m, A3_COEFF, o, n) / A3_COEFF[o + m + 1]
+            o += m + 2
+        }
+    }
+
+    private fun initC3() {
+        var o = 0
+        var k = 0
+        for (l in 1 until N_C3) {
+            for (j in N_C3 - 1 downTo l) {
+                val m = min(N_C3 - j - 1, j)
+                c3x[k++] = polyval(m, C3_COEFF, o, n) / C3_COEFF[o + m + 1]
+                o += m + 2
+            }
+        }
+    }
+
+    private fun initC4() {
+        var o = 0
+        var k = 0
+        for (l in 0 until N_C4) {
+            for (j in N_C4 - 1 downTo l) {
+                val m = N_C4 - j - 1
+                c4x[k++] = polyval(m, C4_COEFF, o, n) / C4_COEFF[o + m + 1]
+                o += m + 2
+            }
+        }
+    }
+
+    companion object {
+
+        private const val DEG = PI / 180
+
+        private const val ORDER = 6
+        private const val N_A1 = ORDER
+        private const val N_C1 = ORDER
+        private const val N_C1P = ORDER
+        private const val N_A2 = ORDER
+        private const val N_C2 = ORDER
+        private const val N_A3 = ORDER
+        private const val N_A3X = N_A3
+        private const val N_C3 = ORDER
+        private const val N_C3X = (N_C3 * (N_C3 - 1)) / 2
+        private const val N_C4 = ORDER
+        private const val N_C4X = (N_C4 * (N_C4 + 1)) / 2
+
+        private const val MAXIT1 = 20
+        private const val MAXIT2 = MAXIT1 + 53 + 10
+
+        // Square root of the smallest normal double
+        private val TINY = sqrt(2.2250738585072014E-308)
+        private const val TOL0 = 2.220446049250313E-16 // ulp(1.0)
+        private const val TOL1 = 200 * TOL0
+        private val TOL2 = sqrt(TOL0)
+        private val TOLB = TOL0 * TOL2
+        private val XTHRESH = 1000 * TOL2
+
+        // Layout of the array returned by lambda12
+        private const val L_LAM12 = 0
+        private const val L_SALP2 = 1
+        private const val L_CALP2 = 2
+        private const val L_SIG12 = 3
+        private const val L_SSIG1 = 4
+        private const val L_CSIG1 = 5
+        private const val L_SSIG2 = 6
+        private const val L_CSIG2 = 7
+        private const val L_EPS = 8
+        private const val L_DOMG12 = 9
+        private const val L_DLAM12 = 10
+        private const val LAMBDA_SIZE = 11
+
+        // Series coefficients, numerators followed by the common denominator
+
+        private val A1M1_COEFF = doubleArrayOf(1.0, 4.0, 64.0, 0.0, 256.0)
+
+        private val C1_COEFF = doubleArrayOf(
+            -1.0, 6.0, -16.0, 32.0,
+            -9.0, 64.0, -128.0, 2048.0,
+            9.0, -16.0, 768.0,
+            3.0, -5.0, 512.0,
+            -7.0, 1280.0,
+            -7.0, 2048.0,
+        )
+
+        private val C1P_COEFF = doubleArrayOf(
+            205.0, -432.0, 768.0, 1536.0,
+            4005.0, -4736.0, 3840.0, 12288.0,
+            -225.0, 116.0, 384.0,
+            -7173.0, 2695.0, 7680.0,
+            3467.0, 7680.0,
+            38081.0, 61440.0,
+        )
+
+        private val A2M1_COEFF = doubleArrayOf(-11.0, -28.0, -192.0, 0.0, 256.0)
+
+        private val C2_COEFF = doubleArrayOf(
+            1.0, 2.0, 16.0, 32.0,
+            35.0, 64.0, 384.0, 2048.0,
+            15.0, 80.0, 768.0,
+            7.0, 35.0, 512.0,
+            63.0, 1280.0,
+            77.0, 2048.0,
+        )
+
+        private val A3_COEFF = doubleArrayOf(
+            -3.0, 128.0,
+            -2.0, -3.0, 64.0,
+            -1.0, -3.0, -1.0, 16.0,
+            3.0, -1.0, -2.0, 8.0,
+            1.0, -1.0, 2.0,
+            1.0, 1.0,
+        )
+
+        private val C3_COEFF = doubleArrayOf(
+            3.0, 128.0,
+            2.0, 5.0, 128.0,
+            -1.0, 3.0, 3.0, 64.0,
+            -1.0, 0.0, 1.0, 8.0,
+            -1.0, 1.0, 4.0,
+            5.0, 256.0,
+            1.0, 3.0, 128.0,
+            -3.0, -2.0, 3.0, 64.0,
+            1.0, -3.0, 2.0, 32.0,
+            7.0, 512.0,
+            -10.0, 9.0, 384.0,
+            5.0, -9.0, 5.0, 192.0,
+            7.0, 512.0,
+            -14.0, 7.0, 512.0,
+            21.0, 2560.0,
+        )
+
+        private val C4_COEFF = doubleArrayOf(
+            97.0, 15015.0,
+            1088.0, 156.0, 45045.0,
+            -224.0, -4784.0, 1573.0, 45045.0,
+            -10656.0, 14144.0, -4576.0, -858.0, 45045.0,
+            64.0, 624.0, -4576.0, 6864.0, -3003.0, 15015.0,
+            100.0, 208.0, 572.0, 3432.0, -12012.0, 30030.0, 45045.0,
+            1.0, 9009.0,
+            -2944.0, 468.0, 135135.0,
+            5792.0, 1040.0, -1287.0, 135135.0,
+            5952.0, -11648.0, 9152.0, -2574.0, 135135.0,
+            -64.0, -624.0, 4576.0, -6864.0, 3003.0, 135135.0,
+            8.0, 10725.0,
+            1856.0, -936.0, 225225.0,
+            -8448.0, 4992.0, -1144.0, 225225.0,
+            -1440.0, 4160.0, -4576.0, 1716.0, 225225.0,
+            -136.0, 63063.0,
+            1024.0, -208.0, 105105.0,
+            3584.0, -3328.0, 1144.0, 315315.0,
+            -128.0, 135135.0,
+            -2560.0, 832.0, 405405.0,
+            128.0, 99099.0,
+        )
+
+        private fun a1m1f(eps: Double): Double {
+            val m = N_A1 / 2
+            val t = polyval(m, A1M1_COEFF, 0, eps * eps) / A1M1_COEFF[m + 1]
+            return (t + eps) / (1 - eps)
+        }
+
+        private fun c1f(eps: Double, c: DoubleArray) = evenSeries(eps, C1_COEFF, N_C1, c)
+
+        private fun c1pf(eps: Double, c: DoubleArray) = evenSeries(eps, C1P_COEFF, N_C1P, c)
+
+        private fun a2m1f(eps: Double): Double {
+            val m = N_A2 / 2
+            val t = polyval(m, A2M1_COEFF, 0, eps * eps) / A2M1_COEFF[m + 1]
+            return (t - eps) / (1 + eps)
+        }
+
+        private fun c2f(eps: Double, c: DoubleArray) = evenSeries(eps, C2_COEFF, N_C2, c)
+
+        /**
+         * Evaluates the coefficients `c[1..order]` of a series whose `l`th coefficient is
+         * `eps^l` times a polynomial in `eps^2`.
+         */
+        private fun evenSeries(eps: Double, coeff: DoubleArray, order: Int, c: DoubleArray) {
+            val eps2 = eps * eps
+            var d = eps
+            var o = 0
+            for (l in 1..order) {
+                // Order of the polynomial in eps^2
+                val m = (order - l) / 2
+                c[l] = d * polyval(m, coeff, o, eps2) / coeff[o + m + 1]
+                o += m + 2
+                d *= eps
+            }
+        }
+
+        /**
+         * Evaluates `sum(c[i] * sin(2 * i * x), i, 1, n)` if [sinp], otherwise
+         * `sum(c[i] * cos((2 * i + 1) * x), i, 0, n - 1)`, using Clenshaw summation.
+         */
+        private fun sinCosSeries(sinp: Boolean, sinx: Double, cosx: Double, c: DoubleArray): Double {
+            var k = c.size
+            var n = k - if (sinp) 1 else 0
+            // 2 * cos(2 * x)
+            val ar = 2 * (cosx - sinx) * (cosx + sinx)
+            var y0 = if (n and 1 != 0) c[--k] else 0.0
+            var y1 = 0.0
+            n /= 2
+            while (n-- != 0) {
+                y1 = ar * y0 - y1 + c[--k]
+                y0 = ar * y1 - y0 + c[--k]
+            }
+            return if (sinp) 2 * sinx * cosx * y0 else cosx * (y0 - y1)
+        }
+
+        /**
+         * Solves `k^4 + 2 k^3 - (x^2 + y^2 - 1) k^2 - 2 y^2 k - y^2 = 0` for the positive root k.
+         */
+        private fun astroid(x: Double, y: Double): Double {
+            val p = x * x
+            val q = y * y
+            val r = (p + q - 1) / 6
+            if (q == 0.0 && r <= 0) {
+                // y = 0 with |x| <= 1
+                return 0.0
+            }
+            // Avoid a division by zero when r = 0 by multiplying the equations for s and t by
+            // r^3 and r
+            val s = p * q / 4
+            val r2 = r * r
+            val r3 = r * r2
+            // Discriminant of the quadratic equation for T3, zero on the evolute curve
+            val disc = s * (s + 2 * r3)
+            var u = r
+            if (disc >= 0) {
+                var t3 = s + r3
+                // Pick the sign of the square root to maximize abs(T3), which minimizes the loss
+                // of precision due to cancellation
+                t3 += if (t3 < 0) -sqrt(disc) else sqrt(disc)
+                val t = cbrt(t3)
+                u += t + if (t != 0.0) r2 / t else 0.0
+            } else {
+                // T is complex, but u is real
+                val ang = atan2(sqrt(-disc), -(s + r3))
+                u += 2 * r * cos(ang / 3)
+            }
+            val v = sqrt(u * u + q)
+            // Avoid a loss of accuracy when u < 0
+            val uv = if (u < 0) q / (v - u) else u + v
+            val w = (uv - q) / (2 * v)
+            return uv / (sqrt(uv + w * w) + w)
+        }
+
+        /**
+         * Evaluates the polynomial of order [n] with coefficients `p[s..s + n]`, highest order
+         * first, at [x].
+         */
+        private fun polyval(n: Int, p: DoubleArray, s: Int, x: Double): Double {
+            var index = s
+            var order = n
+            var y = if (order < 0) 0.0 else p[index++]
+            while (--order >= 0) {
+                y = y * x + p[index++]
+            }
+            return y
+        }
+
+        /**
+         * Returns 1 or -1 if an edge crosses the prime meridian going east or west, otherwise 0.
+         */
+        private fun transit(lon1: Double, lon2: Double): Int {
+            val lonA = angNormalize(lon1)
+            val lonB = angNormalize(lon2)
+            val lon12 = angDiff(lonA, lonB)[0]
+            return when {
+                lonA <= 0 && lonB > 0 && lon12 > 0 -> 1
+                lonB <= 0 && lonA > 0 && lon12 < 0 -> -1
+                else -> 0
+            }
+        }
+
+        private fun latFix(x: Double): Double = if (abs(x) > 90) Double.NaN else x
+
+        private fun angNormalize(x: Double): Double {
+            val y = x.IEEErem(360.0)
+            return if (y != -180.0) y else 180.0
+        }
+
+        /**
+         * Returns `[d, e]` with `d + e = y - x`, d reduced to `[-180, 180]` and e the rounding
+         * error.
+         */
+        private fun angDiff(x: Double, y: Double): DoubleArray {
+            val sum = errorFreeSum(angNormalize(-x), angNormalize(y))
+            val d = angNormalize(sum[0])
+            val t = sum[1]
+            return errorFreeSum(if (d == 180.0 && t > 0) -180.0 else d, t)
+        }
+
+        private fun errorFreeSum(u: Double, v: Double): DoubleArray {
+            val s = u + v
+            var up = s - v
+            var vpp = s - up
+            up -= u
+            vpp -= v
+            val t = if (s != 0.0) 0.0 - (up + vpp) else s
+            return doubleArrayOf(s, t)
+        }
+
+        /**
+         * Rounds tiny angles to multiples of 1/16 degree, so that tiny values are treated as 0.
+         */
+        private fun angRound(x: Double): Double {
+            val z = 1 / 16.0
+            var y = abs(x)
+            val w = z - y
+            y = if (w > 0) z - w else y
+            return y.withSign(x)
+        }
+
+        /**
+         * Returns `[sin(x), cos(x)]` of an angle in degrees, exact for multiples of 90 degrees.
+         */
+        private fun sincosd(x: Double): DoubleArray {
+            var r = x % 360.0
+            // Round half up; NaN gives 0
+            val q = floor(r / 90 + 0.5).toInt()
+            r -= 90.0 * q
+            r *= DEG
+            val s = sin(r)
+            val c = cos(r)
+            var sinx: Double
+            var cosx: Double
+            when (q and 3) {
+                0 -> { sinx = s; cosx = c }
+                1 -> { sinx = c; cosx = -s }
+                2 -> { sinx = -s; cosx = -c }
+                else -> { sinx = -c; cosx = s }
+            }
+            if (x != 0.0) {
+                // Convert -0 to 0
+                sinx += 0.0
+                cosx += 0.0
+            }
+            return doubleArrayOf(sinx, cosx)
+        }
+
+        private fun atan2d(y: Double, x: Double): Double {
+            var yy = y
+            var xx = x
+            var q = 0
+            if (abs(yy) > abs(xx)) {
+                val t = xx
+                xx = yy
+                yy = t
+                q = 2
+            }
+            if (xx < 0) {
+                xx = -xx
+                q++
+            }
+            var ang = atan2(yy, xx) / DEG
+            when (q) {
+                1 -> ang = (if (yy >= 0) 180 else -180) - ang
+                2 -> ang = 90 - ang
+                3 -> ang = -90 + ang
+            }
+            return ang
+        }
+
+        private fun norm(sinx: Double, cosx: Double): DoubleArray {
+            val r = hypot(sinx, cosx)
+            return doubleArrayOf(sinx / r, cosx / r)
+        }
+    }
+}
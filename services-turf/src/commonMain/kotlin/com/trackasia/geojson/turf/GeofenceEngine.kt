@@ -0,0 +1,282 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.Feature
+import com.trackasia.geojson.model.FeatureCollection
+import com.trackasia.geojson.model.MultiPolygon
+import com.trackasia.geojson.model.Point
+import com.trackasia.geojson.model.Polygon
+import com.trackasia.geojson.turf.GeofenceEvent.Type.DWELL
+import com.trackasia.geojson.turf.GeofenceEvent.Type.ENTER
+import com.trackasia.geojson.turf.GeofenceEvent.Type.EXIT
+import kotlin.jvm.JvmOverloads
+
+/**
+ * Tracks moving objects against a set of geofences and reports when they enter, exit or dwell in
+ * them.
+ *
+ * The fences are prepared with [PreparedPolygon] and indexed in an R-tree once, so each position
+ * update only tests the fences whose bounding box holds the position. The engine keeps, for each
+ * object, the fences it is inside and since when, and the timestamp of its last accepted update,
+ * also while it is outside every fence, until it is removed with [remove]. Each object is
+ * identified by a `long` and its state is stored in primitive keyed hash maps.
+ *
+ * Updates can be pushed from many threads at once: objects are spread over [stripeCount] stripes,
+ * each with its own lock and map, and fences are looked up before the lock is taken. Updates of
+ * the same object must be pushed in timestamp order; an update older than the last one accepted
+ * for its object is ignored.
+ *
+ * @param fences      geofence features, with [Polygon] or [MultiPolygon] geometries
+ * @param dwellTime   time an object must stay inside a fence before a
+ * [GeofenceEvent.Type.DWELL] event is emitted, in the unit of the timestamps. Zero or less
+ * disables dwell events.
+ * @param stripeCount number of independently locked parts of the object state, rounded up to a
+ * power of two
+ * @throws TurfException if a fence is not a [Polygon] or [MultiPolygon]
+ * @since 7.1.0
+ */
+class GeofenceEngine @JvmOverloads constructor(
+    fences: FeatureCollection,
+    val dwellTime: Long = 0,
+    stripeCount: Int = DEFAULT_STRIPE_COUNT
+) {
+
+    private val index = PolygonIndex(fences.features)
+
+    /**
+     * The geofence features, in the order used by [GeofenceEvent.fenceIndex].
+     */
+    val fences: List<Feature>
+        get() = index.features
+
+    private val stripeMask = if (stripeCount <= 1) {
+        0
+    } else {
+        -1 ushr (stripeCount - 1).countLeadingZeroBits()
+    }
+
+    private val locks = Array(stripeMask + 1) { newLock() }
+
+    private val states = Array(stripeMask + 1) { LongObjectMap<ObjectState>() }
+
+    /**
+     * Number of objects inside at least one fence, per stripe.
+     */
+    private val insideCounts = IntArray(stripeMask + 1)
+
+    /**
+     * Number of independently locked parts of the object state.
+     */
+    val stripeCount: Int
+        get() = locks.size
+
+    /**
+     * Updates the position of an object.
+     *
+     * @param objectId  identifier of the object
+     * @param point     new position of the object
+     * @param timestamp time of the position, for instance in milliseconds
+     * @return the events caused by the update, exits first, then enters, then dwells, each in
+     * fence order
+     * @since 7.1.0
+     */
+    fun update(objectId: Long, point: Point, timestamp: Long): List<GeofenceEvent> {
+        return update(objectId, point.longitude, point.latitude, timestamp)
+    }
+
+    /**
+     * Updates the position of an object.
+     *
+     * @param objectId  identifier of the object
+     * @param longitude longitude of the new position
+     * @param latitude  latitude of the new position
+     * @param timestamp time of the position, for instance in milliseconds
+     * @return the events caused by the update, exits first, then enters, then dwells, each in
+     * fence order
+     * @since 7.1.0
+     */
+    fun update(
+        objectId: Long,
+        longitude: Double,
+        latitude: Double,
+        timestamp: Long
+    ): List<GeofenceEvent> {
+        val inside = containingFences(longitude, latitude)
+        val stripe = stripe(objectId)
+        return locks[stripe].withLock {
+            val map = states[stripe]
+            val state = map[objectId]
+            when {
+                state == null -> {
+                    // Objects outside every fence still keep their timestamp
+                    val created = ObjectState(inside, timestamp)
+                    map[objectId] = created
+                    if (inside.isNotEmpty()) {
+                        insideCounts[stripe]++
+                    }
+                    created.events(objectId, inside, IntArray(0), timestamp)
+                }
+                timestamp < state.timestamp -> emptyList()
+                else -> {
+                    val wasInside = state.fences.isNotEmpty()
+                    val events = state.move(objectId, inside, timestamp)
+                    if (wasInside != inside.isNotEmpty()) {
+                        insideCounts[stripe] += if (wasInside) -1 else 1
+                    }
+                    events
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops tracking an object, emitting an exit event for every fence it is inside.
+     *
+     * @param objectId  identifier of the object
+     * @param timestamp time at which the object stops being tracked
+     * @return the exit events, in fence order
+     * @since 7.1.0
+     */
+    fun remove(objectId: Long, timestamp: Long): List<GeofenceEvent> {
+        val stripe = stripe(objectId)
+        val state = locks[stripe].withLock {
+            states[stripe].remove(objectId)?.also { state ->
+                if (state.fences.isNotEmpty()) {
+                    insideCounts[stripe]--
+                }
+            }
+        } ?: return emptyList()
+        return state.fences.map { fence ->
+            event(EXIT, objectId, fence, timestamp)
+        }
+    }
+
+    /**
+     * Returns the fences that an object is currently inside.
+     *
+     * @param objectId identifier of the object
+     * @return the fence features, in fence order
+     * @since 7.1.0
+     */
+    fun fencesOf(objectId: Long): List<Feature> {
+        val stripe = stripe(objectId)
+        val fences = locks[stripe].withLock { states[stripe][objectId]?.fences }
+            ?: return emptyList()
+        return fences.map { fence -> index.features[fence] }
+    }
+
+    /**
+     * Number of objects that are currently inside at least one fence. Objects outside every fence
+     * are still tracked until they are removed, but are not counted.
+     *
+     * @since 7.1.0
+     */
+    val insideCount: Int
+        get() = states.indices.sumOf { stripe -> locks[stripe].withLock { insideCounts[stripe] } }
+
+    private fun containingFences(longitude: Double, latitude: Double): IntArray {
+        var fences = IntArray(0)
+        index.forEachContaining(longitude, latitude) { fence -> fences += fence }
+        fences.sort()
+        return fences
+    }
+
+    private fun stripe(objectId: Long): Int {
+        val hash = objectId * -0x61c8864680b583ebL
+        return (hash ushr 40).toInt() and stripeMask
+    }
+
+    private fun event(
+        type: GeofenceEvent.Type,
+        objectId: Long,
+        fence: Int,
+        timestamp: Long
+    ): GeofenceEvent {
+        return GeofenceEvent(type, objectId, index.features[fence], fence, timestamp)
+    }
+
+    /**
+     * The fences an object is inside, sorted by index, with the time it entered each of them and
+     * whether its dwell event has been emitted.
+     */
+    private inner class ObjectState(var fences: IntArray, var timestamp: Long) {
+
+        var enteredAt = LongArray(fences.size) { timestamp }
+
+        var dwelled = BooleanArray(fences.size)
+
+        /**
+         * Moves the object to a position inside [inside] and returns the resulting events.
+         */
+        fun move(objectId: Long, inside: IntArray, timestamp: Long): List<GeofenceEvent> {
+            val previous = fences
+            val previousEnteredAt = enteredAt
+            val previousDwelled = dwelled
+            if (!previous.contentEquals(inside)) {
+                enteredAt = LongArray(inside.size)
+                dwelled = BooleanArray(inside.size)
+                // Both lists are sorted: carry the state of the fences the object stays in
+                var p = 0
+                for (i in inside.indices) {
+                    while (p < previous.size && previous[p] < inside[i]) p++
+                    if (p < previous.size && previous[p] == inside[i]) {
+                        enteredAt[i] = previousEnteredAt[p]
+                        dwelled[i] = previousDwelled[p]
+                    } else {
+                        enteredAt[i] = timestamp
+                    }
+                }
+                fences = inside
+            }
+            this.timestamp = timestamp
+            return events(objectId, inside, previous, timestamp)
+        }
+
+        /**
+         * Returns the exits from [previous], the enters into [inside] and the dwells that are due.
+         */
+        fun events(
+            objectId: Long,
+            inside: IntArray,
+            previous: IntArray,
+            timestamp: Long
+        ): List<GeofenceEvent> {
+            var events: MutableList<GeofenceEvent>? = null
+            for (fence in previous) {
+                if (inside.binarySearch(fence) < 0) {
+                    events = events.with(event(EXIT, objectId, fence, timestamp))
+                }
+            }
+            for (fence in inside) {
+                if (previous.binarySearch(fence) < 0) {
+                    events = events.with(event(ENTER, objectId, fence, timestamp))
+                }
+            }
+            if (dwellTime > 0) {
+                for (i in fences.indices) {
+                    if (!dwelled[i] && timestamp - enteredAt[i] >= dwellTime) {
+                        dwelled[i] = true
+                        events = events.with(event(DWELL, objectId, fences[i], timestamp))
+                    }
+                }
+            }
+            return events ?: emptyList()
+        }
+
+        /**
+         * Adds [event] to this list, creating the list on the first event of an update.
+         */
+        private fun MutableList<GeofenceEvent>?.with(
+            event: GeofenceEvent
+        ): MutableList<GeofenceEvent> {
+            return (this ?: ArrayList(2)).apply { add(event) }
+        }
+    }
+
+    companion object {
+
+        /**
+         * Default number of independently locked parts of the object state.
+         */
+        const val DEFAULT_STRIPE_COUNT = 64
+    }
+}
@@ -0,0 +1,46 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.Feature
+
+/**
+ * A transition of a tracked object relative to a geofence, emitted by [GeofenceEngine].
+ *
+ * @param type       what happened
+ * @param objectId   identifier of the tracked object
+ * @param fence      the geofence feature
+ * @param fenceIndex index of [fence] in the collection the engine was created with
+ * @param timestamp  timestamp of the position update that caused the event
+ * @since 7.1.0
+ */
+data class GeofenceEvent(
+    val type: Type,
+    val objectId: Long,
+    val fence: Feature,
+    val fenceIndex: Int,
+    val timestamp: Long
+) {
+
+    /**
+     * Kinds of geofence transitions.
+     *
+     * @since 7.1.0
+     */
+    enum class Type {
+
+        /**
+         * The object moved into the fence.
+         */
+        ENTER,
+
+        /**
+         * The object moved out of the fence, or stopped being tracked while inside it.
+         */
+        EXIT,
+
+        /**
+         * The object has stayed inside the fence for the dwell time of the engine. Emitted once
+         * per visit.
+         */
+        DWELL
+    }
+}
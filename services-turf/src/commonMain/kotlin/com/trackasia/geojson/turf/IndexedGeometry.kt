@@ -0,0 +1,337 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.Geometry
+import com.trackasia.geojson.model.LineString
+import com.trackasia.geojson.model.MultiLineString
+import com.trackasia.geojson.model.MultiPoint
+import com.trackasia.geojson.model.MultiPolygon
+import com.trackasia.geojson.model.Point
+import com.trackasia.geojson.model.Polygon
+import kotlin.math.abs
+import kotlin.math.sqrt
+
+/**
+ * A geometry flattened into packed coordinates, with its segments indexed in an [StrTree] and
+ * its polygons prepared with [PreparedPolygon], so that the location of a point relative to it
+ * is found without visiting every vertex. Used by [Relate].
+ *
+ * Points are kept as packed points. Lines and polygon rings are kept as packed parts, each part
+ * being a sequence of vertices joined by segments.
+ *
+ * Instances are immutable and can be shared between threads.
+ */
+internal class IndexedGeometry(geometry: Geometry) {
+
+    /**
+     * 0 for points, 1 for lines and 2 for polygons.
+     */
+    val dimension: Int
+
+    /**
+     * Packed coordinates of the points, for geometries of dimension 0.
+     */
+    val points: DoubleArray
+
+    /**
+     * Packed vertices of the lines or rings, for geometries of dimension 1 or 2.
+     */
+    val coordinates: DoubleArray
+
+    /**
+     * Index of the vertex following the last vertex of each line or ring.
+     */
+    val partEnds: IntArray
+
+    /**
+     * Index in [partEnds] following the last ring of each polygon, for geometries of dimension 2.
+     */
+    private val polygonEnds: IntArray
+
+    /**
+     * Index of the first vertex of each segment, segment `k` joining vertex `segments[k]` to the
+     * next one.
+     */
+    val segments: IntArray
+
+    // The indexes are only built once a predicate gets past the bounding box tests
+    private val segmentTree by lazy { StrTree(segmentBoxes()) }
+    private val pointTree by lazy { StrTree(pointBoxes()) }
+    private val area by lazy { PreparedPolygon(coordinates, partEnds) }
+
+    /**
+     * Packed end points of the lines that lie on their boundary: by the mod-2 rule, the end
+     * points shared by an odd number of line ends.
+     */
+    private val boundary: DoubleArray
+
+    var west = Double.POSITIVE_INFINITY
+        private set
+    var south = Double.POSITIVE_INFINITY
+        private set
+    var east = Double.NEGATIVE_INFINITY
+        private set
+    var north = Double.NEGATIVE_INFINITY
+        private set
+
+    init {
+        val lines = ArrayList<List<Point>>()
+        val polygons = ArrayList<List<List<Point>>>()
+        var singlePoints: List<Point> = emptyList()
+        when (geometry) {
+            is Point -> singlePoints = listOf(geometry)
+            is MultiPoint -> singlePoints = geometry.coordinates
+            is LineString -> lines.add(geometry.coordinates)
+            is MultiLineString -> lines.addAll(geometry.coordinates)
+            is Polygon -> polygons.add(geometry.coordinates)
+            is MultiPolygon -> polygons.addAll(geometry.coordinates)
+            else -> throw TurfException("Unsupported geometry type: $geometry")
+        }
+        dimension = when {
+            polygons.isNotEmpty() -> 2
+            lines.isNotEmpty() -> 1
+            else -> 0
+        }
+
+        points = DoubleArray(2 * singlePoints.size)
+        for (i in singlePoints.indices) {
+            points[2 * i] = singlePoints[i].longitude
+            points[2 * i + 1] = singlePoints[i].latitude
+            include(points[2 * i], points[2 * i + 1])
+        }
+
+        val parts = if (dimension == 2) polygons.flatten() else lines
+        polygonEnds = IntArray(polygons.size)
+        var ring = 0
+        for (i in polygons.indices) {
+            ring += polygons[i].size
+            polygonEnds[i] = ring
+        }
+        partEnds = IntArray(parts.size)
+        coordinates = DoubleArray(2 * parts.sumOf { it.size })
+        var vertex = 0
+        var segmentCount = 0
+        for ((i, part) in parts.withIndex()) {
+            for (point in part) {
+                coordinates[2 * vertex] = point.longitude
+                coordinates[2 * vertex + 1] = point.latitude
+                include(point.longitude, point.latitude)
+                vertex++
+            }
+            partEnds[i] = vertex
+            segmentCount += maxOf(0, part.size - 1)
+        }
+
+        segments = IntArray(segmentCount)
+        var k = 0
+        var start = 0
+        for (end in partEnds) {
+            for (v in start until end - 1) {
+                segments[k++] = v
+            }
+            start = end
+        }
+        boundary = if (dimension == 1) lineBoundary() else DoubleArray(0)
+    }
+
+    /**
+     * Whether the geometry has no coordinates.
+     */
+    val isEmpty: Boolean
+        get() = west > east
+
+    private fun include(x: Double, y: Double) {
+        if (x < west) west = x
+        if (x > east) east = x
+        if (y < south) south = y
+        if (y > north) north = y
+    }
+
+    private fun segmentBoxes(): DoubleArray {
+        val c = coordinates
+        val boxes = DoubleArray(4 * segments.size)
+        for (k in segments.indices) {
+            val v = segments[k]
+            boxes[4 * k] = minOf(c[2 * v], c[2 * v + 2])
+            boxes[4 * k + 1] = minOf(c[2 * v + 1], c[2 * v + 3])
+            boxes[4 * k + 2] = maxOf(c[2 * v], c[2 * v + 2])
+            boxes[4 * k + 3] = maxOf(c[2 * v + 1], c[2 * v + 3])
+        }
+        return boxes
+    }
+
+    private fun pointBoxes(): DoubleArray {
+        val boxes = DoubleArray(2 * points.size)
+        for (i in 0 until points.size / 2) {
+            boxes[4 * i] = points[2 * i]
+            boxes[4 * i + 1] = points[2 * i + 1]
+            boxes[4 * i + 2] = points[2 * i]
+            boxes[4 * i + 3] = points[2 * i + 1]
+        }
+        return boxes
+    }
+
+    private fun lineBoundary(): DoubleArray {
+        val ends = ArrayList<Pair<Double, Double>>()
+        var start = 0
+        for (end in partEnds) {
+            if (end > start) {
+                ends.add(coordinates[2 * start] to coordinates[2 * start + 1])
+                ends.add(coordinates[2 * end - 2] to coordinates[2 * end - 1])
+            }
+            start = end
+        }
+        val odd = ends.groupingBy { it }.eachCount().filter { it.value % 2 == 1 }.keys
+        val boundary = DoubleArray(2 * odd.size)
+        for ((i, point) in odd.withIndex()) {
+            boundary[2 * i] = point.first
+            boundary[2 * i + 1] = point.second
+        }
+        return boundary
+    }
+
+    /**
+     * Returns true if the bounding boxes of this geometry and [other] have a point in common.
+     */
+    fun envelopeIntersects(other: IndexedGeometry): Boolean {
+        return !isEmpty && !other.isEmpty &&
+                west <= other.east + EPSILON && other.west <= east + EPSILON &&
+                south <= other.north + EPSILON && other.south <= north + EPSILON
+    }
+
+    /**
+     * Returns true if the bounding box of this geometry contains the one of [other].
+     */
+    fun envelopeCovers(other: IndexedGeometry): Boolean {
+        return !isEmpty && !other.isEmpty &&
+                other.west >= west - EPSILON && other.east <= east + EPSILON &&
+                other.south >= south - EPSILON && other.north <= north + EPSILON
+    }
+
+    /**
+     * Returns true if `(x, y)` is a boundary end point of the lines.
+     */
+    fun isBoundary(x: Double, y: Double): Boolean {
+        var i = 0
+        while (i < boundary.size) {
+            if (abs(boundary[i] - x) <= EPSILON && abs(boundary[i + 1] - y) <= EPSILON) {
+                return true
+            }
+            i += 2
+        }
+        return false
+    }
+
+    /**
+     * Returns the location of `(x, y)` relative to this geometry: [Relate.INTERIOR],
+     * [Relate.BOUNDARY] or [Relate.EXTERIOR].
+     */
+    fun locate(x: Double, y: Double): Int {
+        if (x < west - EPSILON || x > east + EPSILON ||
+            y < south - EPSILON || y > north + EPSILON
+        ) {
+            return Relate.EXTERIOR
+        }
+        return when (dimension) {
+            0 -> {
+                val found = pointTree.search(
+                    x - EPSILON, y - EPSILON, x + EPSILON, y + EPSILON
+                ) { true }
+                if (found) Relate.INTERIOR else Relate.EXTERIOR
+            }
+            1 -> when {
+                isBoundary(x, y) -> Relate.BOUNDARY
+                isOnSegment(x, y) -> Relate.INTERIOR
+                else -> Relate.EXTERIOR
+            }
+            else -> when {
+                isOnSegment(x, y) -> Relate.BOUNDARY
+                area.contains(x, y) -> Relate.INTERIOR
+                else -> Relate.EXTERIOR
+            }
+        }
+    }
+
+    private fun isOnSegment(x: Double, y: Double): Boolean {
+        return segmentTree.search(x - EPSILON, y - EPSILON, x + EPSILON, y + EPSILON) { k ->
+            val v = segments[k]
+            val c = coordinates
+            segmentDistance(x, y, c[2 * v], c[2 * v + 1], c[2 * v + 2], c[2 * v + 3]) <= EPSILON
+        }
+    }
+
+    /**
+     * Calls [visitor] with every segment whose bounding box, grown by [EPSILON], intersects the
+     * given box.
+     */
+    fun searchSegments(
+        minX: Double,
+        minY: Double,
+        maxX: Double,
+        maxY: Double,
+        visitor: (Int) -> Unit
+    ) {
+        segmentTree.search(minX - EPSILON, minY - EPSILON, maxX + EPSILON, maxY + EPSILON) { k ->
+            visitor(k)
+            false
+        }
+    }
+
+    /**
+     * Returns a point inside each polygon, for geometries of dimension 2.
+     */
+    fun interiorPoints(): DoubleArray {
+        val result = DoubleArray(2 * polygonEnds.size)
+        val point = DoubleArray(2)
+        var firstRing = 0
+        for (i in polygonEnds.indices) {
+            val firstVertex = if (firstRing == 0) 0 else partEnds[firstRing - 1]
+            val ringEnds = IntArray(polygonEnds[i] - firstRing) { r ->
+                partEnds[firstRing + r] - firstVertex
+            }
+            val accumulator = CenterAccumulator(interior = true)
+            accumulator.addPolygon(
+                coordinates.copyOfRange(2 * firstVertex, 2 * partEnds[polygonEnds[i] - 1]),
+                ringEnds,
+                ringEnds.size
+            )
+            if (accumulator.pointOnSurface(point)) {
+                result[2 * i] = point[0]
+                result[2 * i + 1] = point[1]
+            } else {
+                result[2 * i] = Double.NaN
+                result[2 * i + 1] = Double.NaN
+            }
+            firstRing = polygonEnds[i]
+        }
+        return result
+    }
+
+    companion object {
+
+        /**
+         * Distance in degrees below which points are considered equal, about 0.1 mm.
+         */
+        const val EPSILON = 1e-9
+
+        /**
+         * Returns the planar distance from `(x, y)` to the segment from `(x1, y1)` to `(x2, y2)`.
+         */
+        fun segmentDistance(
+            x: Double,
+            y: Double,
+            x1: Double,
+            y1: Double,
+            x2: Double,
+            y2: Double
+        ): Double {
+            val dx = x2 - x1
+            val dy = y2 - y1
+            val length2 = dx * dx + dy * dy
+            var t = if (length2 > 0) ((x - x1) * dx + (y - y1) * dy) / length2 else 0.0
+            t = t.coerceIn(0.0, 1.0)
+            val ex = x1 + t * dx - x
+            val ey = y1 + t * dy - y
+            return sqrt(ex * ex + ey * ey)
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.trackasia.geojson.turf
+
+/**
+ * A mutual exclusion lock. Locks block other threads on platforms with shared-memory threads
+ * (the JVM and Apple platforms) and do nothing on single-threaded platforms.
+ *
+ * Locks are not reentrant: a thread holding a lock must not take it again, which deadlocks on
+ * Apple platforms even though the JVM implementation would allow it.
+ */
+internal interface Lock {
+
+    fun lock()
+
+    fun unlock()
+}
+
+/**
+ * Returns a new lock for the platform.
+ */
+internal expect fun newLock(): Lock
+
+/**
+ * A lock that does nothing, for single-threaded platforms.
+ */
+internal object NoOpLock : Lock {
+
+    override fun lock() {
+    }
+
+    override fun unlock() {
+    }
+}
+
+/**
+ * Runs [action] while holding the lock.
+ */
+internal inline fun <T> Lock.withLock(action: () -> T): T {
+    lock()
+    try {
+        return action()
+    } finally {
+        unlock()
+    }
+}
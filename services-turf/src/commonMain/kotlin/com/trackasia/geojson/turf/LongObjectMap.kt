@@ -0,0 +1,118 @@
+package com.trackasia.geojson.turf
+
+/**
+ * A hash map from primitive `long` keys to objects, with open addressing and linear probing, so
+ * that neither keys nor entries are boxed.
+ *
+ * Maps are not thread safe.
+ */
+internal class LongObjectMap<V : Any> {
+
+    private var keys = LongArray(INITIAL_CAPACITY)
+    private var values = arrayOfNulls<Any>(INITIAL_CAPACITY)
+
+    /**
+     * Number of entries in the map.
+     */
+    var size = 0
+        private set
+
+    @Suppress("UNCHECKED_CAST")
+    operator fun get(key: Long): V? {
+        val mask = keys.size - 1
+        var slot = slot(key, mask)
+        while (true) {
+            val value = values[slot] ?: return null
+            if (keys[slot] == key) {
+                return value as V
+            }
+            slot = (slot + 1) and mask
+        }
+    }
+
+    operator fun set(key: Long, value: V) {
+        if (2 * (size + 1) > keys.size) {
+            resize(2 * keys.size)
+        }
+        val mask = keys.size - 1
+        var slot = slot(key, mask)
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                values[slot] = value
+                return
+            }
+            slot = (slot + 1) and mask
+        }
+        keys[slot] = key
+        values[slot] = value
+        size++
+    }
+
+    /**
+     * Removes the entry of [key] and returns its value, or null if there was none.
+     */
+    @Suppress("UNCHECKED_CAST")
+    fun remove(key: Long): V? {
+        val mask = keys.size - 1
+        var slot = slot(key, mask)
+        while (true) {
+            val value = values[slot] ?: return null
+            if (keys[slot] == key) {
+                values[slot] = null
+                size--
+                closeGap(slot, mask)
+                return value as V
+            }
+            slot = (slot + 1) and mask
+        }
+    }
+
+    /**
+     * Moves the entries following a removed slot back, so that no lookup stops at the gap.
+     */
+    private fun closeGap(removed: Int, mask: Int) {
+        var gap = removed
+        var slot = (gap + 1) and mask
+        while (values[slot] != null) {
+            val home = slot(keys[slot], mask)
+            // The entry may move to the gap if its home slot is not between the gap and itself
+            if (((slot - home) and mask) >= ((slot - gap) and mask)) {
+                keys[gap] = keys[slot]
+                values[gap] = values[slot]
+                values[slot] = null
+                gap = slot
+            }
+            slot = (slot + 1) and mask
+        }
+    }
+
+    private fun resize(capacity: Int) {
+        val oldKeys = keys
+        val oldValues = values
+        keys = LongArray(capacity)
+        values = arrayOfNulls(capacity)
+        val mask = capacity - 1
+        for (i in oldKeys.indices) {
+            val value = oldValues[i] ?: continue
+            var slot = slot(oldKeys[i], mask)
+            while (values[slot] != null) {
+                slot = (slot + 1) and mask
+            }
+            keys[slot] = oldKeys[i]
+            values[slot] = value
+        }
+    }
+
+    private companion object {
+
+        private const val INITIAL_CAPACITY = 16
+
+        /**
+         * Returns the home slot of [key], mixing its bits so that sequential keys spread out.
+         */
+        private fun slot(key: Long, mask: Int): Int {
+            val hash = key * -0x61c8864680b583ebL
+            return (hash xor (hash ushr 32)).toInt() and mask
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.trackasia.geojson.turf
+
+/**
+ * A map from `long` keys to objects that holds at most [capacity] entries, evicting the least
+ * recently used entry when full.
+ *
+ * Recency is kept by the insertion order of a [LinkedHashMap]: reading an entry moves it to the
+ * end, so the first entry is always the least recently used. Caches are guarded by a [Lock] and
+ * can be shared between threads.
+ */
+internal class LruCache<V : Any>(private val capacity: Int) {
+
+    private val lock = newLock()
+
+    private val map = LinkedHashMap<Long, V>()
+
+    /**
+     * Number of entries in the cache.
+     */
+    val size: Int
+        get() = lock.withLock { map.size }
+
+    operator fun get(key: Long): V? {
+        return lock.withLock {
+            val value = map.remove(key)
+            if (value != null) {
+                map[key] = value
+            }
+            value
+        }
+    }
+
+    operator fun set(key: Long, value: V) {
+        lock.withLock {
+            map.remove(key)
+            map[key] = value
+            if (map.size > capacity) {
+                val eldest = map.keys.iterator()
+                eldest.next()
+                eldest.remove()
+            }
+        }
+    }
+}
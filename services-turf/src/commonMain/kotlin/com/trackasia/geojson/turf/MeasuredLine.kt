@@ -0,0 +1,163 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.LineString
+import com.trackasia.geojson.model.Point
+import kotlin.jvm.JvmOverloads
+
+/**
+ * A [LineString] with the cumulative distance to each of its vertices, for lines that are queried
+ * many times, such as the route of a navigation session.
+ *
+ * [TurfMeasurement.along] and [TurfMisc.lineSliceAlong] measure the line from its start on every
+ * call, which is O(n) for n vertices. A measured line computes the distances once and answers
+ * the same queries with a binary search in O(log n), with the same results.
+ *
+ * Measured lines are immutable and can be shared between threads.
+ *
+ * @param line  the line to measure
+ * @param unit  one of the units found inside [TurfUnit], used for all distances passed to and
+ * returned from this line
+ * @param model the shape of the Earth
+ * @throws TurfException if the line has no coordinates
+ * @since 7.1.0
+ */
+class MeasuredLine @JvmOverloads constructor(
+    val line: LineString,
+    val unit: TurfUnit = TurfUnit.DEFAULT,
+    val model: EarthModel = EarthModel.SPHERE
+) {
+
+    private val coordinates = line.coordinates
+
+    /**
+     * Distance from the start of the line to each vertex, `distances[0]` being 0.
+     */
+    private val distances = DoubleArray(coordinates.size)
+
+    init {
+        if (coordinates.isEmpty()) {
+            throw TurfException("MeasuredLine requires a LineString made up of at least 1 coordinate.")
+        }
+        for (i in 1 until coordinates.size) {
+            distances[i] = distances[i - 1] + model.distance(coordinates[i - 1], coordinates[i], unit)
+        }
+    }
+
+    /**
+     * Length of the line, in [unit].
+     */
+    val length: Double
+        get() = distances[distances.size - 1]
+
+    /**
+     * Returns the distance from the start of the line to one of its vertices.
+     *
+     * @param index index of the vertex
+     * @return distance along the line, in [unit]
+     * @since 7.1.0
+     */
+    fun distanceAt(index: Int): Double = distances[index]
+
+    /**
+     * Returns the distance left to the end of the line.
+     *
+     * @param distance distance travelled from the start of the line, in [unit]
+     * @return distance to the end of the line, in [unit], or 0 past the end of the line
+     * @since 7.1.0
+     */
+    fun remaining(distance: Double): Double = (length - distance).coerceAtLeast(0.0)
+
+    /**
+     * Returns the index of the segment that contains the point at a distance along the line. The
+     * segment `i` goes from vertex `i` to vertex `i + 1`.
+     *
+     * @param distance distance along the line, in [unit]
+     * @return index of the segment, between 0 and the number of segments - 1, or 0 for a line
+     * with a single coordinate
+     * @since 7.1.0
+     */
+    fun segmentAt(distance: Double): Int {
+        return (vertexAt(distance) - 1).coerceIn(0, (coordinates.size - 2).coerceAtLeast(0))
+    }
+
+    /**
+     * Returns the point at a specified distance along the line, like [TurfMeasurement.along].
+     *
+     * @param distance distance along the line, in [unit]
+     * @return the point at [distance] from the start of the line, the last point if [distance]
+     * exceeds the length of the line
+     * @since 7.1.0
+     */
+    fun along(distance: Double): Point {
+        val index = vertexAt(distance)
+        return if (index == coordinates.size) coordinates.last() else interpolate(index, distance)
+    }
+
+    /**
+     * Returns the part of the line between two distances, like [TurfMisc.lineSliceAlong].
+     *
+     * @param startDist distance along the line to the starting point, in [unit]
+     * @param stopDist  distance along the line to the ending point, in [unit]
+     * @return sliced line
+     * @throws TurfException if the line has less than 2 coordinates, if the distances are equal
+     * or if [startDist] is beyond the line
+     * @since 7.1.0
+     */
+    fun sliceAlong(startDist: Double, stopDist: Double): LineString {
+        require(startDist >= 0) { "startDist must be greater than or equal 0" }
+        require(stopDist > 0) { "stopDist must be greater than 0" }
+
+        if (coordinates.size < 2) {
+            throw TurfException("Turf lineSlice requires a LineString made up of at least 2 coordinates.")
+        } else if (startDist == stopDist) {
+            throw TurfException("Start and stop distance in Turf lineSliceAlong cannot equal each other.")
+        }
+
+        val start = vertexAt(startDist)
+        if (start == coordinates.size) {
+            throw TurfException("Start position is beyond line")
+        }
+        val stop = vertexAt(stopDist).coerceAtLeast(start)
+
+        val points = ArrayList<Point>(stop - start + 2)
+        points.add(interpolate(start, startDist))
+        for (i in start until stop) {
+            points.add(coordinates[i])
+        }
+        if (stop < coordinates.size) {
+            points.add(interpolate(stop, stopDist))
+        }
+        return LineString(points)
+    }
+
+    /**
+     * Index of the first vertex at or after a distance along the line, or the number of
+     * vertices if the distance is beyond the line.
+     */
+    private fun vertexAt(distance: Double): Int {
+        var low = 0
+        var high = distances.size
+        while (low < high) {
+            val mid = (low + high) ushr 1
+            if (distances[mid] < distance) {
+                low = mid + 1
+            } else {
+                high = mid
+            }
+        }
+        return low
+    }
+
+    /**
+     * Point at a distance along the line, walking back from the vertex that follows it.
+     */
+    private fun interpolate(index: Int, distance: Double): Point {
+        val point = coordinates[index]
+        val overshot = distance - distances[index]
+        if (overshot == 0.0 || index == 0) {
+            return point
+        }
+        val direction = model.bearing(point, coordinates[index - 1]) - 180
+        return model.destination(point, overshot, direction, unit)
+    }
+}
@@ -0,0 +1,117 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.Geometry
+import com.trackasia.geojson.model.MultiPolygon
+import com.trackasia.geojson.model.Point
+import com.trackasia.geojson.model.Polygon
+
+/**
+ * A set of polygons stored as packed rings, the input and output of [PolygonClipper].
+ *
+ * @param coordinates packed `[lon0, lat0, lon1, lat1, ...]` coordinates of all rings
+ * @param ringEnds    index of the vertex following the last vertex of each ring
+ * @param polygonEnds index in [ringEnds] following the last ring of each polygon, the first ring
+ * of each polygon being its exterior ring
+ */
+internal class PackedPolygons(
+    val coordinates: DoubleArray,
+    val ringEnds: IntArray,
+    val polygonEnds: IntArray
+) {
+
+    val isEmpty: Boolean
+        get() = polygonEnds.isEmpty()
+
+    /**
+     * Converts the polygons to a [MultiPolygon].
+     */
+    fun toMultiPolygon(): MultiPolygon {
+        val polygons = ArrayList<List<List<Point>>>(polygonEnds.size)
+        var ring = 0
+        for (polygonEnd in polygonEnds) {
+            val rings = ArrayList<List<Point>>(polygonEnd - ring)
+            while (ring < polygonEnd) {
+                val start = if (ring == 0) 0 else ringEnds[ring - 1]
+                rings.add(List(ringEnds[ring] - start) { i ->
+                    Point(coordinates[2 * (start + i)], coordinates[2 * (start + i) + 1])
+                })
+                ring++
+            }
+            polygons.add(rings)
+        }
+        return MultiPolygon(polygons)
+    }
+
+    /**
+     * Splits the set into one set per polygon.
+     */
+    fun split(): List<PackedPolygons> {
+        if (polygonEnds.size == 1) {
+            return listOf(this)
+        }
+        var ring = 0
+        return polygonEnds.map { polygonEnd ->
+            val firstVertex = if (ring == 0) 0 else ringEnds[ring - 1]
+            val ends = IntArray(polygonEnd - ring) { ringEnds[ring + it] - firstVertex }
+            val lastVertex = ringEnds[polygonEnd - 1]
+            ring = polygonEnd
+            PackedPolygons(
+                coordinates.copyOfRange(2 * firstVertex, 2 * lastVertex),
+                ends,
+                intArrayOf(ends.size)
+            )
+        }
+    }
+
+    companion object {
+
+        val EMPTY = PackedPolygons(DoubleArray(0), IntArray(0), IntArray(0))
+
+        /**
+         * Packs a [Polygon] or [MultiPolygon].
+         *
+         * @throws TurfException for other geometries
+         */
+        fun of(geometry: Geometry): PackedPolygons {
+            val polygons = when (geometry) {
+                is Polygon -> listOf(geometry.coordinates)
+                is MultiPolygon -> geometry.coordinates
+                else -> throw TurfException("Polygon or MultiPolygon geometry required")
+            }
+            val coordinates = DoubleArray(2 * polygons.sumOf { rings -> rings.sumOf { it.size } })
+            val ringEnds = IntArray(polygons.sumOf { it.size })
+            val polygonEnds = IntArray(polygons.size)
+            var vertex = 0
+            var ring = 0
+            for ((i, rings) in polygons.withIndex()) {
+                for (points in rings) {
+                    for (point in points) {
+                        coordinates[2 * vertex] = point.longitude
+                        coordinates[2 * vertex + 1] = point.latitude
+                        vertex++
+                    }
+                    ringEnds[ring++] = vertex
+                }
+                polygonEnds[i] = ring
+            }
+            return PackedPolygons(coordinates, ringEnds, polygonEnds)
+        }
+
+        /**
+         * Returns the polygons of [first] followed by those of [second].
+         */
+        fun concat(first: PackedPolygons, second: PackedPolygons): PackedPolygons {
+            val vertexOffset = first.coordinates.size / 2
+            val ringOffset = first.ringEnds.size
+            return PackedPolygons(
+                first.coordinates + second.coordinates,
+                first.ringEnds + IntArray(second.ringEnds.size) {
+                    second.ringEnds[it] + vertexOffset
+                },
+                first.polygonEnds + IntArray(second.polygonEnds.size) {
+                    second.polygonEnds[it] + ringOffset
+                }
+            )
+        }
+    }
+}
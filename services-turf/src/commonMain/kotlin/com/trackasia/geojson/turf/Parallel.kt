@@ -0,0 +1,44 @@
+package com.trackasia.geojson.turf
+
+/**
+ * Runs [action] over the range `0 until size`, split into chunks of at least [grain] items.
+ * Chunks run in parallel on platforms with shared-memory threads (the JVM) and sequentially
+ * everywhere else. [action] must only write to disjoint parts of shared state per chunk.
+ *
+ * @param size   number of items
+ * @param grain  minimum number of items per chunk
+ * @param action receives the chunk bounds, `from` inclusive and `to` exclusive
+ */
+internal expect fun parallelFor(size: Int, grain: Int, action: (from: Int, to: Int) -> Unit)
+
+/**
+ * Sums [term] over the range `0 until size`. Large ranges are split into fixed blocks of
+ * [blockSize] items that are summed in parallel with [parallelFor], and the block sums are added
+ * in order, so the result does not depend on the number of threads.
+ *
+ * @param size      number of items
+ * @param blockSize number of items per block, also the size below which nothing runs in parallel
+ * @param term      returns the value of one item
+ */
+internal inline fun parallelSum(size: Int, blockSize: Int, crossinline term: (Int) -> Double): Double {
+    if (size <= blockSize) {
+        var total = 0.0
+        for (i in 0 until size) {
+            total += term(i)
+        }
+        return total
+    }
+
+    val blocks = (size + blockSize - 1) / blockSize
+    val partial = DoubleArray(blocks)
+    parallelFor(blocks, 1) { from, to ->
+        for (block in from until to) {
+            var total = 0.0
+            for (i in block * blockSize until minOf((block + 1) * blockSize, size)) {
+                total += term(i)
+            }
+            partial[block] = total
+        }
+    }
+    return partial.sum()
+}
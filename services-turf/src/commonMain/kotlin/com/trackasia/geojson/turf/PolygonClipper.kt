@@ -0,0 +1,861 @@
+package com.trackasia.geojson.turf
+
+import kotlin.math.max
+import kotlin.math.min
+
+/**
+ * Boolean operations on polygons with the sweep line algorithm of F. Martinez, C. Ogayar,
+ * J. R. Jimenez and A. J. Rueda, "A simple algorithm for Boolean operations on polygons" (2013).
+ *
+ * Every edge of both inputs becomes a left and a right sweep event. Events are processed from
+ * west to east; the edges crossing the sweep line are kept sorted from south to north, so each
+ * edge only needs to be intersected with its neighbours. Edges are split where they intersect,
+ * and each piece is classified by whether it lies inside the other polygon set, using the
+ * classification of the edge below it. The pieces kept by the operation are finally joined into
+ * rings, and holes are assigned to the ring around them in the same pass.
+ *
+ * Rings of each input are combined with the even-odd rule, so callers merge overlapping polygons
+ * of an input first, as [TurfOverlay] does. Exterior rings of the result are counterclockwise and
+ * holes clockwise.
+ */
+internal class PolygonClipper private constructor(private val operation: Int) {
+
+    private val queue = EventQueue()
+
+    private val sweepLine = ArrayList<SweepEvent>()
+
+    private var contourId = 0
+
+    private fun clip(
+        subject: PackedPolygons,
+        clipping: PackedPolygons,
+        normalized: Boolean
+    ): PackedPolygons {
+        if (operation == INTERSECTION && (subject.isEmpty || clipping.isEmpty) ||
+            operation == DIFFERENCE && subject.isEmpty
+        ) {
+            return PackedPolygons.EMPTY
+        }
+        if (normalized && (subject.isEmpty || clipping.isEmpty)) {
+            return if (subject.isEmpty) clipping else subject
+        }
+        val subjectBox = fillQueue(subject, isSubject = true)
+        val clippingBox = fillQueue(clipping, isSubject = false)
+        if (subjectBox[0] > clippingBox[2] || clippingBox[0] > subjectBox[2] ||
+            subjectBox[1] > clippingBox[3] || clippingBox[1] > subjectBox[3]
+        ) {
+            if (operation == INTERSECTION) {
+                return PackedPolygons.EMPTY
+            }
+            // Results of earlier operations far apart are merged without a sweep, other inputs
+            // are swept to resolve and orient their rings
+            if (normalized) {
+                return if (operation == DIFFERENCE) {
+                    subject
+                } else {
+                    PackedPolygons.concat(subject, clipping)
+                }
+            }
+        }
+        val sortedEvents = subdivide(subjectBox, clippingBox)
+        return connectEdges(sortedEvents)
+    }
+
+    /**
+     * Adds the edges of [polygons] to the queue and returns their bounding box.
+     */
+    private fun fillQueue(polygons: PackedPolygons, isSubject: Boolean): DoubleArray {
+        val box = doubleArrayOf(
+            Double.POSITIVE_INFINITY,
+            Double.POSITIVE_INFINITY,
+            Double.NEGATIVE_INFINITY,
+            Double.NEGATIVE_INFINITY
+        )
+        val c = polygons.coordinates
+        var ring = 0
+        for (polygonEnd in polygons.polygonEnds) {
+            contourId++
+            while (ring < polygonEnd) {
+                val start = if (ring == 0) 0 else polygons.ringEnds[ring - 1]
+                val end = polygons.ringEnds[ring]
+                for (v in start until end) {
+                    val x1 = c[2 * v]
+                    val y1 = c[2 * v + 1]
+                    box[0] = min(box[0], x1)
+                    box[1] = min(box[1], y1)
+                    box[2] = max(box[2], x1)
+                    box[3] = max(box[3], y1)
+                    // Rings may be closed or not, the last vertex is joined to the first
+                    val w = if (v + 1 < end) v + 1 else start
+                    val x2 = c[2 * w]
+                    val y2 = c[2 * w + 1]
+                    if (x1 == x2 && y1 == y2) {
+                        continue
+                    }
+                    val e1 = SweepEvent(x1, y1, false, isSubject)
+                    val e2 = SweepEvent(x2, y2, false, isSubject)
+                    e1.otherEvent = e2
+                    e2.otherEvent = e1
+                    e1.contourId = contourId
+                    e2.contourId = contourId
+                    if (compareEvents(e1, e2) > 0) {
+                        e2.left = true
+                    } else {
+                        e1.left = true
+                    }
+                    queue.add(e1)
+                    queue.add(e2)
+                }
+                ring++
+            }
+        }
+        return box
+    }
+
+    private fun subdivide(subjectBox: DoubleArray, clippingBox: DoubleArray): List<SweepEvent> {
+        val sortedEvents = ArrayList<SweepEvent>()
+        val rightBound = min(subjectBox[2], clippingBox[2])
+        while (queue.isNotEmpty()) {
+            var event = queue.poll()
+            sortedEvents.add(event)
+            // Nothing east of either input can be in an intersection, or of the subject in a
+            // difference
+            if (operation == INTERSECTION && event.x > rightBound ||
+                operation == DIFFERENCE && event.x > subjectBox[2]
+            ) {
+                break
+            }
+            if (event.left) {
+                val position = insert(event)
+                val prev = if (position > 0) sweepLine[position - 1] else null
+                val next = sweepLine.getOrNull(position + 1)
+                computeFields(event, prev)
+                if (next != null && possibleIntersection(event, next) == 2) {
+                    computeFields(event, prev)
+                    computeFields(next, event)
+                }
+                if (prev != null && possibleIntersection(prev, event) == 2) {
+                    val prevPrev = if (position > 1) sweepLine[position - 2] else null
+                    computeFields(prev, prevPrev)
+                    computeFields(event, prev)
+                }
+            } else {
+                event = event.otherEvent
+                val position = find(event)
+                if (position >= 0) {
+                    val prev = if (position > 0) sweepLine[position - 1] else null
+                    val next = sweepLine.getOrNull(position + 1)
+                    sweepLine.removeAt(position)
+                    if (prev != null && next != null) {
+                        possibleIntersection(prev, next)
+                    }
+                }
+            }
+        }
+        return sortedEvents
+    }
+
+    private fun insert(event: SweepEvent): Int {
+        var low = 0
+        var high = sweepLine.size
+        while (low < high) {
+            val middle = (low + high) ushr 1
+            if (compareSegments(sweepLine[middle], event) < 0) {
+                low = middle + 1
+            } else {
+                high = middle
+            }
+        }
+        sweepLine.add(low, event)
+        return low
+    }
+
+    private fun find(event: SweepEvent): Int {
+        var low = 0
+        var high = sweepLine.size
+        while (low < high) {
+            val middle = (low + high) ushr 1
+            if (compareSegments(sweepLine[middle], event) < 0) {
+                low = middle + 1
+            } else {
+                high = middle
+            }
+        }
+        // Rounding may leave the order slightly inconsistent, fall back to a scan
+        if (low < sweepLine.size && sweepLine[low] === event) {
+            return low
+        }
+        return sweepLine.indexOf(event)
+    }
+
+    /**
+     * Classifies the edge of [event] from [prev], the edge below it in the sweep line.
+     */
+    private fun computeFields(event: SweepEvent, prev: SweepEvent?) {
+        if (prev == null) {
+            event.inOut = false
+            event.otherInOut = true
+        } else {
+            if (event.isSubject == prev.isSubject) {
+                event.inOut = !prev.inOut
+                event.otherInOut = prev.otherInOut
+            } else {
+                event.inOut = !prev.otherInOut
+                event.otherInOut = if (prev.isVertical) !prev.inOut else prev.inOut
+            }
+            event.prevInResult =
+                if (!inResult(prev) || prev.isVertical) prev.prevInResult else prev
+        }
+        event.resultTransition = if (inResult(event)) resultTransition(event) else 0
+    }
+
+    private fun inResult(event: SweepEvent): Boolean {
+        return when (event.type) {
+            NORMAL -> when (operation) {
+                INTERSECTION -> !event.otherInOut
+                UNION -> event.otherInOut
+                DIFFERENCE -> event.isSubject == event.otherInOut
+                else -> true
+            }
+            SAME_TRANSITION -> operation == INTERSECTION || operation == UNION
+            DIFFERENT_TRANSITION -> operation == DIFFERENCE
+            else -> false
+        }
+    }
+
+    /**
+     * Returns 1 if the result is inside above the edge of [event], -1 if it is inside below.
+     */
+    private fun resultTransition(event: SweepEvent): Int {
+        val thisIn = !event.inOut
+        val thatIn = !event.otherInOut
+        val isIn = when (operation) {
+            INTERSECTION -> thisIn && thatIn
+            UNION -> thisIn || thatIn
+            XOR -> thisIn xor thatIn
+            else -> if (event.isSubject) thisIn && !thatIn else thatIn && !thisIn
+        }
+        return if (isIn) 1 else -1
+    }
+
+    /**
+     * Splits the edges of [se1] and [se2] where they intersect.
+     *
+     * @return 0 if they do not intersect, or only at a shared end point, 1 if they cross, 2 if
+     * they overlap from a shared left end point and 3 if they otherwise overlap
+     */
+    private fun possibleIntersection(se1: SweepEvent, se2: SweepEvent): Int {
+        val count = intersection(se1, se2)
+        if (count == 0) {
+            return 0
+        }
+        val ix0 = intersections[0]
+        val iy0 = intersections[1]
+        if (count == 1 && (se1.samePoint(se2) || se1.otherEvent.samePoint(se2.otherEvent))) {
+            return 0
+        }
+        if (count == 2 && se1.isSubject == se2.isSubject) {
+            // Overlapping edges of the same input
+            return 0
+        }
+        if (count == 1) {
+            if (!se1.isAt(ix0, iy0) && !se1.otherEvent.isAt(ix0, iy0)) {
+                divideSegment(se1, ix0, iy0)
+            }
+            if (!se2.isAt(ix0, iy0) && !se2.otherEvent.isAt(ix0, iy0)) {
+                divideSegment(se2, ix0, iy0)
+            }
+            return 1
+        }
+
+        // The edges overlap
+        val events = ArrayList<SweepEvent>(4)
+        val leftCoincide = se1.samePoint(se2)
+        if (!leftCoincide) {
+            if (compareEvents(se1, se2) > 0) {
+                events.add(se2)
+                events.add(se1)
+            } else {
+                events.add(se1)
+                events.add(se2)
+            }
+        }
+        val rightCoincide = se1.otherEvent.samePoint(se2.otherEvent)
+        if (!rightCoincide) {
+            if (compareEvents(se1.otherEvent, se2.otherEvent) > 0) {
+                events.add(se2.otherEvent)
+                events.add(se1.otherEvent)
+            } else {
+                events.add(se1.otherEvent)
+                events.add(se2.otherEvent)
+            }
+        }
+        if (leftCoincide) {
+            // Both edges are equal or share their left end point
+            se2.type = NON_CONTRIBUTING
+            se1.type = if (se2.inOut == se1.inOut) SAME_TRANSITION else DIFFERENT_TRANSITION
+            if (!rightCoincide) {
+                divideSegment(events[1].otherEvent, events[0].x, events[0].y)
+            }
+            return 2
+        }
+        if (rightCoincide) {
+            // The edges share their right end point
+            divideSegment(events[0], events[1].x, events[1].y)
+            return 3
+        }
+        if (events[0] !== events[3].otherEvent) {
+            // Neither edge includes the other
+            divideSegment(events[0], events[1].x, events[1].y)
+            divideSegment(events[1], events[2].x, events[2].y)
+            return 3
+        }
+        // One edge includes the other
+        divideSegment(events[0], events[1].x, events[1].y)
+        divideSegment(events[3].otherEvent, events[2].x, events[2].y)
+        return 3
+    }
+
+    private val intersections = DoubleArray(4)
+
+    /**
+     * Writes the intersection of the edges of [se1] and [se2] to [intersections].
+     *
+     * @return the number of intersection points: 0, 1, or 2 for overlapping edges
+     */
+    private fun intersection(se1: SweepEvent, se2: SweepEvent): Int {
+        val ax = se1.x
+        val ay = se1.y
+        val vax = se1.otherEvent.x - ax
+        val vay = se1.otherEvent.y - ay
+        val bx = se2.x
+        val by = se2.y
+        val vbx = se2.otherEvent.x - bx
+        val vby = se2.otherEvent.y - by
+        val ex = bx - ax
+        val ey = by - ay
+        var cross = vax * vby - vay * vbx
+        if (cross * cross > 0) {
+            val s = (ex * vby - ey * vbx) / cross
+            if (s < 0 || s > 1) return 0
+            val t = (ex * vay - ey * vax) / cross
+            if (t < 0 || t > 1) return 0
+            if (s == 0.0 || s == 1.0 || !(t == 0.0 || t == 1.0)) {
+                intersections[0] = ax + s * vax
+                intersections[1] = ay + s * vay
+            } else {
+                intersections[0] = bx + t * vbx
+                intersections[1] = by + t * vby
+            }
+            return 1
+        }
+        // Parallel edges, overlapping if they lie on the same line
+        cross = ex * vay - ey * vax
+        if (cross * cross > 0) {
+            return 0
+        }
+        val lengthA = vax * vax + vay * vay
+        val sa = (vax * ex + vay * ey) / lengthA
+        val sb = sa + (vax * vbx + vay * vby) / lengthA
+        val sMin = min(sa, sb)
+        val sMax = max(sa, sb)
+        if (sMin > 1 || sMax < 0) {
+            return 0
+        }
+        if (sMin == 1.0 || sMax == 0.0) {
+            val s = if (sMin == 1.0) 1.0 else 0.0
+            intersections[0] = ax + s * vax
+            intersections[1] = ay + s * vay
+            return 1
+        }
+        val s0 = max(sMin, 0.0)
+        val s1 = min(sMax, 1.0)
+        intersections[0] = ax + s0 * vax
+        intersections[1] = ay + s0 * vay
+        intersections[2] = ax + s1 * vax
+        intersections[3] = ay + s1 * vay
+        return 2
+    }
+
+    /**
+     * Splits the edge of the left event [se] at `(x, y)`.
+     */
+    private fun divideSegment(se: SweepEvent, x: Double, y: Double) {
+        val r = SweepEvent(x, y, false, se.isSubject)
+        val l = SweepEvent(x, y, true, se.isSubject)
+        r.otherEvent = se
+        l.otherEvent = se.otherEvent
+        r.contourId = se.contourId
+        l.contourId = se.contourId
+        // Rounding may put the new left event after the right end of its edge
+        if (compareEvents(l, se.otherEvent) > 0) {
+            se.otherEvent.left = true
+            l.left = false
+        }
+        se.otherEvent.otherEvent = l
+        se.otherEvent = r
+        queue.add(l)
+        queue.add(r)
+    }
+
+    /**
+     * Joins the edges of the result into rings and groups them into polygons.
+     *
+     * Rings are walked from edge to edge through the events at each end point. A walk may pass
+     * through a point more than once where parts of the result touch; the loop closed by coming
+     * back to a point is then cut off as a ring of its own, so that every ring is simple.
+     */
+    private fun connectEdges(sortedEvents: List<SweepEvent>): PackedPolygons {
+        val resultEvents = orderEvents(sortedEvents)
+        val n = resultEvents.size
+        // Events at the same point are consecutive, the first of them identifies the point
+        val pointIds = IntArray(n)
+        for (i in 1 until n) {
+            pointIds[i] = if (resultEvents[i].samePoint(resultEvents[i - 1])) pointIds[i - 1] else i
+        }
+        val processed = BooleanArray(n)
+        val pathIndex = IntArray(n) { -1 }
+        val pathVertices = IntArray(n + 1)
+        val pathEdges = IntArray(n)
+        val contours = ArrayList<Contour>()
+        for (i in 0 until n) {
+            if (processed[i]) {
+                continue
+            }
+            var pos = i
+            var pathSize = 1
+            pathVertices[0] = i
+            pathIndex[pointIds[i]] = 0
+            while (true) {
+                processed[pos] = true
+                pathEdges[pathSize - 1] = pos
+                pos = resultEvents[pos].otherPos
+                processed[pos] = true
+                val seen = pathIndex[pointIds[pos]]
+                if (seen >= 0) {
+                    val id = contours.size
+                    contours.add(loop(resultEvents, pathVertices, pathEdges, seen, pathSize, id))
+                    for (k in seen + 1 until pathSize) {
+                        pathIndex[pointIds[pathVertices[k]]] = -1
+                    }
+                    pathSize = seen + 1
+                } else {
+                    pathIndex[pointIds[pos]] = pathSize
+                    pathVertices[pathSize++] = pos
+                }
+                pos = nextPos(pos, resultEvents, processed, i)
+                if (pos == i || pos < 0 || pos >= n) {
+                    break
+                }
+            }
+            for (k in 0 until pathSize) {
+                pathIndex[pointIds[pathVertices[k]]] = -1
+            }
+        }
+        // A ring is placed from the ring below its first event, which comes earlier in the sweep
+        val order = contours.indices.sortedBy { contours[it].firstEvent }
+        for (id in order) {
+            placeContour(id, contours, resultEvents)
+        }
+        return pack(order.map { contours[it] }, contours)
+    }
+
+    /**
+     * Creates the ring from vertex [from] of the walk back to it, after [to] vertices.
+     */
+    private fun loop(
+        resultEvents: List<SweepEvent>,
+        pathVertices: IntArray,
+        pathEdges: IntArray,
+        from: Int,
+        to: Int,
+        id: Int
+    ): Contour {
+        val contour = Contour()
+        for (k in from until to) {
+            val edge = pathEdges[k]
+            val other = resultEvents[edge].otherPos
+            contour.firstEvent = min(contour.firstEvent, min(edge, other))
+            resultEvents[edge].outputContourId = id
+            resultEvents[other].outputContourId = id
+            val vertex = resultEvents[pathVertices[k]]
+            contour.add(vertex.x, vertex.y)
+        }
+        val start = resultEvents[pathVertices[from]]
+        contour.add(start.x, start.y)
+        return contour
+    }
+
+    /**
+     * Makes contour [id] a hole of the polygon around it, if the result is inside just below its
+     * first event.
+     */
+    private fun placeContour(id: Int, contours: List<Contour>, resultEvents: List<SweepEvent>) {
+        val contour = contours[id]
+        val prevInResult = resultEvents[contour.firstEvent].prevInResult ?: return
+        val lowerId = prevInResult.outputContourId
+        if (lowerId < 0 || prevInResult.resultTransition <= 0) {
+            return
+        }
+        val lower = contours[lowerId]
+        contour.holeOf = if (lower.holeOf >= 0) lower.holeOf else lowerId
+        contours[contour.holeOf].holes.add(id)
+    }
+
+    private fun orderEvents(sortedEvents: List<SweepEvent>): List<SweepEvent> {
+        val resultEvents = ArrayList<SweepEvent>()
+        for (event in sortedEvents) {
+            if (event.left && event.inResult || !event.left && event.otherEvent.inResult) {
+                resultEvents.add(event)
+            }
+        }
+        // Overlapping edges may leave the events slightly out of order
+        var sorted = false
+        while (!sorted) {
+            sorted = true
+            for (i in 0 until resultEvents.size - 1) {
+                if (compareEvents(resultEvents[i], resultEvents[i + 1]) > 0) {
+                    val swap = resultEvents[i]
+                    resultEvents[i] = resultEvents[i + 1]
+                    resultEvents[i + 1] = swap
+                    sorted = false
+                }
+            }
+        }
+        for (i in resultEvents.indices) {
+            resultEvents[i].otherPos = i
+        }
+        // Right events may come before their left event has been positioned
+        for (event in resultEvents) {
+            if (!event.left) {
+                val swap = event.otherPos
+                event.otherPos = event.otherEvent.otherPos
+                event.otherEvent.otherPos = swap
+            }
+        }
+        return resultEvents
+    }
+
+    private fun nextPos(
+        pos: Int,
+        resultEvents: List<SweepEvent>,
+        processed: BooleanArray,
+        origPos: Int
+    ): Int {
+        var newPos = pos + 1
+        val event = resultEvents[pos]
+        while (newPos < resultEvents.size && resultEvents[newPos].samePoint(event)) {
+            if (!processed[newPos]) {
+                return newPos
+            }
+            newPos++
+        }
+        newPos = pos - 1
+        while (newPos > origPos && processed[newPos]) {
+            newPos--
+        }
+        return newPos
+    }
+
+    private fun pack(ordered: List<Contour>, contours: List<Contour>): PackedPolygons {
+        var coordinates = DoubleArray(0)
+        var size = 0
+        val ringEnds = ArrayList<Int>()
+        val polygonEnds = ArrayList<Int>()
+        fun addRing(contour: Contour, counterclockwise: Boolean) {
+            if (size + contour.size + 2 > coordinates.size) {
+                val capacity = max(2 * coordinates.size, size + contour.size + 2)
+                coordinates = coordinates.copyOf(capacity)
+            }
+            val reverse = (contour.signedArea() > 0) != counterclockwise
+            for (i in 0 until contour.size / 2) {
+                val j = if (reverse) contour.size / 2 - 1 - i else i
+                coordinates[size++] = contour.coordinates[2 * j]
+                coordinates[size++] = contour.coordinates[2 * j + 1]
+            }
+            // Rings are closed
+            if (coordinates[size - 2] != coordinates[size - contour.size] ||
+                coordinates[size - 1] != coordinates[size - contour.size + 1]
+            ) {
+                coordinates[size] = coordinates[size - contour.size]
+                coordinates[size + 1] = coordinates[size - contour.size + 1]
+                size += 2
+            }
+            ringEnds.add(size / 2)
+        }
+        for (contour in ordered) {
+            if (contour.holeOf < 0 && contour.size >= 8) {
+                addRing(contour, counterclockwise = true)
+                for (hole in contour.holes) {
+                    if (contours[hole].size >= 8) {
+                        addRing(contours[hole], counterclockwise = false)
+                    }
+                }
+                polygonEnds.add(ringEnds.size)
+            }
+        }
+        return PackedPolygons(
+            coordinates.copyOf(size),
+            ringEnds.toIntArray(),
+            polygonEnds.toIntArray()
+        )
+    }
+
+    /**
+     * A ring of the result, as packed coordinates.
+     */
+    private class Contour {
+
+        var coordinates = DoubleArray(16)
+
+        var size = 0
+
+        val holes = ArrayList<Int>()
+
+        /**
+         * Index of the contour this one is a hole of, or -1 for an exterior ring.
+         */
+        var holeOf = -1
+
+        /**
+         * Position of the first event of the ring in sweep order.
+         */
+        var firstEvent = Int.MAX_VALUE
+
+        fun add(x: Double, y: Double) {
+            if (size + 2 > coordinates.size) {
+                coordinates = coordinates.copyOf(2 * coordinates.size)
+            }
+            coordinates[size++] = x
+            coordinates[size++] = y
+        }
+
+        /**
+         * Returns twice the signed area of the ring, positive for counterclockwise rings.
+         */
+        fun signedArea(): Double {
+            var area = 0.0
+            val n = size / 2
+            for (i in 0 until n) {
+                val j = (i + 1) % n
+                area += coordinates[2 * i] * coordinates[2 * j + 1] -
+                        coordinates[2 * j] * coordinates[2 * i + 1]
+            }
+            return area
+        }
+    }
+
+    /**
+     * An end point of an edge. Left events start edges and right events end them, in sweep order.
+     */
+    private class SweepEvent(
+        val x: Double,
+        val y: Double,
+        var left: Boolean,
+        val isSubject: Boolean
+    ) {
+
+        lateinit var otherEvent: SweepEvent
+
+        var contourId = 0
+
+        var type = NORMAL
+
+        /**
+         * Whether the edge is an in-out transition of its own input, from south to north.
+         */
+        var inOut = false
+
+        /**
+         * Whether the edge is outside of the other input.
+         */
+        var otherInOut = false
+
+        /**
+         * The closest edge below this one that is in the result.
+         */
+        var prevInResult: SweepEvent? = null
+
+        var resultTransition = 0
+
+        var outputContourId = -1
+
+        var otherPos = 0
+
+        val inResult: Boolean
+            get() = resultTransition != 0
+
+        val isVertical: Boolean
+            get() = x == otherEvent.x
+
+        fun isAt(px: Double, py: Double): Boolean = x == px && y == py
+
+        fun samePoint(other: SweepEvent): Boolean = x == other.x && y == other.y
+
+        /**
+         * Returns true if the edge of this event is below `(px, py)`.
+         */
+        fun isBelow(px: Double, py: Double): Boolean {
+            val o = otherEvent
+            return if (left) {
+                (x - px) * (o.y - py) - (o.x - px) * (y - py) > 0
+            } else {
+                (o.x - px) * (y - py) - (x - px) * (o.y - py) > 0
+            }
+        }
+    }
+
+    /**
+     * A binary min-heap of sweep events, ordered by [compareEvents].
+     */
+    private class EventQueue {
+
+        private var heap = arrayOfNulls<SweepEvent>(64)
+
+        private var size = 0
+
+        fun isNotEmpty(): Boolean = size > 0
+
+        fun add(event: SweepEvent) {
+            if (size == heap.size) {
+                heap = heap.copyOf(2 * size)
+            }
+            var i = size++
+            while (i > 0) {
+                val parent = (i - 1) ushr 1
+                val parentEvent = heap[parent]!!
+                if (compareEvents(event, parentEvent) >= 0) {
+                    break
+                }
+                heap[i] = parentEvent
+                i = parent
+            }
+            heap[i] = event
+        }
+
+        fun poll(): SweepEvent {
+            val result = heap[0]!!
+            val last = heap[--size]!!
+            heap[size] = null
+            if (size > 0) {
+                var i = 0
+                while (true) {
+                    var child = 2 * i + 1
+                    if (child >= size) {
+                        break
+                    }
+                    if (child + 1 < size && compareEvents(heap[child + 1]!!, heap[child]!!) < 0) {
+                        child++
+                    }
+                    if (compareEvents(last, heap[child]!!) <= 0) {
+                        break
+                    }
+                    heap[i] = heap[child]
+                    i = child
+                }
+                heap[i] = last
+            }
+            return result
+        }
+    }
+
+    companion object {
+
+        const val INTERSECTION = 0
+        const val UNION = 1
+        const val DIFFERENCE = 2
+        const val XOR = 3
+
+        private const val NORMAL = 0
+        private const val NON_CONTRIBUTING = 1
+        private const val SAME_TRANSITION = 2
+        private const val DIFFERENT_TRANSITION = 3
+
+        /**
+         * Returns the result of [operation] on [subject] and [clipping].
+         *
+         * @param normalized whether both inputs are results of earlier operations, with their
+         * rings resolved, oriented and closed, so that empty or far apart inputs can be returned
+         * or concatenated without a sweep
+         */
+        fun clip(
+            subject: PackedPolygons,
+            clipping: PackedPolygons,
+            operation: Int,
+            normalized: Boolean = false
+        ): PackedPolygons {
+            return PolygonClipper(operation).clip(subject, clipping, normalized)
+        }
+
+        private fun signedArea(
+            x0: Double,
+            y0: Double,
+            x1: Double,
+            y1: Double,
+            x2: Double,
+            y2: Double
+        ): Double {
+            return (x0 - x2) * (y1 - y2) - (x1 - x2) * (y0 - y2)
+        }
+
+        /**
+         * Orders events from west to east, then south to north. At the same point right events
+         * come first, then the event of the lower edge.
+         */
+        private fun compareEvents(e1: SweepEvent, e2: SweepEvent): Int {
+            if (e1.x != e2.x) {
+                return if (e1.x > e2.x) 1 else -1
+            }
+            if (e1.y != e2.y) {
+                return if (e1.y > e2.y) 1 else -1
+            }
+            if (e1.left != e2.left) {
+                return if (e1.left) 1 else -1
+            }
+            val o1 = e1.otherEvent
+            val o2 = e2.otherEvent
+            if (signedArea(e1.x, e1.y, o1.x, o1.y, o2.x, o2.y) != 0.0) {
+                return if (!e1.isBelow(o2.x, o2.y)) 1 else -1
+            }
+            return if (!e1.isSubject && e2.isSubject) 1 else -1
+        }
+
+        /**
+         * Orders the edges of two left events in the sweep line, from south to north.
+         */
+        private fun compareSegments(le1: SweepEvent, le2: SweepEvent): Int {
+            if (le1 === le2) {
+                return 0
+            }
+            val o1 = le1.otherEvent
+            val o2 = le2.otherEvent
+            if (signedArea(le1.x, le1.y, o1.x, o1.y, le2.x, le2.y) != 0.0 ||
+                signedArea(le1.x, le1.y, o1.x, o1.y, o2.x, o2.y) != 0.0
+            ) {
+                // Edges that are not collinear
+                if (le1.samePoint(le2)) {
+                    return if (le1.isBelow(o2.x, o2.y)) -1 else 1
+                }
+                if (le1.x == le2.x) {
+                    return if (le1.y < le2.y) -1 else 1
+                }
+                if (compareEvents(le1, le2) == 1) {
+                    return if (!le2.isBelow(le1.x, le1.y)) -1 else 1
+                }
+                return if (le1.isBelow(le2.x, le2.y)) -1 else 1
+            }
+            if (le1.isSubject == le2.isSubject) {
+                if (le1.samePoint(le2)) {
+                    if (o1.samePoint(o2)) {
+                        return 0
+                    }
+                    return if (le1.contourId > le2.contourId) 1 else -1
+                }
+            } else {
+                // Collinear edges of different inputs
+                return if (le1.isSubject) -1 else 1
+            }
+            return if (compareEvents(le1, le2) == 1) 1 else -1
+        }
+    }
+}
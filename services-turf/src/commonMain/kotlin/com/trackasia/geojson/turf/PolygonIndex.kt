@@ -0,0 +1,93 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.Feature
+import com.trackasia.geojson.model.MultiPolygon
+import com.trackasia.geojson.model.Polygon
+import kotlin.math.max
+import kotlin.math.min
+
+/**
+ * Polygon features prepared with [PreparedPolygon] and indexed by their bounding boxes in an
+ * [StrTree], to find the polygons containing a point without testing every polygon.
+ *
+ * The parts of a [MultiPolygon] are prepared one by one, and a point is contained when any part
+ * contains it, like for [TurfJoins.inside].
+ *
+ * Indexes are immutable and can be queried from several threads at once.
+ *
+ * @param features features with a [Polygon] or [MultiPolygon] geometry
+ */
+internal class PolygonIndex(val features: List<Feature>) {
+
+    private val prepared = arrayOfNulls<List<PreparedPolygon>>(features.size)
+
+    private val tree: StrTree
+
+    init {
+        parallelFor(features.size, 1) { from, to ->
+            for (i in from until to) {
+                prepared[i] = when (val geometry = features[i].geometry) {
+                    is Polygon -> listOf(PreparedPolygon(geometry))
+                    is MultiPolygon -> geometry.polygons.map { PreparedPolygon(it) }
+                    else -> throw TurfException("Feature $i is not a Polygon or MultiPolygon: $geometry")
+                }
+            }
+        }
+        val boxes = DoubleArray(4 * features.size)
+        val part = DoubleArray(4)
+        for (i in features.indices) {
+            boxes[4 * i] = Double.POSITIVE_INFINITY
+            boxes[4 * i + 1] = Double.POSITIVE_INFINITY
+            boxes[4 * i + 2] = Double.NEGATIVE_INFINITY
+            boxes[4 * i + 3] = Double.NEGATIVE_INFINITY
+            for (polygon in prepared[i]!!) {
+                polygon.writeBbox(part, 0)
+                boxes[4 * i] = min(boxes[4 * i], part[0])
+                boxes[4 * i + 1] = min(boxes[4 * i + 1], part[1])
+                boxes[4 * i + 2] = max(boxes[4 * i + 2], part[2])
+                boxes[4 * i + 3] = max(boxes[4 * i + 3], part[3])
+            }
+        }
+        tree = StrTree(boxes)
+    }
+
+    /**
+     * Returns true if at least one polygon contains the point.
+     */
+    fun anyContains(longitude: Double, latitude: Double): Boolean {
+        return tree.search(longitude, latitude, longitude, latitude) { i ->
+            contains(i, longitude, latitude)
+        }
+    }
+
+    /**
+     * Returns the index of the first polygon, in the order of [features], that contains the
+     * point, or -1 if no polygon contains it.
+     */
+    fun firstContaining(longitude: Double, latitude: Double): Int {
+        var first = -1
+        tree.search(longitude, latitude, longitude, latitude) { i ->
+            if ((first < 0 || i < first) && contains(i, longitude, latitude)) {
+                first = i
+            }
+            false
+        }
+        return first
+    }
+
+    /**
+     * Calls [action] with the index of every polygon that contains the point.
+     */
+    fun forEachContaining(longitude: Double, latitude: Double, action: (Int) -> Unit) {
+        tree.search(longitude, latitude, longitude, latitude) { i ->
+            if (contains(i, longitude, latitude)) {
+                action(i)
+            }
+            false
+        }
+    }
+
+    private fun contains(i: Int, longitude: Double, latitude: Double): Boolean {
+        return prepared[i]!!.any { it.contains(longitude, latitude) }
+    }
+}
@@ -0,0 +1,72 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.Geometry
+
+/**
+ * A geometry indexed for repeated spatial predicates, such as a region tested against many
+ * features.
+ *
+ * The geometry is flattened into packed coordinates once, its segments are indexed in an R-tree
+ * and its polygons are prepared with [PreparedPolygon]. Each predicate then only indexes the
+ * other geometry, and intersects the segments whose bounding boxes overlap. The predicates follow
+ * the same definitions as [TurfBooleans], with this geometry as the first argument.
+ *
+ * Prepared geometries are immutable and can be shared between threads.
+ *
+ * @param geometry a point, line or polygon geometry, see [TurfBooleans] for the supported types
+ * @throws TurfException if the geometry type is not supported
+ * @since 7.1.0
+ */
+class PreparedGeometry(val geometry: Geometry) {
+
+    private val indexed = IndexedGeometry(geometry)
+
+    /**
+     * Returns true if this geometry and [other] have at least one point in common.
+     *
+     * @since 7.1.0
+     */
+    fun intersects(other: Geometry): Boolean = Relate.intersects(indexed, IndexedGeometry(other))
+
+    /**
+     * Returns true if this geometry and [other] have no point in common.
+     *
+     * @since 7.1.0
+     */
+    fun disjoint(other: Geometry): Boolean = !intersects(other)
+
+    /**
+     * Returns true if this geometry contains [other], see [TurfBooleans.contains].
+     *
+     * @since 7.1.0
+     */
+    fun contains(other: Geometry): Boolean = Relate.within(IndexedGeometry(other), indexed)
+
+    /**
+     * Returns true if this geometry is within [other], see [TurfBooleans.within].
+     *
+     * @since 7.1.0
+     */
+    fun within(other: Geometry): Boolean = Relate.within(indexed, IndexedGeometry(other))
+
+    /**
+     * Returns true if this geometry crosses [other], see [TurfBooleans.crosses].
+     *
+     * @since 7.1.0
+     */
+    fun crosses(other: Geometry): Boolean = Relate.crosses(indexed, IndexedGeometry(other))
+
+    /**
+     * Returns true if this geometry overlaps [other], see [TurfBooleans.overlaps].
+     *
+     * @since 7.1.0
+     */
+    fun overlaps(other: Geometry): Boolean = Relate.overlaps(indexed, IndexedGeometry(other))
+
+    /**
+     * Returns true if this geometry touches [other], see [TurfBooleans.touches].
+     *
+     * @since 7.1.0
+     */
+    fun touches(other: Geometry): Boolean = Relate.touches(indexed, IndexedGeometry(other))
+}
@@ -0,0 +1,360 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.BoundingBox
+import com.trackasia.geojson.model.MultiPolygon
+import com.trackasia.geojson.model.Point
+import com.trackasia.geojson.model.Polygon
+import kotlin.jvm.JvmOverloads
+import kotlin.math.abs
+
+/**
+ * A polygon indexed for repeated point in polygon tests, such as geofences tested against a
+ * stream of positions.
+ *
+ * [TurfJoins.inside] casts a ray through every edge of the polygon on every call, which is O(n)
+ * for n edges. A prepared polygon is built once in O(n log n) and answers the same question in
+ * O(log n) for most points:
+ *
+ * - Points outside the bounding box of the polygon are rejected first.
+ * - The edges are split into horizontal bands. The ray cast from a point only crosses edges of
+ * the band holding the point. Edges that span the whole band are sorted from west to east, so the
+ * number of them crossed by the ray is found with a binary search. Only the few edges that start
+ * or end within the band are tested one by one.
+ *
+ * Edges are tested with the same formula as [TurfJoins.inside], so both give the same result for
+ * valid polygons, whose edges do not cross each other. Rings are combined with the even-odd rule,
+ * which for a valid polygon means inside the exterior ring and outside of every hole.
+ *
+ * Prepared polygons are immutable and can be shared between threads.
+ *
+ * @param coordinates packed `[lon0, lat0, lon1, lat1, ...]` coordinates of all rings
+ * @param ringEnds    index of the vertex following the last vertex of each ring
+ * @since 7.1.0
+ */
+class PreparedPolygon(coordinates: DoubleArray, ringEnds: IntArray) {
+
+    /**
+     * Prepares a [Polygon], the first ring being its exterior ring and the others its holes.
+     *
+     * @param polygon the polygon to prepare
+     * @since 7.1.0
+     */
+    constructor(polygon: Polygon) : this(listOf(polygon.coordinates))
+
+    /**
+     * Prepares every polygon of a [MultiPolygon].
+     *
+     * @param multiPolygon the polygons to prepare
+     * @since 7.1.0
+     */
+    constructor(multiPolygon: MultiPolygon) : this(multiPolygon.coordinates)
+
+    private constructor(polygons: List<List<List<Point>>>) : this(pack(polygons), ringEnds(polygons))
+
+    /**
+     * Edge `k` runs from `(xi[k], yi[k])` to `(xj[k], yj[k])`, in the same direction as in
+     * [TurfJoins.inside]. Horizontal edges are left out since a horizontal ray never crosses them.
+     */
+    private val xi: DoubleArray
+    private val yi: DoubleArray
+    private val xj: DoubleArray
+    private val yj: DoubleArray
+
+    private val west: Double
+    private val south: Double
+    private val east: Double
+    private val north: Double
+
+    private val bandCount: Int
+    private val bandScale: Double
+
+    /**
+     * Edges spanning band `b` are `spanning[spanningStarts[b] until spanningStarts[b + 1]]`,
+     * sorted from west to east. The other edges of the band are stored the same way in [partial].
+     */
+    private val spanningStarts: IntArray
+    private val spanning: IntArray
+    private val partialStarts: IntArray
+    private val partial: IntArray
+
+    init {
+        require(coordinates.size % 2 == 0) { "Packed coordinates must have an even size" }
+        val vertexCount = coordinates.size / 2
+
+        var edgeCount = 0
+        var start = 0
+        for (end in ringEnds) {
+            if (end < start || end > vertexCount) {
+                throw TurfException("Ring end $end is out of order or out of bounds")
+            }
+            edgeCount += end - start
+            start = end
+        }
+        xi = DoubleArray(edgeCount)
+        yi = DoubleArray(edgeCount)
+        xj = DoubleArray(edgeCount)
+        yj = DoubleArray(edgeCount)
+
+        var minX = Double.POSITIVE_INFINITY
+        var minY = Double.POSITIVE_INFINITY
+        var maxX = Double.NEGATIVE_INFINITY
+        var maxY = Double.NEGATIVE_INFINITY
+        var heights = 0.0
+        var count = 0
+        start = 0
+        for (end in ringEnds) {
+            var j = end - 1
+            for (i in start until end) {
+                val x = coordinates[2 * i]
+                val y = coordinates[2 * i + 1]
+                if (x < minX) minX = x
+                if (x > maxX) maxX = x
+                if (y < minY) minY = y
+                if (y > maxY) maxY = y
+                val y2 = coordinates[2 * j + 1]
+                if (y != y2) {
+                    xi[count] = x
+                    yi[count] = y
+                    xj[count] = coordinates[2 * j]
+                    yj[count] = y2
+                    heights += abs(y - y2)
+                    count++
+                }
+                j = i
+            }
+            start = end
+        }
+        west = minX
+        south = minY
+        east = maxX
+        north = maxY
+
+        // One band per edge at most, with fewer bands when tall edges would be listed too often
+        val height = maxY - minY
+        val bands = if (count == 0 || !(height > 0)) {
+            1.0
+        } else {
+            minOf(count.toDouble(), MAX_ENTRIES_PER_EDGE * count * height / heights)
+        }
+        bandCount = maxOf(1, bands.toInt())
+        bandScale = if (height > 0) bandCount / height else 0.0
+
+        spanningStarts = IntArray(bandCount + 1)
+        partialStarts = IntArray(bandCount + 1)
+        for (k in 0 until count) {
+            val low = band(minOf(yi[k], yj[k]))
+            val high = band(maxOf(yi[k], yj[k]))
+            partialStarts[low + 1]++
+            if (high != low) {
+                partialStarts[high + 1]++
+            }
+            for (b in low + 1 until high) {
+                spanningStarts[b + 1]++
+            }
+        }
+        for (b in 0 until bandCount) {
+            spanningStarts[b + 1] += spanningStarts[b]
+            partialStarts[b + 1] += partialStarts[b]
+        }
+        spanning = IntArray(spanningStarts[bandCount])
+        partial = IntArray(partialStarts[bandCount])
+        val spanningFill = spanningStarts.copyOf(bandCount)
+        val partialFill = partialStarts.copyOf(bandCount)
+        for (k in 0 until count) {
+            val low = band(minOf(yi[k], yj[k]))
+            val high = band(maxOf(yi[k], yj[k]))
+            partial[partialFill[low]++] = k
+            if (high != low) {
+                partial[partialFill[high]++] = k
+            }
+            for (b in low + 1 until high) {
+                spanning[spanningFill[b]++] = k
+            }
+        }
+
+        // Edges do not cross, so their order within a band is the same at every latitude of it
+        val keys = DoubleArray(spanning.size)
+        for (b in 0 until bandCount) {
+            val y = south + (b + 0.5) / bandScale
+            for (e in spanningStarts[b] until spanningStarts[b + 1]) {
+                keys[e] = crossingX(spanning[e], y)
+            }
+            sortByKeys(spanning, keys, spanningStarts[b], spanningStarts[b + 1])
+        }
+    }
+
+    /**
+     * Bounding box of the polygon.
+     *
+     * @throws NoSuchElementException if the polygon has no coordinates
+     * @since 7.1.0
+     */
+    val bbox: BoundingBox
+        get() {
+            if (west > east) {
+                throw NoSuchElementException("Cannot calculate the bbox of a polygon without coordinates")
+            }
+            return BoundingBox(west, south, east, north)
+        }
+
+    /**
+     * Writes the bounding box as `[west, south, east, north]` at [offset] in [result]. The box of
+     * a polygon without coordinates is empty, with infinite edges that intersect nothing.
+     */
+    internal fun writeBbox(result: DoubleArray, offset: Int) {
+        result[offset] = west
+        result[offset + 1] = south
+        result[offset + 2] = east
+        result[offset + 3] = north
+    }
+
+    /**
+     * Determines if a point resides inside the polygon.
+     *
+     * @param point which you'd like to check if inside the polygon
+     * @return true if the point is inside the polygon
+     * @since 7.1.0
+     */
+    fun contains(point: Point): Boolean = contains(point.longitude, point.latitude)
+
+    /**
+     * Determines if a point resides inside the polygon.
+     *
+     * @param longitude longitude of the point
+     * @param latitude  latitude of the point
+     * @return true if the point is inside the polygon
+     * @since 7.1.0
+     */
+    fun contains(longitude: Double, latitude: Double): Boolean {
+        if (!(longitude >= west && longitude <= east && latitude >= south && latitude <= north)) {
+            return false
+        }
+        val b = band(latitude)
+
+        // Spanning edges are sorted from west to east: find the first one east of the point
+        var low = spanningStarts[b]
+        var high = spanningStarts[b + 1]
+        while (low < high) {
+            val middle = (low + high) ushr 1
+            if (isEast(spanning[middle], longitude, latitude)) {
+                high = middle
+            } else {
+                low = middle + 1
+            }
+        }
+        var crossings = spanningStarts[b + 1] - low
+
+        for (e in partialStarts[b] until partialStarts[b + 1]) {
+            val k = partial[e]
+            if ((yi[k] > latitude) != (yj[k] > latitude) && isEast(k, longitude, latitude)) {
+                crossings++
+            }
+        }
+        return crossings % 2 == 1
+    }
+
+    /**
+     * Determines for each point of packed `[lon0, lat0, lon1, lat1, ...]` coordinates if it
+     * resides inside the polygon. Large inputs are tested in parallel on the JVM.
+     *
+     * @param points packed coordinates of the points to check
+     * @param result array receiving one value per point, in point order
+     * @return [result]
+     * @since 7.1.0
+     */
+    @JvmOverloads
+    fun contains(
+        points: DoubleArray,
+        result: BooleanArray = BooleanArray(points.size / 2)
+    ): BooleanArray {
+        require(points.size % 2 == 0) { "Packed coordinates must have an even size" }
+        val size = points.size / 2
+        if (result.size < size) {
+            throw TurfException("Result array must hold at least $size values")
+        }
+        parallelFor(size, PARALLEL_THRESHOLD) { from, to ->
+            for (i in from until to) {
+                result[i] = contains(points[2 * i], points[2 * i + 1])
+            }
+        }
+        return result
+    }
+
+    private fun band(y: Double): Int {
+        val b = ((y - south) * bandScale).toInt()
+        return if (b >= bandCount) bandCount - 1 else b
+    }
+
+    /**
+     * Returns true if edge [k] crosses the ray cast from `(x, y)` eastwards, given that it spans
+     * latitude [y]. This is the test of [TurfJoins.inside].
+     */
+    private fun isEast(k: Int, x: Double, y: Double): Boolean {
+        return x < (xj[k] - xi[k]) * (y - yi[k]) / (yj[k] - yi[k]) + xi[k]
+    }
+
+    private fun crossingX(k: Int, y: Double): Double {
+        return (xj[k] - xi[k]) * (y - yi[k]) / (yj[k] - yi[k]) + xi[k]
+    }
+
+    private companion object {
+
+        /**
+         * Bound on the average number of bands listing each edge, which bounds the memory used by
+         * the index to a small multiple of the number of edges.
+         */
+        private const val MAX_ENTRIES_PER_EDGE = 8
+
+        /**
+         * Number of points below which [contains] is not split into parallel tasks.
+         */
+        private const val PARALLEL_THRESHOLD = 16384
+
+        private fun pack(polygons: List<List<List<Point>>>): DoubleArray {
+            var size = 0
+            for (polygon in polygons) {
+                for (ring in polygon) {
+                    size += ring.size
+                }
+            }
+            val coordinates = DoubleArray(2 * size)
+            var i = 0
+            for (polygon in polygons) {
+                for (ring in polygon) {
+                    for (point in ring) {
+                        coordinates[i++] = point.longitude
+                        coordinates[i++] = point.latitude
+                    }
+                }
+            }
+            return coordinates
+        }
+
+        private fun ringEnds(polygons: List<List<List<Point>>>): IntArray {
+            val ringEnds = IntArray(polygons.sumOf { it.size })
+            var ring = 0
+            var end = 0
+            for (polygon in polygons) {
+                for (points in polygon) {
+                    end += points.size
+                    ringEnds[ring++] = end
+                }
+            }
+            return ringEnds
+        }
+
+        /**
+         * Sorts `values[from until to]` by ascending `keys[from until to]`, moving keys along.
+         */
+        private fun sortByKeys(values: IntArray, keys: DoubleArray, from: Int, to: Int) {
+            if (to - from < 2) {
+                return
+            }
+            val order = (from until to).sortedBy { keys[it] }
+            val sortedValues = IntArray(to - from) { values[order[it]] }
+            val sortedKeys = DoubleArray(to - from) { keys[order[it]] }
+            sortedValues.copyInto(values, from)
+            sortedKeys.copyInto(keys, from)
+        }
+    }
+}
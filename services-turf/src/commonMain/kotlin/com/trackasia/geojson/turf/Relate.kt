@@ -0,0 +1,328 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.turf.IndexedGeometry.Companion.EPSILON
+import kotlin.math.abs
+import kotlin.math.max
+import kotlin.math.min
+
+/**
+ * Computes the dimensionally extended nine-intersection matrix (DE-9IM) of two geometries, from
+ * which the OGC spatial predicates are read.
+ *
+ * Cell `[i, j]` of the matrix holds the dimension of the intersection of part `i` of the first
+ * geometry with part `j` of the second, the parts being [INTERIOR], [BOUNDARY] and [EXTERIOR], or
+ * [FALSE] when they do not intersect.
+ *
+ * The matrix is built by noding: every segment of one geometry is split at the points where it
+ * meets segments of the other, found through the segment index of the other geometry. Each piece
+ * then lies in a single part of the other geometry, found by locating its midpoint. The nodes
+ * themselves and the points and line ends are located the same way. For two polygons, whether
+ * the interiors meet when no boundary crosses the other interior is settled by locating a point
+ * inside each polygon.
+ */
+internal class Relate private constructor(
+    private val a: IndexedGeometry,
+    private val b: IndexedGeometry
+) {
+
+    private val matrix = IntArray(9) { FALSE }
+
+    operator fun get(i: Int, j: Int): Int = matrix[3 * i + j]
+
+    private fun set(i: Int, j: Int, dimension: Int) {
+        if (dimension > matrix[3 * i + j]) {
+            matrix[3 * i + j] = dimension
+        }
+    }
+
+    private fun compute() {
+        set(EXTERIOR, EXTERIOR, 2)
+        if (!a.envelopeIntersects(b)) {
+            exteriorOnly(a, transposed = false)
+            exteriorOnly(b, transposed = true)
+            return
+        }
+        locatePoints(a, b, transposed = false)
+        locatePoints(b, a, transposed = true)
+        node(a, b, transposed = false)
+        node(b, a, transposed = true)
+        if (a.dimension == 2 && b.dimension == 2) {
+            areas()
+        } else if (a.dimension == 2) {
+            set(INTERIOR, EXTERIOR, 2)
+        } else if (b.dimension == 2) {
+            set(EXTERIOR, INTERIOR, 2)
+        }
+    }
+
+    /**
+     * Fills the matrix of geometries whose envelopes are disjoint.
+     */
+    private fun exteriorOnly(geometry: IndexedGeometry, transposed: Boolean) {
+        if (geometry.isEmpty) {
+            return
+        }
+        setOriented(INTERIOR, EXTERIOR, geometry.dimension, transposed)
+        if (geometry.dimension > 0) {
+            setOriented(BOUNDARY, EXTERIOR, geometry.dimension - 1, transposed)
+        }
+    }
+
+    private fun setOriented(i: Int, j: Int, dimension: Int, transposed: Boolean) {
+        if (transposed) set(j, i, dimension) else set(i, j, dimension)
+    }
+
+    /**
+     * Locates the points of [geometry] and the boundary ends of its lines in [other].
+     */
+    private fun locatePoints(
+        geometry: IndexedGeometry,
+        other: IndexedGeometry,
+        transposed: Boolean
+    ) {
+        val points = geometry.points
+        var i = 0
+        while (i < points.size) {
+            setOriented(INTERIOR, other.locate(points[i], points[i + 1]), 0, transposed)
+            i += 2
+        }
+        if (geometry.dimension == 1) {
+            val c = geometry.coordinates
+            var start = 0
+            for (end in geometry.partEnds) {
+                if (end > start) {
+                    locateEnd(geometry, other, c[2 * start], c[2 * start + 1], transposed)
+                    locateEnd(geometry, other, c[2 * end - 2], c[2 * end - 1], transposed)
+                }
+                start = end
+            }
+        }
+    }
+
+    private fun locateEnd(
+        geometry: IndexedGeometry,
+        other: IndexedGeometry,
+        x: Double,
+        y: Double,
+        transposed: Boolean
+    ) {
+        val part = if (geometry.isBoundary(x, y)) BOUNDARY else INTERIOR
+        setOriented(part, other.locate(x, y), 0, transposed)
+    }
+
+    /**
+     * Splits every segment of [geometry] at the nodes it shares with segments of [other], and
+     * locates the nodes and the pieces in [other].
+     */
+    private fun node(geometry: IndexedGeometry, other: IndexedGeometry, transposed: Boolean) {
+        if (geometry.dimension == 0 || other.isEmpty) {
+            return
+        }
+        // Lines are their own interior, rings are the boundary of their polygon
+        val part = if (geometry.dimension == 1) INTERIOR else BOUNDARY
+        if (other.dimension == 0) {
+            // Points cover no length, the points on the segments have been located already
+            setOriented(part, EXTERIOR, 1, transposed)
+            return
+        }
+        val c = geometry.coordinates
+        val o = other.coordinates
+        var params = DoubleArray(8)
+        for (v in geometry.segments) {
+            val x1 = c[2 * v]
+            val y1 = c[2 * v + 1]
+            val dx = c[2 * v + 2] - x1
+            val dy = c[2 * v + 3] - y1
+            if (dx == 0.0 && dy == 0.0) {
+                continue
+            }
+            params[0] = 0.0
+            params[1] = 1.0
+            var count = 2
+            val x2 = x1 + dx
+            val y2 = y1 + dy
+            other.searchSegments(min(x1, x2), min(y1, y2), max(x1, x2), max(y1, y2)) { k ->
+                val w = other.segments[k]
+                val x3 = o[2 * w]
+                val y3 = o[2 * w + 1]
+                val ex = o[2 * w + 2] - x3
+                val ey = o[2 * w + 3] - y3
+                val denominator = dx * ey - dy * ex
+                val qx = x3 - x1
+                val qy = y3 - y1
+                val scale = max(abs(dx) + abs(dy), abs(ex) + abs(ey))
+                if (abs(denominator) > PARALLEL_TOLERANCE * scale * scale) {
+                    val t = (qx * ey - qy * ex) / denominator
+                    val u = (qx * dy - qy * dx) / denominator
+                    val tSlack = EPSILON / (abs(dx) + abs(dy))
+                    val uSlack = EPSILON / (abs(ex) + abs(ey))
+                    if (t >= -tSlack && t <= 1 + tSlack && u >= -uSlack && u <= 1 + uSlack) {
+                        val s = t.coerceIn(0.0, 1.0)
+                        if (count == params.size) params = params.copyOf(2 * count)
+                        params[count++] = s
+                        addNode(geometry, other, x1 + s * dx, y1 + s * dy, transposed)
+                    }
+                } else if (abs(qx * dy - qy * dx) <= EPSILON * (abs(dx) + abs(dy))) {
+                    // Collinear: split at the ends of the other segment that fall on this one
+                    val length2 = dx * dx + dy * dy
+                    val t0 = (qx * dx + qy * dy) / length2
+                    val t1 = ((qx + ex) * dx + (qy + ey) * dy) / length2
+                    for (t in doubleArrayOf(t0, t1)) {
+                        if (t >= 0 && t <= 1) {
+                            if (count == params.size) params = params.copyOf(2 * count)
+                            params[count++] = t
+                            addNode(geometry, other, x1 + t * dx, y1 + t * dy, transposed)
+                        }
+                    }
+                }
+            }
+            params.sort(0, count)
+            for (i in 1 until count) {
+                if (params[i] - params[i - 1] > 0) {
+                    val t = (params[i - 1] + params[i]) / 2
+                    setOriented(part, other.locate(x1 + t * dx, y1 + t * dy), 1, transposed)
+                }
+            }
+        }
+    }
+
+    /**
+     * Records a point that lies on a segment of [geometry] and on a segment of [other].
+     */
+    private fun addNode(
+        geometry: IndexedGeometry,
+        other: IndexedGeometry,
+        x: Double,
+        y: Double,
+        transposed: Boolean
+    ) {
+        setOriented(partOnSegment(geometry, x, y), partOnSegment(other, x, y), 0, transposed)
+    }
+
+    private fun partOnSegment(geometry: IndexedGeometry, x: Double, y: Double): Int {
+        return when {
+            geometry.dimension == 2 || geometry.isBoundary(x, y) -> BOUNDARY
+            else -> INTERIOR
+        }
+    }
+
+    /**
+     * Fills the cells between the interiors and exteriors of two polygonal geometries.
+     *
+     * The interior of a polygon lies on one side of each of its boundary pieces. A boundary
+     * piece in the interior of the other geometry therefore brings both its own interior and its
+     * own exterior into that interior. Polygons whose boundaries do not cross the other interior
+     * lie either inside or outside the other geometry as a whole, which a point inside them tells.
+     */
+    private fun areas() {
+        if (this[BOUNDARY, INTERIOR] != FALSE) {
+            set(INTERIOR, INTERIOR, 2)
+            set(EXTERIOR, INTERIOR, 2)
+        }
+        if (this[INTERIOR, BOUNDARY] != FALSE) {
+            set(INTERIOR, INTERIOR, 2)
+            set(INTERIOR, EXTERIOR, 2)
+        }
+        if (this[BOUNDARY, EXTERIOR] != FALSE) {
+            set(INTERIOR, EXTERIOR, 2)
+        }
+        if (this[EXTERIOR, BOUNDARY] != FALSE) {
+            set(EXTERIOR, INTERIOR, 2)
+        }
+        locateInteriors(a, b, transposed = false)
+        locateInteriors(b, a, transposed = true)
+    }
+
+    private fun locateInteriors(
+        geometry: IndexedGeometry,
+        other: IndexedGeometry,
+        transposed: Boolean
+    ) {
+        val points = geometry.interiorPoints()
+        var i = 0
+        while (i < points.size) {
+            if (!points[i].isNaN()) {
+                when (other.locate(points[i], points[i + 1])) {
+                    INTERIOR -> setOriented(INTERIOR, INTERIOR, 2, transposed)
+                    EXTERIOR -> setOriented(INTERIOR, EXTERIOR, 2, transposed)
+                }
+            }
+            i += 2
+        }
+    }
+
+    companion object {
+
+        const val INTERIOR = 0
+        const val BOUNDARY = 1
+        const val EXTERIOR = 2
+
+        /**
+         * Matrix value of parts that do not intersect.
+         */
+        const val FALSE = -1
+
+        /**
+         * Relative size of the cross product below which two segments are treated as parallel.
+         */
+        private const val PARALLEL_TOLERANCE = 1e-12
+
+        /**
+         * Returns the intersection matrix of [a] and [b].
+         */
+        fun relate(a: IndexedGeometry, b: IndexedGeometry): Relate {
+            return Relate(a, b).apply { compute() }
+        }
+
+        fun intersects(a: IndexedGeometry, b: IndexedGeometry): Boolean {
+            if (!a.envelopeIntersects(b)) {
+                return false
+            }
+            val m = relate(a, b)
+            return m[INTERIOR, INTERIOR] != FALSE || m[INTERIOR, BOUNDARY] != FALSE ||
+                    m[BOUNDARY, INTERIOR] != FALSE || m[BOUNDARY, BOUNDARY] != FALSE
+        }
+
+        fun within(a: IndexedGeometry, b: IndexedGeometry): Boolean {
+            if (!b.envelopeCovers(a)) {
+                return false
+            }
+            val m = relate(a, b)
+            return m[INTERIOR, INTERIOR] != FALSE && m[INTERIOR, EXTERIOR] == FALSE &&
+                    m[BOUNDARY, EXTERIOR] == FALSE
+        }
+
+        fun crosses(a: IndexedGeometry, b: IndexedGeometry): Boolean {
+            if (!a.envelopeIntersects(b)) {
+                return false
+            }
+            val m = relate(a, b)
+            return when {
+                a.dimension == 1 && b.dimension == 1 -> m[INTERIOR, INTERIOR] == 0
+                a.dimension < b.dimension ->
+                    m[INTERIOR, INTERIOR] != FALSE && m[INTERIOR, EXTERIOR] != FALSE
+                a.dimension > b.dimension ->
+                    m[INTERIOR, INTERIOR] != FALSE && m[EXTERIOR, INTERIOR] != FALSE
+                else -> false
+            }
+        }
+
+        fun overlaps(a: IndexedGeometry, b: IndexedGeometry): Boolean {
+            if (a.dimension != b.dimension || !a.envelopeIntersects(b)) {
+                return false
+            }
+            val m = relate(a, b)
+            return m[INTERIOR, INTERIOR] == a.dimension && m[INTERIOR, EXTERIOR] != FALSE &&
+                    m[EXTERIOR, INTERIOR] != FALSE
+        }
+
+        fun touches(a: IndexedGeometry, b: IndexedGeometry): Boolean {
+            if (a.dimension == 0 && b.dimension == 0 || !a.envelopeIntersects(b)) {
+                return false
+            }
+            val m = relate(a, b)
+            return m[INTERIOR, INTERIOR] == FALSE && (m[INTERIOR, BOUNDARY] != FALSE ||
+                    m[BOUNDARY, INTERIOR] != FALSE || m[BOUNDARY, BOUNDARY] != FALSE)
+        }
+    }
+}
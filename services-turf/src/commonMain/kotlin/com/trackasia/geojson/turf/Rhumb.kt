@@ -0,0 +1,97 @@
+package com.trackasia.geojson.turf
+
+import kotlin.math.IEEErem
+import kotlin.math.PI
+import kotlin.math.abs
+import kotlin.math.atan2
+import kotlin.math.cos
+import kotlin.math.ln
+import kotlin.math.sin
+import kotlin.math.sqrt
+import kotlin.math.tan
+
+/**
+ * Rhumb lines (loxodromes) on a sphere, the paths that cross every meridian at the same angle.
+ * Follows the formulas of Turf's `rhumb-distance`, `rhumb-bearing` and `rhumb-destination`
+ * modules, with the difference of longitudes always taken across the shorter side of the
+ * antimeridian.
+ *
+ * Latitudes are stretched as on a Mercator projection, where rhumb lines are straight, so each
+ * point only needs one logarithm. [psi] can be computed once per point and passed to the other
+ * functions when the same point is used many times.
+ */
+internal object Rhumb {
+
+    /**
+     * Ratios of latitude to stretched latitude differences below which the cosine of the
+     * latitude is used instead, to avoid dividing by zero along parallels.
+     */
+    private const val PARALLEL_TOLERANCE = 1e-11
+
+    /**
+     * Returns the Mercator stretched latitude of [latitude], given in degrees.
+     */
+    fun psi(latitude: Double): Double = ln(tan(PI / 4 + latitude * PI / 360))
+
+    /**
+     * Returns the difference of longitudes from [longitude1] to [longitude2] in radians, between
+     * -π and π.
+     */
+    fun deltaLongitude(longitude1: Double, longitude2: Double): Double =
+        (longitude2 - longitude1).IEEErem(360.0) * PI / 180
+
+    /**
+     * Returns the angular length in radians of the rhumb line between two points, in degrees,
+     * with [psi1] and [psi2] their stretched latitudes.
+     */
+    fun distance(
+        longitude1: Double,
+        latitude1: Double,
+        psi1: Double,
+        longitude2: Double,
+        latitude2: Double,
+        psi2: Double
+    ): Double {
+        val deltaLatitude = (latitude2 - latitude1) * PI / 180
+        val deltaLongitude = deltaLongitude(longitude1, longitude2)
+        val deltaPsi = psi2 - psi1
+        val q = if (abs(deltaPsi) > PARALLEL_TOLERANCE) deltaLatitude / deltaPsi else cos(latitude1 * PI / 180)
+        return sqrt(deltaLatitude * deltaLatitude + q * q * deltaLongitude * deltaLongitude)
+    }
+
+    /**
+     * Returns the constant bearing of the rhumb line between two points, in degrees between -180
+     * and 180, with [psi1] and [psi2] the stretched latitudes of the points.
+     */
+    fun bearing(longitude1: Double, psi1: Double, longitude2: Double, psi2: Double): Double {
+        return atan2(deltaLongitude(longitude1, longitude2), psi2 - psi1) * 180 / PI
+    }
+
+    /**
+     * Writes the point reached by following the rhumb line of [bearing] degrees from a point for
+     * [radians], as `[longitude, latitude]` at [offset] in [result]. The longitude is brought
+     * into the range -180 to 180.
+     */
+    fun destination(
+        longitude: Double,
+        latitude: Double,
+        radians: Double,
+        bearing: Double,
+        result: DoubleArray,
+        offset: Int
+    ) {
+        val theta = bearing * PI / 180
+        val phi1 = latitude * PI / 180
+        val deltaPhi = radians * cos(theta)
+        var phi2 = phi1 + deltaPhi
+        // Going past a pole comes back down on the other side
+        if (abs(phi2) > PI / 2) {
+            phi2 = if (phi2 > 0) PI - phi2 else -PI - phi2
+        }
+        val deltaPsi = ln(tan(PI / 4 + phi2 / 2) / tan(PI / 4 + phi1 / 2))
+        val q = if (abs(deltaPsi) > PARALLEL_TOLERANCE) deltaPhi / deltaPsi else cos(phi1)
+        val deltaLambda = radians * sin(theta) / q
+        result[offset] = (longitude + deltaLambda * 180 / PI).IEEErem(360.0)
+        result[offset + 1] = phi2 * 180 / PI
+    }
+}
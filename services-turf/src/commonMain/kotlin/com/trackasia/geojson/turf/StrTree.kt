@@ -0,0 +1,152 @@
+package com.trackasia.geojson.turf
+
+import kotlin.math.ceil
+import kotlin.math.sqrt
+
+/**
+ * A static R-tree over bounding boxes, bulk loaded with the Sort-Tile-Recursive algorithm of
+ * S. Leutenegger, M. Lopez and J. Edgington, "STR: a simple and efficient algorithm for R-tree
+ * packing" (1997).
+ *
+ * Items are sorted into vertical slices by the longitude of their center, and each slice by
+ * latitude, then packed [NODE_SIZE] at a time into leaves. Upper levels group consecutive nodes
+ * of the level below. All levels are stored in one flat array, the leaves first and the root
+ * last, so the tree is built with a handful of allocations.
+ *
+ * Trees are immutable and can be searched from several threads at once.
+ *
+ * @param boxes packed `[minX0, minY0, maxX0, maxY0, minX1, ...]` bounding boxes of the items
+ */
+internal class StrTree(boxes: DoubleArray) {
+
+    /**
+     * Number of items in the tree.
+     */
+    val size = boxes.size / 4
+
+    /**
+     * Index of the item stored at each leaf position.
+     */
+    private val items = IntArray(size)
+
+    /**
+     * Position in [nodeBoxes] of the first node of each level, plus the end of the last level.
+     */
+    private val levelStarts: IntArray
+
+    private val nodeBoxes: DoubleArray
+
+    init {
+        require(boxes.size % 4 == 0) { "Packed bounding boxes must have a size multiple of 4" }
+
+        // Sort into slices by the center longitude, then each slice by the center latitude
+        val order = (0 until size).sortedBy { i -> boxes[4 * i] + boxes[4 * i + 2] }
+        val leafCount = (size + NODE_SIZE - 1) / NODE_SIZE
+        val sliceSize = NODE_SIZE * ceil(sqrt(leafCount.toDouble())).toInt()
+        var position = 0
+        var sliceStart = 0
+        while (sliceStart < size) {
+            val sliceEnd = minOf(sliceStart + sliceSize, size)
+            val slice = order.subList(sliceStart, sliceEnd)
+                .sortedBy { i -> boxes[4 * i + 1] + boxes[4 * i + 3] }
+            for (i in slice) {
+                items[position++] = i
+            }
+            sliceStart = sliceEnd
+        }
+
+        var levels = 1
+        var total = size
+        var count = size
+        while (count > 1) {
+            count = (count + NODE_SIZE - 1) / NODE_SIZE
+            total += count
+            levels++
+        }
+        levelStarts = IntArray(levels + 1)
+        nodeBoxes = DoubleArray(4 * total)
+        for (p in 0 until size) {
+            boxes.copyInto(nodeBoxes, 4 * p, 4 * items[p], 4 * items[p] + 4)
+        }
+        levelStarts[1] = size
+        for (level in 1 until levels) {
+            val childStart = levelStarts[level - 1]
+            val childEnd = levelStarts[level]
+            var node = childEnd
+            var child = childStart
+            while (child < childEnd) {
+                val last = minOf(child + NODE_SIZE, childEnd)
+                var minX = Double.POSITIVE_INFINITY
+                var minY = Double.POSITIVE_INFINITY
+                var maxX = Double.NEGATIVE_INFINITY
+                var maxY = Double.NEGATIVE_INFINITY
+                for (c in child until last) {
+                    minX = minOf(minX, nodeBoxes[4 * c])
+                    minY = minOf(minY, nodeBoxes[4 * c + 1])
+                    maxX = maxOf(maxX, nodeBoxes[4 * c + 2])
+                    maxY = maxOf(maxY, nodeBoxes[4 * c + 3])
+                }
+                nodeBoxes[4 * node] = minX
+                nodeBoxes[4 * node + 1] = minY
+                nodeBoxes[4 * node + 2] = maxX
+                nodeBoxes[4 * node + 3] = maxY
+                node++
+                child = last
+            }
+            levelStarts[level + 1] = node
+        }
+    }
+
+    /**
+     * Calls [visitor] with the index of every item whose bounding box intersects the given box,
+     * edges included, until [visitor] returns true.
+     *
+     * @return true if [visitor] stopped the search
+     */
+    fun search(
+        minX: Double,
+        minY: Double,
+        maxX: Double,
+        maxY: Double,
+        visitor: (Int) -> Boolean
+    ): Boolean {
+        if (size == 0) {
+            return false
+        }
+        val levels = levelStarts.size - 1
+        val stack = IntArray(2 * ((levels - 1) * (NODE_SIZE - 1) + 1))
+        var top = 0
+        stack[top++] = levelStarts[levels - 1]
+        stack[top++] = levels - 1
+        while (top > 0) {
+            val level = stack[--top]
+            val node = stack[--top]
+            if (nodeBoxes[4 * node] > maxX || nodeBoxes[4 * node + 1] > maxY ||
+                nodeBoxes[4 * node + 2] < minX || nodeBoxes[4 * node + 3] < minY
+            ) {
+                continue
+            }
+            if (level == 0) {
+                if (visitor(items[node])) {
+                    return true
+                }
+                continue
+            }
+            val first = levelStarts[level - 1] + (node - levelStarts[level]) * NODE_SIZE
+            val last = minOf(first + NODE_SIZE, levelStarts[level])
+            for (child in last - 1 downTo first) {
+                stack[top++] = child
+                stack[top++] = level - 1
+            }
+        }
+        return false
+    }
+
+    companion object {
+
+        /**
+         * Maximum number of children of each node.
+         */
+        const val NODE_SIZE = 16
+    }
+}
@@ -0,0 +1,22 @@
+package com.trackasia.geojson.turf
+
+/**
+ * A Web Mercator map tile, in the XYZ scheme used by slippy maps: column [x] grows eastwards
+ * from the antimeridian and row [y] grows southwards from the north edge of the map.
+ *
+ * @param x column of the tile, from 0 to `2^z - 1`
+ * @param y row of the tile, from 0 to `2^z - 1`
+ * @param z zoom level of the tile
+ * @see TurfProjection
+ * @since 7.1.0
+ */
+data class Tile(val x: Int, val y: Int, val z: Int) {
+
+    /**
+     * The quadkey of the tile, as used by Bing Maps.
+     *
+     * @since 7.1.0
+     */
+    val quadkey: String
+        get() = TurfProjection.quadkey(x, y, z)
+}
@@ -0,0 +1,464 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.Feature
+import com.trackasia.geojson.model.FeatureCollection
+import com.trackasia.geojson.model.Geometry
+import com.trackasia.geojson.model.GeometryCollection
+import com.trackasia.geojson.model.LineString
+import com.trackasia.geojson.model.MultiLineString
+import com.trackasia.geojson.model.MultiPoint
+import com.trackasia.geojson.model.MultiPolygon
+import com.trackasia.geojson.model.Point
+import com.trackasia.geojson.model.Polygon
+import com.trackasia.geojson.utils.PackedCoordinates
+import com.trackasia.geojson.utils.PolylineUtils
+import com.trackasia.geojson.utils.SimplificationIndex
+import kotlin.jvm.JvmOverloads
+import kotlin.math.round
+
+/**
+ * Cuts a [FeatureCollection] into a pyramid of vector tiles, in the manner of the geojson-vt
+ * library, so that the same features can be served at any zoom level.
+ *
+ * Features are projected once to Web Mercator, scaled so that the world spans 0 to 1, and each
+ * line and ring gets a [SimplificationIndex]. Simplifying a line for a zoom level is then a filter
+ * over its precomputed importances, giving the same points as [PolylineUtils.simplify] with the
+ * tolerance of that zoom, instead of a new Douglas-Peucker run per tile.
+ *
+ * Tiles are cut on demand. The features of a tile are those of its nearest cached ancestor,
+ * clipped with [BboxClipper] level by level down to the tile and a [buffer] around it, so that
+ * sibling tiles reuse the features clipped for their parent. Features whose bounding box is inside
+ * a tile are not copied, and vertices added on the sides of a tile are always kept by the
+ * simplification. The clipped features and the finished tiles each go to a least recently used
+ * cache of at most [maxCachedTiles] entries, while the projected features of the whole collection
+ * are kept, so an evicted tile can always be cut again. Tiles can be requested from many threads.
+ *
+ * Tiles are [FeatureCollection]s in tile pixel coordinates, rounded to whole pixels: longitudes
+ * hold x, from 0 on the west side of the tile to [extent] on its east side, and latitudes hold y,
+ * from 0 on the north side to [extent] on its south side. Features keep their id and properties,
+ * and a feature with a [GeometryCollection] is split into one feature per geometry. Features are
+ * not copied across the antimeridian, so longitudes must be within -180 to 180.
+ *
+ * @param featureCollection features to cut into tiles
+ * @param maxZoom           deepest zoom level tiles can be requested at, at most 24
+ * @param tolerance         simplification tolerance, in tile pixels
+ * @param extent            size of a tile side, in tile pixels
+ * @param buffer            width of the margin kept around each tile, in tile pixels
+ * @param maxCachedTiles    number of tiles, and of clipped tile features, kept in memory
+ * @see [PolylineUtils.simplify]
+ * @since 7.1.0
+ */
+class TileIndex @JvmOverloads constructor(
+    featureCollection: FeatureCollection,
+    val maxZoom: Int = DEFAULT_MAX_ZOOM,
+    val tolerance: Double = DEFAULT_TOLERANCE,
+    val extent: Int = DEFAULT_EXTENT,
+    val buffer: Int = DEFAULT_BUFFER,
+    val maxCachedTiles: Int = DEFAULT_MAX_CACHED_TILES
+) {
+
+    init {
+        require(maxZoom in 0..MAX_ZOOM) { "maxZoom must be between 0 and $MAX_ZOOM" }
+        require(extent > 0) { "extent must be positive" }
+        require(maxCachedTiles > 0) { "maxCachedTiles must be positive" }
+    }
+
+    private val root: List<TileFeature> = project(featureCollection.features)
+
+    private val sources = LruCache<List<TileFeature>>(maxCachedTiles)
+
+    private val tiles = LruCache<FeatureCollection>(maxCachedTiles)
+
+    /**
+     * Returns the tile at zoom level [z], column [x] and row [y], or null if it holds no feature
+     * or is outside the pyramid. Columns wrap around the antimeridian.
+     *
+     * @param z zoom level, from 0 to [maxZoom]
+     * @param x tile column, from 0 on the west
+     * @param y tile row, from 0 on the north
+     * @return the features of the tile in tile pixel coordinates
+     * @since 7.1.0
+     */
+    fun getTile(z: Int, x: Int, y: Int): FeatureCollection? {
+        if (z < 0 || z > maxZoom) {
+            return null
+        }
+        val z2 = 1 shl z
+        if (y < 0 || y >= z2) {
+            return null
+        }
+        val wrappedX = (x % z2 + z2) % z2
+        val key = key(z, wrappedX, y)
+        val tile = tiles[key] ?: render(z, wrappedX, y).also { tiles[key] = it }
+        return if (tile.features.isEmpty()) null else tile
+    }
+
+    /**
+     * Returns the features of a tile, at full resolution and clipped to the tile and its buffer.
+     */
+    private fun source(z: Int, x: Int, y: Int): List<TileFeature> {
+        var level = z
+        var features: List<TileFeature>? = null
+        while (level > 0) {
+            features = sources[key(level, x shr (z - level), y shr (z - level))]
+            if (features != null) {
+                break
+            }
+            level--
+        }
+        var clipped = features ?: root
+        while (level < z && clipped.isNotEmpty()) {
+            level++
+            val childX = x shr (z - level)
+            val childY = y shr (z - level)
+            clipped = clip(clipped, level, childX, childY)
+            sources[key(level, childX, childY)] = clipped
+        }
+        return clipped
+    }
+
+    private fun clip(features: List<TileFeature>, z: Int, x: Int, y: Int): List<TileFeature> {
+        val z2 = (1 shl z).toDouble()
+        val k = buffer.toDouble() / extent
+        val minX = (x - k) / z2
+        val minY = (y - k) / z2
+        val maxX = (x + 1 + k) / z2
+        val maxY = (y + 1 + k) / z2
+        val clipper = BboxClipper(minX, minY, maxX, maxY, STRIDE, Double.POSITIVE_INFINITY)
+        val clipped = ArrayList<TileFeature>()
+        for (feature in features) {
+            if (feature.minX > maxX || feature.maxX < minX ||
+                feature.minY > maxY || feature.maxY < minY
+            ) {
+                continue
+            }
+            if (feature.minX >= minX && feature.maxX <= maxX &&
+                feature.minY >= minY && feature.maxY <= maxY
+            ) {
+                clipped.add(feature)
+                continue
+            }
+            val parts = when (feature.type) {
+                POINTS -> {
+                    val points = clipPoints(feature.parts[0][0], minX, minY, maxX, maxY)
+                    if (points.isEmpty()) emptyList() else listOf(listOf(points))
+                }
+
+                LINES -> {
+                    val lines = feature.parts[0].flatMap { line -> clipper.clipLine(line) }
+                    if (lines.isEmpty()) emptyList() else listOf(lines)
+                }
+
+                else -> feature.parts.mapNotNull { rings ->
+                    val exterior = clipper.clipRing(rings[0])
+                    if (exterior.isEmpty()) {
+                        null
+                    } else {
+                        listOf(exterior) + rings.subList(1, rings.size)
+                            .map { ring -> clipper.clipRing(ring) }
+                            .filter { ring -> ring.isNotEmpty() }
+                    }
+                }
+            }
+            if (parts.isNotEmpty()) {
+                clipped.add(TileFeature(feature.feature, feature.type, parts))
+            }
+        }
+        return clipped
+    }
+
+    private fun clipPoints(
+        points: DoubleArray,
+        minX: Double,
+        minY: Double,
+        maxX: Double,
+        maxY: Double
+    ): DoubleArray {
+        var size = 0
+        val inside = DoubleArray(points.size)
+        for (i in 0 until points.size / STRIDE) {
+            val x = points[STRIDE * i]
+            val y = points[STRIDE * i + 1]
+            if (x in minX..maxX && y in minY..maxY) {
+                points.copyInto(inside, size, STRIDE * i, STRIDE * (i + 1))
+                size += STRIDE
+            }
+        }
+        return inside.copyOf(size)
+    }
+
+    /**
+     * Simplifies the features of a tile for its zoom level and converts them to tile pixels.
+     */
+    private fun render(z: Int, x: Int, y: Int): FeatureCollection {
+        val features = source(z, x, y)
+        if (features.isEmpty()) {
+            return EMPTY_TILE
+        }
+        val scale = (1 shl z).toDouble()
+        val sqTolerance = (tolerance / (scale * extent)).let { it * it }
+        val transform = TileTransform(scale, x, y, extent.toDouble(), sqTolerance)
+        val rendered = ArrayList<Feature>(features.size)
+        for (feature in features) {
+            val geometry = when (feature.type) {
+                POINTS -> transform.points(feature.parts[0][0])
+                LINES -> transform.lines(feature.parts[0])
+                else -> transform.polygons(feature.parts)
+            }
+            if (geometry != null) {
+                rendered.add(Feature(geometry, feature.feature.properties, feature.feature.id))
+            }
+        }
+        return FeatureCollection(rendered)
+    }
+
+    /**
+     * A feature projected to Web Mercator, with vertices packed as `[x, y, importance]`, where
+     * importance is the squared distance at which simplification removes the vertex.
+     *
+     * Points are held in one part, lines in one part with one array per line, and polygons in
+     * one part per polygon with one array per ring, the exterior ring first.
+     */
+    private class TileFeature(
+        val feature: Feature,
+        val type: Int,
+        val parts: List<List<DoubleArray>>
+    ) {
+
+        var minX = Double.POSITIVE_INFINITY
+        var minY = Double.POSITIVE_INFINITY
+        var maxX = Double.NEGATIVE_INFINITY
+        var maxY = Double.NEGATIVE_INFINITY
+
+        init {
+            for (part in parts) {
+                for (coordinates in part) {
+                    for (i in 0 until coordinates.size / STRIDE) {
+                        val x = coordinates[STRIDE * i]
+                        val y = coordinates[STRIDE * i + 1]
+                        if (x < minX) minX = x
+                        if (x > maxX) maxX = x
+                        if (y < minY) minY = y
+                        if (y > maxY) maxY = y
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts the projected vertices of a tile to geometries in tile pixels, dropping the
+     * vertices less important than [sqTolerance] and those that round onto the previous one.
+     */
+    private class TileTransform(
+        private val scale: Double,
+        private val x: Int,
+        private val y: Int,
+        private val extent: Double,
+        private val sqTolerance: Double
+    ) {
+
+        fun points(coordinates: DoubleArray): Geometry? {
+            val points = List(coordinates.size / STRIDE) { i ->
+                point(coordinates[STRIDE * i], coordinates[STRIDE * i + 1])
+            }
+            return when (points.size) {
+                0 -> null
+                1 -> points[0]
+                else -> MultiPoint(points)
+            }
+        }
+
+        fun lines(parts: List<DoubleArray>): Geometry? {
+            val lines = parts.mapNotNull { line -> simplify(line, 2) }
+            return when (lines.size) {
+                0 -> null
+                1 -> LineString(lines[0])
+                else -> MultiLineString(lines)
+            }
+        }
+
+        fun polygons(parts: List<List<DoubleArray>>): Geometry? {
+            val polygons = parts.mapNotNull { rings ->
+                val exterior = simplify(rings[0], 4) ?: return@mapNotNull null
+                listOf(exterior) + rings.subList(1, rings.size).mapNotNull { simplify(it, 4) }
+            }
+            return when (polygons.size) {
+                0 -> null
+                1 -> Polygon(polygons[0])
+                else -> MultiPolygon(polygons)
+            }
+        }
+
+        /**
+         * Returns the retained points of a line or ring, or null if less than [minSize] are left.
+         */
+        private fun simplify(coordinates: DoubleArray, minSize: Int): List<Point>? {
+            val points = ArrayList<Point>()
+            var last: Point? = null
+            for (i in 0 until coordinates.size / STRIDE) {
+                if (coordinates[STRIDE * i + 2] <= sqTolerance) {
+                    continue
+                }
+                val point = point(coordinates[STRIDE * i], coordinates[STRIDE * i + 1])
+                if (last == null || point.longitude != last.longitude ||
+                    point.latitude != last.latitude
+                ) {
+                    points.add(point)
+                    last = point
+                }
+            }
+            return if (points.size >= minSize) points else null
+        }
+
+        private fun point(projectedX: Double, projectedY: Double): Point {
+            return Point(
+                round(extent * (projectedX * scale - x)),
+                round(extent * (projectedY * scale - y))
+            )
+        }
+    }
+
+    companion object {
+
+        /**
+         * Default deepest zoom level.
+         *
+         * @since 7.1.0
+         */
+        const val DEFAULT_MAX_ZOOM = 14
+
+        /**
+         * Default simplification tolerance, in tile pixels.
+         *
+         * @since 7.1.0
+         */
+        const val DEFAULT_TOLERANCE = 3.0
+
+        /**
+         * Default size of a tile side, in tile pixels.
+         *
+         * @since 7.1.0
+         */
+        const val DEFAULT_EXTENT = 4096
+
+        /**
+         * Default width of the margin around each tile, in tile pixels.
+         *
+         * @since 7.1.0
+         */
+        const val DEFAULT_BUFFER = 64
+
+        /**
+         * Default number of cached tiles.
+         *
+         * @since 7.1.0
+         */
+        const val DEFAULT_MAX_CACHED_TILES = 1024
+
+        private const val MAX_ZOOM = 24
+
+        private const val PARALLEL_GRAIN = 64
+
+        private const val STRIDE = 3
+
+        private const val POINTS = 1
+
+        private const val LINES = 2
+
+        private const val POLYGONS = 3
+
+        private val EMPTY_TILE = FeatureCollection(emptyList())
+
+        private fun key(z: Int, x: Int, y: Int): Long {
+            return (z.toLong() shl 48) or (x.toLong() shl 24) or y.toLong()
+        }
+
+        private fun project(features: List<Feature>): List<TileFeature> {
+            val projected = arrayOfNulls<List<TileFeature>>(features.size)
+            parallelFor(features.size, PARALLEL_GRAIN) { from, to ->
+                for (i in from until to) {
+                    val tileFeatures = ArrayList<TileFeature>(1)
+                    features[i].geometry?.let { project(features[i], it, tileFeatures) }
+                    projected[i] = tileFeatures
+                }
+            }
+            return projected.flatMap { it!! }
+        }
+
+        private fun project(feature: Feature, geometry: Geometry, out: MutableList<TileFeature>) {
+            val type: Int
+            val parts: List<List<DoubleArray>>
+            when (geometry) {
+                is Point -> {
+                    type = POINTS
+                    parts = listOf(listOf(points(listOf(geometry))))
+                }
+
+                is MultiPoint -> {
+                    type = POINTS
+                    parts = listOf(listOf(points(geometry.coordinates)))
+                }
+
+                is LineString -> {
+                    type = LINES
+                    parts = listOf(listOf(line(geometry.coordinates)))
+                }
+
+                is MultiLineString -> {
+                    type = LINES
+                    parts = listOf(geometry.coordinates.filter { it.isNotEmpty() }.map { line(it) })
+                }
+
+                is Polygon -> {
+                    type = POLYGONS
+                    parts = listOf(geometry.coordinates.map { line(it) })
+                }
+
+                is MultiPolygon -> {
+                    type = POLYGONS
+                    parts = geometry.coordinates.map { rings -> rings.map { line(it) } }
+                }
+
+                is GeometryCollection -> {
+                    geometry.geometries.forEach { project(feature, it, out) }
+                    return
+                }
+
+                else -> return
+            }
+            val nonEmpty = parts.filter { part -> part.isNotEmpty() && part[0].isNotEmpty() }
+            if (nonEmpty.isNotEmpty()) {
+                out.add(TileFeature(feature, type, nonEmpty))
+            }
+        }
+
+        /**
+         * Projects points, which are never simplified.
+         */
+        private fun points(points: List<Point>): DoubleArray {
+            val coordinates = DoubleArray(STRIDE * points.size)
+            for ((i, point) in points.withIndex()) {
+                coordinates[STRIDE * i] = TurfProjection.worldX(point.longitude)
+                coordinates[STRIDE * i + 1] = TurfProjection.worldY(point.latitude)
+                coordinates[STRIDE * i + 2] = Double.POSITIVE_INFINITY
+            }
+            return coordinates
+        }
+
+        /**
+         * Projects a line or ring and tags its vertices with their simplification importance.
+         */
+        private fun line(points: List<Point>): DoubleArray {
+            val packed = TurfProjection.toTileCoordinates(PackedCoordinates.pack(points), 0)
+            val importance = SimplificationIndex.fromPacked(packed).importance
+            val coordinates = DoubleArray(STRIDE * points.size)
+            for (i in points.indices) {
+                coordinates[STRIDE * i] = packed[2 * i]
+                coordinates[STRIDE * i + 1] = packed[2 * i + 1]
+                coordinates[STRIDE * i + 2] = importance[i]
+            }
+            return coordinates
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.Point
+import kotlin.jvm.JvmOverloads
+import kotlin.jvm.JvmStatic
+
+/**
+ * Batch variants of [TurfMeasurement.distance] for one-to-many and many-to-many distances, and of
+ * the rhumb line measurements [TurfMeasurement.rhumbDistance], [TurfMeasurement.rhumbBearing] and
+ * [TurfMeasurement.rhumbDestination].
+ *
+ * Points are passed as packed `[lon0, lat0, lon1, lat1, ...]` arrays and results are written to a
+ * caller supplied [DoubleArray], so that repeated calls do not allocate. The sines and cosines of
+ * every point are computed once per call instead of once per pair, which leaves a single
+ * `atan2` and two square roots in the inner loop. Large matrices are computed in parallel on the
+ * JVM, and rows are evaluated several destinations at a time when the `jdk.incubator.vector`
+ * module is available.
+ *
+ * Results match the single point functions up to floating point rounding.
+ *
+ * @see com.trackasia.geojson.utils.PackedCoordinates
+ * @since 7.1.0
+ */
+object TurfBatchMeasurement {
+
+    /**
+     * Number of point pairs below which a call is not split into parallel tasks.
+     */
+    private const val PARALLEL_THRESHOLD = 16384
+
+    /**
+     * Calculates the distance from one point to many points, using the Haversine formula.
+     *
+     * @param origin       the starting point
+     * @param destinations packed `[lon0, lat0, lon1, lat1, ...]` coordinates of the destinations
+     * @param unit         one of the units found inside [TurfUnit]
+     * @param result       array receiving one distance per destination, in destination order
+     * @return [result]
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun distances(
+        origin: Point,
+        destinations: DoubleArray,
+        unit: TurfUnit = TurfUnit.DEFAULT,
+        result: DoubleArray = DoubleArray(destinations.size / 2)
+    ): DoubleArray {
+        val origins = doubleArrayOf(origin.longitude, origin.latitude)
+        return distanceMatrix(origins, destinations, unit, result)
+    }
+
+    /**
+     * Calculates the distance between every origin and every destination, using the Haversine
+     * formula.
+     *
+     * The matrix is stored in row-major order: the distance from origin `i` to destination `j` is
+     * written to `result[i * destinationCount + j]`.
+     *
+     * @param origins      packed `[lon0, lat0, lon1, lat1, ...]` coordinates of the origins
+     * @param destinations packed `[lon0, lat0, lon1, lat1, ...]` coordinates of the destinations
+     * @param unit         one of the units found inside [TurfUnit]
+     * @param result       array receiving `originCount * destinationCount` distances
+     * @return [result]
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun distanceMatrix(
+        origins: DoubleArray,
+        destinations: DoubleArray,
+        unit: TurfUnit = TurfUnit.DEFAULT,
+        result: DoubleArray = DoubleArray((origins.size / 2) * (destinations.size / 2))
+    ): DoubleArray {
+        require(origins.size % 2 == 0) { "Packed coordinates must have an even size" }
+        require(destinations.size % 2 == 0) { "Packed coordinates must have an even size" }
+        val rows = origins.size / 2
+        val columns = destinations.size / 2
+        if (result.size < rows * columns) {
+            throw TurfException("Result array must hold at least ${rows * columns} values")
+        }
+        if (rows == 0 || columns == 0) {
+            return result
+        }
+
+        val from = HaversineTerms(origins)
+        val to = if (origins === destinations) from else HaversineTerms(destinations)
+        val factor = unit.factor
+        if (rows == 1) {
+            // One-to-many calls split the destinations instead of the rows
+            parallelFor(columns, PARALLEL_THRESHOLD) { start, end ->
+                haversineRow(from, 0, to, start, end, factor, result, 0)
+            }
+        } else {
+            val grain = maxOf(1, PARALLEL_THRESHOLD / columns)
+            parallelFor(rows, grain) { start, end ->
+                for (row in start until end) {
+                    haversineRow(from, row, to, 0, columns, factor, result, row * columns)
+                }
+            }
+        }
+        return result
+    }
+
+    /**
+     * Calculates the length of the rhumb lines from one point to many points.
+     *
+     * @param origin       the starting point
+     * @param destinations packed `[lon0, lat0, lon1, lat1, ...]` coordinates of the destinations
+     * @param unit         one of the units found inside [TurfUnit]
+     * @param result       array receiving one distance per destination, in destination order
+     * @return [result]
+     * @see TurfMeasurement.rhumbDistance
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun rhumbDistances(
+        origin: Point,
+        destinations: DoubleArray,
+        unit: TurfUnit = TurfUnit.DEFAULT,
+        result: DoubleArray = DoubleArray(destinations.size / 2)
+    ): DoubleArray {
+        val count = checkPacked(destinations, result, 1)
+        val longitude = origin.longitude
+        val latitude = origin.latitude
+        val psi = Rhumb.psi(latitude)
+        val factor = unit.factor
+        parallelFor(count, PARALLEL_THRESHOLD) { start, end ->
+            for (i in start until end) {
+                val latitude2 = destinations[2 * i + 1]
+                result[i] = factor * Rhumb.distance(
+                    longitude, latitude, psi, destinations[2 * i], latitude2, Rhumb.psi(latitude2)
+                )
+            }
+        }
+        return result
+    }
+
+    /**
+     * Calculates the bearings of the rhumb lines from one point to many points.
+     *
+     * @param origin       the starting point
+     * @param destinations packed `[lon0, lat0, lon1, lat1, ...]` coordinates of the destinations
+     * @param result       array receiving one bearing per destination, in decimal degrees ranging
+     * from -180 to 180
+     * @return [result]
+     * @see TurfMeasurement.rhumbBearing
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun rhumbBearings(
+        origin: Point,
+        destinations: DoubleArray,
+        result: DoubleArray = DoubleArray(destinations.size / 2)
+    ): DoubleArray {
+        val count = checkPacked(destinations, result, 1)
+        val longitude = origin.longitude
+        val psi = Rhumb.psi(origin.latitude)
+        parallelFor(count, PARALLEL_THRESHOLD) { start, end ->
+            for (i in start until end) {
+                result[i] = Rhumb.bearing(
+                    longitude, psi, destinations[2 * i], Rhumb.psi(destinations[2 * i + 1])
+                )
+            }
+        }
+        return result
+    }
+
+    /**
+     * Calculates the points reached by travelling from many points along rhumb lines, each with
+     * its own distance and bearing. Longitudes of the results are brought into the range -180 to
+     * 180.
+     *
+     * @param origins   packed `[lon0, lat0, lon1, lat1, ...]` coordinates of the starting points
+     * @param distances distance travelled from each starting point
+     * @param bearings  bearing followed from each starting point, in decimal degrees
+     * @param unit      one of the units found inside [TurfUnit]
+     * @param result    array receiving the packed coordinates of the destinations, in origin order
+     * @return [result]
+     * @see TurfMeasurement.rhumbDestination
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun rhumbDestinations(
+        origins: DoubleArray,
+        distances: DoubleArray,
+        bearings: DoubleArray,
+        unit: TurfUnit = TurfUnit.DEFAULT,
+        result: DoubleArray = DoubleArray(origins.size)
+    ): DoubleArray {
+        val count = checkPacked(origins, result, 2)
+        if (distances.size < count || bearings.size < count) {
+            throw TurfException("Distances and bearings must hold at least $count values")
+        }
+        val factor = unit.factor
+        parallelFor(count, PARALLEL_THRESHOLD) { start, end ->
+            for (i in start until end) {
+                Rhumb.destination(
+                    origins[2 * i], origins[2 * i + 1], distances[i] / factor, bearings[i], result, 2 * i
+                )
+            }
+        }
+        return result
+    }
+
+    /**
+     * Checks that [coordinates] are packed and that [result] holds [valuesPerPoint] values per
+     * point, and returns the number of points.
+     */
+    private fun checkPacked(coordinates: DoubleArray, result: DoubleArray, valuesPerPoint: Int): Int {
+        require(coordinates.size % 2 == 0) { "Packed coordinates must have an even size" }
+        val count = coordinates.size / 2
+        if (result.size < count * valuesPerPoint) {
+            throw TurfException("Result array must hold at least ${count * valuesPerPoint} values")
+        }
+        return count
+    }
+}
@@ -0,0 +1,134 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.Geometry
+import com.trackasia.geojson.model.LineString
+import com.trackasia.geojson.model.MultiLineString
+import com.trackasia.geojson.model.MultiPoint
+import com.trackasia.geojson.model.MultiPolygon
+import com.trackasia.geojson.model.Point
+import com.trackasia.geojson.model.Polygon
+import kotlin.jvm.JvmStatic
+
+/**
+ * Class contains methods that test the spatial relationship of two geometries, following the
+ * definitions of the OGC Simple Features specification.
+ *
+ * Geometries may be a [Point], [MultiPoint], [LineString], [MultiLineString], [Polygon] or
+ * [MultiPolygon]. Coordinates are treated as planar longitude and latitude, and two points closer
+ * than about 1e-9 degrees are considered equal.
+ *
+ * Each call flattens both geometries into packed coordinates and indexes their segments, so that
+ * only segments with overlapping bounding boxes are intersected. Geometries whose bounding boxes
+ * rule out the relationship are answered without indexing. To test one geometry against many
+ * others, use [PreparedGeometry], which keeps its index between calls.
+ *
+ * @see [Turf documentation](http://turfjs.org/docs/)
+ * @since 7.1.0
+ */
+object TurfBooleans {
+
+    /**
+     * Returns true if the two geometries have at least one point in common.
+     *
+     * @param geometry1 first geometry
+     * @param geometry2 second geometry
+     * @return true if the geometries intersect
+     * @throws TurfException if a geometry type is not supported
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun intersects(geometry1: Geometry, geometry2: Geometry): Boolean {
+        return Relate.intersects(IndexedGeometry(geometry1), IndexedGeometry(geometry2))
+    }
+
+    /**
+     * Returns true if the two geometries have no point in common.
+     *
+     * @param geometry1 first geometry
+     * @param geometry2 second geometry
+     * @return true if the geometries are disjoint
+     * @throws TurfException if a geometry type is not supported
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun disjoint(geometry1: Geometry, geometry2: Geometry): Boolean {
+        return !intersects(geometry1, geometry2)
+    }
+
+    /**
+     * Returns true if no point of the second geometry lies outside of the first one, and their
+     * interiors have at least one point in common. A polygon does not contain a line that lies
+     * entirely on its boundary.
+     *
+     * @param geometry1 containing geometry
+     * @param geometry2 contained geometry
+     * @return true if [geometry1] contains [geometry2]
+     * @throws TurfException if a geometry type is not supported
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun contains(geometry1: Geometry, geometry2: Geometry): Boolean {
+        return Relate.within(IndexedGeometry(geometry2), IndexedGeometry(geometry1))
+    }
+
+    /**
+     * Returns true if the first geometry is contained by the second one, see [contains].
+     *
+     * @param geometry1 contained geometry
+     * @param geometry2 containing geometry
+     * @return true if [geometry1] is within [geometry2]
+     * @throws TurfException if a geometry type is not supported
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun within(geometry1: Geometry, geometry2: Geometry): Boolean {
+        return Relate.within(IndexedGeometry(geometry1), IndexedGeometry(geometry2))
+    }
+
+    /**
+     * Returns true if the interiors of the geometries intersect, with an intersection of lower
+     * dimension than the geometries, and each geometry has points outside the other. Applies to
+     * points against lines or polygons, to lines against polygons, and to two lines that meet at
+     * isolated points.
+     *
+     * @param geometry1 first geometry
+     * @param geometry2 second geometry
+     * @return true if the geometries cross
+     * @throws TurfException if a geometry type is not supported
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun crosses(geometry1: Geometry, geometry2: Geometry): Boolean {
+        return Relate.crosses(IndexedGeometry(geometry1), IndexedGeometry(geometry2))
+    }
+
+    /**
+     * Returns true if the geometries have the same dimension, their interiors intersect with that
+     * same dimension, and each geometry has points outside the other.
+     *
+     * @param geometry1 first geometry
+     * @param geometry2 second geometry
+     * @return true if the geometries overlap
+     * @throws TurfException if a geometry type is not supported
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun overlaps(geometry1: Geometry, geometry2: Geometry): Boolean {
+        return Relate.overlaps(IndexedGeometry(geometry1), IndexedGeometry(geometry2))
+    }
+
+    /**
+     * Returns true if the geometries have at least one point in common, but their interiors do
+     * not intersect. Two point geometries never touch.
+     *
+     * @param geometry1 first geometry
+     * @param geometry2 second geometry
+     * @return true if the geometries touch
+     * @throws TurfException if a geometry type is not supported
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun touches(geometry1: Geometry, geometry2: Geometry): Boolean {
+        return Relate.touches(IndexedGeometry(geometry1), IndexedGeometry(geometry2))
+    }
+}
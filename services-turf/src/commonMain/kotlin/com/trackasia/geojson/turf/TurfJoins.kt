@@ -5,6 +5,7 @@ import com.trackasia.geojson.model.FeatureCollection
 import com.trackasia.geojson.model.MultiPolygon
 import com.trackasia.geojson.model.Point
 import com.trackasia.geojson.model.Polygon
+import kotlin.jvm.JvmOverloads
 import kotlin.jvm.JvmStatic
 
 /**
@@ -16,6 +17,17 @@ import kotlin.jvm.JvmStatic
  */
 object TurfJoins {
 
+    /**
+     * Number of points probed by each parallel task of [pointsWithinPolygon].
+     */
+    private const val JOIN_GRAIN = 4096
+
+    /**
+     * Number of candidate points from which [pointsWithinPolygon] prepares a polygon instead of
+     * casting rays through all of its edges for each point.
+     */
+    private const val PREPARE_THRESHOLD = 32
+
     /**
      * Takes a [Point] and a [Polygon] and determines if the point resides inside the
      * polygon. The polygon can be convex or concave. The function accounts for holes.
@@ -24,13 +36,13 @@ object TurfJoins {
      * @param polygon which you'd like to check if the points inside
      * @return true if the Point is inside the Polygon; false if the Point is not inside the Polygon
      * @see [Turf Inside documentation](http://turfjs.org/docs/.inside)
+     * @see PreparedPolygon for testing many points against the same polygon
      *
      * @since 1.3.0
      */
     @JvmStatic
     fun inside(point: Point, polygon: Polygon): Boolean {
-        val coordinates = polygon.coordinates
-        return inside(point, MultiPolygon(listOf(coordinates)))
+        return inPolygon(point, polygon.coordinates)
     }
 
     /**
@@ -47,26 +59,83 @@ object TurfJoins {
      */
     @JvmStatic
     fun inside(point: Point, multiPolygon: MultiPolygon): Boolean {
-        return multiPolygon.coordinates.any { poly ->
-            // check if it is in the outer ring first
-            if (inRing(point, poly.first())) {
-                // check for the point in any of the holes
-                poly.drop(1).none { ring ->
-                    inRing(point, ring)
-                }
-            } else {
-                false
+        return multiPolygon.coordinates.any { poly -> inPolygon(point, poly) }
+    }
+
+    /**
+     * Takes packed `[lon0, lat0, lon1, lat1, ...]` coordinates and a [Polygon] and determines
+     * for each point if it resides inside the polygon. The polygon can be convex or concave. The
+     * function accounts for holes.
+     *
+     * The rings are converted once per call, so this is faster than calling
+     * [inside] per point. On the JVM several ring edges are tested at a time when the
+     * `jdk.incubator.vector` module is available.
+     *
+     * @param points  packed coordinates of the points to check
+     * @param polygon which you'd like to check if the points inside
+     * @param result  array receiving one value per point, in point order
+     * @return [result]
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun inside(
+        points: DoubleArray,
+        polygon: Polygon,
+        result: BooleanArray = BooleanArray(points.size / 2)
+    ): BooleanArray {
+        return inside(points, MultiPolygon(listOf(polygon.coordinates)), result)
+    }
+
+    /**
+     * Takes packed `[lon0, lat0, lon1, lat1, ...]` coordinates and a [MultiPolygon] and
+     * determines for each point if it resides inside the polygon. The polygon can be convex or
+     * concave. The function accounts for holes.
+     *
+     * @param points       packed coordinates of the points to check
+     * @param multiPolygon which you'd like to check if the points inside
+     * @param result       array receiving one value per point, in point order
+     * @return [result]
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun inside(
+        points: DoubleArray,
+        multiPolygon: MultiPolygon,
+        result: BooleanArray = BooleanArray(points.size / 2)
+    ): BooleanArray {
+        require(points.size % 2 == 0) { "Packed coordinates must have an even size" }
+        val size = points.size / 2
+        if (result.size < size) {
+            throw TurfException("Result array must hold at least $size values")
+        }
+        val polygons = multiPolygon.coordinates.map { poly -> poly.map { ring -> RingEdges(ring) } }
+        for (i in 0 until size) {
+            val x = points[i * 2]
+            val y = points[i * 2 + 1]
+            result[i] = polygons.any { poly ->
+                poly[0].contains(x, y) && (1 until poly.size).none { hole -> poly[hole].contains(x, y) }
             }
         }
+        return result
     }
 
     /**
      * Takes a [FeatureCollection] of [Point] and a [FeatureCollection] of
      * [Polygon] and returns the points that fall within the polygons.
      *
+     * This is an indexed spatial join: the smaller of the two collections is bulk loaded into an
+     * R-tree and probed with the features of the other one, so only the polygons whose bounding
+     * box holds a point are tested. Polygons are prepared with [PreparedPolygon] when they are
+     * probed by many points, and large collections of points are probed in parallel on the JVM.
+     *
+     * Features of other geometry types are ignored, in both collections.
+     *
      * @param points   input points.
-     * @param polygons input polygons.
-     * @return points that land within at least one polygon.
+     * @param polygons input polygons, with [Polygon] or [MultiPolygon] geometries.
+     * @return the features of the points that land within at least one polygon, with their
+     * properties, in their original order.
      * @since 1.3.0
      */
     @JvmStatic
@@ -74,19 +143,123 @@ object TurfJoins {
         points: FeatureCollection,
         polygons: FeatureCollection
     ): FeatureCollection {
-        val inPolygonFeatures = polygons.features.flatMap { polygonFeature ->
-            val polygon = polygonFeature.geometry as Polygon
-            points.features.mapNotNull { pointFeature ->
-                val point = pointFeature.geometry as Point
-                if (inside(point, polygon)) {
-                    Feature(point)
-                } else {
-                    null
+        val pointFeatures = points.features.filter { it.geometry is Point }
+        val polygonFeatures = polygons.features.filter { feature ->
+            feature.geometry is Polygon || feature.geometry is MultiPolygon
+        }
+        val within = if (polygonFeatures.size <= pointFeatures.size) {
+            probePoints(pointFeatures, polygonFeatures)
+        } else {
+            probePolygons(pointFeatures, polygonFeatures)
+        }
+        return FeatureCollection(pointFeatures.filterIndexed { i, _ -> within[i] })
+    }
+
+    /**
+     * Takes a [FeatureCollection] of [Point] and a [FeatureCollection] of [Polygon] and copies a
+     * property of the polygon containing each point into the properties of the point.
+     *
+     * Use a [FeatureTagger] to copy several properties, to stream points through or to tag
+     * several batches of points with the same polygons.
+     *
+     * @param points   input points.
+     * @param polygons input polygons, with [Polygon] or [MultiPolygon] geometries.
+     * @param field    name of the polygon property to copy.
+     * @param outField name of the point property that receives it.
+     * @return the points, with [outField] set on the points that land within a polygon. When
+     * several polygons contain a point, the first one is used.
+     * @see [Turf Tag documentation](http://turfjs.org/docs/#tag)
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun tag(
+        points: FeatureCollection,
+        polygons: FeatureCollection,
+        field: String,
+        outField: String
+    ): FeatureCollection {
+        return FeatureTagger(polygons, field, outField).tag(points)
+    }
+
+    /**
+     * Indexes the polygons and probes them with every point, in parallel.
+     */
+    private fun probePoints(points: List<Feature>, polygons: List<Feature>): BooleanArray {
+        val index = PolygonIndex(polygons)
+        val within = BooleanArray(points.size)
+        parallelFor(points.size, JOIN_GRAIN) { from, to ->
+            for (i in from until to) {
+                val point = points[i].geometry as Point
+                within[i] = index.anyContains(point.longitude, point.latitude)
+            }
+        }
+        return within
+    }
+
+    /**
+     * Indexes the points and probes them with every polygon.
+     */
+    private fun probePolygons(points: List<Feature>, polygons: List<Feature>): BooleanArray {
+        val boxes = DoubleArray(4 * points.size)
+        for (i in points.indices) {
+            val point = points[i].geometry as Point
+            boxes[4 * i] = point.longitude
+            boxes[4 * i + 1] = point.latitude
+            boxes[4 * i + 2] = point.longitude
+            boxes[4 * i + 3] = point.latitude
+        }
+        val tree = StrTree(boxes)
+
+        val within = BooleanArray(points.size)
+        val candidates = ArrayList<Int>()
+        for (feature in polygons) {
+            val geometry = feature.geometry!!
+            val bbox = BboxAccumulator()
+            bbox.add(geometry)
+            candidates.clear()
+            tree.search(bbox.west, bbox.south, bbox.east, bbox.north) { point ->
+                if (!within[point]) {
+                    candidates.add(point)
+                }
+                false
+            }
+            if (candidates.isEmpty()) {
+                continue
+            }
+            // Preparing a polygon only pays off when it is tested against many points. The parts
+            // of a MultiPolygon are prepared one by one, so that a point is within when it is
+            // inside any of them, like for inside(Point, MultiPolygon)
+            val prepared = if (candidates.size >= PREPARE_THRESHOLD) {
+                when (geometry) {
+                    is Polygon -> listOf(PreparedPolygon(geometry))
+                    else -> (geometry as MultiPolygon).polygons.map { PreparedPolygon(it) }
+                }
+            } else {
+                null
+            }
+            for (point in candidates) {
+                val location = points[point].geometry as Point
+                within[point] = when {
+                    prepared != null -> prepared.any { it.contains(location) }
+                    geometry is Polygon -> inside(location, geometry)
+                    else -> inside(location, geometry as MultiPolygon)
                 }
             }
         }
+        return within
+    }
 
-        return FeatureCollection(inPolygonFeatures)
+    private fun inPolygon(point: Point, rings: List<List<Point>>): Boolean {
+        // check if it is in the outer ring first, then for the point in any of the holes
+        if (rings.isEmpty() || !inRing(point, rings[0])) {
+            return false
+        }
+        for (hole in 1 until rings.size) {
+            if (inRing(point, rings[hole])) {
+                return false
+            }
+        }
+        return true
     }
 
     // pt is [x,y] and ring is [[x,y], [x,y],..]
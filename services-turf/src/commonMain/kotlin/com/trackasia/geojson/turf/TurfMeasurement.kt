@@ -41,7 +41,12 @@ object TurfMeasurement {
     /**
      * Earth's radius in meters.
      */
-    private var EARTH_RADIUS: Double = 6378137.0
+    private const val EARTH_RADIUS: Double = 6378137.0
+
+    /**
+     * Number of features measured by each parallel task of [area].
+     */
+    private const val AREA_BLOCK_SIZE = 2048
 
     /**
      * Takes two [Point]s and finds the geographic bearing between them.
@@ -106,6 +111,100 @@ object TurfMeasurement {
         )
     }
 
+    /**
+     * Takes a Point and calculates the location of a destination point given a distance and
+     * initial bearing on the given [EarthModel].
+     *
+     * @param point    starting point used for calculating the destination
+     * @param distance distance from the starting point
+     * @param bearing  ranging from -180 to 180 in decimal degrees
+     * @param unit     one of the units found inside [TurfUnit]
+     * @param model    the shape of the Earth
+     * @return destination [Point] result where you specified
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun destination(
+        point: Point,
+        distance: Double,
+        bearing: Double,
+        unit: TurfUnit,
+        model: EarthModel
+    ): Point = model.destination(point, distance, bearing, unit)
+
+    /**
+     * Takes two [Point]s and finds the bearing of the rhumb line between them, the path of
+     * constant bearing that crosses every meridian at the same angle. The path always crosses
+     * the antimeridian when that is shorter.
+     *
+     * @param point1 first point used for calculating the bearing
+     * @param point2 second point used for calculating the bearing
+     * @return bearing in decimal degrees, ranging from -180 to 180
+     * @see [Turf Rhumb Bearing documentation](http://turfjs.org/docs/#rhumbBearing)
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun rhumbBearing(point1: Point, point2: Point): Double {
+        return Rhumb.bearing(
+            point1.longitude, Rhumb.psi(point1.latitude),
+            point2.longitude, Rhumb.psi(point2.latitude)
+        )
+    }
+
+    /**
+     * Takes a Point and calculates the location reached by travelling a distance along a rhumb
+     * line of constant bearing. Travelling past a pole continues on the other side of it, and
+     * the longitude of the result is brought into the range -180 to 180.
+     *
+     * @param point    starting point used for calculating the destination
+     * @param distance distance from the starting point
+     * @param bearing  ranging from -180 to 180 in decimal degrees
+     * @param unit     one of the units found inside [TurfUnit]
+     * @return destination [Point] result where you specified
+     * @see [Turf Rhumb Destination documentation](http://turfjs.org/docs/#rhumbDestination)
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun rhumbDestination(
+        point: Point,
+        distance: Double,
+        bearing: Double,
+        unit: TurfUnit = TurfUnit.DEFAULT
+    ): Point {
+        val result = DoubleArray(2)
+        Rhumb.destination(
+            point.longitude, point.latitude, lengthToRadians(distance, unit), bearing, result, 0
+        )
+        return Point(result[0], result[1])
+    }
+
+    /**
+     * Calculates the length of the rhumb line between two points, the path of constant bearing
+     * that crosses every meridian at the same angle. The path always crosses the antimeridian
+     * when that is shorter.
+     *
+     * @param point1 first point used for calculating the distance
+     * @param point2 second point used for calculating the distance
+     * @param unit   one of the units found inside [TurfUnit]
+     * @return distance between the two points along the rhumb line
+     * @see [Turf Rhumb Distance documentation](http://turfjs.org/docs/#rhumbDistance)
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun rhumbDistance(
+        point1: Point,
+        point2: Point,
+        unit: TurfUnit = TurfUnit.DEFAULT
+    ): Double {
+        val radians = Rhumb.distance(
+            point1.longitude, point1.latitude, Rhumb.psi(point1.latitude),
+            point2.longitude, point2.latitude, Rhumb.psi(point2.latitude)
+        )
+        return radiansToLength(radians, unit)
+    }
+
     /**
      * Calculates the distance between two points in degress, radians, miles, or kilometers. This
      * uses the Haversine formula to account for global curvature.
@@ -136,6 +235,24 @@ object TurfMeasurement {
         )
     }
 
+    /**
+     * Calculates the distance between two points on the given [EarthModel].
+     *
+     * @param point1 first point used for calculating the distance
+     * @param point2 second point used for calculating the distance
+     * @param unit   one of the units found inside [TurfUnit]
+     * @param model  the shape of the Earth
+     * @return distance between the two points
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun distance(
+        point1: Point,
+        point2: Point,
+        unit: TurfUnit,
+        model: EarthModel
+    ): Double = model.distance(point1, point2, unit)
+
     /**
      * Takes a [LineString] and measures its length in the specified units.
      *
@@ -207,8 +324,7 @@ object TurfMeasurement {
         unit: TurfUnit
     ): Double {
         return multiPolygon.coordinates
-            .flatten()
-            .sumOf { points -> length(points, unit) }
+            .sumOf { polygon -> polygon.sumOf { points -> length(points, unit) } }
     }
 
     /**
@@ -222,13 +338,104 @@ object TurfMeasurement {
      * @since 5.2.0
      */
     fun length(coords: List<Point>, unit: TurfUnit): Double {
-        return coords.drop(1)
-            .mapIndexed { index, point ->
-                // Using unmodified index for previous point is working,
-                // because we drop the first point
-                distance(coords[index], point, unit)
-            }
-            .sum()
+        return haversineLength(coords.size, unit, { coords[it].longitude }, { coords[it].latitude })
+    }
+
+    /**
+     * Measures the length of a line stored as packed coordinates, without allocating.
+     *
+     * @param coordinates packed `[lon0, lat0, lon1, lat1, ...]` coordinates of the line
+     * @param unit        one of the units found inside [TurfUnit]
+     * @param start       index of the first vertex of the line, inclusive
+     * @param end         index of the last vertex of the line, exclusive
+     * @return length of the line in the units specified
+     * @see com.trackasia.geojson.utils.PackedCoordinates
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun length(
+        coordinates: DoubleArray,
+        unit: TurfUnit = TurfUnit.DEFAULT,
+        start: Int = 0,
+        end: Int = coordinates.size / 2
+    ): Double {
+        require(coordinates.size % 2 == 0) { "Packed coordinates must have an even size" }
+        if (start < 0 || end > coordinates.size / 2 || start > end) {
+            throw TurfException("Vertex range [$start, $end) is out of bounds")
+        }
+        return haversineLength(end - start, unit,
+            { coordinates[2 * (start + it)] },
+            { coordinates[2 * (start + it) + 1] })
+    }
+
+    /**
+     * Sums the Haversine distances between consecutive vertices, like [distance] does for each
+     * pair, but converting every latitude and computing its cosine only once.
+     */
+    private inline fun haversineLength(
+        count: Int,
+        unit: TurfUnit,
+        longitude: (Int) -> Double,
+        latitude: (Int) -> Double
+    ): Double {
+        if (count < 2) {
+            return 0.0
+        }
+        var lon1 = longitude(0)
+        var lat1 = latitude(0)
+        var cosLat1 = cos(degreesToRadians(lat1))
+        var total = 0.0
+        for (i in 1 until count) {
+            val lon2 = longitude(i)
+            val lat2 = latitude(i)
+            val cosLat2 = cos(degreesToRadians(lat2))
+            val sinLat = sin(degreesToRadians(lat2 - lat1) / 2)
+            val sinLon = sin(degreesToRadians(lon2 - lon1) / 2)
+            val value = sinLat * sinLat + sinLon * sinLon * cosLat1 * cosLat2
+            total += 2 * atan2(sqrt(value), sqrt(1 - value))
+            lon1 = lon2
+            lat1 = lat2
+            cosLat1 = cosLat2
+        }
+        return radiansToLength(total, unit)
+    }
+
+    /**
+     * Takes a [LineString] and measures its length on the given [EarthModel].
+     *
+     * @param lineString geometry to measure
+     * @param unit       one of the units found inside [TurfUnit]
+     * @param model      the shape of the Earth
+     * @return length of the input line in the units specified
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun length(
+        lineString: LineString,
+        unit: TurfUnit,
+        model: EarthModel
+    ): Double = length(lineString.coordinates, unit, model)
+
+    /**
+     * Takes a [List] of [Point] and measures its length on the given [EarthModel].
+     *
+     * @param coords geometry to measure
+     * @param unit   one of the units found inside [TurfUnit]
+     * @param model  the shape of the Earth
+     * @return length of the input line in the units specified
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun length(coords: List<Point>, unit: TurfUnit, model: EarthModel): Double {
+        if (model === EarthModel.SPHERE) {
+            return length(coords, unit)
+        }
+        var total = 0.0
+        for (index in 1 until coords.size) {
+            total += model.distance(coords[index - 1], coords[index], unit)
+        }
+        return total
     }
 
     /**
@@ -282,6 +489,46 @@ object TurfMeasurement {
         coords: List<Point>,
         distance: Double,
         unit: TurfUnit
+    ): Point = along(coords, distance, unit, EarthModel.SPHERE)
+
+    /**
+     * Takes a line and returns a point at a specified distance along the line, measured on the
+     * given [EarthModel].
+     *
+     * @param line     that the point should be placed upon
+     * @param distance along the linestring geometry which the point should be placed on
+     * @param unit     one of the units found inside [TurfUnit]
+     * @param model    the shape of the Earth
+     * @return a [Point] which is on the linestring provided and at the distance from
+     * the origin of that line to the end of the distance
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun along(
+        line: LineString,
+        distance: Double,
+        unit: TurfUnit,
+        model: EarthModel
+    ): Point = along(line.coordinates, distance, unit, model)
+
+    /**
+     * Takes a list of points and returns a point at a specified distance along the line,
+     * measured on the given [EarthModel].
+     *
+     * @param coords   that the point should be placed upon
+     * @param distance along the linestring geometry which the point should be placed on
+     * @param unit     one of the units found inside [TurfUnit]
+     * @param model    the shape of the Earth
+     * @return a [Point] which is on the linestring provided and at the distance from
+     * the origin of that line to the end of the distance
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun along(
+        coords: List<Point>,
+        distance: Double,
+        unit: TurfUnit,
+        model: EarthModel
     ): Point {
         var travelled = 0.0
         for ((index, point) in coords.withIndex()) {
@@ -290,11 +537,11 @@ object TurfMeasurement {
                 if (overshot == 0.0 || index == 0) {
                     return point
                 } else {
-                    val direction = bearing(point, coords[index - 1]) - 180
-                    return destination(point, overshot, direction, unit)
+                    val direction = model.bearing(point, coords[index - 1]) - 180
+                    return model.destination(point, overshot, direction, unit)
                 }
             } else if (index < coords.size - 1) {
-                travelled += distance(point, coords[index + 1], unit)
+                travelled += model.distance(point, coords[index + 1], unit)
             }
         }
 
@@ -310,8 +557,7 @@ object TurfMeasurement {
      */
     @JvmStatic
     fun bbox(point: Point): DoubleArray {
-        val resultCoords = TurfMeta.coordAll(point)
-        return bboxCalculator(resultCoords)
+        return bboxOf(point)
     }
 
     /**
@@ -323,8 +569,7 @@ object TurfMeasurement {
      */
     @JvmStatic
     fun bbox(lineString: LineString): DoubleArray {
-        val resultCoords = TurfMeta.coordAll(lineString)
-        return bboxCalculator(resultCoords)
+        return bboxOf(lineString)
     }
 
     /**
@@ -336,8 +581,7 @@ object TurfMeasurement {
      */
     @JvmStatic
     fun bbox(multiPoint: MultiPoint): DoubleArray {
-        val resultCoords = TurfMeta.coordAll(multiPoint)
-        return bboxCalculator(resultCoords)
+        return bboxOf(multiPoint)
     }
 
     /**
@@ -349,8 +593,7 @@ object TurfMeasurement {
      */
     @JvmStatic
     fun bbox(polygon: Polygon): DoubleArray {
-        val resultCoords = TurfMeta.coordAll(polygon, false)
-        return bboxCalculator(resultCoords)
+        return bboxOf(polygon)
     }
 
     /**
@@ -362,8 +605,7 @@ object TurfMeasurement {
      */
     @JvmStatic
     fun bbox(multiLineString: MultiLineString): DoubleArray {
-        val resultCoords = TurfMeta.coordAll(multiLineString)
-        return bboxCalculator(resultCoords)
+        return bboxOf(multiLineString)
     }
 
     /**
@@ -375,8 +617,7 @@ object TurfMeasurement {
      */
     @JvmStatic
     fun bbox(multiPolygon: MultiPolygon): DoubleArray {
-        val resultCoords = TurfMeta.coordAll(multiPolygon, false)
-        return bboxCalculator(resultCoords)
+        return bboxOf(multiPolygon)
     }
 
     /**
@@ -405,15 +646,43 @@ object TurfMeasurement {
         }
     }
 
+    /**
+     * Takes a set of features and calculates their bounding box. When [wrapAntimeridian] is true,
+     * the box uses the narrowest longitude interval containing every coordinate, which crosses
+     * the antimeridian for features spanning it, such as trans-Pacific routes. Following RFC
+     * 7946, such a box has a west value greater than its east value.
+     *
+     * @param geoJson          a [GeoJson] object
+     * @param wrapAntimeridian whether the bounding box may cross the antimeridian
+     * @return a double array defining the bounding box in this order `[west, south, east, north]`
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun bbox(geoJson: GeoJson, wrapAntimeridian: Boolean): DoubleArray {
+        if (!wrapAntimeridian || geoJson.bbox != null) {
+            return bbox(geoJson)
+        }
+
+        val accumulator = BboxAccumulator(wrapAntimeridian = true)
+        when (geoJson) {
+            is Geometry -> accumulator.add(geoJson)
+            is FeatureCollection -> accumulator.add(geoJson.features, 0, geoJson.features.size)
+            is Feature -> geoJson.geometry?.let { accumulator.add(it) }
+            else -> throw UnsupportedOperationException("bbox type not supported for GeoJson instance")
+        }
+        return accumulator.toWrappedArray()
+    }
+
     /**
      * Takes a set of features, calculates the bbox of all input features, and returns a bounding box.
+     * Large collections are measured in parallel on the JVM.
      *
      * @param featureCollection a [FeatureCollection] object
      * @return a double array defining the bounding box in this order `[minX, minY, maxX, maxY]`
      * @since 4.8.0
      */
     fun bbox(featureCollection: FeatureCollection): DoubleArray {
-        return bboxCalculator(TurfMeta.coordAll(featureCollection, false))
+        return BboxAccumulator.of(featureCollection).toArray()
     }
 
     /**
@@ -424,7 +693,9 @@ object TurfMeasurement {
      * @since 4.8.0
      */
     fun bbox(feature: Feature): DoubleArray {
-        return bboxCalculator(TurfMeta.coordAll(feature, false))
+        val accumulator = BboxAccumulator()
+        feature.geometry?.let { accumulator.add(it) }
+        return accumulator.toArray()
     }
 
     /**
@@ -437,37 +708,25 @@ object TurfMeasurement {
     @JvmStatic
     fun bbox(geometry: Geometry): DoubleArray {
         return when (geometry) {
-            is Point -> bbox(geometry)
-            is MultiPoint -> bbox(geometry)
-            is LineString -> bbox(geometry)
-            is MultiLineString -> bbox(geometry)
-            is Polygon -> bbox(geometry)
-            is MultiPolygon -> bbox(geometry)
-
-            is GeometryCollection -> {
-                val points = geometry.geometries.flatMap { geo ->
-                    val bbox = bbox(geo)
-                    listOf(
-                        Point(bbox[0], bbox[1]),
-                        Point(bbox[2], bbox[1]),
-                        Point(bbox[2], bbox[3]),
-                        Point(bbox[0], bbox[3])
-                    )
-                }
-                bbox(MultiPoint(points))
-            }
+            is Point,
+            is MultiPoint,
+            is LineString,
+            is MultiLineString,
+            is Polygon,
+            is MultiPolygon,
+            is GeometryCollection -> bboxOf(geometry)
 
             else -> throw RuntimeException(("Unknown geometry class: " + geometry::class))
         }
     }
 
-    private fun bboxCalculator(resultCoords: List<Point>): DoubleArray {
-        return doubleArrayOf(
-            resultCoords.minOf { c -> c.longitude },
-            resultCoords.minOf { c -> c.latitude },
-            resultCoords.maxOf { c -> c.longitude },
-            resultCoords.maxOf { c -> c.latitude },
-        )
+    /**
+     * Calculates the bounding box of a geometry in a single pass over its coordinates.
+     */
+    private fun bboxOf(geometry: Geometry): DoubleArray {
+        val accumulator = BboxAccumulator()
+        accumulator.add(geometry)
+        return accumulator.toArray()
     }
 
     /**
@@ -489,18 +748,10 @@ object TurfMeasurement {
         properties: Map<String, JsonElement>? = null,
         id: String? = null
     ): Feature {
-        return Feature(
-            Polygon(
-                listOf(
-                    listOf(
-                        Point(boundingBox.west, boundingBox.south),
-                        Point(boundingBox.east, boundingBox.south),
-                        Point(boundingBox.east, boundingBox.north),
-                        Point(boundingBox.west, boundingBox.north),
-                        Point(boundingBox.west, boundingBox.south)
-                    )
-                )
-            ), properties?.toMutableMap(), id
+        return bboxPolygon(
+            doubleArrayOf(boundingBox.west, boundingBox.south, boundingBox.east, boundingBox.north),
+            properties,
+            id
         )
     }
 
@@ -521,13 +772,15 @@ object TurfMeasurement {
         properties: Map<String, JsonElement>? = null,
         id: String? = null
     ): Feature {
+        // A box crossing the antimeridian continues east of 180 instead of wrapping the world
+        val east = if (bbox[0] > bbox[2]) bbox[2] + 360 else bbox[2]
         return Feature(
             Polygon(
                 listOf(
                     listOf(
                         Point(bbox[0], bbox[1]),
-                        Point(bbox[2], bbox[1]),
-                        Point(bbox[2], bbox[3]),
+                        Point(east, bbox[1]),
+                        Point(east, bbox[3]),
                         Point(bbox[0], bbox[3]),
                         Point(bbox[0], bbox[1])
                     )
@@ -548,39 +801,66 @@ object TurfMeasurement {
         return bboxPolygon(bbox(geoJson)).geometry as Polygon?
     }
 
+    /**
+     * Takes any number of features and returns a rectangular Polygon that encompasses all vertices.
+     * When [wrapAntimeridian] is true and the narrowest envelope crosses the antimeridian, its
+     * eastern edge has a longitude greater than 180.
+     *
+     * @param geoJson          input features
+     * @param wrapAntimeridian whether the envelope may cross the antimeridian
+     * @return a rectangular Polygon feature that encompasses all vertices
+     * @see bbox
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun envelope(geoJson: GeoJson, wrapAntimeridian: Boolean): Polygon? {
+        return bboxPolygon(bbox(geoJson, wrapAntimeridian)).geometry as Polygon?
+    }
+
     /**
      * Takes a bounding box and calculates the minimum square bounding box
      * that would contain the input.
      *
+     * A bounding box crossing the antimeridian, with a west value greater than its east value,
+     * gives a square that crosses it as well.
+     *
      * @param boundingBox extent in west, south, east, north order
      * @return a square surrounding bbox
      * @since 4.9.0
      */
     @JvmStatic
     fun square(boundingBox: BoundingBox): BoundingBox {
+        val west = boundingBox.west
+        val east = if (boundingBox.crossesAntimeridian) boundingBox.east + 360 else boundingBox.east
         val horizontalDistance = distance(
             boundingBox.southwest,
-            Point(boundingBox.east, boundingBox.south)
+            Point(east, boundingBox.south)
         )
         val verticalDistance = distance(
-            Point(boundingBox.west, boundingBox.south),
-            Point(boundingBox.west, boundingBox.north)
+            Point(west, boundingBox.south),
+            Point(west, boundingBox.north)
         )
 
         if (horizontalDistance >= verticalDistance) {
             val verticalMidpoint = (boundingBox.south + boundingBox.north) / 2
             return BoundingBox(
                 boundingBox.west,
-                verticalMidpoint - ((boundingBox.east - boundingBox.west) / 2),
+                verticalMidpoint - ((east - west) / 2),
                 boundingBox.east,
-                verticalMidpoint + ((boundingBox.east - boundingBox.west) / 2)
+                verticalMidpoint + ((east - west) / 2)
             )
         } else {
-            val horizontalMidpoint = (boundingBox.west + boundingBox.east) / 2
+            val horizontalMidpoint = (west + east) / 2
+            var squareWest = horizontalMidpoint - ((boundingBox.north - boundingBox.south) / 2)
+            var squareEast = horizontalMidpoint + ((boundingBox.north - boundingBox.south) / 2)
+            if (boundingBox.crossesAntimeridian) {
+                if (squareWest > 180) squareWest -= 360
+                if (squareEast > 180) squareEast -= 360
+            }
             return BoundingBox(
-                horizontalMidpoint - ((boundingBox.north - boundingBox.south) / 2),
+                squareWest,
                 boundingBox.south,
-                horizontalMidpoint + ((boundingBox.north - boundingBox.south) / 2),
+                squareEast,
                 boundingBox.north
             )
         }
@@ -600,7 +880,8 @@ object TurfMeasurement {
     }
 
     /**
-     * Takes one [FeatureCollection] and returns it's area in square meters.
+     * Takes one [FeatureCollection] and returns it's area in square meters. Large collections
+     * are measured in parallel on the JVM.
      *
      * @param featureCollection input [FeatureCollection]
      * @return area in square meters
@@ -608,8 +889,7 @@ object TurfMeasurement {
      */
     @JvmStatic
     fun area(featureCollection: FeatureCollection): Double {
-        return featureCollection.features
-            .sumOf { feature -> area(feature) }
+        return area(featureCollection, EarthModel.SPHERE)
     }
 
     /**
@@ -621,14 +901,91 @@ object TurfMeasurement {
      */
     @JvmStatic
     fun area(geometry: Geometry): Double {
-        return calculateArea(geometry)
+        return calculateArea(geometry, EarthModel.SPHERE)
     }
 
-    private fun calculateArea(geometry: Geometry): Double {
+    /**
+     * Takes one [Feature] and returns its area in square meters on the given [EarthModel].
+     *
+     * @param feature input [Feature]
+     * @param model   the shape of the Earth
+     * @return area in square meters
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun area(feature: Feature, model: EarthModel): Double {
+        return feature.geometry?.let { geometry -> area(geometry, model) } ?: 0.0
+    }
+
+    /**
+     * Takes one [FeatureCollection] and returns its area in square meters on the given
+     * [EarthModel]. Large collections are measured in parallel on the JVM.
+     *
+     * @param featureCollection input [FeatureCollection]
+     * @param model             the shape of the Earth
+     * @return area in square meters
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun area(featureCollection: FeatureCollection, model: EarthModel): Double {
+        val features = featureCollection.features
+        return parallelSum(features.size, AREA_BLOCK_SIZE) { i -> area(features[i], model) }
+    }
+
+    /**
+     * Takes one [Geometry] and returns its area in square meters on the given [EarthModel].
+     *
+     * @param geometry input [Geometry]
+     * @param model    the shape of the Earth
+     * @return area in square meters
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun area(geometry: Geometry, model: EarthModel): Double {
+        return calculateArea(geometry, model)
+    }
+
+    /**
+     * Calculates the area of a polygon stored as packed coordinates, without allocating. The
+     * first ring is the exterior ring and the following rings are holes, whose area is
+     * subtracted.
+     *
+     * @param coordinates packed `[lon0, lat0, lon1, lat1, ...]` coordinates of all rings, one
+     * after the other
+     * @param ringEnds    index of the vertex following the last vertex of each ring, in
+     * increasing order
+     * @param model       the shape of the Earth
+     * @return area in square meters
+     * @see com.trackasia.geojson.utils.PackedCoordinates
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun area(
+        coordinates: DoubleArray,
+        ringEnds: IntArray = intArrayOf(coordinates.size / 2),
+        model: EarthModel = EarthModel.SPHERE
+    ): Double {
+        require(coordinates.size % 2 == 0) { "Packed coordinates must have an even size" }
+        var total = 0.0
+        var start = 0
+        for (ring in ringEnds.indices) {
+            val end = ringEnds[ring]
+            if (end < start || end > coordinates.size / 2) {
+                throw TurfException("Ring end $end is out of order or out of bounds")
+            }
+            val ringArea = model.area(coordinates, start, end)
+            total += if (ring == 0) ringArea else -ringArea
+            start = end
+        }
+        return total
+    }
+
+    private fun calculateArea(geometry: Geometry, model: EarthModel): Double {
         return when (geometry) {
-            is Polygon -> polygonArea(geometry.coordinates)
+            is Polygon -> polygonArea(geometry.coordinates, model)
             is MultiPolygon ->
-                geometry.coordinates.sumOf { coordinates -> polygonArea(coordinates) }
+                geometry.coordinates.sumOf { coordinates -> polygonArea(coordinates, model) }
 
             else ->
                 // Area should be 0 for case Point, MultiPoint, LineString and MultiLineString
@@ -636,13 +993,16 @@ object TurfMeasurement {
         }
     }
 
-    private fun polygonArea(coordinates: List<List<Point>>): Double {
+    private fun polygonArea(coordinates: List<List<Point>>, model: EarthModel): Double {
         if (coordinates.isEmpty()) {
             return 0.0
         }
 
-        return abs(ringArea(coordinates.first())) - coordinates.drop(1)
-            .sumOf { c -> abs(ringArea(c)) }
+        var total = model.area(coordinates[0])
+        for (i in 1 until coordinates.size) {
+            total -= model.area(coordinates[i])
+        }
+        return total
     }
 
     /**
@@ -659,45 +1019,52 @@ object TurfMeasurement {
      * @param coordinates  A list of [Point] of Ring Coordinates
      * @return The approximate signed geodesic area of the polygon in square meters.
      */
-    private fun ringArea(coordinates: List<Point>): Double {
-        var p1: Point
-        var p2: Point
-        var p3: Point
-        var lowerIndex: Int
-        var middleIndex: Int
-        var upperIndex: Int
+    internal fun ringArea(coordinates: List<Point>): Double {
+        return sphericalRingArea(coordinates.size, { coordinates[it].longitude }, { coordinates[it].latitude })
+    }
+
+    /**
+     * Same as [ringArea] for a ring stored in packed coordinates, from vertex [start] inclusive to
+     * vertex [end] exclusive.
+     */
+    internal fun ringArea(coordinates: DoubleArray, start: Int, end: Int): Double {
+        return sphericalRingArea(
+            end - start,
+            { coordinates[2 * (start + it)] },
+            { coordinates[2 * (start + it) + 1] }
+        )
+    }
+
+    /**
+     * Sums `(lon[i + 1] - lon[i - 1]) * sin(lat[i])` over the ring, converting every coordinate
+     * to radians once. The terms are added in the order of the original index based loop, so
+     * that results do not change: vertices 1 to N - 1 first, then vertex 0.
+     */
+    private inline fun sphericalRingArea(
+        count: Int,
+        longitude: (Int) -> Double,
+        latitude: (Int) -> Double
+    ): Double {
+        if (count <= 2) {
+            return 0.0
+        }
+        val firstLongitude = rad(longitude(0))
+        val secondLongitude = rad(longitude(1))
+        var lowerLongitude = firstLongitude
+        var middleLongitude = secondLongitude
+        var middleLatitude = latitude(1)
         var total = 0.0
-        val coordsLength = coordinates.size
-
-        if (coordsLength > 2) {
-            for (i in 0 until coordsLength) {
-                when (i) {
-                    coordsLength - 2 -> { // i = N-2
-                        lowerIndex = coordsLength - 2
-                        middleIndex = coordsLength - 1
-                        upperIndex = 0
-                    }
-
-                    coordsLength - 1 -> { // i = N-1
-                        lowerIndex = coordsLength - 1
-                        middleIndex = 0
-                        upperIndex = 1
-                    }
-
-                    else -> { // i = 0 to N-3
-                        lowerIndex = i
-                        middleIndex = i + 1
-                        upperIndex = i + 2
-                    }
-                }
-                p1 = coordinates[lowerIndex]
-                p2 = coordinates[middleIndex]
-                p3 = coordinates[upperIndex]
-                total += (rad(p3.longitude) - rad(p1.longitude)) * sin(rad(p2.latitude))
-            }
-            total = total * EARTH_RADIUS * EARTH_RADIUS / 2
+        for (i in 2 until count) {
+            val upperLongitude = rad(longitude(i))
+            total += (upperLongitude - lowerLongitude) * sin(rad(middleLatitude))
+            lowerLongitude = middleLongitude
+            middleLongitude = upperLongitude
+            middleLatitude = latitude(i)
         }
-        return total
+        // Wrap around the end of the ring: vertex N - 1, then vertex 0
+        total += (firstLongitude - lowerLongitude) * sin(rad(middleLatitude))
+        total += (secondLongitude - middleLongitude) * sin(rad(latitude(0)))
+        return total * EARTH_RADIUS * EARTH_RADIUS / 2
     }
 
     private fun rad(num: Double): Double {
@@ -721,7 +1088,11 @@ object TurfMeasurement {
         properties: Map<String, JsonElement>? = null,
         id: String? = null
     ): Feature {
-        return center(FeatureCollection(feature), properties, id)
+        val ext = bbox(feature)
+        return Feature(
+            Point((ext[0] + ext[2]) / 2, (ext[1] + ext[3]) / 2),
+            properties?.toMutableMap(), id
+        )
     }
 
     /**
@@ -750,4 +1121,177 @@ object TurfMeasurement {
             properties?.toMutableMap(), id
         )
     }
+
+    /**
+     * Takes any [GeoJson] and returns the mean of its vertices. The closing vertex of polygon
+     * rings is not counted twice.
+     *
+     * @param geoJson    the [Feature], [FeatureCollection] or [Geometry] to find the centroid of
+     * @param properties an optional [JsonObject] containing the properties that should be placed
+     * in the returned [Feature]
+     * @param id         an optional common identifier that should be placed in the returned
+     * [Feature]
+     * @return a [Feature] with a [Point] geometry
+     * @throws TurfException if [geoJson] has no coordinates
+     * @see [Turf Centroid documentation](http://turfjs.org/docs/#centroid)
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun centroid(
+        geoJson: GeoJson,
+        properties: Map<String, JsonElement>? = null,
+        id: String? = null
+    ): Feature {
+        val accumulator = CenterAccumulator()
+        accumulator.add(geoJson)
+        val center = accumulator.centroid(DoubleArray(2))
+        return Feature(Point(center[0], center[1]), properties?.toMutableMap(), id)
+    }
+
+    /**
+     * Takes any [GeoJson] and returns the center of mass of its polygons, the mean of the
+     * polygon centroids weighted by their area, with holes taken into account. Inputs without
+     * polygons, or whose polygons have no area, return their [centroid].
+     *
+     * The center of mass of a concave polygon may lie outside of it, use [pointOnSurface] to
+     * place labels.
+     *
+     * @param geoJson    the [Feature], [FeatureCollection] or [Geometry] to find the center of
+     * mass of
+     * @param properties an optional [JsonObject] containing the properties that should be placed
+     * in the returned [Feature]
+     * @param id         an optional common identifier that should be placed in the returned
+     * [Feature]
+     * @return a [Feature] with a [Point] geometry
+     * @throws TurfException if [geoJson] has no coordinates
+     * @see [Turf Center of Mass documentation](http://turfjs.org/docs/#centerOfMass)
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun centerOfMass(
+        geoJson: GeoJson,
+        properties: Map<String, JsonElement>? = null,
+        id: String? = null
+    ): Feature {
+        val accumulator = CenterAccumulator()
+        accumulator.add(geoJson)
+        val center = accumulator.centerOfMass(DoubleArray(2))
+        return Feature(Point(center[0], center[1]), properties?.toMutableMap(), id)
+    }
+
+    /**
+     * Takes any [GeoJson] and returns a point that is guaranteed to lie on its surface, for
+     * example to place a label.
+     *
+     * For polygons, the point is the middle of the widest part of a horizontal line through the
+     * middle of the polygon that lies inside it, looking at every polygon of the input. Inputs
+     * without polygons return the vertex closest to their [centroid].
+     *
+     * @param geoJson    the [Feature], [FeatureCollection] or [Geometry] to find a point on
+     * @param properties an optional [JsonObject] containing the properties that should be placed
+     * in the returned [Feature]
+     * @param id         an optional common identifier that should be placed in the returned
+     * [Feature]
+     * @return a [Feature] with a [Point] geometry
+     * @throws TurfException if [geoJson] has no coordinates
+     * @see [Turf Point on Feature documentation](http://turfjs.org/docs/#pointOnFeature)
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun pointOnSurface(
+        geoJson: GeoJson,
+        properties: Map<String, JsonElement>? = null,
+        id: String? = null
+    ): Feature {
+        val accumulator = CenterAccumulator(interior = true)
+        accumulator.add(geoJson)
+        val point = DoubleArray(2)
+        if (!accumulator.pointOnSurface(point)) {
+            accumulator.nearestVertex(geoJson, point)
+        }
+        return Feature(Point(point[0], point[1]), properties?.toMutableMap(), id)
+    }
+
+    /**
+     * Calculates the mean of the vertices of a polygon stored as packed coordinates, without
+     * allocating. The closing vertex of each ring is not counted twice.
+     *
+     * @param coordinates packed `[lon0, lat0, lon1, lat1, ...]` coordinates of all rings, one
+     * after the other
+     * @param ringEnds    index of the vertex following the last vertex of each ring, in
+     * increasing order
+     * @param result      array receiving the centroid as `[longitude, latitude]`
+     * @return [result]
+     * @throws TurfException if there are no coordinates
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun centroid(
+        coordinates: DoubleArray,
+        ringEnds: IntArray = intArrayOf(coordinates.size / 2),
+        result: DoubleArray = DoubleArray(2)
+    ): DoubleArray {
+        return packedCenter(coordinates, ringEnds, false).centroid(result)
+    }
+
+    /**
+     * Calculates the center of mass of a polygon stored as packed coordinates, see
+     * [centerOfMass].
+     *
+     * @param coordinates packed `[lon0, lat0, lon1, lat1, ...]` coordinates of all rings, one
+     * after the other, the first ring being the exterior ring
+     * @param ringEnds    index of the vertex following the last vertex of each ring, in
+     * increasing order
+     * @param result      array receiving the center as `[longitude, latitude]`
+     * @return [result]
+     * @throws TurfException if there are no coordinates
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun centerOfMass(
+        coordinates: DoubleArray,
+        ringEnds: IntArray = intArrayOf(coordinates.size / 2),
+        result: DoubleArray = DoubleArray(2)
+    ): DoubleArray {
+        return packedCenter(coordinates, ringEnds, false).centerOfMass(result)
+    }
+
+    /**
+     * Calculates a point on the surface of a polygon stored as packed coordinates, see
+     * [pointOnSurface].
+     *
+     * @param coordinates packed `[lon0, lat0, lon1, lat1, ...]` coordinates of all rings, one
+     * after the other, the first ring being the exterior ring
+     * @param ringEnds    index of the vertex following the last vertex of each ring, in
+     * increasing order
+     * @param result      array receiving the point as `[longitude, latitude]`
+     * @return [result]
+     * @throws TurfException if there are no coordinates
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun pointOnSurface(
+        coordinates: DoubleArray,
+        ringEnds: IntArray = intArrayOf(coordinates.size / 2),
+        result: DoubleArray = DoubleArray(2)
+    ): DoubleArray {
+        val accumulator = packedCenter(coordinates, ringEnds, true)
+        if (!accumulator.pointOnSurface(result)) {
+            accumulator.centroid(result)
+        }
+        return result
+    }
+
+    private fun packedCenter(coordinates: DoubleArray, ringEnds: IntArray, interior: Boolean): CenterAccumulator {
+        require(coordinates.size % 2 == 0) { "Packed coordinates must have an even size" }
+        val accumulator = CenterAccumulator(interior)
+        accumulator.addPolygon(coordinates, ringEnds, ringEnds.size)
+        return accumulator
+    }
 }
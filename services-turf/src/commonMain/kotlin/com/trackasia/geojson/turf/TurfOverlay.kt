@@ -0,0 +1,174 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.Geometry
+import com.trackasia.geojson.model.MultiPolygon
+import com.trackasia.geojson.model.Polygon
+import kotlin.jvm.JvmStatic
+import kotlin.math.ceil
+import kotlin.math.sqrt
+
+/**
+ * Class contains methods that combine polygons: union, intersection, difference and symmetric
+ * difference.
+ *
+ * Geometries must be a [Polygon] or a [MultiPolygon]. They are packed into flat coordinate arrays
+ * and clipped with the sweep line algorithm of Martinez, Ogayar, Jimenez and Rueda, which runs in
+ * O((n + k) log n) for n edges and k intersections. The rings of a polygon are combined with the
+ * even-odd rule, and a [MultiPolygon] stands for the union of its polygons: where its polygons
+ * overlap, the area is covered once. Coordinates are treated as planar longitude and latitude.
+ *
+ * Results are a [MultiPolygon], with counterclockwise exterior rings and clockwise holes, and no
+ * polygon when the result is empty.
+ *
+ * @see [Turf documentation](http://turfjs.org/docs/)
+ * @since 7.1.0
+ */
+object TurfOverlay {
+
+    /**
+     * Returns the area covered by either geometry.
+     *
+     * @param geometry1 a [Polygon] or [MultiPolygon]
+     * @param geometry2 a [Polygon] or [MultiPolygon]
+     * @return the union of the geometries
+     * @throws TurfException if a geometry is not a [Polygon] or [MultiPolygon]
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun union(geometry1: Geometry, geometry2: Geometry): MultiPolygon {
+        return clip(geometry1, geometry2, PolygonClipper.UNION)
+    }
+
+    /**
+     * Returns the area covered by both geometries.
+     *
+     * @param geometry1 a [Polygon] or [MultiPolygon]
+     * @param geometry2 a [Polygon] or [MultiPolygon]
+     * @return the intersection of the geometries
+     * @throws TurfException if a geometry is not a [Polygon] or [MultiPolygon]
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun intersection(geometry1: Geometry, geometry2: Geometry): MultiPolygon {
+        return clip(geometry1, geometry2, PolygonClipper.INTERSECTION)
+    }
+
+    /**
+     * Returns the area covered by the first geometry but not by the second.
+     *
+     * @param geometry1 a [Polygon] or [MultiPolygon] to clip
+     * @param geometry2 a [Polygon] or [MultiPolygon] to cut away from [geometry1]
+     * @return the difference of the geometries
+     * @throws TurfException if a geometry is not a [Polygon] or [MultiPolygon]
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun difference(geometry1: Geometry, geometry2: Geometry): MultiPolygon {
+        return clip(geometry1, geometry2, PolygonClipper.DIFFERENCE)
+    }
+
+    /**
+     * Returns the area covered by exactly one of the geometries.
+     *
+     * @param geometry1 a [Polygon] or [MultiPolygon]
+     * @param geometry2 a [Polygon] or [MultiPolygon]
+     * @return the symmetric difference of the geometries
+     * @throws TurfException if a geometry is not a [Polygon] or [MultiPolygon]
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun xor(geometry1: Geometry, geometry2: Geometry): MultiPolygon {
+        return clip(geometry1, geometry2, PolygonClipper.XOR)
+    }
+
+    /**
+     * Returns the area covered by any of the geometries, dissolving them into as few polygons as
+     * possible.
+     *
+     * The geometries are sorted so that neighbours are close to each other, then merged two by
+     * two in a balanced tree: each level halves the number of parts, and the parts of a level are
+     * merged in parallel where threads are available. Each edge takes part in O(log n) merges,
+     * rather than in up to n merges when adding the geometries one by one. Parts far apart are
+     * merged by concatenation, without sweeping their edges, once each polygon has been swept
+     * on its own to resolve and orient its rings. The polygons of a [MultiPolygon] are merged
+     * like separate geometries.
+     *
+     * @param geometries [Polygon] or [MultiPolygon] geometries
+     * @return the union of the geometries
+     * @throws TurfException if a geometry is not a [Polygon] or [MultiPolygon]
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun union(geometries: List<Geometry>): MultiPolygon {
+        return dissolve(geometries.flatMap { PackedPolygons.of(it).split() }).toMultiPolygon()
+    }
+
+    private fun clip(geometry1: Geometry, geometry2: Geometry, operation: Int): MultiPolygon {
+        val subject = PackedPolygons.of(geometry1)
+        val clipping = PackedPolygons.of(geometry2)
+        if (subject.polygonEnds.size <= 1 && clipping.polygonEnds.size <= 1) {
+            return PolygonClipper.clip(subject, clipping, operation).toMultiPolygon()
+        }
+        // Polygons of a MultiPolygon are merged first, so that their overlaps are not holes
+        val subjectUnion = dissolve(subject.split())
+        val clippingUnion = dissolve(clipping.split())
+        return PolygonClipper.clip(subjectUnion, clippingUnion, operation, normalized = true)
+            .toMultiPolygon()
+    }
+
+    /**
+     * Returns the union of single polygons: each is swept on its own to resolve and orient its
+     * rings, then they are merged two by two in a balanced tree.
+     */
+    private fun dissolve(polygons: List<PackedPolygons>): PackedPolygons {
+        val resolved = arrayOfNulls<PackedPolygons>(polygons.size)
+        parallelFor(polygons.size, 1) { from, to ->
+            for (i in from until to) {
+                val part = polygons[i]
+                resolved[i] = PolygonClipper.clip(part, PackedPolygons.EMPTY, PolygonClipper.UNION)
+            }
+        }
+        var parts = spatialOrder(resolved.map { it!! })
+        while (parts.size > 1) {
+            val current = parts
+            val merged = arrayOfNulls<PackedPolygons>((current.size + 1) / 2)
+            parallelFor(merged.size, 1) { from, to ->
+                for (i in from until to) {
+                    merged[i] = if (2 * i + 1 < current.size) {
+                        val left = current[2 * i]
+                        val right = current[2 * i + 1]
+                        PolygonClipper.clip(left, right, PolygonClipper.UNION, normalized = true)
+                    } else {
+                        current[2 * i]
+                    }
+                }
+            }
+            parts = merged.map { it!! }
+        }
+        return parts.firstOrNull() ?: PackedPolygons.EMPTY
+    }
+
+    /**
+     * Sorts polygons into vertical slices by the longitude of their center and each slice by
+     * latitude, alternating direction between slices, so that consecutive polygons are close.
+     */
+    private fun spatialOrder(parts: List<PackedPolygons>): List<PackedPolygons> {
+        val centerX = DoubleArray(parts.size)
+        val centerY = DoubleArray(parts.size)
+        for ((i, part) in parts.withIndex()) {
+            val box = BboxAccumulator()
+            val c = part.coordinates
+            for (v in 0 until c.size / 2) {
+                box.add(c[2 * v], c[2 * v + 1])
+            }
+            centerX[i] = if (box.isEmpty) 0.0 else (box.west + box.east) / 2
+            centerY[i] = if (box.isEmpty) 0.0 else (box.south + box.north) / 2
+        }
+        val order = parts.indices.sortedBy { centerX[it] }
+        val sliceSize = maxOf(1, ceil(sqrt(parts.size.toDouble())).toInt())
+        return order.chunked(sliceSize).flatMapIndexed { slice, indices ->
+            val sorted = indices.sortedBy { centerY[it] }
+            if (slice % 2 == 0) sorted else sorted.asReversed()
+        }.map { parts[it] }
+    }
+}
@@ -0,0 +1,541 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.BoundingBox
+import com.trackasia.geojson.model.Geometry
+import com.trackasia.geojson.model.GeometryCollection
+import com.trackasia.geojson.model.LineString
+import com.trackasia.geojson.model.MultiLineString
+import com.trackasia.geojson.model.MultiPoint
+import com.trackasia.geojson.model.MultiPolygon
+import com.trackasia.geojson.model.Point
+import com.trackasia.geojson.model.Polygon
+import kotlin.jvm.JvmOverloads
+import kotlin.jvm.JvmStatic
+import kotlin.math.PI
+import kotlin.math.abs
+import kotlin.math.atan
+import kotlin.math.exp
+import kotlin.math.floor
+import kotlin.math.ln
+import kotlin.math.sin
+import kotlin.math.sinh
+import kotlin.math.tan
+
+/**
+ * Conversions between longitude and latitude, Web Mercator (EPSG:3857) and map tiles.
+ *
+ * Coordinates are passed as packed `[x0, y0, x1, y1, ...]` arrays and written to a caller
+ * supplied result array, which may be the input array itself to convert it in place, so that
+ * converting many coordinates does not create a [Point] per coordinate. Large arrays are converted
+ * in parallel on the JVM.
+ *
+ * Tile coordinates are fractional tile columns and rows at a zoom level: the tile holding a
+ * position is the integer part of its tile coordinates. Tile pixels are coordinates within one
+ * tile, from 0 to the tile extent, with y growing southwards, as in vector tiles. Latitudes are
+ * clamped to [MAX_LATITUDE], the edge of the square Web Mercator map.
+ *
+ * @see com.trackasia.geojson.utils.PackedCoordinates
+ * @see Tile
+ * @since 7.1.0
+ */
+object TurfProjection {
+
+    /**
+     * Largest latitude shown on a Web Mercator map, in degrees.
+     *
+     * @since 7.1.0
+     */
+    const val MAX_LATITUDE = 85.0511287798066
+
+    /**
+     * Deepest zoom level supported by the tile functions.
+     *
+     * @since 7.1.0
+     */
+    const val MAX_ZOOM = 30
+
+    /**
+     * Default size of a tile side, in tile pixels.
+     *
+     * @since 7.1.0
+     */
+    const val DEFAULT_EXTENT = 4096
+
+    /**
+     * Radius of the sphere used by Web Mercator, in meters.
+     */
+    private const val EARTH_RADIUS = 6378137.0
+
+    private const val DEGREES_TO_RADIANS = PI / 180
+
+    /**
+     * Number of coordinates below which a call is not split into parallel tasks.
+     */
+    private const val PARALLEL_THRESHOLD = 16384
+
+    /**
+     * Converts longitudes and latitudes to Web Mercator meters.
+     *
+     * @param coordinates packed `[lon0, lat0, lon1, lat1, ...]` coordinates
+     * @param result      array receiving the packed `[x0, y0, x1, y1, ...]` meters, which may be
+     * [coordinates]
+     * @return [result]
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun toMercator(
+        coordinates: DoubleArray,
+        result: DoubleArray = DoubleArray(coordinates.size)
+    ): DoubleArray {
+        val count = checkPacked(coordinates, result)
+        parallelFor(count, PARALLEL_THRESHOLD) { start, end ->
+            for (i in start until end) {
+                val latitude = clampLatitude(coordinates[2 * i + 1]) * DEGREES_TO_RADIANS
+                result[2 * i] = EARTH_RADIUS * coordinates[2 * i] * DEGREES_TO_RADIANS
+                result[2 * i + 1] = EARTH_RADIUS * ln(tan(PI / 4 + latitude / 2))
+            }
+        }
+        return result
+    }
+
+    /**
+     * Converts Web Mercator meters to longitudes and latitudes.
+     *
+     * @param coordinates packed `[x0, y0, x1, y1, ...]` meters
+     * @param result      array receiving the packed `[lon0, lat0, lon1, lat1, ...]` coordinates,
+     * which may be [coordinates]
+     * @return [result]
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun toWgs84(
+        coordinates: DoubleArray,
+        result: DoubleArray = DoubleArray(coordinates.size)
+    ): DoubleArray {
+        val count = checkPacked(coordinates, result)
+        parallelFor(count, PARALLEL_THRESHOLD) { start, end ->
+            for (i in start until end) {
+                val y = coordinates[2 * i + 1]
+                result[2 * i] = coordinates[2 * i] / EARTH_RADIUS / DEGREES_TO_RADIANS
+                result[2 * i + 1] = (PI / 2 - 2 * atan(exp(-y / EARTH_RADIUS))) / DEGREES_TO_RADIANS
+            }
+        }
+        return result
+    }
+
+    /**
+     * Converts longitudes and latitudes to tile coordinates at a zoom level. At zoom level 0 the
+     * map spans 0 to 1 on both axes.
+     *
+     * @param coordinates packed `[lon0, lat0, lon1, lat1, ...]` coordinates
+     * @param zoom        zoom level
+     * @param result      array receiving the packed `[x0, y0, x1, y1, ...]` tile coordinates,
+     * which may be [coordinates]
+     * @return [result]
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun toTileCoordinates(
+        coordinates: DoubleArray,
+        zoom: Int,
+        result: DoubleArray = DoubleArray(coordinates.size)
+    ): DoubleArray {
+        val count = checkPacked(coordinates, result)
+        val scale = scale(zoom)
+        parallelFor(count, PARALLEL_THRESHOLD) { start, end ->
+            for (i in start until end) {
+                result[2 * i + 1] = scale * worldY(coordinates[2 * i + 1])
+                result[2 * i] = scale * worldX(coordinates[2 * i])
+            }
+        }
+        return result
+    }
+
+    /**
+     * Converts tile coordinates at a zoom level to longitudes and latitudes.
+     *
+     * @param coordinates packed `[x0, y0, x1, y1, ...]` tile coordinates
+     * @param zoom        zoom level
+     * @param result      array receiving the packed `[lon0, lat0, lon1, lat1, ...]` coordinates,
+     * which may be [coordinates]
+     * @return [result]
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun fromTileCoordinates(
+        coordinates: DoubleArray,
+        zoom: Int,
+        result: DoubleArray = DoubleArray(coordinates.size)
+    ): DoubleArray {
+        val count = checkPacked(coordinates, result)
+        val scale = scale(zoom)
+        parallelFor(count, PARALLEL_THRESHOLD) { start, end ->
+            for (i in start until end) {
+                result[2 * i + 1] = latitude(coordinates[2 * i + 1] / scale)
+                result[2 * i] = longitude(coordinates[2 * i] / scale)
+            }
+        }
+        return result
+    }
+
+    /**
+     * Converts longitudes and latitudes to pixels of a tile.
+     *
+     * @param coordinates packed `[lon0, lat0, lon1, lat1, ...]` coordinates
+     * @param tile        the tile
+     * @param extent      size of a tile side, in tile pixels
+     * @param result      array receiving the packed `[x0, y0, x1, y1, ...]` tile pixels, which may
+     * be [coordinates]
+     * @return [result]
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun toTilePixels(
+        coordinates: DoubleArray,
+        tile: Tile,
+        extent: Int = DEFAULT_EXTENT,
+        result: DoubleArray = DoubleArray(coordinates.size)
+    ): DoubleArray {
+        val count = checkPacked(coordinates, result)
+        val scale = scale(tile.z)
+        parallelFor(count, PARALLEL_THRESHOLD) { start, end ->
+            for (i in start until end) {
+                result[2 * i + 1] = extent * (scale * worldY(coordinates[2 * i + 1]) - tile.y)
+                result[2 * i] = extent * (scale * worldX(coordinates[2 * i]) - tile.x)
+            }
+        }
+        return result
+    }
+
+    /**
+     * Converts pixels of a tile to longitudes and latitudes.
+     *
+     * @param coordinates packed `[x0, y0, x1, y1, ...]` tile pixels
+     * @param tile        the tile
+     * @param extent      size of a tile side, in tile pixels
+     * @param result      array receiving the packed `[lon0, lat0, lon1, lat1, ...]` coordinates,
+     * which may be [coordinates]
+     * @return [result]
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun fromTilePixels(
+        coordinates: DoubleArray,
+        tile: Tile,
+        extent: Int = DEFAULT_EXTENT,
+        result: DoubleArray = DoubleArray(coordinates.size)
+    ): DoubleArray {
+        val count = checkPacked(coordinates, result)
+        val scale = scale(tile.z)
+        parallelFor(count, PARALLEL_THRESHOLD) { start, end ->
+            for (i in start until end) {
+                result[2 * i + 1] = latitude((coordinates[2 * i + 1] / extent + tile.y) / scale)
+                result[2 * i] = longitude((coordinates[2 * i] / extent + tile.x) / scale)
+            }
+        }
+        return result
+    }
+
+    /**
+     * Returns the tile holding a position at a zoom level. Positions on the east or south edge of
+     * the map are in the last column or row.
+     *
+     * @param point the position
+     * @param zoom  zoom level
+     * @return the tile holding [point]
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun tile(point: Point, zoom: Int): Tile {
+        val scale = scale(zoom)
+        val last = (1 shl zoom) - 1
+        return Tile(
+            floor(scale * worldX(point.longitude)).toInt().coerceIn(0, last),
+            floor(scale * worldY(point.latitude)).toInt().coerceIn(0, last),
+            zoom
+        )
+    }
+
+    /**
+     * Returns the area covered by a tile.
+     *
+     * @param tile the tile
+     * @return the bounding box of the tile
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun tileBounds(tile: Tile): BoundingBox {
+        val scale = scale(tile.z)
+        return BoundingBox(
+            longitude(tile.x / scale),
+            latitude((tile.y + 1) / scale),
+            longitude((tile.x + 1) / scale),
+            latitude(tile.y / scale)
+        )
+    }
+
+    /**
+     * Returns the quadkey of a tile, with one digit per zoom level, from the coarsest level.
+     *
+     * @param x column of the tile
+     * @param y row of the tile
+     * @param z zoom level of the tile
+     * @return the quadkey, empty at zoom level 0
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun quadkey(x: Int, y: Int, z: Int): String {
+        val digits = CharArray(z)
+        for (i in 0 until z) {
+            val mask = 1 shl (z - 1 - i)
+            var digit = '0'
+            if (x and mask != 0) digit++
+            if (y and mask != 0) digit += 2
+            digits[i] = digit
+        }
+        return digits.concatToString()
+    }
+
+    /**
+     * Returns the tile of a quadkey.
+     *
+     * @param quadkey the quadkey, made of the digits 0 to 3
+     * @return the tile, at a zoom level equal to the length of [quadkey]
+     * @throws TurfException if [quadkey] holds other characters or is too long
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun quadkeyToTile(quadkey: String): Tile {
+        if (quadkey.length > MAX_ZOOM) {
+            throw TurfException("Quadkey is longer than $MAX_ZOOM digits: $quadkey")
+        }
+        var x = 0
+        var y = 0
+        for (char in quadkey) {
+            val digit = char - '0'
+            if (digit !in 0..3) {
+                throw TurfException("Invalid quadkey: $quadkey")
+            }
+            x = x shl 1 or (digit and 1)
+            y = y shl 1 or (digit shr 1)
+        }
+        return Tile(x, y, quadkey.length)
+    }
+
+    /**
+     * Returns every tile of a zoom level that a geometry touches, sorted by row and then by
+     * column.
+     *
+     * Points give the tile holding them. Lines give the tiles crossed by their segments, walked
+     * from tile to tile along each segment. Polygons give the tiles crossed by their rings plus
+     * the tiles inside them, filled row by row between the crossings of the rings with the middle
+     * of each row.
+     *
+     * @param geometry the geometry to cover
+     * @param zoom     zoom level, from 0 to [MAX_ZOOM]
+     * @return the tiles touched by [geometry]
+     * @since 7.1.0
+     */
+    @JvmStatic
+    fun tileCover(geometry: Geometry, zoom: Int): List<Tile> {
+        val cover = TileCover(zoom)
+        cover.add(geometry)
+        return cover.tiles()
+    }
+
+    internal fun worldX(longitude: Double): Double {
+        return longitude / 360 + 0.5
+    }
+
+    internal fun worldY(latitude: Double): Double {
+        val sin = sin(clampLatitude(latitude) * DEGREES_TO_RADIANS)
+        return 0.5 - 0.25 * ln((1 + sin) / (1 - sin)) / PI
+    }
+
+    private fun longitude(worldX: Double): Double {
+        return worldX * 360 - 180
+    }
+
+    private fun latitude(worldY: Double): Double {
+        return atan(sinh(PI * (1 - 2 * worldY))) / DEGREES_TO_RADIANS
+    }
+
+    private fun clampLatitude(latitude: Double): Double {
+        return latitude.coerceIn(-MAX_LATITUDE, MAX_LATITUDE)
+    }
+
+    private fun scale(zoom: Int): Double {
+        require(zoom in 0..MAX_ZOOM) { "Zoom must be between 0 and $MAX_ZOOM" }
+        return (1 shl zoom).toDouble()
+    }
+
+    private fun checkPacked(coordinates: DoubleArray, result: DoubleArray): Int {
+        require(coordinates.size % 2 == 0) { "Packed coordinates must have an even size" }
+        if (result.size < coordinates.size) {
+            throw TurfException("Result array must hold at least ${coordinates.size} values")
+        }
+        return coordinates.size / 2
+    }
+
+    /**
+     * Collects the tiles of a zoom level touched by geometries, as `row * 2^zoom + column` ids.
+     */
+    private class TileCover(private val zoom: Int) {
+
+        private val scale = scale(zoom)
+
+        private val last = (1 shl zoom) - 1
+
+        private var ids = LongArray(16)
+
+        private var size = 0
+
+        fun add(geometry: Geometry) {
+            when (geometry) {
+                is Point -> addPoint(geometry)
+                is MultiPoint -> geometry.coordinates.forEach { addPoint(it) }
+                is LineString -> addLine(project(geometry.coordinates))
+                is MultiLineString -> geometry.coordinates.forEach { addLine(project(it)) }
+                is Polygon -> addPolygon(geometry.coordinates)
+                is MultiPolygon -> geometry.coordinates.forEach { addPolygon(it) }
+                is GeometryCollection -> geometry.geometries.forEach { add(it) }
+                else -> throw TurfException("Unsupported geometry type: $geometry")
+            }
+        }
+
+        fun tiles(): List<Tile> {
+            val sorted = ids.copyOf(size)
+            sorted.sort()
+            val tiles = ArrayList<Tile>(size)
+            for (i in sorted.indices) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    val id = sorted[i]
+                    tiles.add(Tile((id % (last + 1L)).toInt(), (id / (last + 1L)).toInt(), zoom))
+                }
+            }
+            return tiles
+        }
+
+        private fun project(points: List<Point>): DoubleArray {
+            val coordinates = DoubleArray(2 * points.size)
+            for ((i, point) in points.withIndex()) {
+                coordinates[2 * i] = scale * worldX(point.longitude)
+                coordinates[2 * i + 1] = scale * worldY(point.latitude)
+            }
+            return coordinates
+        }
+
+        private fun addPoint(point: Point) {
+            addTile(scale * worldX(point.longitude), scale * worldY(point.latitude))
+        }
+
+        /**
+         * Adds the tiles crossed by a line in tile coordinates, stepping to the next column or
+         * row depending on which tile side the segment reaches first.
+         */
+        private fun addLine(line: DoubleArray) {
+            val count = line.size / 2
+            if (count == 1) {
+                addTile(line[0], line[1])
+            }
+            for (i in 1 until count) {
+                val x0 = line[2 * i - 2]
+                val y0 = line[2 * i - 1]
+                val dx = line[2 * i] - x0
+                val dy = line[2 * i + 1] - y0
+                var column = clamp(x0)
+                var row = clamp(y0)
+                val endColumn = clamp(line[2 * i])
+                val endRow = clamp(line[2 * i + 1])
+                val stepX = if (dx > 0) 1 else -1
+                val stepY = if (dy > 0) 1 else -1
+                var nextX = if (dx == 0.0) Double.POSITIVE_INFINITY else {
+                    ((if (dx > 0) column + 1 else column) - x0) / dx
+                }
+                var nextY = if (dy == 0.0) Double.POSITIVE_INFINITY else {
+                    ((if (dy > 0) row + 1 else row) - y0) / dy
+                }
+                val deltaX = if (dx == 0.0) Double.POSITIVE_INFINITY else abs(1 / dx)
+                val deltaY = if (dy == 0.0) Double.POSITIVE_INFINITY else abs(1 / dy)
+                add(column, row)
+                // Bounding the steps keeps rounding errors from walking past the end tile
+                var steps = abs(endColumn - column) + abs(endRow - row)
+                while (steps-- > 0 && (column != endColumn || row != endRow)) {
+                    if (nextX < nextY && column != endColumn || row == endRow) {
+                        nextX += deltaX
+                        column += stepX
+                    } else {
+                        nextY += deltaY
+                        row += stepY
+                    }
+                    add(column, row)
+                }
+            }
+        }
+
+        /**
+         * Adds the tiles crossed by the rings of a polygon and, for each row, the tiles between
+         * pairs of ring crossings with the middle of the row.
+         */
+        private fun addPolygon(rings: List<List<Point>>) {
+            val projected = rings.map { project(it) }
+            var minRow = Int.MAX_VALUE
+            var maxRow = Int.MIN_VALUE
+            for (ring in projected) {
+                addLine(ring)
+                for (i in 0 until ring.size / 2) {
+                    val row = clamp(ring[2 * i + 1])
+                    minRow = minOf(minRow, row)
+                    maxRow = maxOf(maxRow, row)
+                }
+            }
+            var crossings = DoubleArray(16)
+            for (row in minRow..maxRow) {
+                val y = row + 0.5
+                var count = 0
+                for (ring in projected) {
+                    val points = ring.size / 2
+                    for (i in 0 until points) {
+                        val j = if (i == 0) points - 1 else i - 1
+                        val y1 = ring[2 * i + 1]
+                        val y2 = ring[2 * j + 1]
+                        if ((y1 > y) != (y2 > y)) {
+                            if (count == crossings.size) {
+                                crossings = crossings.copyOf(2 * count)
+                            }
+                            val x1 = ring[2 * i]
+                            crossings[count++] = x1 + (ring[2 * j] - x1) * (y - y1) / (y2 - y1)
+                        }
+                    }
+                }
+                crossings.sort(0, count)
+                for (k in 0 until count - 1 step 2) {
+                    for (column in clamp(crossings[k])..clamp(crossings[k + 1])) {
+                        add(column, row)
+                    }
+                }
+            }
+        }
+
+        private fun addTile(x: Double, y: Double) {
+            add(clamp(x), clamp(y))
+        }
+
+        private fun clamp(value: Double): Int {
+            return floor(value).coerceIn(0.0, last.toDouble()).toInt()
+        }
+
+        private fun add(column: Int, row: Int) {
+            if (size == ids.size) {
+                ids = ids.copyOf(2 * size)
+            }
+            ids[size++] = row.toLong() * (last + 1L) + column
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package com.trackasia.geojson.turf
 
+import com.trackasia.geojson.model.BoundingBox
+import com.trackasia.geojson.model.LineString
+import com.trackasia.geojson.model.MultiLineString
+import com.trackasia.geojson.model.MultiPolygon
 import com.trackasia.geojson.model.Point
 import com.trackasia.geojson.model.Polygon
+import com.trackasia.geojson.utils.PackedCoordinates
 import kotlin.jvm.JvmOverloads
 import kotlin.jvm.JvmStatic
 
@@ -48,4 +53,181 @@ object TurfTransformation {
 
         return Polygon(listOf(coordinates + coordinates.first()))
     }
+
+    /**
+     * Clips a [LineString] to a bounding box, with the Cohen-Sutherland algorithm. Each run of
+     * the line inside the box becomes a separate line.
+     *
+     * @param lineString  the line to clip
+     * @param boundingBox the box to clip to
+     * @param buffer      distance by which the box is grown on every side, in degrees
+     * @return the parts of the line inside the box, none if the line is outside of it
+     * @throws TurfException if [boundingBox] crosses the antimeridian
+     * @see [Turf bboxClip documentation](http://turfjs.org/docs/#bboxClip)
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun bboxClip(
+        lineString: LineString,
+        boundingBox: BoundingBox,
+        buffer: Double = 0.0
+    ): MultiLineString {
+        return bboxClip(MultiLineString(listOf(lineString.coordinates)), boundingBox, buffer)
+    }
+
+    /**
+     * Clips a [MultiLineString] to a bounding box, with the Cohen-Sutherland algorithm. Each run
+     * of a line inside the box becomes a separate line.
+     *
+     * @param multiLineString the lines to clip
+     * @param boundingBox     the box to clip to
+     * @param buffer          distance by which the box is grown on every side, in degrees
+     * @return the parts of the lines inside the box
+     * @throws TurfException if [boundingBox] crosses the antimeridian
+     * @see [Turf bboxClip documentation](http://turfjs.org/docs/#bboxClip)
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun bboxClip(
+        multiLineString: MultiLineString,
+        boundingBox: BoundingBox,
+        buffer: Double = 0.0
+    ): MultiLineString {
+        val clipper = clipper(boundingBox, buffer)
+        val lines = ArrayList<List<Point>>()
+        for (line in multiLineString.coordinates) {
+            val packed = PackedCoordinates.pack(line)
+            val parts = clipper.clipLine(packed)
+            if (parts.size == 1 && parts[0] === packed) {
+                lines.add(line)
+            } else {
+                parts.mapTo(lines) { PackedCoordinates.unpack(it) }
+            }
+        }
+        return MultiLineString(lines)
+    }
+
+    /**
+     * Clips a [Polygon] to a bounding box, with the Sutherland-Hodgman algorithm. Each ring is
+     * clipped on its own, so parts of a concave polygon separated by the box stay joined by edges
+     * along the box sides.
+     *
+     * @param polygon     the polygon to clip
+     * @param boundingBox the box to clip to
+     * @param buffer      distance by which the box is grown on every side, in degrees
+     * @return the polygon inside the box, without rings if its exterior ring is outside the box
+     * @throws TurfException if [boundingBox] crosses the antimeridian
+     * @see [Turf bboxClip documentation](http://turfjs.org/docs/#bboxClip)
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun bboxClip(
+        polygon: Polygon,
+        boundingBox: BoundingBox,
+        buffer: Double = 0.0
+    ): Polygon {
+        return Polygon(clipRings(polygon.coordinates, clipper(boundingBox, buffer)))
+    }
+
+    /**
+     * Clips a [MultiPolygon] to a bounding box, see [bboxClip] for polygons.
+     *
+     * @param multiPolygon the polygons to clip
+     * @param boundingBox  the box to clip to
+     * @param buffer       distance by which the box is grown on every side, in degrees
+     * @return the polygons inside the box
+     * @throws TurfException if [boundingBox] crosses the antimeridian
+     * @see [Turf bboxClip documentation](http://turfjs.org/docs/#bboxClip)
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun bboxClip(
+        multiPolygon: MultiPolygon,
+        boundingBox: BoundingBox,
+        buffer: Double = 0.0
+    ): MultiPolygon {
+        val clipper = clipper(boundingBox, buffer)
+        val polygons = multiPolygon.coordinates
+            .map { rings -> clipRings(rings, clipper) }
+            .filter { rings -> rings.isNotEmpty() }
+        return MultiPolygon(polygons)
+    }
+
+    /**
+     * Clips a line of packed coordinates to a bounding box, with the Cohen-Sutherland algorithm.
+     *
+     * @param coordinates packed `[lon0, lat0, lon1, lat1, ...]` coordinates of the line
+     * @param boundingBox the box to clip to
+     * @param buffer      distance by which the box is grown on every side, in degrees
+     * @return the packed parts of the line inside the box, or [coordinates] itself if the whole
+     * line is inside
+     * @throws TurfException if [boundingBox] crosses the antimeridian
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun bboxClipLine(
+        coordinates: DoubleArray,
+        boundingBox: BoundingBox,
+        buffer: Double = 0.0
+    ): List<DoubleArray> {
+        return clipper(boundingBox, buffer).clipLine(coordinates)
+    }
+
+    /**
+     * Clips a ring of packed coordinates to a bounding box, with the Sutherland-Hodgman
+     * algorithm.
+     *
+     * @param coordinates packed `[lon0, lat0, lon1, lat1, ...]` coordinates of the ring
+     * @param boundingBox the box to clip to
+     * @param buffer      distance by which the box is grown on every side, in degrees
+     * @return the packed closed ring inside the box, [coordinates] itself if the whole ring is
+     * inside, or an empty array if less than a triangle is left
+     * @throws TurfException if [boundingBox] crosses the antimeridian
+     * @since 7.1.0
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun bboxClipRing(
+        coordinates: DoubleArray,
+        boundingBox: BoundingBox,
+        buffer: Double = 0.0
+    ): DoubleArray {
+        return clipper(boundingBox, buffer).clipRing(coordinates)
+    }
+
+    private fun clipper(boundingBox: BoundingBox, buffer: Double): BboxClipper {
+        if (boundingBox.west > boundingBox.east) {
+            throw TurfException(
+                "Bounding boxes crossing the antimeridian are not supported, split them at 180"
+            )
+        }
+        return BboxClipper(
+            boundingBox.west - buffer,
+            boundingBox.south - buffer,
+            boundingBox.east + buffer,
+            boundingBox.north + buffer
+        )
+    }
+
+    /**
+     * Clips the rings of a polygon, dropping the polygon if its exterior ring is clipped away.
+     */
+    private fun clipRings(rings: List<List<Point>>, clipper: BboxClipper): List<List<Point>> {
+        val clipped = ArrayList<List<Point>>(rings.size)
+        for (ring in rings) {
+            val packed = PackedCoordinates.pack(ring)
+            val result = clipper.clipRing(packed)
+            when {
+                result === packed -> clipped.add(ring)
+                result.isNotEmpty() -> clipped.add(PackedCoordinates.unpack(result))
+                clipped.isEmpty() -> return emptyList()
+            }
+        }
+        return clipped
+    }
 }
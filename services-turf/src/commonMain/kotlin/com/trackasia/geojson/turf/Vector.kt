@@ -0,0 +1,134 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.Point
+import kotlin.math.PI
+import kotlin.math.atan2
+import kotlin.math.cos
+import kotlin.math.sin
+import kotlin.math.sqrt
+
+/**
+ * Writes the haversine distances from origin [row] of [from] to the destinations
+ * `start until end` of [to] into [result], starting at `offset + start`.
+ *
+ * Evaluates several destinations per instruction on platforms with SIMD support (the JVM with the
+ * `jdk.incubator.vector` module) and falls back to [HaversineTerms.haversineRow] everywhere else.
+ */
+internal expect fun haversineRow(
+    from: HaversineTerms,
+    row: Int,
+    to: HaversineTerms,
+    start: Int,
+    end: Int,
+    factor: Double,
+    result: DoubleArray,
+    offset: Int
+)
+
+/**
+ * Counts the edges of [ring] crossed by a ray cast from `(x, y)` in the positive x direction.
+ *
+ * Evaluates several edges per instruction on platforms with SIMD support (the JVM with the
+ * `jdk.incubator.vector` module) and falls back to [RingEdges.crossings] everywhere else.
+ */
+internal expect fun ringCrossings(x: Double, y: Double, ring: RingEdges): Int
+
+/**
+ * Per-point terms of the haversine formula, stored as one array per term so that consecutive
+ * points can be loaded into vector lanes.
+ */
+internal class HaversineTerms(coordinates: DoubleArray) {
+
+    val size = coordinates.size / 2
+    val sinHalfLat = DoubleArray(size)
+    val cosHalfLat = DoubleArray(size)
+    val sinHalfLon = DoubleArray(size)
+    val cosHalfLon = DoubleArray(size)
+    val cosLat = DoubleArray(size)
+
+    init {
+        for (i in 0 until size) {
+            val halfLon = coordinates[i * 2] * PI / 360.0
+            val halfLat = coordinates[i * 2 + 1] * PI / 360.0
+            sinHalfLat[i] = sin(halfLat)
+            cosHalfLat[i] = cos(halfLat)
+            sinHalfLon[i] = sin(halfLon)
+            cosHalfLon[i] = cos(halfLon)
+            // cos(lat) = cos²(lat / 2) - sin²(lat / 2)
+            cosLat[i] = cosHalfLat[i] * cosHalfLat[i] - sinHalfLat[i] * sinHalfLat[i]
+        }
+    }
+
+    /**
+     * Scalar implementation of [haversineRow], with this instance as the origins.
+     */
+    fun haversineRow(
+        row: Int,
+        to: HaversineTerms,
+        start: Int,
+        end: Int,
+        factor: Double,
+        result: DoubleArray,
+        offset: Int
+    ) {
+        val sinLatA = sinHalfLat[row]
+        val cosLatA = cosHalfLat[row]
+        val sinLonA = sinHalfLon[row]
+        val cosLonA = cosHalfLon[row]
+        val cosA = cosLat[row]
+        for (i in start until end) {
+            // sin((b - a) / 2) = sin(b / 2) * cos(a / 2) - cos(b / 2) * sin(a / 2)
+            val sinHalfDifLat = to.sinHalfLat[i] * cosLatA - to.cosHalfLat[i] * sinLatA
+            val sinHalfDifLon = to.sinHalfLon[i] * cosLonA - to.cosHalfLon[i] * sinLonA
+            // Rounding can push near-antipodal pairs slightly above 1
+            val value = minOf(
+                1.0,
+                sinHalfDifLat * sinHalfDifLat + sinHalfDifLon * sinHalfDifLon * cosA * to.cosLat[i]
+            )
+            result[offset + i] = 2 * atan2(sqrt(value), sqrt(1 - value)) * factor
+        }
+    }
+}
+
+/**
+ * The edges of a linear ring, stored as one array per edge end point coordinate. Edge `k` runs
+ * from vertex `k - 1` (wrapping around to the last vertex) to vertex `k`, matching the order in
+ * which the scalar ray casting loop visits them.
+ */
+internal class RingEdges(ring: List<Point>) {
+
+    val size = ring.size
+    val xi = DoubleArray(size)
+    val yi = DoubleArray(size)
+    val xj = DoubleArray(size)
+    val yj = DoubleArray(size)
+
+    init {
+        var j = size - 1
+        for (i in 0 until size) {
+            xi[i] = ring[i].longitude
+            yi[i] = ring[i].latitude
+            xj[i] = ring[j].longitude
+            yj[i] = ring[j].latitude
+            j = i
+        }
+    }
+
+    /**
+     * Returns true if `(x, y)` lies inside the ring, using the even-odd rule.
+     */
+    fun contains(x: Double, y: Double): Boolean = ringCrossings(x, y, this) % 2 == 1
+
+    /**
+     * Scalar implementation of [ringCrossings], limited to the edges `start until end`.
+     */
+    fun crossings(x: Double, y: Double, start: Int = 0, end: Int = size): Int {
+        var count = 0
+        for (k in start until end) {
+            if ((yi[k] > y) != (yj[k] > y) && x < (xj[k] - xi[k]) * (y - yi[k]) / (yj[k] - yi[k]) + xi[k]) {
+                count++
+            }
+        }
+        return count
+    }
+}
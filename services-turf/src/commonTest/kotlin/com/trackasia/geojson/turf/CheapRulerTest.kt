@@ -0,0 +1,121 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.Point
+import kotlin.math.abs
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+
+class CheapRulerTest {
+
+    private val ruler = CheapRuler(21.03)
+
+    private val line = listOf(
+        Point(105.8000, 21.0200),
+        Point(105.8100, 21.0250),
+        Point(105.8200, 21.0400),
+        Point(105.8350, 21.0420),
+    )
+
+    @Test
+    fun distance_closeToHaversine() {
+        val from = Point(105.804817, 21.028511)
+        for (to in line + Point(105.9, 21.1)) {
+            val expected = TurfMeasurement.distance(from, to)
+            // TurfMeasurement uses a 6373 km sphere, which is up to 0.6% off the ellipsoid
+            assertEquals(expected, ruler.distance(from, to), expected * 0.006 + 1e-9)
+        }
+    }
+
+    @Test
+    fun distance_units() {
+        val meters = CheapRuler(21.03, TurfUnit.METERS)
+        val from = line[0]
+        val to = line[3]
+        assertEquals(ruler.distance(from, to) * 1000, meters.distance(from, to), 1e-6)
+        assertEquals(
+            ruler.distance(from, to),
+            ruler.distance(from.longitude, from.latitude, to.longitude, to.latitude)
+        )
+    }
+
+    @Test
+    fun distance_acrossAntimeridian() {
+        val equator = CheapRuler(0.0)
+        val distance = equator.distance(Point(179.9, 0.0), Point(-179.9, 0.0))
+        assertEquals(equator.kx * 0.2, distance, 1e-9)
+
+        // Longitudes far outside of the valid range wrap without iterating
+        val far = equator.distance(Point(360e12 + 0.5, 0.0), Point(0.25, 0.0))
+        assertEquals(equator.kx * 0.25, far, 1e-9)
+        assertTrue(equator.distance(Point(Double.POSITIVE_INFINITY, 0.0), line[0]).isNaN())
+    }
+
+    @Test
+    fun bearing_closeToTurf() {
+        val from = line[0]
+        for (to in line.drop(1)) {
+            // Bearings on the ellipsoid differ slightly from the spherical ones
+            assertEquals(TurfMeasurement.bearing(from, to), ruler.bearing(from, to), 0.2)
+        }
+    }
+
+    @Test
+    fun destination_roundTrip() {
+        val from = line[0]
+        val to = ruler.destination(from, 3.5, 60.0)
+        assertEquals(3.5, ruler.distance(from, to), 1e-9)
+        assertEquals(60.0, ruler.bearing(from, to), 1e-9)
+    }
+
+    @Test
+    fun length_sumsSegments() {
+        val expected = ruler.distance(line[0], line[1]) +
+                ruler.distance(line[1], line[2]) +
+                ruler.distance(line[2], line[3])
+        assertEquals(expected, ruler.length(line), 1e-12)
+        assertEquals(0.0, ruler.length(line.take(1)))
+    }
+
+    @Test
+    fun along() {
+        assertSame(line[0], ruler.along(line, -1.0))
+        assertSame(line[3], ruler.along(line, 100.0))
+
+        val first = ruler.distance(line[0], line[1])
+        val point = ruler.along(line, first + 0.5)
+        assertEquals(0.5, ruler.distance(line[1], point), 1e-9)
+        assertEquals(ruler.bearing(line[1], line[2]), ruler.bearing(line[1], point), 1e-6)
+
+        assertFailsWith(TurfException::class) {
+            ruler.along(emptyList(), 1.0)
+        }
+    }
+
+    @Test
+    fun nearestPointOnLine() {
+        val point = Point(105.8150, 21.0300)
+        val nearest = ruler.nearestPointOnLine(point, line)
+        val snapped = nearest.geometry as Point
+
+        assertEquals(1, nearest.getIntProperty("index"))
+        assertEquals(ruler.distance(point, snapped), nearest.getDoubleProperty("dist")!!, 1e-9)
+        // The snapped point lies on the segment and the offset is perpendicular to it
+        assertEquals(ruler.bearing(line[1], line[2]), ruler.bearing(line[1], snapped), 1e-6)
+        assertEquals(
+            90.0,
+            abs(ruler.bearing(line[1], line[2]) - ruler.bearing(snapped, point)),
+            1e-6
+        )
+
+        val expected = TurfMisc.nearestPointOnLine(point, line).geometry as Point
+        assertEquals(expected.longitude, snapped.longitude, 1e-4)
+        assertEquals(expected.latitude, snapped.latitude, 1e-4)
+
+        assertFailsWith(TurfException::class) {
+            ruler.nearestPointOnLine(point, line.take(1))
+        }
+    }
+}
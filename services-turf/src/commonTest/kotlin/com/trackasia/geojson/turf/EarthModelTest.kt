@@ -0,0 +1,128 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.LineString
+import com.trackasia.geojson.model.Point
+import com.trackasia.geojson.model.Polygon
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+
+class EarthModelTest {
+
+    private val jfk = Point(-73.78, 40.64)
+    private val sin = Point(103.99, 1.36)
+
+    private val line = listOf(
+        Point(105.8000, 21.0200),
+        Point(105.8100, 21.0250),
+        Point(105.8200, 21.0400),
+        Point(105.8350, 21.0420),
+    )
+
+    @Test
+    fun wgs84_distance() {
+        val model = EarthModel.WGS84
+        assertEquals(15347512.9405, TurfMeasurement.distance(jfk, sin, TurfUnit.METERS, model), 1e-4)
+        assertEquals(15347.5129405, TurfMeasurement.distance(jfk, sin, TurfUnit.KILOMETERS, model), 1e-7)
+        // Half of the meridian
+        assertEquals(
+            20003931.4586,
+            TurfMeasurement.distance(Point(0.0, -90.0), Point(0.0, 90.0), TurfUnit.METERS, model),
+            1e-4
+        )
+        assertEquals(0.0, TurfMeasurement.distance(jfk, jfk, TurfUnit.METERS, model))
+    }
+
+    @Test
+    fun wgs84_nearlyAntipodal() {
+        val model = EarthModel.WGS84
+        val from = Point(0.0, -30.0)
+        val to = Point(179.8, 29.9)
+        val distance = TurfMeasurement.distance(from, to, TurfUnit.METERS, model)
+        val end = TurfMeasurement.destination(from, distance, model.bearing(from, to), TurfUnit.METERS, model)
+        assertEquals(to.longitude, end.longitude, 1e-9)
+        assertEquals(to.latitude, end.latitude, 1e-9)
+    }
+
+    @Test
+    fun wgs84_bearingAndDestination() {
+        val model = EarthModel.WGS84
+        assertEquals(3.3057734780, model.bearing(jfk, sin), 1e-9)
+
+        val end = TurfMeasurement.destination(jfk, 15347.5129405, 3.3057734780, TurfUnit.KILOMETERS, model)
+        assertEquals(sin.longitude, end.longitude, 1e-6)
+        assertEquals(sin.latitude, end.latitude, 1e-6)
+    }
+
+    @Test
+    fun wgs84_area() {
+        val square = Polygon(
+            listOf(
+                listOf(
+                    Point(-1.0, 0.0),
+                    Point(0.0, -1.0),
+                    Point(1.0, 0.0),
+                    Point(0.0, 1.0),
+                    Point(-1.0, 0.0),
+                )
+            )
+        )
+        assertEquals(24619419146.0, TurfMeasurement.area(square, EarthModel.WGS84), 1.0)
+
+        // Ring around the north pole
+        val polar = listOf(Point(0.0, 89.0), Point(90.0, 89.0), Point(180.0, 89.0), Point(270.0, 89.0))
+        assertEquals(24952305678.0, EarthModel.WGS84.area(polar), 1.0)
+    }
+
+    @Test
+    fun wgs84_lengthAndAlong() {
+        val model = EarthModel.WGS84
+        var expected = 0.0
+        for (i in 1 until line.size) {
+            expected += TurfMeasurement.distance(line[i - 1], line[i], TurfUnit.METERS, model)
+        }
+        assertEquals(expected, TurfMeasurement.length(LineString(line), TurfUnit.METERS, model), 1e-6)
+
+        val first = TurfMeasurement.distance(line[0], line[1], TurfUnit.METERS, model)
+        val point = TurfMeasurement.along(LineString(line), first + 500, TurfUnit.METERS, model)
+        assertEquals(500.0, TurfMeasurement.distance(line[1], point, TurfUnit.METERS, model), 1e-6)
+    }
+
+    @Test
+    fun sphere_matchesDefault() {
+        val model = EarthModel.SPHERE
+        assertEquals(TurfMeasurement.distance(jfk, sin), TurfMeasurement.distance(jfk, sin, TurfUnit.DEFAULT, model))
+        assertEquals(
+            TurfMeasurement.length(line, TurfUnit.MILES),
+            TurfMeasurement.length(line, TurfUnit.MILES, model)
+        )
+        assertEquals(
+            TurfMeasurement.along(line, 1.0, TurfUnit.KILOMETERS),
+            TurfMeasurement.along(line, 1.0, TurfUnit.KILOMETERS, model)
+        )
+        val polygon = Polygon(listOf(line + line.first()))
+        assertEquals(TurfMeasurement.area(polygon), TurfMeasurement.area(polygon, model))
+    }
+
+    @Test
+    fun cheapRuler_closeToWgs84() {
+        val model = EarthModel.cheapRuler(21.03)
+        for (i in 1 until line.size) {
+            val expected = TurfMeasurement.distance(line[0], line[i], TurfUnit.METERS, EarthModel.WGS84)
+            assertEquals(expected, TurfMeasurement.distance(line[0], line[i], TurfUnit.METERS, model), expected * 1e-4)
+        }
+        val polygon = Polygon(listOf(line + line.first()))
+        val expected = TurfMeasurement.area(polygon, EarthModel.WGS84)
+        assertEquals(expected, TurfMeasurement.area(polygon, model), expected * 1e-3)
+    }
+
+    @Test
+    fun geodesicEarthModel_rejectsUnsupportedEllipsoids() {
+        assertFailsWith(TurfException::class) {
+            GeodesicEarthModel(6378137.0, -0.01)
+        }
+        assertFailsWith(TurfException::class) {
+            GeodesicEarthModel(-1.0, 0.0)
+        }
+    }
+}
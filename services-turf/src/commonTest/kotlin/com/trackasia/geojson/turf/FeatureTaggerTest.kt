@@ -0,0 +1,102 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.Feature
+import com.trackasia.geojson.model.FeatureCollection
+import com.trackasia.geojson.model.LineString
+import com.trackasia.geojson.model.MultiPolygon
+import com.trackasia.geojson.model.Point
+import com.trackasia.geojson.model.Polygon
+import com.trackasia.geojson.turf.TestUtils.square
+import kotlinx.serialization.json.JsonElement
+import kotlinx.serialization.json.JsonPrimitive
+import kotlin.random.Random
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+import kotlin.test.assertSame
+
+class FeatureTaggerTest {
+
+    private val zones = FeatureCollection(
+        listOf(
+            zone(square(0.0, 0.0, 10.0), "A", 1),
+            zone(square(5.0, 5.0, 10.0), "B", 2),
+            Feature(
+                MultiPolygon(
+                    listOf(square(20.0, 0.0, 2.0).coordinates, square(30.0, 0.0, 2.0).coordinates)
+                ),
+                properties("C", null)
+            ),
+            Feature(Point(50.0, 50.0), properties("D", 4))
+        )
+    )
+
+    @Test
+    fun tag_copiesFields() {
+        val tagger = FeatureTagger(zones, mapOf("name" to "zone", "tariff" to "price"))
+
+        val point = Feature(Point(2.0, 2.0), mutableMapOf("speed" to JsonPrimitive(12)), "p1")
+        val tagged = tagger.tag(point)
+        assertEquals("p1", tagged.id)
+        assertSame(point.geometry, tagged.geometry)
+        assertEquals(JsonPrimitive(12), tagged.properties?.get("speed"))
+        assertEquals(JsonPrimitive("A"), tagged.properties?.get("zone"))
+        assertEquals(JsonPrimitive(1), tagged.properties?.get("price"))
+        assertEquals(setOf("speed"), point.properties?.keys)
+
+        // Overlapping zones resolve to the first one, missing properties are not copied
+        assertEquals(JsonPrimitive("A"), tagger.tag(Feature(Point(7.0, 7.0))).properties?.get("zone"))
+        assertEquals(JsonPrimitive("B"), tagger.tag(Feature(Point(12.0, 12.0))).properties?.get("zone"))
+        val island = tagger.tag(Feature(Point(31.0, 1.0)))
+        assertEquals(JsonPrimitive("C"), island.properties?.get("zone"))
+        assertNull(island.properties?.get("price"))
+    }
+
+    @Test
+    fun tag_leavesOtherFeaturesUnchanged() {
+        val tagger = FeatureTagger(zones, "name", "zone")
+        val outside = Feature(Point(50.0, 50.0))
+        val line = Feature(LineString(listOf(Point(1.0, 1.0), Point(2.0, 2.0))))
+        val empty = Feature(null)
+        assertSame(outside, tagger.tag(outside))
+        assertSame(line, tagger.tag(line))
+        assertSame(empty, tagger.tag(empty))
+        assertNull(tagger.find(Point(50.0, 50.0)))
+        assertSame(zones.features[1], tagger.find(Point(14.0, 14.0)))
+    }
+
+    @Test
+    fun tag_streamsAndCollections() {
+        val random = Random(11)
+        val points = List(10000) { i ->
+            Feature(Point(random.nextDouble() * 40 - 2, random.nextDouble() * 20 - 2), id = "$i")
+        }
+        val tagger = FeatureTagger(zones, "name", "zone")
+        val expected = points.map { point ->
+            val geometry = point.geometry as Point
+            zones.features.firstOrNull { zone ->
+                when (val polygon = zone.geometry) {
+                    is Polygon -> TurfJoins.inside(geometry, polygon)
+                    is MultiPolygon -> TurfJoins.inside(geometry, polygon)
+                    else -> false
+                }
+            }?.properties?.get("name")
+        }
+
+        val streamed = tagger.tag(points.asSequence()).map { it.properties?.get("zone") }.toList()
+        assertEquals(expected, streamed)
+        val collected = TurfJoins.tag(FeatureCollection(points), zones, "name", "zone")
+        assertEquals(expected, collected.features.map { it.properties?.get("zone") })
+        assertEquals(points.map { it.id }, collected.features.map { it.id })
+    }
+
+    private fun zone(polygon: Polygon, name: String, tariff: Int): Feature {
+        return Feature(polygon, properties(name, tariff))
+    }
+
+    private fun properties(name: String, tariff: Int?): MutableMap<String, JsonElement> {
+        val properties = mutableMapOf<String, JsonElement>("name" to JsonPrimitive(name))
+        tariff?.let { properties["tariff"] = JsonPrimitive(it) }
+        return properties
+    }
+}
@@ -0,0 +1,155 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.Feature
+import com.trackasia.geojson.model.FeatureCollection
+import com.trackasia.geojson.model.LineString
+import com.trackasia.geojson.model.Point
+import com.trackasia.geojson.model.Polygon
+import com.trackasia.geojson.turf.GeofenceEvent.Type.DWELL
+import com.trackasia.geojson.turf.GeofenceEvent.Type.ENTER
+import com.trackasia.geojson.turf.GeofenceEvent.Type.EXIT
+import com.trackasia.geojson.turf.TestUtils.square
+import kotlin.random.Random
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertTrue
+
+class GeofenceEngineTest {
+
+    private val fences = FeatureCollection(
+        listOf(
+            Feature(square(0.0, 0.0, 10.0), id = "depot"),
+            Feature(square(5.0, 5.0, 10.0), id = "yard"),
+            Feature(square(100.0, 0.0, 1.0), id = "port")
+        )
+    )
+
+    @Test
+    fun update_emitsEnterExitAndDwell() {
+        val engine = GeofenceEngine(fences, dwellTime = 60)
+        assertEquals(emptyList(), engine.update(1, Point(-5.0, -5.0), 0))
+        assertEquals(listOf(event(ENTER, 1, 0, 10)), engine.update(1, Point(1.0, 1.0), 10))
+        assertEquals(emptyList(), engine.update(1, Point(2.0, 2.0), 20))
+        assertEquals(listOf(event(ENTER, 1, 1, 30)), engine.update(1, Point(7.0, 7.0), 30))
+        assertEquals(listOf(event(DWELL, 1, 0, 70)), engine.update(1, Point(7.0, 7.0), 70))
+        assertEquals(listOf(event(EXIT, 1, 0, 80)), engine.update(1, Point(12.0, 12.0), 80))
+        assertEquals(listOf(event(DWELL, 1, 1, 90)), engine.update(1, Point(12.0, 12.0), 90))
+        assertEquals(emptyList(), engine.update(1, Point(12.0, 12.0), 500))
+        assertEquals(listOf(fences.features[1]), engine.fencesOf(1))
+        assertEquals(1, engine.insideCount)
+
+        assertEquals(listOf(event(EXIT, 1, 1, 600)), engine.update(1, Point(50.0, 50.0), 600))
+        assertEquals(emptyList(), engine.fencesOf(1))
+        assertEquals(0, engine.insideCount)
+    }
+
+    @Test
+    fun insideCount_skipsObjectsOutsideEveryFence() {
+        val engine = GeofenceEngine(fences)
+        engine.update(1, Point(1.0, 1.0), 0)
+        engine.update(2, Point(50.0, 50.0), 0)
+        engine.update(3, Point(7.0, 7.0), 0)
+        assertEquals(2, engine.insideCount)
+
+        // Leaving every fence is not counted, although the object is still tracked
+        engine.update(3, Point(50.0, 50.0), 10)
+        assertEquals(1, engine.insideCount)
+        assertEquals(emptyList(), engine.update(3, Point(7.0, 7.0), 5))
+        assertEquals(1, engine.insideCount)
+
+        engine.remove(1, 20)
+        assertEquals(0, engine.insideCount)
+    }
+
+    @Test
+    fun update_jumpsBetweenFences() {
+        val engine = GeofenceEngine(fences)
+        assertEquals(
+            listOf(event(ENTER, 7, 0, 0), event(ENTER, 7, 1, 0)),
+            engine.update(7, 6.0, 6.0, 0)
+        )
+        assertEquals(
+            listOf(event(EXIT, 7, 0, 1), event(EXIT, 7, 1, 1), event(ENTER, 7, 2, 1)),
+            engine.update(7, 100.5, 0.5, 1)
+        )
+        // Dwell events are disabled by default
+        assertEquals(emptyList(), engine.update(7, 100.5, 0.5, 1_000_000))
+    }
+
+    @Test
+    fun update_ignoresOlderPositions() {
+        val engine = GeofenceEngine(fences)
+        engine.update(3, Point(1.0, 1.0), 100)
+        assertEquals(emptyList(), engine.update(3, Point(50.0, 50.0), 99))
+        assertEquals(listOf(fences.features[0]), engine.fencesOf(3))
+
+        // The last timestamp is kept after leaving every fence
+        assertEquals(listOf(event(EXIT, 3, 0, 200)), engine.update(3, Point(50.0, 50.0), 200))
+        assertEquals(emptyList(), engine.update(3, Point(1.0, 1.0), 150))
+        assertEquals(emptyList(), engine.fencesOf(3))
+        assertEquals(0, engine.insideCount)
+
+        // and from a first update outside every fence
+        engine.update(4, Point(50.0, 50.0), 300)
+        assertEquals(emptyList(), engine.update(4, Point(1.0, 1.0), 250))
+        assertEquals(listOf(event(ENTER, 4, 0, 301)), engine.update(4, Point(1.0, 1.0), 301))
+    }
+
+    @Test
+    fun remove_emitsExits() {
+        val engine = GeofenceEngine(fences, 10, 1)
+        assertEquals(1, engine.stripeCount)
+        engine.update(Long.MIN_VALUE, Point(6.0, 6.0), 0)
+        assertEquals(
+            listOf(event(EXIT, Long.MIN_VALUE, 0, 5), event(EXIT, Long.MIN_VALUE, 1, 5)),
+            engine.remove(Long.MIN_VALUE, 5)
+        )
+        assertEquals(emptyList(), engine.remove(Long.MIN_VALUE, 6))
+        assertEquals(emptyList(), engine.remove(42, 6))
+    }
+
+    @Test
+    fun update_manyObjects() {
+        val engine = GeofenceEngine(fences, stripeCount = 5)
+        assertEquals(8, engine.stripeCount)
+        val random = Random(5)
+        val inside = HashMap<Long, Set<Int>>()
+        repeat(20000) { step ->
+            val objectId = random.nextLong(-500, 500) * 1_000_003
+            val point = Point(random.nextDouble() * 20 - 2, random.nextDouble() * 20 - 2)
+            val expected = fences.features.indices.filter { i ->
+                TurfJoins.inside(point, fences.features[i].geometry as Polygon)
+            }.toSet()
+            val previous = inside[objectId] ?: emptySet()
+            val events = engine.update(objectId, point, step.toLong())
+            val exits = events.filter { it.type == EXIT }.map { it.fenceIndex }
+            val enters = events.filter { it.type == ENTER }.map { it.fenceIndex }
+            assertEquals((previous - expected).sorted(), exits)
+            assertEquals((expected - previous).sorted(), enters)
+            inside[objectId] = expected
+        }
+        assertEquals(inside.count { it.value.isNotEmpty() }, engine.insideCount)
+        for ((objectId, expected) in inside) {
+            assertEquals(expected.map { fences.features[it] }, engine.fencesOf(objectId))
+        }
+    }
+
+    @Test
+    fun rejectsOtherGeometries() {
+        assertFailsWith<TurfException> {
+            GeofenceEngine(FeatureCollection(listOf(Feature(LineString(listOf(Point(0.0, 0.0)))))))
+        }
+        val empty = GeofenceEngine(FeatureCollection(emptyList()))
+        assertTrue(empty.update(1, Point(0.0, 0.0), 0).isEmpty())
+    }
+
+    private fun event(
+        type: GeofenceEvent.Type,
+        objectId: Long,
+        fence: Int,
+        timestamp: Long
+    ): GeofenceEvent {
+        return GeofenceEvent(type, objectId, fences.features[fence], fence, timestamp)
+    }
+}
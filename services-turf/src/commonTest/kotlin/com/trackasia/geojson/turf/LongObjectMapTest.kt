@@ -0,0 +1,32 @@
+package com.trackasia.geojson.turf
+
+import kotlin.random.Random
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+
+class LongObjectMapTest {
+
+    @Test
+    fun matchesHashMap() {
+        val map = LongObjectMap<String>()
+        val expected = HashMap<Long, String>()
+        val random = Random(1)
+        repeat(100000) { step ->
+            // Few distinct keys, spaced like the ids of a database, so that slots collide
+            val key = random.nextLong(-300, 300) shl 20
+            when (random.nextInt(3)) {
+                0 -> assertEquals(expected.remove(key), map.remove(key))
+                else -> {
+                    expected[key] = "$step"
+                    map[key] = "$step"
+                }
+            }
+            assertEquals(expected.size, map.size)
+        }
+        for (key in -300L until 300L) {
+            assertEquals(expected[key shl 20], map[key shl 20])
+        }
+        assertNull(map[1])
+    }
+}
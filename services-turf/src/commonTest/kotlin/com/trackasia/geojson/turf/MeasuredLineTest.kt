@@ -0,0 +1,111 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.LineString
+import com.trackasia.geojson.model.Point
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+
+class MeasuredLineTest {
+
+    private val line = LineString(
+        listOf(
+            Point(105.8000, 21.0200),
+            Point(105.8100, 21.0250),
+            Point(105.8200, 21.0400),
+            Point(105.8200, 21.0400),
+            Point(105.8350, 21.0420),
+            Point(105.8500, 21.0300),
+        )
+    )
+
+    @Test
+    fun length_andDistanceAt() {
+        val measured = MeasuredLine(line, TurfUnit.METERS)
+        assertEquals(TurfMeasurement.length(line, TurfUnit.METERS), measured.length, 1e-9)
+        assertEquals(0.0, measured.distanceAt(0))
+        assertEquals(
+            TurfMeasurement.distance(line.coordinates[0], line.coordinates[1], TurfUnit.METERS),
+            measured.distanceAt(1)
+        )
+        assertEquals(measured.distanceAt(2), measured.distanceAt(3))
+        assertEquals(measured.length, measured.distanceAt(5))
+        assertEquals(measured.length - 100, measured.remaining(100.0), 1e-9)
+        assertEquals(0.0, measured.remaining(measured.length + 1))
+    }
+
+    @Test
+    fun along_matchesTurfMeasurement() {
+        val measured = MeasuredLine(line)
+        var distance = -0.5
+        while (distance < measured.length + 1) {
+            assertEquals(
+                TurfMeasurement.along(line, distance, TurfUnit.KILOMETERS),
+                measured.along(distance)
+            )
+            distance += 0.1
+        }
+        for (i in line.coordinates.indices) {
+            assertEquals(line.coordinates[i], measured.along(measured.distanceAt(i)))
+        }
+    }
+
+    @Test
+    fun along_withModel() {
+        val measured = MeasuredLine(line, TurfUnit.METERS, EarthModel.WGS84)
+        assertEquals(
+            TurfMeasurement.along(line, 2500.0, TurfUnit.METERS, EarthModel.WGS84),
+            measured.along(2500.0)
+        )
+        assertEquals(
+            TurfMeasurement.length(line, TurfUnit.METERS, EarthModel.WGS84),
+            measured.length,
+            1e-9
+        )
+    }
+
+    @Test
+    fun segmentAt() {
+        val measured = MeasuredLine(line)
+        assertEquals(0, measured.segmentAt(-1.0))
+        assertEquals(0, measured.segmentAt(0.0))
+        assertEquals(0, measured.segmentAt(measured.distanceAt(1) / 2))
+        assertEquals(1, measured.segmentAt(measured.distanceAt(1) + 0.01))
+        assertEquals(3, measured.segmentAt(measured.distanceAt(3) + 0.01))
+        assertEquals(4, measured.segmentAt(measured.length + 1))
+        assertEquals(0, MeasuredLine(LineString(line.coordinates.take(1))).segmentAt(1.0))
+    }
+
+    @Test
+    fun sliceAlong_matchesLineSliceAlong() {
+        val measured = MeasuredLine(line, TurfUnit.MILES)
+        val length = measured.length
+        val stops = listOf(0.0, 0.3, length / 3, measured.distanceAt(2), length / 2, length, length + 1)
+        for (start in stops) {
+            for (stop in stops) {
+                if (start == stop || stop == 0.0 || start > length) continue
+                assertEquals(
+                    TurfMisc.lineSliceAlong(line, start, stop, TurfUnit.MILES),
+                    measured.sliceAlong(start, stop)
+                )
+            }
+        }
+    }
+
+    @Test
+    fun sliceAlong_throws() {
+        val measured = MeasuredLine(line)
+        assertFailsWith(TurfException::class) {
+            measured.sliceAlong(1.0, 1.0)
+        }
+        assertFailsWith(TurfException::class) {
+            measured.sliceAlong(measured.length + 1, measured.length + 2)
+        }
+        assertFailsWith(TurfException::class) {
+            MeasuredLine(LineString(line.coordinates.take(1))).sliceAlong(0.0, 1.0)
+        }
+        assertFailsWith(TurfException::class) {
+            MeasuredLine(LineString(emptyList()))
+        }
+    }
+}
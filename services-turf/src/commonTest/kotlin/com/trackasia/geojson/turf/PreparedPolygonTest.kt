@@ -0,0 +1,143 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.BoundingBox
+import com.trackasia.geojson.model.MultiPolygon
+import com.trackasia.geojson.model.Point
+import com.trackasia.geojson.model.Polygon
+import kotlin.math.PI
+import kotlin.math.cos
+import kotlin.math.sin
+import kotlin.random.Random
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+class PreparedPolygonTest {
+
+    private val square = Polygon(
+        listOf(
+            listOf(
+                Point(0.0, 0.0),
+                Point(0.0, 100.0),
+                Point(100.0, 100.0),
+                Point(100.0, 0.0),
+                Point(0.0, 0.0),
+            ),
+            listOf(
+                Point(40.0, 40.0),
+                Point(60.0, 40.0),
+                Point(60.0, 60.0),
+                Point(40.0, 60.0),
+                Point(40.0, 40.0),
+            )
+        )
+    )
+
+    @Test
+    fun contains_polygonWithHole() {
+        val prepared = PreparedPolygon(square)
+        assertTrue(prepared.contains(Point(20.0, 20.0)))
+        assertTrue(prepared.contains(Point(50.0, 70.0)))
+        assertFalse(prepared.contains(Point(50.0, 50.0)))
+        assertFalse(prepared.contains(Point(140.0, 150.0)))
+        assertFalse(prepared.contains(Point(-1.0, 50.0)))
+        assertFalse(prepared.contains(Double.NaN, 50.0))
+        assertEquals(BoundingBox(0.0, 0.0, 100.0, 100.0), prepared.bbox)
+    }
+
+    @Test
+    fun contains_matchesInside() {
+        val polygon = star(5000, 106.7, 10.8, 0.5)
+        val prepared = PreparedPolygon(polygon)
+        val random = Random(42)
+        repeat(20000) {
+            val point = Point(106.1 + random.nextDouble() * 1.2, 10.2 + random.nextDouble() * 1.2)
+            assertEquals(TurfJoins.inside(point, polygon), prepared.contains(point), "$point")
+        }
+        // Vertices and points on the latitude of vertices
+        for (ring in polygon.coordinates) {
+            for (vertex in ring) {
+                assertEquals(TurfJoins.inside(vertex, polygon), prepared.contains(vertex), "$vertex")
+                val shifted = Point(vertex.longitude - 0.001, vertex.latitude)
+                assertEquals(TurfJoins.inside(shifted, polygon), prepared.contains(shifted), "$shifted")
+            }
+        }
+    }
+
+    @Test
+    fun contains_multiPolygon() {
+        val multiPolygon = MultiPolygon(
+            listOf(
+                star(200, -5.0, -5.0, 1.0).coordinates,
+                star(300, -2.0, -4.0, 1.0).coordinates,
+                square.coordinates
+            )
+        )
+        val prepared = PreparedPolygon(multiPolygon)
+        val random = Random(7)
+        val points = DoubleArray(2 * 50000) { -2 + random.nextDouble() * 104 }
+        for (i in 0 until 20000) {
+            points[2 * i] = -6.5 + random.nextDouble() * 6
+            points[2 * i + 1] = -6.5 + random.nextDouble() * 4
+        }
+        val result = prepared.contains(points)
+        val expected = TurfJoins.inside(points, multiPolygon)
+        for (i in result.indices) {
+            assertEquals(expected[i], result[i])
+        }
+        assertTrue(result.count { it } > 1000)
+    }
+
+    @Test
+    fun contains_packedRings() {
+        val coordinates = doubleArrayOf(
+            0.0, 0.0, 10.0, 0.0, 10.0, 10.0, 0.0, 10.0,
+            2.0, 2.0, 2.0, 4.0, 4.0, 4.0, 4.0, 2.0
+        )
+        val prepared = PreparedPolygon(coordinates, intArrayOf(4, 8))
+        assertTrue(prepared.contains(5.0, 5.0))
+        assertFalse(prepared.contains(3.0, 3.0))
+        assertFalse(prepared.contains(11.0, 5.0))
+    }
+
+    @Test
+    fun contains_degeneratePolygons() {
+        assertFalse(PreparedPolygon(Polygon(listOf(emptyList()))).contains(0.0, 0.0))
+        val flat = PreparedPolygon(doubleArrayOf(0.0, 0.0, 1.0, 0.0, 2.0, 0.0), intArrayOf(3))
+        assertFalse(flat.contains(1.0, 0.0))
+        assertFailsWith<NoSuchElementException> {
+            PreparedPolygon(Polygon(listOf(emptyList()))).bbox
+        }
+    }
+
+    @Test
+    fun rejectsInvalidInput() {
+        assertFailsWith<IllegalArgumentException> {
+            PreparedPolygon(doubleArrayOf(1.0), intArrayOf(0))
+        }
+        assertFailsWith<TurfException> {
+            PreparedPolygon(doubleArrayOf(0.0, 0.0, 1.0, 1.0), intArrayOf(3))
+        }
+        assertFailsWith<TurfException> {
+            PreparedPolygon(square).contains(doubleArrayOf(0.0, 0.0, 1.0, 1.0), BooleanArray(1))
+        }
+    }
+
+    /**
+     * A star shaped polygon with [count] vertices around `(x, y)` and a hole in its middle.
+     */
+    private fun star(count: Int, x: Double, y: Double, radius: Double): Polygon {
+        val exterior = (0..count).map { i ->
+            val angle = 2 * PI * (i % count) / count
+            val r = radius * (if (i % 2 == 0) 1.0 else 0.6 + 0.3 * sin(7 * angle))
+            Point(x + r * cos(angle), y + r * sin(angle))
+        }
+        val hole = (0..16).map { i ->
+            val angle = -2 * PI * (i % 16) / 16
+            Point(x + 0.2 * radius * cos(angle), y + 0.2 * radius * sin(angle))
+        }
+        return Polygon(listOf(exterior, hole))
+    }
+}
@@ -1,5 +1,7 @@
 package com.trackasia.geojson.turf
 
+import com.trackasia.geojson.model.Point
+import com.trackasia.geojson.model.Polygon
 import kotlinx.serialization.json.Json
 import kotlin.test.assertEquals
 
@@ -17,5 +19,19 @@ object TestUtils {
         return readResourceFile(filename)
     }
 
+    fun square(x: Double, y: Double, size: Double): Polygon {
+        return Polygon(
+            listOf(
+                listOf(
+                    Point(x, y),
+                    Point(x + size, y),
+                    Point(x + size, y + size),
+                    Point(x, y + size),
+                    Point(x, y)
+                )
+            )
+        )
+    }
+
     const val DELTA: Double = 1E-10
 }
@@ -0,0 +1,109 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.Feature
+import com.trackasia.geojson.model.FeatureCollection
+import com.trackasia.geojson.model.LineString
+import com.trackasia.geojson.model.Point
+import com.trackasia.geojson.model.Polygon
+import kotlin.math.sin
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+class TileIndexTest {
+
+    @Test
+    fun getTile_projectsPointsToTilePixels() {
+        val index = TileIndex(FeatureCollection(Feature(Point(0.0, 0.0), id = "origin")))
+        val tile = index.getTile(0, 0, 0)!!
+        assertEquals(1, tile.features.size)
+        assertEquals("origin", tile.features[0].id)
+        assertEquals(Point(2048.0, 2048.0), tile.features[0].geometry)
+
+        // The point is on the corner of the four tiles of zoom 1, so it is in their buffers
+        assertEquals(Point(0.0, 0.0), index.getTile(1, 1, 1)!!.features[0].geometry)
+        assertEquals(Point(4096.0, 4096.0), index.getTile(1, 0, 0)!!.features[0].geometry)
+        assertEquals(Point(4096.0, 0.0), index.getTile(1, 0, 1)!!.features[0].geometry)
+        assertEquals(Point(4096.0, 4096.0), index.getTile(2, 1, 1)!!.features[0].geometry)
+        assertNull(index.getTile(2, 0, 0))
+
+        // Columns wrap, rows and zoom levels outside of the pyramid have no tile
+        assertEquals(tile, index.getTile(0, 5, 0))
+        assertNull(index.getTile(0, 0, 1))
+        assertNull(index.getTile(15, 0, 0))
+    }
+
+    @Test
+    fun getTile_clipsPolygonsToTileAndBuffer() {
+        val square = Polygon(
+            listOf(
+                listOf(
+                    Point(-10.0, -10.0),
+                    Point(10.0, -10.0),
+                    Point(10.0, 10.0),
+                    Point(-10.0, 10.0),
+                    Point(-10.0, -10.0)
+                )
+            )
+        )
+        val index = TileIndex(FeatureCollection(Feature(square)))
+
+        // A tile inside the square is covered up to its buffer
+        val inside = index.getTile(8, 128, 127)!!.features[0].geometry as Polygon
+        val ring = inside.coordinates[0]
+        assertEquals(-64.0, ring.minOf { it.longitude })
+        assertEquals(4160.0, ring.maxOf { it.longitude })
+        assertEquals(-64.0, ring.minOf { it.latitude })
+        assertEquals(4160.0, ring.maxOf { it.latitude })
+        assertEquals(ring.first(), ring.last())
+
+        // A tile on the edge is cut along it
+        val edge = index.getTile(4, 8, 7)!!.features[0].geometry as Polygon
+        assertEquals(-64.0, edge.coordinates[0].minOf { it.longitude })
+        assertTrue(edge.coordinates[0].maxOf { it.longitude } < 4096)
+
+        assertNull(index.getTile(4, 0, 0))
+    }
+
+    @Test
+    fun getTile_simplifiesPerZoom() {
+        // A wave with an amplitude of about ten meters, flattened at low zooms
+        val wave = LineString(List(101) { i -> Point(i * 0.001, 0.0001 * sin(i.toDouble())) })
+        val index = TileIndex(FeatureCollection(Feature(wave)))
+        val low = index.getTile(0, 0, 0)!!.features[0].geometry as LineString
+        assertEquals(2, low.coordinates.size)
+        val high = index.getTile(14, 8192, 8191)!!.features[0].geometry as LineString
+        assertTrue(high.coordinates.size > 15)
+    }
+
+    @Test
+    fun getTile_regeneratesEvictedTiles() {
+        val features = List(50) { i ->
+            Feature(
+                LineString(listOf(Point(i - 25.0, -20.0), Point(i - 20.0, 0.0), Point(i - 25.0, 20.0))),
+                id = i.toString()
+            )
+        }
+        val cached = TileIndex(FeatureCollection(features))
+        val evicting = TileIndex(FeatureCollection(features), maxCachedTiles = 2)
+        repeat(2) {
+            for (z in 0..5) {
+                for (x in 0 until (1 shl z)) {
+                    for (y in 0 until (1 shl z)) {
+                        assertEquals(cached.getTile(z, x, y), evicting.getTile(z, x, y))
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    fun init_validatesOptions() {
+        val features = FeatureCollection(emptyList())
+        assertNull(TileIndex(features).getTile(0, 0, 0))
+        assertFailsWith<IllegalArgumentException> { TileIndex(features, maxZoom = 25) }
+        assertFailsWith<IllegalArgumentException> { TileIndex(features, maxCachedTiles = 0) }
+    }
+}
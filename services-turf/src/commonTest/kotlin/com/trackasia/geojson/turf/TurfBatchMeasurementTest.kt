@@ -0,0 +1,161 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.Point
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+
+class TurfBatchMeasurementTest {
+
+    private val points = doubleArrayOf(
+        -75.343, 39.984,
+        -75.534, 39.123,
+        106.660172, 10.762622,
+        -180.0, 0.0,
+        0.0, 0.0,
+        179.5, -45.0,
+        -77.031669, 38.878605
+    )
+
+    @Test
+    fun distances_matchSingleDistance() {
+        val origin = Point(105.804817, 21.028511)
+        for (unit in listOf(TurfUnit.KILOMETERS, TurfUnit.MILES, TurfUnit.METERS)) {
+            val result = TurfBatchMeasurement.distances(origin, points, unit)
+            assertEquals(points.size / 2, result.size)
+            for (i in result.indices) {
+                val expected = TurfMeasurement.distance(origin, point(points, i), unit)
+                assertEquals(expected, result[i], expected * 1e-12 + 1e-9)
+            }
+        }
+    }
+
+    @Test
+    fun distanceMatrix_matchesSingleDistance() {
+        val origins = doubleArrayOf(-75.343, 39.984, 106.660172, 10.762622, 0.0, 0.0)
+        val result = TurfBatchMeasurement.distanceMatrix(origins, points)
+        val columns = points.size / 2
+        assertEquals(3 * columns, result.size)
+        for (row in 0 until 3) {
+            for (column in 0 until columns) {
+                val expected = TurfMeasurement.distance(point(origins, row), point(points, column))
+                assertEquals(expected, result[row * columns + column], expected * 1e-12 + 1e-9)
+            }
+        }
+    }
+
+    @Test
+    fun distanceMatrix_antipodalPoints() {
+        val result = TurfBatchMeasurement.distanceMatrix(
+            doubleArrayOf(0.0, 0.0, 90.0, 45.0),
+            doubleArrayOf(180.0, 0.0, -90.0, -45.0)
+        )
+        val halfCircumference = TurfConversion.radiansToLength(kotlin.math.PI)
+        assertEquals(halfCircumference, result[0], 1e-6)
+        assertEquals(halfCircumference, result[3], 1e-6)
+        assertTrue(result.none { value -> value.isNaN() })
+    }
+
+    @Test
+    fun distanceMatrix_writesIntoResult() {
+        val result = DoubleArray(points.size / 2 * points.size / 2)
+        val returned = TurfBatchMeasurement.distanceMatrix(points, points, TurfUnit.DEFAULT, result)
+        assertSame(result, returned)
+        val columns = points.size / 2
+        for (i in 0 until columns) {
+            assertEquals(0.0, result[i * columns + i], 1e-9)
+        }
+    }
+
+    @Test
+    fun distanceMatrix_largeMatrix() {
+        val origins = grid(300)
+        val destinations = grid(200)
+        val result = TurfBatchMeasurement.distanceMatrix(origins, destinations)
+        val columns = destinations.size / 2
+        for (row in 0 until origins.size / 2 step 37) {
+            for (column in 0 until columns step 11) {
+                val expected = TurfMeasurement.distance(point(origins, row), point(destinations, column))
+                assertEquals(expected, result[row * columns + column], expected * 1e-12 + 1e-9)
+            }
+        }
+    }
+
+    @Test
+    fun distanceMatrix_emptyInput() {
+        assertEquals(0, TurfBatchMeasurement.distanceMatrix(DoubleArray(0), points).size)
+        assertEquals(0, TurfBatchMeasurement.distances(Point(0.0, 0.0), DoubleArray(0)).size)
+    }
+
+    @Test
+    fun distanceMatrix_rejectsInvalidInput() {
+        assertFailsWith<IllegalArgumentException> {
+            TurfBatchMeasurement.distanceMatrix(doubleArrayOf(1.0), points)
+        }
+        assertFailsWith<TurfException> {
+            TurfBatchMeasurement.distanceMatrix(points, points, TurfUnit.DEFAULT, DoubleArray(3))
+        }
+    }
+
+    @Test
+    fun rhumbDistances_matchSingleDistance() {
+        val origin = Point(105.804817, 21.028511)
+        val result = TurfBatchMeasurement.rhumbDistances(origin, points, TurfUnit.MILES)
+        assertEquals(points.size / 2, result.size)
+        for (i in result.indices) {
+            val expected = TurfMeasurement.rhumbDistance(origin, point(points, i), TurfUnit.MILES)
+            assertEquals(expected, result[i], expected * 1e-12 + 1e-9)
+        }
+    }
+
+    @Test
+    fun rhumbBearings_matchSingleBearing() {
+        val origin = Point(-179.5, 12.0)
+        val result = DoubleArray(points.size / 2)
+        assertSame(result, TurfBatchMeasurement.rhumbBearings(origin, points, result))
+        for (i in result.indices) {
+            assertEquals(TurfMeasurement.rhumbBearing(origin, point(points, i)), result[i], 1e-12)
+        }
+    }
+
+    @Test
+    fun rhumbDestinations_matchSingleDestination() {
+        val origins = grid(50)
+        val distances = DoubleArray(50) { i -> 10.0 + i * 97.0 }
+        val bearings = DoubleArray(50) { i -> -180.0 + i * 7.3 }
+        val result = TurfBatchMeasurement.rhumbDestinations(origins, distances, bearings, TurfUnit.KILOMETERS)
+        for (i in 0 until 50) {
+            val expected = TurfMeasurement.rhumbDestination(
+                point(origins, i), distances[i], bearings[i], TurfUnit.KILOMETERS
+            )
+            assertEquals(expected.longitude, result[2 * i], 1e-12)
+            assertEquals(expected.latitude, result[2 * i + 1], 1e-12)
+            assertTrue(result[2 * i] >= -180 && result[2 * i] <= 180)
+        }
+    }
+
+    @Test
+    fun rhumbDestinations_rejectsInvalidInput() {
+        assertFailsWith<TurfException> {
+            TurfBatchMeasurement.rhumbDestinations(points, DoubleArray(1), DoubleArray(points.size / 2))
+        }
+        assertFailsWith<TurfException> {
+            TurfBatchMeasurement.rhumbDistances(Point(0.0, 0.0), points, TurfUnit.DEFAULT, DoubleArray(1))
+        }
+    }
+
+    private fun point(coordinates: DoubleArray, index: Int): Point {
+        return Point(coordinates[index * 2], coordinates[index * 2 + 1])
+    }
+
+    private fun grid(size: Int): DoubleArray {
+        val coordinates = DoubleArray(size * 2)
+        for (i in 0 until size) {
+            coordinates[i * 2] = -179.0 + (i * 7.3) % 358.0
+            coordinates[i * 2 + 1] = -89.0 + (i * 3.1) % 178.0
+        }
+        return coordinates
+    }
+}
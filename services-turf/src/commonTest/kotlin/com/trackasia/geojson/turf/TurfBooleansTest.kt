@@ -0,0 +1,166 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.GeometryCollection
+import com.trackasia.geojson.model.LineString
+import com.trackasia.geojson.model.MultiLineString
+import com.trackasia.geojson.model.MultiPoint
+import com.trackasia.geojson.model.MultiPolygon
+import com.trackasia.geojson.model.Point
+import com.trackasia.geojson.model.Polygon
+import com.trackasia.geojson.turf.TestUtils.square
+import kotlin.random.Random
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+class TurfBooleansTest {
+
+    private val square = square(0.0, 0.0, 10.0)
+
+    @Test
+    fun pointAndPolygon() {
+        val inside = Point(5.0, 5.0)
+        val onEdge = Point(10.0, 5.0)
+        val outside = Point(15.0, 5.0)
+
+        assertTrue(TurfBooleans.within(inside, square))
+        assertTrue(TurfBooleans.contains(square, inside))
+        assertFalse(TurfBooleans.touches(inside, square))
+        assertTrue(TurfBooleans.touches(onEdge, square))
+        assertFalse(TurfBooleans.within(onEdge, square))
+        assertTrue(TurfBooleans.intersects(onEdge, square))
+        assertTrue(TurfBooleans.disjoint(outside, square))
+
+        val scattered = MultiPoint(listOf(inside, outside))
+        assertTrue(TurfBooleans.crosses(scattered, square))
+        assertFalse(TurfBooleans.within(scattered, square))
+        assertFalse(TurfBooleans.crosses(MultiPoint(listOf(inside, Point(6.0, 6.0))), square))
+    }
+
+    @Test
+    fun pointAndLine() {
+        val line = line(0.0, 0.0, 10.0, 0.0)
+        assertTrue(TurfBooleans.within(Point(5.0, 0.0), line))
+        assertTrue(TurfBooleans.touches(Point(0.0, 0.0), line))
+        assertFalse(TurfBooleans.within(Point(0.0, 0.0), line))
+        assertTrue(TurfBooleans.disjoint(Point(5.0, 1.0), line))
+
+        // The end points of a closed line are not on its boundary
+        val ring = LineString(square.coordinates[0])
+        assertTrue(TurfBooleans.within(Point(0.0, 0.0), ring))
+    }
+
+    @Test
+    fun lineAndLine() {
+        val line = line(0.0, 0.0, 10.0, 0.0)
+        assertTrue(TurfBooleans.crosses(line(5.0, -5.0, 5.0, 5.0), line))
+        assertTrue(TurfBooleans.touches(line(5.0, 0.0, 5.0, 5.0), line))
+        assertTrue(TurfBooleans.touches(line(10.0, 0.0, 20.0, 5.0), line))
+        assertTrue(TurfBooleans.overlaps(line(5.0, 0.0, 15.0, 0.0), line))
+        assertFalse(TurfBooleans.crosses(line(5.0, 0.0, 15.0, 0.0), line))
+        assertTrue(TurfBooleans.within(line(2.0, 0.0, 8.0, 0.0), line))
+        assertTrue(TurfBooleans.contains(line, line(2.0, 0.0, 8.0, 0.0)))
+        assertTrue(TurfBooleans.within(line, line))
+        assertFalse(TurfBooleans.overlaps(line, line))
+        assertTrue(TurfBooleans.disjoint(line(0.0, 1.0, 10.0, 1.0), line))
+
+        // A line split into parts is within the same line
+        val parts = MultiLineString(
+            listOf(line(0.0, 0.0, 4.0, 0.0).coordinates, line(4.0, 0.0, 10.0, 0.0).coordinates)
+        )
+        assertTrue(TurfBooleans.within(parts, line))
+        assertTrue(TurfBooleans.within(line, parts))
+    }
+
+    @Test
+    fun lineAndPolygon() {
+        assertTrue(TurfBooleans.within(line(2.0, 2.0, 8.0, 8.0), square))
+        assertTrue(TurfBooleans.crosses(line(5.0, 5.0, 15.0, 5.0), square))
+        assertTrue(TurfBooleans.crosses(square, line(-5.0, 5.0, 15.0, 5.0)))
+        assertTrue(TurfBooleans.touches(line(10.0, 0.0, 10.0, 10.0), square))
+        assertTrue(TurfBooleans.touches(line(10.0, 5.0, 15.0, 5.0), square))
+        assertFalse(TurfBooleans.within(line(10.0, 0.0, 10.0, 10.0), square))
+        assertTrue(TurfBooleans.within(line(0.0, 0.0, 5.0, 5.0), square))
+        assertTrue(TurfBooleans.disjoint(line(11.0, 0.0, 11.0, 10.0), square))
+
+        // A line across the hole of a polygon is not within it
+        val donut = donut()
+        assertFalse(TurfBooleans.within(line(1.0, 5.0, 9.0, 5.0), donut))
+        assertTrue(TurfBooleans.within(line(1.0, 1.0, 9.0, 1.0), donut))
+        assertTrue(TurfBooleans.disjoint(line(4.5, 4.5, 5.5, 5.5), donut))
+    }
+
+    @Test
+    fun polygonAndPolygon() {
+        assertTrue(TurfBooleans.contains(square, square(2.0, 2.0, 3.0)))
+        assertTrue(TurfBooleans.within(square(2.0, 2.0, 3.0), square))
+        assertTrue(TurfBooleans.contains(square, square(0.0, 0.0, 5.0)))
+        assertTrue(TurfBooleans.overlaps(square, square(5.0, 5.0, 10.0)))
+        assertFalse(TurfBooleans.overlaps(square, square(2.0, 2.0, 3.0)))
+        assertTrue(TurfBooleans.touches(square, square(10.0, 0.0, 10.0)))
+        assertTrue(TurfBooleans.touches(square, square(10.0, 10.0, 10.0)))
+        assertFalse(TurfBooleans.intersects(square, square(10.5, 0.0, 10.0)))
+        assertTrue(TurfBooleans.within(square, square))
+        assertFalse(TurfBooleans.overlaps(square, square))
+
+        // The hole of the donut is filled by a square that only touches it
+        val donut = donut()
+        val plug = square(4.0, 4.0, 2.0)
+        assertTrue(TurfBooleans.touches(donut, plug))
+        assertFalse(TurfBooleans.contains(donut, plug))
+        assertFalse(TurfBooleans.contains(donut, square(3.0, 3.0, 4.0)))
+        assertTrue(TurfBooleans.overlaps(donut, square(3.0, 3.0, 4.0)))
+        assertFalse(TurfBooleans.contains(square(4.5, 4.5, 1.0), donut))
+        assertTrue(TurfBooleans.disjoint(square(4.5, 4.5, 1.0), donut))
+
+        val islands = MultiPolygon(
+            listOf(square(1.0, 1.0, 2.0).coordinates, square(6.0, 6.0, 2.0).coordinates)
+        )
+        assertTrue(TurfBooleans.within(islands, square))
+        assertTrue(TurfBooleans.within(islands, islands))
+        assertFalse(TurfBooleans.within(square, islands))
+    }
+
+    @Test
+    fun preparedMatchesUnprepared() {
+        val random = Random(46)
+        val region = PreparedGeometry(donut())
+        repeat(500) {
+            val x = random.nextDouble(-2.0, 12.0)
+            val y = random.nextDouble(-2.0, 12.0)
+            val other = when (it % 3) {
+                0 -> Point(x, y)
+                1 -> line(x, y, x + random.nextDouble(-4.0, 4.0), y + random.nextDouble(-4.0, 4.0))
+                else -> square(x, y, random.nextDouble(0.5, 4.0))
+            }
+            val geometry = region.geometry
+            assertEquals(TurfBooleans.intersects(geometry, other), region.intersects(other))
+            assertEquals(TurfBooleans.disjoint(geometry, other), region.disjoint(other))
+            assertEquals(TurfBooleans.contains(geometry, other), region.contains(other))
+            assertEquals(TurfBooleans.within(geometry, other), region.within(other))
+            assertEquals(TurfBooleans.crosses(geometry, other), region.crosses(other))
+            assertEquals(TurfBooleans.overlaps(geometry, other), region.overlaps(other))
+            assertEquals(TurfBooleans.touches(geometry, other), region.touches(other))
+            if (other is Point) {
+                val inside = TurfJoins.inside(other, region.geometry as Polygon)
+                assertEquals(inside, region.contains(other))
+            }
+        }
+    }
+
+    @Test
+    fun unsupportedGeometry() {
+        val collection = GeometryCollection(listOf(Point(0.0, 0.0)))
+        assertFailsWith<TurfException> { TurfBooleans.intersects(collection, square) }
+    }
+
+    private fun line(x1: Double, y1: Double, x2: Double, y2: Double): LineString {
+        return LineString(listOf(Point(x1, y1), Point(x2, y2)))
+    }
+
+    private fun donut(): Polygon {
+        return Polygon(square.coordinates + square(4.0, 4.0, 2.0).coordinates)
+    }
+}
@@ -1,16 +1,24 @@
 package com.trackasia.geojson.turf
 
+import kotlinx.serialization.json.JsonPrimitive
+import kotlin.math.PI
+import kotlin.math.cos
+import kotlin.math.sin
+import kotlin.random.Random
 import kotlin.test.assertEquals
+import kotlin.test.assertSame
 import kotlin.test.assertFalse
 import kotlin.test.assertNotNull
 import kotlin.test.assertTrue
 import kotlin.test.Test
 import com.trackasia.geojson.model.Feature
 import com.trackasia.geojson.model.FeatureCollection
+import com.trackasia.geojson.model.LineString
 import com.trackasia.geojson.model.MultiPolygon
 import com.trackasia.geojson.model.Point
 import com.trackasia.geojson.model.Polygon
 import com.trackasia.geojson.turf.TestUtils.loadJsonFixture
+import com.trackasia.geojson.turf.TestUtils.square
 import com.trackasia.geojson.turf.TurfJoins.inside
 import com.trackasia.geojson.turf.TurfJoins.pointsWithinPolygon
 
@@ -101,6 +109,38 @@ class TurfJoinsTest {
         )
     }
 
+    @Test
+    fun testPackedMultipolygonWithHole() {
+        val multiPolyHole = Feature.fromJson(loadJsonFixture(MULTIPOLY_WITH_HOLE_FIXTURE))
+        val points = doubleArrayOf(
+            -86.69208526611328, 36.20373274711739,
+            -86.72229766845702, 36.20258997094334,
+            -86.75079345703125, 36.18527313913089,
+            -86.75302505493164, 36.23015046460186,
+        )
+
+        val result = inside(points, multiPolyHole.geometry as MultiPolygon)
+
+        assertEquals(listOf(false, true, true, false), result.toList())
+    }
+
+    @Test
+    fun testPackedMatchesScalar() {
+        val polyHole = Feature.fromJson(loadJsonFixture(POLY_WITH_HOLE_FIXTURE))
+        val polygon = polyHole.geometry as Polygon
+        val points = DoubleArray(2 * 400)
+        for (i in 0 until 400) {
+            points[i * 2] = -86.80 + (i % 20) * 0.008
+            points[i * 2 + 1] = 36.15 + (i / 20) * 0.006
+        }
+
+        val result = inside(points, polygon)
+
+        for (i in 0 until 400) {
+            assertEquals(inside(Point(points[i * 2], points[i * 2 + 1]), polygon), result[i])
+        }
+    }
+
     @Test
     fun testInputPositions() {
         val ptInPoly = Point(-86.72229766845702, 36.20258997094334)
@@ -194,6 +234,88 @@ class TurfJoinsTest {
         ) // multiple points in multiple polygons
     }
 
+    @Test
+    fun pointsWithinPolygon_keepsFeatures() {
+        val square = Polygon(
+            listOf(
+                listOf(Point(0.0, 0.0), Point(10.0, 0.0), Point(10.0, 10.0), Point(0.0, 10.0), Point(0.0, 0.0))
+            )
+        )
+        val islands = MultiPolygon(
+            listOf(
+                listOf(listOf(Point(20.0, 0.0), Point(22.0, 0.0), Point(22.0, 2.0), Point(20.0, 0.0))),
+                listOf(listOf(Point(30.0, 0.0), Point(32.0, 0.0), Point(32.0, 2.0), Point(30.0, 0.0)))
+            )
+        )
+        val polygons = FeatureCollection(
+            listOf(Feature(square), Feature(islands), Feature(Point(5.0, 5.0)), Feature(square))
+        )
+        val points = FeatureCollection(
+            listOf(
+                Feature(Point(5.0, 5.0), properties = mutableMapOf("name" to JsonPrimitive("a")), id = "a"),
+                Feature(Point(50.0, 5.0), id = "b"),
+                Feature(Point(31.5, 0.5), id = "c"),
+                Feature(LineString(listOf(Point(1.0, 1.0), Point(2.0, 2.0))), id = "d"),
+                Feature(null, id = "e"),
+                Feature(Point(21.0, 1.5), id = "f")
+            )
+        )
+
+        val within = pointsWithinPolygon(points, polygons)
+        assertEquals(listOf("a", "c"), within.features.map { it.id })
+        assertSame(points.features[0], within.features[0])
+        assertEquals(JsonPrimitive("a"), within.features[0].properties?.get("name"))
+    }
+
+    @Test
+    fun pointsWithinPolygon_matchesInside() {
+        val random = Random(3)
+        val zones = (0 until 300).map { i ->
+            val x = (i % 20) * 5.0 + random.nextDouble()
+            val y = (i / 20) * 5.0 + random.nextDouble()
+            val ring = (0..12).map { k ->
+                val angle = 2 * PI * (k % 12) / 12
+                val r = if (k % 2 == 0) 3.0 else 1.5
+                Point(x + r * cos(angle), y + r * sin(angle))
+            }
+            Feature(Polygon(listOf(ring)))
+        }
+        val pings = (0 until 5000).map {
+            Feature(Point(random.nextDouble() * 100 - 3, random.nextDouble() * 75 - 3))
+        }
+
+        // Index the polygons and probe with the points, then the other way around
+        for ((points, polygons) in listOf(pings to zones, pings.take(100) to zones)) {
+            val expected = points.filter { point ->
+                polygons.any { zone -> inside(point.geometry as Point, zone.geometry as Polygon) }
+            }
+            val within = pointsWithinPolygon(FeatureCollection(points), FeatureCollection(polygons))
+            assertEquals(expected, within.features)
+        }
+    }
+
+    @Test
+    fun pointsWithinPolygon_overlappingMultiPolygon() {
+        // The parts overlap between 5 and 10, where points are inside both of them
+        val parts = listOf(square(0.0, 0.0, 10.0), square(5.0, 5.0, 10.0))
+        val multiPolygon = MultiPolygon.fromPolygons(parts)
+        val random = Random(43)
+        val pings = (0 until 200).map {
+            Feature(Point(random.nextDouble(16.0), random.nextDouble(16.0)))
+        }
+        val expected = pings.filter { inside(it.geometry as Point, multiPolygon) }
+        assertTrue(expected.any { ping -> inside(ping.geometry as Point, square(5.0, 5.0, 5.0)) })
+
+        // Index the polygons and probe with the points, then index the points and probe with the
+        // polygons, with and without preparing them
+        for ((count, copies) in listOf(200 to 1, 60 to 61, 2 to 3)) {
+            val points = FeatureCollection(pings.take(count))
+            val polygons = FeatureCollection(List(copies) { Feature(multiPolygon) })
+            val within = pointsWithinPolygon(points, polygons)
+            assertEquals(expected.filter { it in points.features }, within.features)
+        }
+    }
+
     companion object {
         private const val POLY_WITH_HOLE_FIXTURE = "turf-inside/poly-with-hole.geojson"
         private const val MULTIPOLY_WITH_HOLE_FIXTURE = "turf-inside/multipoly-with-hole.geojson"
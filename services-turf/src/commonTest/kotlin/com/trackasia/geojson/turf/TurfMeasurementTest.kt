@@ -2,6 +2,7 @@ package com.trackasia.geojson.turf
 
 import kotlinx.serialization.json.JsonPrimitive
 import kotlin.test.assertEquals
+import kotlin.test.assertFalse
 import kotlin.test.assertNotEquals
 import kotlin.test.assertNotNull
 import kotlin.test.assertTrue
@@ -9,6 +10,7 @@ import kotlin.test.Test
 import com.trackasia.geojson.model.BoundingBox
 import com.trackasia.geojson.model.Feature
 import com.trackasia.geojson.model.FeatureCollection
+import com.trackasia.geojson.model.GeoJson
 import com.trackasia.geojson.model.Geometry
 import com.trackasia.geojson.model.GeometryCollection
 import com.trackasia.geojson.model.LineString
@@ -25,14 +27,21 @@ import com.trackasia.geojson.turf.TurfMeasurement.bbox
 import com.trackasia.geojson.turf.TurfMeasurement.bboxPolygon
 import com.trackasia.geojson.turf.TurfMeasurement.bearing
 import com.trackasia.geojson.turf.TurfMeasurement.center
+import com.trackasia.geojson.turf.TurfMeasurement.centerOfMass
+import com.trackasia.geojson.turf.TurfMeasurement.centroid
 import com.trackasia.geojson.turf.TurfMeasurement.destination
 import com.trackasia.geojson.turf.TurfMeasurement.distance
 import com.trackasia.geojson.turf.TurfMeasurement.envelope
 import com.trackasia.geojson.turf.TurfMeasurement.length
 import com.trackasia.geojson.turf.TurfMeasurement.midpoint
+import com.trackasia.geojson.turf.TurfMeasurement.pointOnSurface
+import com.trackasia.geojson.turf.TurfMeasurement.rhumbBearing
+import com.trackasia.geojson.turf.TurfMeasurement.rhumbDestination
+import com.trackasia.geojson.turf.TurfMeasurement.rhumbDistance
 import com.trackasia.geojson.turf.TurfMeasurement.square
 import kotlin.math.roundToInt
 import kotlin.test.assertContentEquals
+import kotlin.test.assertFailsWith
 
 class TurfMeasurementTest {
 
@@ -51,6 +60,59 @@ class TurfMeasurementTest {
         assertNotNull(destination(pt1, dist, bear, TurfUnit.KILOMETERS))
     }
 
+    @Test
+    fun rhumbBearing() {
+        assertEquals(75.28061364784332, rhumbBearing(Point(-75.0, 45.0), Point(20.0, 60.0)), 1e-9)
+        assertEquals(-104.71938635215668, rhumbBearing(Point(20.0, 60.0), Point(-75.0, 45.0)), 1e-9)
+        assertEquals(90.0, rhumbBearing(Point(0.0, 30.0), Point(10.0, 30.0)), DELTA)
+        assertEquals(180.0, rhumbBearing(Point(10.0, 30.0), Point(10.0, 20.0)), DELTA)
+
+        // Crossing the antimeridian is shorter than going around the world
+        assertEquals(90.0, rhumbBearing(Point(179.0, 0.0), Point(-179.0, 0.0)), DELTA)
+        assertEquals(-90.0, rhumbBearing(Point(-179.0, 0.0), Point(179.0, 0.0)), DELTA)
+    }
+
+    @Test
+    fun rhumbDistance() {
+        // Turf's expected value of 97.129239 km, scaled to the radius of TurfUnit.KILOMETERS
+        val expected = 97.129239 * 6373.0 / 6371.0088
+        assertEquals(expected, rhumbDistance(Point(-75.343, 39.984), Point(-75.534, 39.123)), 1e-4)
+
+        // Along the equator and along a meridian, rhumb lines are great circles
+        val degree = TurfConversion.radiansToLength(kotlin.math.PI / 180, TurfUnit.METERS)
+        assertEquals(degree * 2, rhumbDistance(Point(179.0, 0.0), Point(-179.0, 0.0), TurfUnit.METERS), 1e-6)
+        assertEquals(
+            distance(Point(10.0, -20.0), Point(10.0, 40.0)),
+            rhumbDistance(Point(10.0, -20.0), Point(10.0, 40.0)),
+            1e-9
+        )
+        // Along a parallel, the length shrinks with the cosine of the latitude
+        assertEquals(
+            degree * 10 * kotlin.math.cos(kotlin.math.PI / 3),
+            rhumbDistance(Point(-5.0, 60.0), Point(5.0, 60.0), TurfUnit.METERS),
+            1e-6
+        )
+        assertTrue(rhumbDistance(Point(-75.0, 45.0), Point(20.0, 60.0)) > distance(Point(-75.0, 45.0), Point(20.0, 60.0)))
+    }
+
+    @Test
+    fun rhumbDestination() {
+        val origin = Point(-75.343, 39.984)
+        val target = Point(-75.534, 39.123)
+        val reached = rhumbDestination(origin, rhumbDistance(origin, target), rhumbBearing(origin, target))
+        assertEquals(target.longitude, reached.longitude, 1e-9)
+        assertEquals(target.latitude, reached.latitude, 1e-9)
+
+        // Crossing the antimeridian keeps the longitude in range
+        val east = rhumbDestination(Point(179.0, 10.0), 300.0, 90.0)
+        assertTrue(east.longitude < -178 && east.longitude > -178.5)
+        assertEquals(10.0, east.latitude, 1e-9)
+
+        // Going past the north pole comes back down
+        val north = rhumbDestination(Point(0.0, 89.0), 2.0 * 111.2, 0.0)
+        assertTrue(north.latitude < 90 && north.latitude > 88.9)
+    }
+
     //
     // Turf distance tests
     //
@@ -105,6 +167,41 @@ class TurfMeasurementTest {
         assertEquals(0.0, distance, DELTA)
     }
 
+    @Test
+    fun lineDistance_packedCoordinates() {
+        val coords = listOf(
+            Point(-77.031669, 38.878605),
+            Point(-77.029609, 38.881946),
+            Point(-77.020339, 38.884084),
+            Point(-77.025661, 38.885821),
+            Point(-77.021884, 38.889563),
+        )
+        val packed = doubleArrayOf(
+            0.0, 0.0,
+            -77.031669, 38.878605,
+            -77.029609, 38.881946,
+            -77.020339, 38.884084,
+            -77.025661, 38.885821,
+            -77.021884, 38.889563,
+        )
+        var expected = 0.0
+        for (i in 1 until coords.size) {
+            expected += distance(coords[i - 1], coords[i], TurfUnit.METERS)
+        }
+
+        assertEquals(expected, length(coords, TurfUnit.METERS), DELTA)
+        assertEquals(expected, length(packed, TurfUnit.METERS, 1, 6), DELTA)
+        assertEquals(expected / 1000, length(packed.copyOfRange(2, 12)), DELTA)
+        assertEquals(0.0, length(packed, TurfUnit.METERS, 3, 4))
+        assertEquals(0.0, length(DoubleArray(0)))
+        assertFailsWith(TurfException::class) {
+            length(packed, TurfUnit.METERS, 2, 7)
+        }
+        assertFailsWith(IllegalArgumentException::class) {
+            length(DoubleArray(3))
+        }
+    }
+
     @Test
     fun testLineDistanceWithGeometries() {
         val route1 = Feature.fromJson(loadJsonFixture(LINE_DISTANCE_ROUTE_ONE))
@@ -394,6 +491,37 @@ class TurfMeasurementTest {
         assertEquals(4.0, bbox[3], DELTA)
     }
 
+    @Test
+    fun bboxFromLargeFeatureCollection() {
+        val features = ArrayList<Feature>()
+        for (i in 0 until 50_000) {
+            val longitude = (i % 360) - 180.0
+            val latitude = (i % 170) - 85.0
+            features.add(
+                Feature(
+                    if (i % 2 == 0) {
+                        Point(longitude, latitude)
+                    } else {
+                        LineString(listOf(Point(longitude, latitude), Point(longitude / 2, latitude / 2)))
+                    }
+                )
+            )
+        }
+        features.add(Feature(null))
+        features[31_234] = Feature(
+            Polygon(listOf(listOf(Point(0.0, 0.0), Point(181.0, 0.0), Point(0.0, -89.0), Point(0.0, 0.0))))
+        )
+
+        assertContentEquals(
+            doubleArrayOf(-180.0, -89.0, 181.0, 84.0),
+            bbox(FeatureCollection(features))
+        )
+        assertContentEquals(
+            bbox(FeatureCollection(features.take(100))),
+            bbox(FeatureCollection(features.take(100)) as GeoJson)
+        )
+    }
+
     @Test
     fun bboxPolygonFromLineString() {
         // Create a LineString
@@ -568,6 +696,63 @@ class TurfMeasurementTest {
         assertEquals(BoundingBox(0.0, -2.5, 10.0, 7.5), sq2)
     }
 
+    @Test
+    fun square_acrossAntimeridian() {
+        assertEquals(BoundingBox(175.0, 0.0, -175.0, 10.0), square(BoundingBox(177.5, 0.0, -177.5, 10.0)))
+        assertEquals(BoundingBox(170.0, -5.0, -170.0, 15.0), square(BoundingBox(170.0, 0.0, -170.0, 10.0)))
+    }
+
+    @Test
+    fun bbox_wrapAntimeridian() {
+        val route = LineString(
+            listOf(
+                Point(139.7, 35.6),
+                Point(165.0, 45.0),
+                Point(-179.5, 50.0),
+                Point(-150.0, 52.0),
+                Point(-122.4, 37.8),
+            )
+        )
+        assertContentEquals(doubleArrayOf(-179.5, 35.6, 165.0, 52.0), bbox(route))
+        assertContentEquals(doubleArrayOf(139.7, 35.6, -122.4, 52.0), bbox(route, true))
+        assertContentEquals(bbox(route), bbox(route, false))
+
+        // Boxes that do not need to wrap are unchanged
+        val line = LineString(listOf(Point(-80.0, 0.0), Point(80.0, 10.0)))
+        assertContentEquals(bbox(line), bbox(line, true))
+
+        // The widest gap is found wherever it is
+        val spread = MultiPoint(listOf(Point(-170.0, 0.0), Point(-10.0, 1.0), Point(10.0, 2.0), Point(170.0, 3.0)))
+        assertContentEquals(doubleArrayOf(-10.0, 0.0, -170.0, 3.0), bbox(spread, true))
+
+        // Longitudes outside of -180 to 180 are normalized
+        val unwrapped = LineString(listOf(Point(170.0, 0.0), Point(190.0, 1.0)))
+        assertContentEquals(doubleArrayOf(170.0, 0.0, -170.0, 1.0), bbox(unwrapped, true))
+
+        val collection = FeatureCollection(listOf(Feature(route), Feature(null), Feature(Point(-130.0, 60.0))))
+        assertContentEquals(doubleArrayOf(139.7, 35.6, -122.4, 60.0), bbox(collection, true))
+        assertContentEquals(doubleArrayOf(139.7, 35.6, -122.4, 52.0), bbox(Feature(route), true))
+    }
+
+    @Test
+    fun envelope_wrapAntimeridian() {
+        val route = LineString(listOf(Point(170.0, -10.0), Point(-170.0, 10.0)))
+        val expected = Polygon(
+            listOf(
+                listOf(
+                    Point(170.0, -10.0),
+                    Point(190.0, -10.0),
+                    Point(190.0, 10.0),
+                    Point(170.0, 10.0),
+                    Point(170.0, -10.0)
+                )
+            )
+        )
+        assertEquals(expected, envelope(route, true))
+        assertEquals(expected.coordinates, (bboxPolygon(BoundingBox(170.0, -10.0, -170.0, 10.0)).geometry as Polygon).coordinates)
+        assertEquals(envelope(route), envelope(route, false))
+    }
+
     @Test
     fun areaPolygon() {
         val expected = loadJsonFixture(TURF_AREA_POLYGON_RESULT).toDouble()
@@ -624,6 +809,72 @@ class TurfMeasurementTest {
         )
     }
 
+    @Test
+    fun areaPackedCoordinates() {
+        val exterior = listOf(
+            Point(125.0, -15.0),
+            Point(113.0, -22.0),
+            Point(117.0, -37.0),
+            Point(130.0, -33.0),
+            Point(148.0, -39.0),
+            Point(154.0, -27.0),
+            Point(144.0, -15.0),
+            Point(125.0, -15.0),
+        )
+        val hole = listOf(
+            Point(130.0, -25.0),
+            Point(135.0, -25.0),
+            Point(135.0, -30.0),
+            Point(130.0, -25.0),
+        )
+        val polygon = Polygon(listOf(exterior, hole))
+        val packed = DoubleArray(2 * (exterior.size + hole.size))
+        (exterior + hole).forEachIndexed { i, point ->
+            packed[2 * i] = point.longitude
+            packed[2 * i + 1] = point.latitude
+        }
+
+        assertEquals(area(Polygon(listOf(exterior))), area(packed.copyOf(2 * exterior.size)))
+        assertEquals(area(polygon), area(packed, intArrayOf(exterior.size, exterior.size + hole.size)))
+        assertEquals(
+            area(polygon, EarthModel.WGS84),
+            area(packed, intArrayOf(exterior.size, exterior.size + hole.size), EarthModel.WGS84),
+            1e-3
+        )
+        assertEquals(0.0, area(DoubleArray(0)))
+        assertFailsWith(TurfException::class) {
+            area(packed, intArrayOf(exterior.size, exterior.size - 1))
+        }
+    }
+
+    @Test
+    fun areaLargeFeatureCollection() {
+        val features = List(10_000) { i ->
+            val x = (i % 100) * 0.1
+            val y = (i / 100) * 0.1
+            Feature(
+                Polygon(
+                    listOf(
+                        listOf(
+                            Point(x, y),
+                            Point(x + 0.05, y),
+                            Point(x + 0.05, y + 0.05),
+                            Point(x, y + 0.05),
+                            Point(x, y),
+                        )
+                    )
+                )
+            )
+        }
+        var expected = 0.0
+        for (feature in features) {
+            expected += area(feature)
+        }
+        val collection = FeatureCollection(features)
+        assertEquals(expected, area(collection), expected * 1e-12)
+        assertEquals(area(collection), area(collection, EarthModel.SPHERE))
+    }
+
     @Test
     fun centerFeature() {
         val expectedFeature = Feature(Point(133.5, -27.0))
@@ -688,6 +939,104 @@ class TurfMeasurementTest {
         }
     }
 
+    @Test
+    fun centroid() {
+        val square = Polygon(
+            listOf(listOf(Point(0.0, 0.0), Point(4.0, 0.0), Point(4.0, 4.0), Point(0.0, 4.0), Point(0.0, 0.0)))
+        )
+        assertEquals(Point(2.0, 2.0), centroid(square).geometry)
+        assertEquals(Point(1.0, 1.0), centroid(LineString(listOf(Point(0.0, 0.0), Point(2.0, 2.0)))).geometry)
+        assertEquals(
+            Point(1.0, 2.0),
+            centroid(FeatureCollection(listOf(Feature(Point(0.0, 0.0)), Feature(null), Feature(Point(2.0, 4.0))))).geometry
+        )
+        val feature = centroid(Feature(square), mapOf("name" to JsonPrimitive("square")), "id")
+        assertEquals("id", feature.id)
+        assertEquals("square", feature.getStringProperty("name"))
+
+        val packed = doubleArrayOf(0.0, 0.0, 4.0, 0.0, 4.0, 4.0, 0.0, 4.0, 0.0, 0.0)
+        assertContentEquals(doubleArrayOf(2.0, 2.0), centroid(packed))
+        assertFailsWith(TurfException::class) {
+            centroid(FeatureCollection(emptyList()))
+        }
+    }
+
+    @Test
+    fun centerOfMass() {
+        // An L shape, made of a 4 x 2 rectangle and a 2 x 2 square above its left half
+        val shape = listOf(
+            Point(0.0, 0.0), Point(4.0, 0.0), Point(4.0, 2.0), Point(2.0, 2.0),
+            Point(2.0, 4.0), Point(0.0, 4.0), Point(0.0, 0.0)
+        )
+        val expected = Point(10.0 / 6, 10.0 / 6)
+        val center = centerOfMass(Polygon(listOf(shape))).geometry as Point
+        assertEquals(expected.longitude, center.longitude, DELTA)
+        assertEquals(expected.latitude, center.latitude, DELTA)
+
+        // The orientation of the ring does not matter
+        val reversed = centerOfMass(Polygon(listOf(shape.reversed()))).geometry as Point
+        assertEquals(expected.longitude, reversed.longitude, DELTA)
+        assertEquals(expected.latitude, reversed.latitude, DELTA)
+
+        // A hole moves the center away from it
+        val square = listOf(Point(0.0, 0.0), Point(4.0, 0.0), Point(4.0, 4.0), Point(0.0, 4.0), Point(0.0, 0.0))
+        val hole = listOf(Point(2.0, 2.0), Point(2.0, 4.0), Point(4.0, 4.0), Point(4.0, 2.0), Point(2.0, 2.0))
+        val withHole = centerOfMass(Polygon(listOf(square, hole))).geometry as Point
+        assertEquals(expected.longitude, withHole.longitude, DELTA)
+        assertEquals(expected.latitude, withHole.latitude, DELTA)
+
+        // Polygons are weighted by their area
+        val small = listOf(Point(10.0, 0.0), Point(11.0, 0.0), Point(11.0, 1.0), Point(10.0, 1.0), Point(10.0, 0.0))
+        val multi = centerOfMass(MultiPolygon(listOf(listOf(square), listOf(small)))).geometry as Point
+        assertEquals((2.0 * 16 + 10.5) / 17, multi.longitude, DELTA)
+        assertEquals((2.0 * 16 + 0.5) / 17, multi.latitude, DELTA)
+
+        val packed = DoubleArray(2 * shape.size)
+        shape.forEachIndexed { i, point ->
+            packed[2 * i] = point.longitude
+            packed[2 * i + 1] = point.latitude
+        }
+        val result = DoubleArray(2)
+        centerOfMass(packed, intArrayOf(shape.size), result)
+        assertEquals(expected.longitude, result[0], DELTA)
+        assertEquals(expected.latitude, result[1], DELTA)
+
+        // Without area, the centroid is returned
+        assertEquals(Point(1.0, 1.0), centerOfMass(LineString(listOf(Point(0.0, 0.0), Point(2.0, 2.0)))).geometry)
+    }
+
+    @Test
+    fun pointOnSurface() {
+        // A U shape whose centroid and center of mass lie in the gap between its arms
+        val shape = Polygon(
+            listOf(
+                listOf(
+                    Point(0.0, 0.0), Point(6.0, 0.0), Point(6.0, 6.0), Point(4.0, 6.0), Point(4.0, 2.0),
+                    Point(2.0, 2.0), Point(2.0, 6.0), Point(0.0, 6.0), Point(0.0, 0.0)
+                )
+            )
+        )
+        assertFalse(TurfJoins.inside(centerOfMass(shape).geometry as Point, shape))
+        val point = pointOnSurface(shape).geometry as Point
+        assertTrue(TurfJoins.inside(point, shape))
+
+        val square = listOf(Point(0.0, 0.0), Point(4.0, 0.0), Point(4.0, 4.0), Point(0.0, 4.0), Point(0.0, 0.0))
+        val hole = listOf(Point(1.0, 1.0), Point(3.0, 1.0), Point(3.0, 3.0), Point(1.0, 3.0), Point(1.0, 1.0))
+        val donut = Polygon(listOf(square, hole))
+        assertTrue(TurfJoins.inside(pointOnSurface(donut).geometry as Point, donut))
+
+        val packed = doubleArrayOf(
+            0.0, 0.0, 4.0, 0.0, 4.0, 4.0, 0.0, 4.0, 0.0, 0.0,
+            1.0, 1.0, 3.0, 1.0, 3.0, 3.0, 1.0, 3.0, 1.0, 1.0,
+        )
+        val result = pointOnSurface(packed, intArrayOf(5, 10))
+        assertTrue(TurfJoins.inside(Point(result[0], result[1]), donut))
+
+        // Lines return the vertex closest to their centroid
+        val line = LineString(listOf(Point(0.0, 0.0), Point(1.0, 0.0), Point(10.0, 0.0)))
+        assertEquals(Point(1.0, 0.0), pointOnSurface(line).geometry)
+    }
+
     companion object {
         private const val LINE_DISTANCE_ROUTE_ONE = "turf-line-distance/route1.geojson"
         private const val LINE_DISTANCE_ROUTE_TWO = "turf-line-distance/route2.geojson"
@@ -0,0 +1,207 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.LineString
+import com.trackasia.geojson.model.MultiPolygon
+import com.trackasia.geojson.model.Point
+import com.trackasia.geojson.model.Polygon
+import com.trackasia.geojson.turf.TestUtils.square
+import kotlin.math.PI
+import kotlin.math.cos
+import kotlin.math.sin
+import kotlin.random.Random
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertTrue
+
+class TurfOverlayTest {
+
+    private val square = square(0.0, 0.0, 10.0)
+
+    private val shifted = square(5.0, 5.0, 10.0)
+
+    @Test
+    fun overlappingSquares() {
+        val union = TurfOverlay.union(square, shifted)
+        assertEquals(1, union.coordinates.size)
+        assertEquals(1, union.coordinates[0].size)
+        assertEquals(175.0, area(union), 1e-9)
+
+        val intersection = TurfOverlay.intersection(square, shifted)
+        assertEquals(1, intersection.coordinates.size)
+        assertEquals(25.0, area(intersection), 1e-9)
+        assertTrue(intersection.coordinates[0][0].contains(Point(5.0, 5.0)))
+
+        assertEquals(75.0, area(TurfOverlay.difference(square, shifted)), 1e-9)
+        assertEquals(75.0, area(TurfOverlay.difference(shifted, square)), 1e-9)
+        assertEquals(150.0, area(TurfOverlay.xor(square, shifted)), 1e-9)
+        assertEquals(2, TurfOverlay.xor(square, shifted).coordinates.size)
+    }
+
+    @Test
+    fun holesAndNesting() {
+        val inner = square(3.0, 3.0, 4.0)
+        val donut = TurfOverlay.difference(square, inner)
+        assertEquals(1, donut.coordinates.size)
+        assertEquals(2, donut.coordinates[0].size)
+        assertEquals(84.0, area(donut), 1e-9)
+        // Exterior rings are counterclockwise and holes clockwise
+        assertTrue(ringArea(donut.coordinates[0][0]) > 0)
+        assertTrue(ringArea(donut.coordinates[0][1]) < 0)
+
+        assertEquals(16.0, area(TurfOverlay.intersection(square, inner)), 1e-9)
+        assertEquals(100.0, area(TurfOverlay.union(square, inner)), 1e-9)
+        assertEquals(100.0, area(TurfOverlay.union(donut, inner)), 1e-9)
+        assertEquals(0, TurfOverlay.intersection(donut, inner).coordinates.size)
+
+        // An island inside the hole stays a separate polygon
+        val island = square(4.0, 4.0, 2.0)
+        val withIsland = TurfOverlay.union(donut, island)
+        assertEquals(2, withIsland.coordinates.size)
+        assertEquals(88.0, area(withIsland), 1e-9)
+    }
+
+    @Test
+    fun sharedEdgesAndDisjointInputs() {
+        val right = square(10.0, 0.0, 10.0)
+        val union = TurfOverlay.union(square, right)
+        assertEquals(1, union.coordinates.size)
+        assertEquals(200.0, area(union), 1e-9)
+        assertEquals(0.0, area(TurfOverlay.intersection(square, right)), 1e-9)
+        assertEquals(100.0, area(TurfOverlay.difference(square, right)), 1e-9)
+
+        val far = square(50.0, 50.0, 1.0)
+        assertEquals(2, TurfOverlay.union(square, far).coordinates.size)
+        assertEquals(0, TurfOverlay.intersection(square, far).coordinates.size)
+        assertEquals(100.0, area(TurfOverlay.difference(square, far)), 1e-9)
+
+        // Squares touching at a corner stay two rings, each counterclockwise
+        val corner = TurfOverlay.union(square, square(10.0, 10.0, 10.0))
+        assertEquals(2, corner.coordinates.size)
+        assertEquals(200.0, area(corner), 1e-9)
+        assertTrue(corner.coordinates.all { ringArea(it[0]) > 0 })
+
+        val empty = MultiPolygon(emptyList())
+        assertEquals(100.0, area(TurfOverlay.union(empty, square)), 1e-9)
+        assertEquals(0, TurfOverlay.intersection(square, empty).coordinates.size)
+    }
+
+    @Test
+    fun cascadedUnion() {
+        // A grid of overlapping squares dissolves into one square
+        val cells = ArrayList<Polygon>()
+        for (i in 0 until 20) {
+            for (j in 0 until 20) {
+                cells.add(square(i * 1.0, j * 1.0, 1.5))
+            }
+        }
+        cells.shuffle(Random(47))
+        val union = TurfOverlay.union(cells)
+        assertEquals(1, union.coordinates.size)
+        assertEquals(1, union.coordinates[0].size)
+        assertEquals(20.5 * 20.5, area(union), 1e-6)
+
+        // Random squares give the same area as adding them one by one
+        val random = Random(7)
+        val squares = List(200) {
+            val size = random.nextDouble(1.0, 6.0)
+            square(random.nextDouble(0.0, 50.0), random.nextDouble(0.0, 50.0), size)
+        }
+        var sequential = MultiPolygon(emptyList())
+        for (polygon in squares) {
+            sequential = TurfOverlay.union(sequential, polygon)
+        }
+        assertEquals(area(sequential), area(TurfOverlay.union(squares)), 1e-6)
+
+        assertEquals(0, TurfOverlay.union(emptyList()).coordinates.size)
+    }
+
+    @Test
+    fun rotatedShapes() {
+        val star = star(0.0, 0.0, 10.0, 4.0, 7)
+        val disc = star(2.0, 1.0, 6.0, 6.0, 32)
+        val union = area(TurfOverlay.union(star, disc))
+        val intersection = area(TurfOverlay.intersection(star, disc))
+        val difference = area(TurfOverlay.difference(star, disc))
+        val xor = area(TurfOverlay.xor(star, disc))
+        val starArea = ringArea(star.coordinates[0])
+        val discArea = ringArea(disc.coordinates[0])
+        assertEquals(starArea + discArea, union + intersection, 1e-9)
+        assertEquals(starArea, difference + intersection, 1e-9)
+        assertEquals(union - intersection, xor, 1e-9)
+    }
+
+    @Test
+    fun clockwiseAndUnclosedInputs() {
+        val clockwise = Polygon(listOf(square.coordinates[0].reversed()))
+        val open = Polygon(listOf(square(50.0, 50.0, 1.0).coordinates[0].dropLast(1)))
+        val results = listOf(
+            TurfOverlay.union(clockwise, MultiPolygon(emptyList())),
+            TurfOverlay.difference(clockwise, MultiPolygon(emptyList())),
+            TurfOverlay.union(clockwise, open),
+            TurfOverlay.xor(open, clockwise),
+            TurfOverlay.difference(clockwise, open),
+            TurfOverlay.union(listOf(clockwise)),
+            TurfOverlay.union(listOf(clockwise, open, square(-30.0, 0.0, 2.0)))
+        )
+        for (result in results) {
+            for (rings in result.coordinates) {
+                assertTrue(ringArea(rings[0]) > 0)
+                assertTrue(rings.all { ring -> ring.first() == ring.last() })
+            }
+        }
+        assertEquals(100.0, area(results[0]), 1e-9)
+        assertEquals(101.0, area(results[2]), 1e-9)
+        assertEquals(105.0, area(results[6]), 1e-9)
+    }
+
+    @Test
+    fun overlappingMultiPolygonParts() {
+        // The parts overlap on 5 x 10, which is covered once rather than cut out
+        val overlapping = MultiPolygon.fromPolygons(listOf(square, square(5.0, 0.0, 10.0)))
+        val empty = MultiPolygon(emptyList())
+        val union = TurfOverlay.union(overlapping, empty)
+        assertEquals(1, union.coordinates.size)
+        assertEquals(1, union.coordinates[0].size)
+        assertEquals(150.0, area(union), 1e-9)
+        assertEquals(150.0, area(TurfOverlay.union(listOf(overlapping))), 1e-9)
+        assertEquals(200.0, area(TurfOverlay.union(listOf(overlapping, shifted))), 1e-9)
+
+        assertEquals(200.0, area(TurfOverlay.union(overlapping, shifted)), 1e-9)
+        assertEquals(50.0, area(TurfOverlay.intersection(overlapping, shifted)), 1e-9)
+        assertEquals(100.0, area(TurfOverlay.difference(overlapping, shifted)), 1e-9)
+        assertEquals(50.0, area(TurfOverlay.difference(shifted, overlapping)), 1e-9)
+        assertEquals(150.0, area(TurfOverlay.xor(shifted, overlapping)), 1e-9)
+    }
+
+    @Test
+    fun unsupportedGeometry() {
+        val line = LineString(listOf(Point(0.0, 0.0), Point(1.0, 1.0)))
+        assertFailsWith<TurfException> { TurfOverlay.union(square, line) }
+    }
+
+    private fun area(multiPolygon: MultiPolygon): Double {
+        return multiPolygon.coordinates.sumOf { rings -> rings.sumOf { ring -> ringArea(ring) } }
+    }
+
+    /**
+     * Returns the planar signed area of a ring, positive when counterclockwise.
+     */
+    private fun ringArea(ring: List<Point>): Double {
+        var area = 0.0
+        for (i in 0 until ring.size - 1) {
+            area += ring[i].longitude * ring[i + 1].latitude -
+                    ring[i + 1].longitude * ring[i].latitude
+        }
+        return area / 2
+    }
+
+    private fun star(x: Double, y: Double, outer: Double, inner: Double, spikes: Int): Polygon {
+        val points = List(2 * spikes) { i ->
+            val radius = if (i % 2 == 0) outer else inner
+            val angle = i * PI / spikes
+            Point(x + radius * cos(angle), y + radius * sin(angle))
+        }
+        return Polygon(listOf(points + points[0]))
+    }
+}
@@ -0,0 +1,136 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.LineString
+import com.trackasia.geojson.model.MultiPoint
+import com.trackasia.geojson.model.Point
+import com.trackasia.geojson.model.Polygon
+import kotlin.random.Random
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+
+class TurfProjectionTest {
+
+    @Test
+    fun toMercator_matchesKnownValues() {
+        val meters = TurfProjection.toMercator(doubleArrayOf(0.0, 0.0, 180.0, 0.0, -74.5, 40.0))
+        assertEquals(0.0, meters[0], 1e-9)
+        assertEquals(0.0, meters[1], 1e-9)
+        assertEquals(20037508.342789244, meters[2], 1e-6)
+        assertEquals(-8293302.064098881, meters[4], 1e-6)
+        assertEquals(4865942.279503176, meters[5], 1e-6)
+
+        // The poles are clamped to the edge of the map
+        val pole = TurfProjection.toMercator(doubleArrayOf(0.0, 90.0))
+        assertEquals(20037508.342789244, pole[1], 1e-6)
+    }
+
+    @Test
+    fun conversions_roundTripInPlace() {
+        val random = Random(50)
+        val coordinates = DoubleArray(2 * 40000) { i ->
+            if (i % 2 == 0) random.nextDouble(-180.0, 180.0) else random.nextDouble(-85.0, 85.0)
+        }
+        val buffer = coordinates.copyOf()
+        assertSame(buffer, TurfProjection.toMercator(buffer, buffer))
+        TurfProjection.toWgs84(buffer, buffer)
+        assertContentEquals(coordinates, buffer, 1e-9)
+
+        TurfProjection.toTileCoordinates(buffer, 12, buffer)
+        TurfProjection.fromTileCoordinates(buffer, 12, buffer)
+        assertContentEquals(coordinates, buffer, 1e-9)
+
+        val tile = Tile(3, 5, 4)
+        TurfProjection.toTilePixels(buffer, tile, result = buffer)
+        TurfProjection.fromTilePixels(buffer, tile, result = buffer)
+        assertContentEquals(coordinates, buffer, 1e-9)
+    }
+
+    @Test
+    fun toTilePixels_matchesTileBounds() {
+        val tile = TurfProjection.tile(Point(-74.5, 40.0), 10)
+        assertEquals(Tile(300, 387, 10), tile)
+        val bounds = TurfProjection.tileBounds(tile)
+        val corners = doubleArrayOf(bounds.west, bounds.north, bounds.east, bounds.south)
+        val pixels = TurfProjection.toTilePixels(corners, tile, 512)
+        assertContentEquals(doubleArrayOf(0.0, 0.0, 512.0, 512.0), pixels, 1e-6)
+
+        assertEquals(Tile(0, 0, 0), TurfProjection.tile(Point(180.0, -90.0), 0))
+        assertEquals(Tile(3, 3, 2), TurfProjection.tile(Point(180.0, -90.0), 2))
+        assertFailsWith<IllegalArgumentException> { TurfProjection.tile(Point(0.0, 0.0), 31) }
+        assertFailsWith<TurfException> {
+            TurfProjection.toMercator(doubleArrayOf(0.0, 0.0), DoubleArray(1))
+        }
+    }
+
+    @Test
+    fun quadkey_roundTrips() {
+        assertEquals("", TurfProjection.quadkey(0, 0, 0))
+        assertEquals("213", TurfProjection.quadkey(3, 5, 3))
+        assertEquals("213", Tile(3, 5, 3).quadkey)
+        assertEquals(Tile(3, 5, 3), TurfProjection.quadkeyToTile("213"))
+        val random = Random(3)
+        repeat(100) {
+            val z = random.nextInt(0, 31)
+            val tile = Tile(random.nextInt(1 shl z), random.nextInt(1 shl z), z)
+            assertEquals(tile, TurfProjection.quadkeyToTile(tile.quadkey))
+        }
+        assertFailsWith<TurfException> { TurfProjection.quadkeyToTile("0124") }
+    }
+
+    @Test
+    fun tileCover_pointsAndLines() {
+        val points = MultiPoint(listOf(Point(-74.5, 40.0), Point(-74.5, 40.0), Point(100.0, -10.0)))
+        assertEquals(
+            listOf(Tile(300, 387, 10), Tile(796, 540, 10)),
+            TurfProjection.tileCover(points, 10)
+        )
+
+        // A diagonal crosses one tile per column and row it enters
+        val diagonal = LineString(listOf(Point(-179.0, 84.0), Point(-1.0, 1.0)))
+        val cover = TurfProjection.tileCover(diagonal, 2)
+        assertEquals(Tile(0, 0, 2), cover.first())
+        assertEquals(Tile(1, 1, 2), cover.last())
+        assertTrue(cover.size in 2..3)
+
+        // A horizontal line at zoom 4 crosses every column between its ends
+        val horizontal = LineString(listOf(Point(-170.0, 10.0), Point(170.0, 10.0)))
+        assertEquals((0..15).map { Tile(it, 7, 4) }, TurfProjection.tileCover(horizontal, 4))
+    }
+
+    @Test
+    fun tileCover_fillsPolygons() {
+        val frame = Polygon(
+            listOf(
+                listOf(
+                    Point(-100.0, -60.0),
+                    Point(100.0, -60.0),
+                    Point(100.0, 60.0),
+                    Point(-100.0, 60.0),
+                    Point(-100.0, -60.0)
+                )
+            )
+        )
+        val cover = TurfProjection.tileCover(frame, 3)
+        val northWest = TurfProjection.tile(Point(-100.0, 60.0), 3)
+        val southEast = TurfProjection.tile(Point(100.0, -60.0), 3)
+        val columns = northWest.x..southEast.x
+        val rows = northWest.y..southEast.y
+        assertEquals(rows.flatMap { y -> columns.map { x -> Tile(x, y, 3) } }, cover)
+
+        // A polygon inside a single tile covers only that tile
+        val small = Polygon(
+            listOf(listOf(Point(1.0, 1.0), Point(2.0, 1.0), Point(2.0, 2.0), Point(1.0, 1.0)))
+        )
+        assertEquals(listOf(Tile(16, 15, 5)), TurfProjection.tileCover(small, 5))
+    }
+
+    private fun assertContentEquals(expected: DoubleArray, actual: DoubleArray, delta: Double) {
+        assertEquals(expected.size, actual.size)
+        for (i in expected.indices) {
+            assertEquals(expected[i], actual[i], delta)
+        }
+    }
+}
@@ -1,13 +1,20 @@
 package com.trackasia.geojson.turf
 
 import kotlin.test.Test
+import com.trackasia.geojson.model.BoundingBox
 import com.trackasia.geojson.model.Feature
+import com.trackasia.geojson.model.LineString
+import com.trackasia.geojson.model.MultiPolygon
 import com.trackasia.geojson.model.Point
 import com.trackasia.geojson.model.Polygon
 import com.trackasia.geojson.turf.TestUtils.loadJsonFixture
+import com.trackasia.geojson.turf.TurfTransformation.bboxClip
 import com.trackasia.geojson.turf.TurfTransformation.circle
+import kotlin.test.assertContentEquals
 import kotlin.test.assertEquals
 import kotlin.test.assertFailsWith
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
 
 class TurfTransformationTest {
 
@@ -59,6 +66,102 @@ class TurfTransformationTest {
         }
     }
 
+    @Test
+    fun bboxClipLine() {
+        val box = BoundingBox(0.0, 0.0, 10.0, 10.0)
+        // In and out of the box twice
+        val line = LineString(
+            listOf(
+                Point(-5.0, 5.0),
+                Point(5.0, 5.0),
+                Point(5.0, 15.0),
+                Point(8.0, 5.0),
+                Point(15.0, 5.0)
+            )
+        )
+        val clipped = bboxClip(line, box)
+        assertEquals(
+            listOf(
+                listOf(Point(0.0, 5.0), Point(5.0, 5.0), Point(5.0, 10.0)),
+                listOf(Point(6.5, 10.0), Point(8.0, 5.0), Point(10.0, 5.0))
+            ),
+            clipped.coordinates
+        )
+
+        // Lines inside are kept as they are, lines outside are dropped
+        val inside = LineString(listOf(Point(1.0, 1.0), Point(9.0, 9.0)))
+        assertSame(inside.coordinates, bboxClip(inside, box).coordinates[0])
+        val outside = LineString(listOf(Point(11.0, 1.0), Point(11.0, 9.0)))
+        assertEquals(0, bboxClip(outside, box).coordinates.size)
+        assertEquals(1, bboxClip(outside, box, buffer = 2.0).coordinates.size)
+
+        // A diagonal that cuts a corner of the box
+        val packed = doubleArrayOf(-2.0, 8.0, 4.0, 14.0)
+        val parts = TurfTransformation.bboxClipLine(packed, box)
+        assertEquals(1, parts.size)
+        assertContentEquals(doubleArrayOf(0.0, 10.0, 0.0, 10.0), parts[0])
+        assertSame(packed, TurfTransformation.bboxClipLine(packed, box, buffer = 10.0)[0])
+    }
+
+    @Test
+    fun bboxClipPolygon() {
+        val box = BoundingBox(0.0, 0.0, 10.0, 10.0)
+        val hole = ring(-4.0, -4.0, -2.0, -2.0).reversed()
+        val square = Polygon(listOf(ring(-5.0, -5.0, 5.0, 5.0), hole))
+        val clipped = bboxClip(square, box)
+        // The hole is outside the box and dropped
+        assertEquals(1, clipped.coordinates.size)
+        val ring = clipped.coordinates[0]
+        assertEquals(ring.first(), ring.last())
+        assertEquals(25.0, planarArea(ring), 1e-9)
+        assertTrue(ring.all { it.longitude in 0.0..5.0 && it.latitude in 0.0..5.0 })
+
+        val packed = doubleArrayOf(2.0, 2.0, 20.0, 2.0, 2.0, 20.0, 2.0, 2.0)
+        val triangle = TurfTransformation.bboxClipRing(packed, box)
+        assertContentEquals(
+            doubleArrayOf(2.0, 2.0, 10.0, 2.0, 10.0, 10.0, 2.0, 10.0, 2.0, 2.0),
+            triangle
+        )
+        assertSame(packed, TurfTransformation.bboxClipRing(packed, box, buffer = 20.0))
+
+        // Polygons whose exterior ring is outside the box are dropped
+        val far = Polygon(listOf(ring(20.0, 20.0, 30.0, 30.0)))
+        assertEquals(0, bboxClip(far, box).coordinates.size)
+        val both = MultiPolygon(listOf(far.coordinates, square.coordinates))
+        assertEquals(1, bboxClip(both, box).coordinates.size)
+    }
+
+    @Test
+    fun bboxClip_rejectsAntimeridianBoxes() {
+        val box = BoundingBox(170.0, -10.0, -170.0, 10.0)
+        val line = LineString(listOf(Point(175.0, 0.0), Point(179.0, 0.0)))
+        assertFailsWith<TurfException> { bboxClip(line, box) }
+        val polygon = Polygon(listOf(ring(172.0, -2.0, 178.0, 2.0)))
+        assertFailsWith<TurfException> { bboxClip(polygon, box) }
+        assertFailsWith<TurfException> {
+            TurfTransformation.bboxClipRing(doubleArrayOf(175.0, 0.0, 179.0, 0.0, 175.0, 0.0), box)
+        }
+    }
+
+    private fun ring(west: Double, south: Double, east: Double, north: Double): List<Point> {
+        return listOf(
+            Point(west, south),
+            Point(east, south),
+            Point(east, north),
+            Point(west, north),
+            Point(west, south)
+        )
+    }
+
+    private fun planarArea(ring: List<Point>): Double {
+        var area = 0.0
+        for (i in 0 until ring.size - 1) {
+            area += ring[i].longitude * ring[i + 1].latitude -
+                ring[i + 1].longitude * ring[i].latitude
+        }
+        return area / 2
+    }
+
     companion object {
         private const val CIRCLE_IN = "turf-transformation/circle_in.json"
         private const val CIRCLE_OUT = "turf-transformation/circle_out.json"
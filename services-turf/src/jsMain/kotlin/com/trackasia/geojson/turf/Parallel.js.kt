@@ -0,0 +1,7 @@
+package com.trackasia.geojson.turf
+
+internal actual fun parallelFor(size: Int, grain: Int, action: (from: Int, to: Int) -> Unit) {
+    if (size > 0) {
+        action(0, size)
+    }
+}
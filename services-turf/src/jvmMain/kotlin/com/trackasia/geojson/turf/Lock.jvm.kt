@@ -0,0 +1,18 @@
+package com.trackasia.geojson.turf
+
+import java.util.concurrent.locks.ReentrantLock
+
+internal actual fun newLock(): Lock = JvmLock()
+
+private class JvmLock : Lock {
+
+    private val lock = ReentrantLock()
+
+    override fun lock() {
+        lock.lock()
+    }
+
+    override fun unlock() {
+        lock.unlock()
+    }
+}
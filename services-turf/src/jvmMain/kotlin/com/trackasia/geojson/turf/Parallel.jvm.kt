@@ -0,0 +1,33 @@
+package com.trackasia.geojson.turf
+
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.RecursiveAction
+
+internal actual fun parallelFor(size: Int, grain: Int, action: (from: Int, to: Int) -> Unit) {
+    if (size <= 0) {
+        return
+    }
+    val pool = ForkJoinPool.commonPool()
+    if (size <= grain || pool.parallelism <= 1) {
+        action(0, size)
+    } else {
+        pool.invoke(RangeTask(0, size, maxOf(1, grain), action))
+    }
+}
+
+private class RangeTask(
+    private val from: Int,
+    private val to: Int,
+    private val grain: Int,
+    private val action: (Int, Int) -> Unit,
+) : RecursiveAction() {
+
+    override fun compute() {
+        if (to - from <= grain) {
+            action(from, to)
+        } else {
+            val middle = (from + to) ushr 1
+            invokeAll(RangeTask(from, middle, grain, action), RangeTask(middle, to, grain, action))
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.trackasia.geojson.turf
+
+internal actual fun haversineRow(
+    from: HaversineTerms,
+    row: Int,
+    to: HaversineTerms,
+    start: Int,
+    end: Int,
+    factor: Double,
+    result: DoubleArray,
+    offset: Int
+) {
+    if (TurfVector.enabled && end - start >= TurfVector.lanes) {
+        VectorKernels.haversineRow(from, row, to, start, end, factor, result, offset)
+    } else {
+        from.haversineRow(row, to, start, end, factor, result, offset)
+    }
+}
+
+internal actual fun ringCrossings(x: Double, y: Double, ring: RingEdges): Int {
+    return if (TurfVector.enabled && ring.size >= TurfVector.lanes) {
+        VectorKernels.crossings(x, y, ring)
+    } else {
+        ring.crossings(x, y)
+    }
+}
+
+/**
+ * Decides once whether the SIMD kernels in [VectorKernels] can be used.
+ *
+ * The kernels require the `jdk.incubator.vector` module, which has to be added explicitly with
+ * `--add-modules jdk.incubator.vector`, and a CPU with at least two double lanes. They can be
+ * turned off with the `trackasia.turf.vector=false` system property, e.g. to compare against the
+ * scalar code.
+ */
+internal object TurfVector {
+
+    private const val PROPERTY = "trackasia.turf.vector"
+
+    /**
+     * Number of doubles processed per vector operation, or 1 when the kernels are disabled.
+     */
+    val lanes: Int = detectLanes()
+
+    val enabled: Boolean = lanes > 1
+
+    private fun detectLanes(): Int {
+        return try {
+            if (System.getProperty(PROPERTY, "true").toBoolean() &&
+                ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent
+            ) {
+                VectorKernels.lanes
+            } else {
+                1
+            }
+        } catch (e: LinkageError) {
+            1
+        } catch (e: SecurityException) {
+            1
+        }
+    }
+}
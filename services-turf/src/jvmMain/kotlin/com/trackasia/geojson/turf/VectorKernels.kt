@@ -0,0 +1,88 @@
+package com.trackasia.geojson.turf
+
+import jdk.incubator.vector.DoubleVector
+import jdk.incubator.vector.VectorOperators
+import jdk.incubator.vector.VectorSpecies
+
+/**
+ * SIMD kernels used by [TurfVector]. This is the only class referencing the
+ * `jdk.incubator.vector` module; it must not be loaded unless the module is present.
+ */
+internal object VectorKernels {
+
+    private val SPECIES: VectorSpecies<Double> = DoubleVector.SPECIES_PREFERRED
+
+    /**
+     * Number of doubles processed per vector operation.
+     */
+    val lanes: Int = SPECIES.length()
+
+    /**
+     * Writes the distances from origin [row] of [from] to the destinations
+     * `start until end` of [to] into [result], starting at `offset + start`.
+     */
+    fun haversineRow(
+        from: HaversineTerms,
+        row: Int,
+        to: HaversineTerms,
+        start: Int,
+        end: Int,
+        factor: Double,
+        result: DoubleArray,
+        offset: Int
+    ) {
+        val sinLatA = from.sinHalfLat[row]
+        val cosLatA = from.cosHalfLat[row]
+        val sinLonA = from.sinHalfLon[row]
+        val cosLonA = from.cosHalfLon[row]
+        val cosA = from.cosLat[row]
+        val scale = 2 * factor
+
+        var i = start
+        val upper = start + SPECIES.loopBound(end - start)
+        while (i < upper) {
+            val sinHalfDifLat = DoubleVector.fromArray(SPECIES, to.sinHalfLat, i).mul(cosLatA)
+                .sub(DoubleVector.fromArray(SPECIES, to.cosHalfLat, i).mul(sinLatA))
+            val sinHalfDifLon = DoubleVector.fromArray(SPECIES, to.sinHalfLon, i).mul(cosLonA)
+                .sub(DoubleVector.fromArray(SPECIES, to.cosHalfLon, i).mul(sinLonA))
+            val value = sinHalfDifLat.mul(sinHalfDifLat)
+                .add(sinHalfDifLon.mul(sinHalfDifLon).mul(cosA).mul(DoubleVector.fromArray(SPECIES, to.cosLat, i)))
+                .min(1.0)
+            val complement = DoubleVector.broadcast(SPECIES, 1.0).sub(value)
+            value.sqrt()
+                .lanewise(VectorOperators.ATAN2, complement.sqrt())
+                .mul(scale)
+                .intoArray(result, offset + i)
+            i += lanes
+        }
+        from.haversineRow(row, to, i, end, factor, result, offset)
+    }
+
+    /**
+     * Counts the edges of [ring] crossed by a ray cast from the point in the positive x direction.
+     */
+    fun crossings(x: Double, y: Double, ring: RingEdges): Int {
+        val size = ring.size
+        var count = 0
+        var k = 0
+        val upper = SPECIES.loopBound(size)
+        while (k < upper) {
+            val yi = DoubleVector.fromArray(SPECIES, ring.yi, k)
+            val yj = DoubleVector.fromArray(SPECIES, ring.yj, k)
+            val straddles = yi.compare(VectorOperators.GT, y)
+                .eq(yj.compare(VectorOperators.GT, y))
+                .not()
+            if (straddles.anyTrue()) {
+                val xi = DoubleVector.fromArray(SPECIES, ring.xi, k)
+                val xj = DoubleVector.fromArray(SPECIES, ring.xj, k)
+                val intersection = xj.sub(xi)
+                    .mul(DoubleVector.broadcast(SPECIES, y).sub(yi))
+                    .div(yj.sub(yi))
+                    .add(xi)
+                count += intersection.compare(VectorOperators.GT, x).and(straddles).trueCount()
+            }
+            k += lanes
+        }
+        return count + ring.crossings(x, y, k, size)
+    }
+}
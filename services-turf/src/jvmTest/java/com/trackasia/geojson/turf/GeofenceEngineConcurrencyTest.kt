@@ -0,0 +1,71 @@
+package com.trackasia.geojson.turf
+
+import com.trackasia.geojson.model.Feature
+import com.trackasia.geojson.model.FeatureCollection
+import com.trackasia.geojson.model.Point
+import com.trackasia.geojson.turf.GeofenceEvent.Type.ENTER
+import com.trackasia.geojson.turf.GeofenceEvent.Type.EXIT
+import com.trackasia.geojson.turf.TestUtils.square
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+class GeofenceEngineConcurrencyTest {
+
+    private val fences = FeatureCollection(
+        listOf(
+            Feature(square(0.0, 0.0, 10.0), id = "depot"),
+            Feature(square(5.0, 5.0, 10.0), id = "yard")
+        )
+    )
+
+    @Test
+    fun update_fromManyThreads() {
+        val engine = GeofenceEngine(fences, stripeCount = 4)
+        val threads = 8
+        val objectsPerThread = 2000
+        val enters = AtomicInteger()
+        val exits = AtomicInteger()
+        val start = CountDownLatch(1)
+        val executor = Executors.newFixedThreadPool(threads)
+        val tasks = List(threads) { thread ->
+            executor.submit {
+                start.await()
+                // Every object enters both fences and leaves the depot, even objects leave both
+                val path = listOf(Point(1.0, 1.0), Point(7.0, 7.0), Point(12.0, 12.0))
+                for ((step, point) in (path + Point(50.0, 50.0)).withIndex()) {
+                    for (i in 0 until objectsPerThread) {
+                        val objectId = (thread * objectsPerThread + i).toLong()
+                        if (step == path.size && objectId % 2 != 0L) {
+                            continue
+                        }
+                        for (event in engine.update(objectId, point, step.toLong())) {
+                            when (event.type) {
+                                ENTER -> enters.incrementAndGet()
+                                EXIT -> exits.incrementAndGet()
+                                else -> Unit
+                            }
+                        }
+                        // An update older than the accepted one is ignored
+                        assertTrue(engine.update(objectId, Point(1.0, 1.0), -1).isEmpty())
+                    }
+                }
+            }
+        }
+        start.countDown()
+        // Rethrows the assertion errors of the tasks
+        tasks.forEach { it.get(1, TimeUnit.MINUTES) }
+        executor.shutdown()
+
+        val objects = threads * objectsPerThread
+        assertEquals(2 * objects, enters.get())
+        assertEquals(objects + objects / 2, exits.get())
+        assertEquals(objects / 2, engine.insideCount)
+        assertEquals(listOf(fences.features[1]), engine.fencesOf(1))
+        assertEquals(emptyList(), engine.fencesOf(2))
+    }
+}
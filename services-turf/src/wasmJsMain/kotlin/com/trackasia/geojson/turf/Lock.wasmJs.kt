@@ -0,0 +1,3 @@
+package com.trackasia.geojson.turf
+
+internal actual fun newLock(): Lock = NoOpLock